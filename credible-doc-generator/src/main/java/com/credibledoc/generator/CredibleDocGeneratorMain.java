@@ -12,6 +12,8 @@ import com.credibledoc.substitution.doc.module.substitution.launching.LaunchingU
 import com.credibledoc.substitution.doc.module.substitution.report.UmlDiagramType;
 import com.credibledoc.substitution.reporting.context.ReportingContext;
 import com.credibledoc.substitution.reporting.replacement.ReplacementService;
+import com.credibledoc.substitution.reporting.report.state.ReportStateService;
+import com.credibledoc.substitution.reporting.reportdocument.ReportDocumentService;
 import com.credibledoc.substitution.reporting.reportdocument.ReportDocumentType;
 import com.credibledoc.substitution.reporting.reportdocument.creator.ReportDocumentCreator;
 import com.credibledoc.substitution.reporting.reportdocument.creator.ReportDocumentCreatorService;
@@ -99,25 +101,31 @@ public class CredibleDocGeneratorMain {
             "Templates number: {}", templateResources.size());
         List<ReportDocumentCreator> reportDocumentCreators = Arrays.asList(launchingUmlReportService,
             activityUmlReportService, modulesActivityUmlReportService);
-        for (ReportDocumentCreator reportDocumentCreator : reportDocumentCreators) {
-            CombinerContext combinerContext = new CombinerContext().init();
-            EnricherContext enricherContext = new EnricherContext().init();
-            ReportingContext reportingContext = new ReportingContext().init();
-            combinerContext.getTacticRepository().getTactics().add(substitutionTactic);
-            reportDocumentCreatorService
-                .addReportDocumentCreators(Collections.singletonList(reportDocumentCreator), reportingContext);
-            reportDocumentCreatorService.createReportDocuments(combinerContext, reportingContext, substitutionContext, enricherContext, templateResources);
-            List<Class<? extends ReportDocumentType>> reportDocumentTypes = Collections.singletonList(UmlDiagramType.class);
-            VisualizerService.getInstance().createReports(reportDocumentTypes, combinerContext, reportingContext, enricherContext);
-        }
+        CombinerContext combinerContext = new CombinerContext().init();
+        EnricherContext enricherContext = new EnricherContext().init();
+        ReportingContext reportingContext = new ReportingContext().init();
+        combinerContext.getTacticRepository().getTactics().add(substitutionTactic);
+        // all creators share the contexts, so every log file is read once for all of them
+        reportDocumentCreatorService.addReportDocumentCreators(reportDocumentCreators, reportingContext);
+        reportDocumentCreatorService.createReportDocuments(combinerContext, reportingContext, substitutionContext, enricherContext, templateResources);
+        ReportStateService reportStateService = ReportStateService.getInstance();
+        reportStateService.load(reportingContext, substitutionContext, enricherContext);
+        List<Class<? extends ReportDocumentType>> reportDocumentTypes = Collections.singletonList(UmlDiagramType.class);
+        VisualizerService.getInstance().createReports(reportDocumentTypes, combinerContext, reportingContext, enricherContext);
+        reportStateService.save(reportingContext, substitutionContext, enricherContext);
         log.info("Templates placeholders will be substituted with the generated content. " +
             "Templates number: {}", templateResources.size());
-        for (TemplateResource templateResource : templateResources) {
-            replacementService.insertContentIntoTemplate(templateResource, substitutionContext);
-        }
-        if (watchChanges) {
-            TrackingService trackingService = new TrackingService(substitutionContext);
-            trackingService.track();
+        try {
+            for (TemplateResource templateResource : templateResources) {
+                replacementService.insertContentIntoTemplate(templateResource, substitutionContext);
+            }
+            if (watchChanges) {
+                TrackingService trackingService = new TrackingService(substitutionContext);
+                trackingService.track();
+            }
+        } finally {
+            // the report documents are finished, their temporary files can be deleted
+            ReportDocumentService.getInstance().closeCacheLines(reportingContext);
         }
     }
 }
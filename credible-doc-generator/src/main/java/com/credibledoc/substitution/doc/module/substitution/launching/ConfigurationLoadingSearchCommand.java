@@ -1,19 +1,13 @@
 package com.credibledoc.substitution.doc.module.substitution.launching;
 
-import com.credibledoc.combiner.log.buffered.LogBufferedReader;
+import com.credibledoc.enricher.searchcommand.DeclarativeSearchCommand;
 import com.credibledoc.substitution.core.configuration.ConfigurationService;
-import com.credibledoc.enricher.printable.Printable;
-import com.credibledoc.enricher.searchcommand.SearchCommand;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
-
 @Service
-public class ConfigurationLoadingSearchCommand implements SearchCommand {
+public class ConfigurationLoadingSearchCommand extends DeclarativeSearchCommand {
 
-    @Override
-    public boolean isApplicable(Printable printable,
-                                List<String> multiLine, LogBufferedReader logBufferedReader) {
-        return multiLine.get(0).contains(ConfigurationService.PROPERTIES_LOADED_BY_CLASS_LOADER_FROM_THE_RESOURCE);
+    public ConfigurationLoadingSearchCommand() {
+        getIncludedKeywords().add(ConfigurationService.PROPERTIES_LOADED_BY_CLASS_LOADER_FROM_THE_RESOURCE);
     }
 }
@@ -1,19 +1,13 @@
 package com.credibledoc.substitution.doc.module.substitution.launching;
 
-import com.credibledoc.combiner.log.buffered.LogBufferedReader;
-import com.credibledoc.enricher.printable.Printable;
-import com.credibledoc.enricher.searchcommand.SearchCommand;
+import com.credibledoc.enricher.searchcommand.DeclarativeSearchCommand;
 import com.credibledoc.substitution.reporting.replacement.ReplacementService;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
-
 @Service
-public class ContentReplacedSearchCommand implements SearchCommand {
+public class ContentReplacedSearchCommand extends DeclarativeSearchCommand {
 
-    @Override
-    public boolean isApplicable(Printable printable,
-                                List<String> multiLine, LogBufferedReader logBufferedReader) {
-        return multiLine.get(0).contains(ReplacementService.CONTENT_REPLACED);
+    public ContentReplacedSearchCommand() {
+        getIncludedKeywords().add(ReplacementService.CONTENT_REPLACED);
     }
 }
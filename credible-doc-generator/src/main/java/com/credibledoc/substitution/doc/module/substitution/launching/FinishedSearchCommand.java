@@ -1,19 +1,13 @@
 package com.credibledoc.substitution.doc.module.substitution.launching;
 
-import com.credibledoc.combiner.log.buffered.LogBufferedReader;
+import com.credibledoc.enricher.searchcommand.DeclarativeSearchCommand;
 import com.credibledoc.generator.CredibleDocGeneratorMain;
-import com.credibledoc.enricher.printable.Printable;
-import com.credibledoc.enricher.searchcommand.SearchCommand;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
-
 @Service
-public class FinishedSearchCommand implements SearchCommand {
+public class FinishedSearchCommand extends DeclarativeSearchCommand {
 
-    @Override
-    public boolean isApplicable(Printable printable, List<String> multiLine,
-                                LogBufferedReader logBufferedReader) {
-        return multiLine.get(0).contains(CredibleDocGeneratorMain.APPLICATION_SUBSTITUTION_DOC_FINISHED);
+    public FinishedSearchCommand() {
+        getIncludedKeywords().add(CredibleDocGeneratorMain.APPLICATION_SUBSTITUTION_DOC_FINISHED);
     }
 }
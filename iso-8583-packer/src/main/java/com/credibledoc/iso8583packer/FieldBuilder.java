@@ -13,6 +13,9 @@ import com.credibledoc.iso8583packer.message.MsgFieldType;
 import com.credibledoc.iso8583packer.message.MsgValue;
 import com.credibledoc.iso8583packer.navigator.Navigator;
 import com.credibledoc.iso8583packer.navigator.NavigatorService;
+import com.credibledoc.iso8583packer.plan.CodecPlan;
+import com.credibledoc.iso8583packer.plan.CodecPlanService;
+import com.credibledoc.iso8583packer.plan.FieldCodec;
 import com.credibledoc.iso8583packer.stringer.Stringer;
 import com.credibledoc.iso8583packer.tag.TagPacker;
 import com.credibledoc.iso8583packer.validator.Validator;
@@ -40,6 +43,9 @@ import java.util.List;
  * <pre>
  *     FieldBuilder fieldBuilder = FieldBuilder.builder(MsgFieldType.MSG).defineName("msg");
  * </pre>
+ * <p>
+ * The builder is not thread-safe. The defined structure can be shared between threads after
+ * the {@link #freeze()} method call.
  *
  * @author Kyrylo Semenko
  */
@@ -202,7 +208,8 @@ public class FieldBuilder {
 
     /**
      * Call the {@link Validator#validateStructure(MsgField)} method
-     * with the current {@link #msgField} as argument.
+     * with the current {@link #msgField} as argument and index children of the whole structure,
+     * see the {@link Navigator#indexChildren(MsgField)} method.
      * 
      * @return The current instance of {@link FieldBuilder} with {@link #msgField} in its context.
      */
@@ -211,6 +218,7 @@ public class FieldBuilder {
             MsgField currentMsgField = msgField;
             jumpToRoot();
             validator.validateStructure(msgField);
+            navigator.indexChildren(msgField);
             msgField = currentMsgField;
             return this;
         } catch (Exception e) {
@@ -220,6 +228,44 @@ public class FieldBuilder {
         }
     }
 
+    /**
+     * Validate the whole structure by the {@link #validateStructure()} method and compile it to
+     * an immutable {@link CodecPlan}. The plan can be used for faster packing and unpacking,
+     * see the {@link ValueHolder#newInstance(CodecPlan)} method.
+     * <p>
+     * The plan is a snapshot of the structure, please compile it again after the structure changes.
+     *
+     * @return The compiled structure from its root.
+     */
+    public CodecPlan compile() {
+        validateStructure();
+        return CodecPlanService.getInstance().compile(navigator.findRoot(msgField));
+    }
+
+    /**
+     * Compile the whole structure by the {@link #compile()} method and make all its {@link MsgField}s immutable,
+     * see the {@link MsgField#freeze()} method. The builder cannot change the frozen structure anymore.
+     * <p>
+     * The frozen structure and the returned plan can be shared between threads. Every thread should pack and
+     * unpack its own {@link com.credibledoc.iso8583packer.message.IsoMsg} or {@link ValueHolder} instances,
+     * for example from a {@link com.credibledoc.iso8583packer.message.IsoMsgPool}:
+     * <pre>
+     *     CodecPlan codecPlan = fieldBuilder.freeze();
+     *     IsoMsgPool isoMsgPool = new IsoMsgPool(codecPlan, 64);
+     *     // in every worker thread
+     *     IsoMsg isoMsg = isoMsgPool.acquire();
+     * </pre>
+     *
+     * @return The compiled structure from its root.
+     */
+    public CodecPlan freeze() {
+        CodecPlan codecPlan = compile();
+        for (FieldCodec fieldCodec : codecPlan.getFieldCodecs()) {
+            fieldCodec.getMsgField().freeze();
+        }
+        return codecPlan;
+    }
+
     /**
      * Get the field from the argument and instantiate a new {@link FieldBuilder} with this field in its context.
      *
@@ -373,6 +419,7 @@ public class FieldBuilder {
                 parentMsgField.setChildren(msgFields);
             }
             msgFields.add(msgField);
+            clearChildrenIndexes(parentMsgField);
             return this;
         } catch (Exception e) {
             MsgField root = navigator.findRoot(msgField);
@@ -511,6 +558,7 @@ public class FieldBuilder {
             msgField.setChildren(children);
         }
         children.add(child);
+        clearChildrenIndexes(msgField);
         msgField = child;
         return this;
     }
@@ -531,6 +579,7 @@ public class FieldBuilder {
                 navigator.getPathRecursively(msgField) + "'.");
         }
         parent.getChildren().add(cloned);
+        clearChildrenIndexes(parent);
         cloned.setParent(parent);
         cloned.setDepth(parent.getDepth() + 1);
         msgField = cloned;
@@ -645,10 +694,26 @@ public class FieldBuilder {
         newMsgField.setDepth(msgField.getParent().getDepth() + 1);
         msgField = newMsgField;
         msgField.getParent().getChildren().add(newMsgField);
+        clearChildrenIndexes(msgField.getParent());
         msgField.setRoot(msgField.getParent().getRoot());
         return this;
     }
 
+    /**
+     * Remove the {@link MsgField#getChildrenByFieldNum()}, {@link MsgField#getChildrenByName()}
+     * and {@link MsgField#getChildrenByTag()} indexes after the children of the field have been changed.
+     * The indexes will be built again by the {@link #validateStructure()} method.
+     *
+     * @param parent the field with changed children, may be 'null'.
+     */
+    protected void clearChildrenIndexes(MsgField parent) {
+        if (parent != null) {
+            parent.setChildrenByFieldNum(null);
+            parent.setChildrenByName(null);
+            parent.setChildrenByTag(null);
+        }
+    }
+
     /**
      * @param validator see the {@link #validator} field description.
      */
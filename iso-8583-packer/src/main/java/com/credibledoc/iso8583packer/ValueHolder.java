@@ -2,12 +2,16 @@ package com.credibledoc.iso8583packer;
 
 import com.credibledoc.iso8583packer.bcd.BcdBodyPacker;
 import com.credibledoc.iso8583packer.bcd.BcdService;
+import com.credibledoc.iso8583packer.bitmap.Bitmap;
 import com.credibledoc.iso8583packer.bitmap.BitmapPacker;
 import com.credibledoc.iso8583packer.body.BodyPacker;
+import com.credibledoc.iso8583packer.body.NumericBodyPacker;
+import com.credibledoc.iso8583packer.decimal.DecimalService;
 import com.credibledoc.iso8583packer.dump.DumpService;
 import com.credibledoc.iso8583packer.dump.Visualizer;
 import com.credibledoc.iso8583packer.exception.PackerRuntimeException;
 import com.credibledoc.iso8583packer.length.LengthPacker;
+import com.credibledoc.iso8583packer.message.LazyBody;
 import com.credibledoc.iso8583packer.message.MsgField;
 import com.credibledoc.iso8583packer.message.MsgFieldType;
 import com.credibledoc.iso8583packer.message.MsgPair;
@@ -15,13 +19,16 @@ import com.credibledoc.iso8583packer.message.MsgValue;
 import com.credibledoc.iso8583packer.navigator.Navigator;
 import com.credibledoc.iso8583packer.navigator.NavigatorService;
 import com.credibledoc.iso8583packer.offset.Offset;
+import com.credibledoc.iso8583packer.plan.CodecPlan;
+import com.credibledoc.iso8583packer.plan.CodecPlanService;
+import com.credibledoc.iso8583packer.plan.FieldCodec;
 import com.credibledoc.iso8583packer.tag.TagPacker;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.BitSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -31,6 +38,10 @@ import java.util.Objects;
  * two state objects, the {@link #msgValue} and {@link #msgField}.
  * <p>
  * The {@link MsgField} definition can be created by {@link FieldBuilder}.
+ * <p>
+ * The instances are not thread-safe, please create a new instance for every thread. The {@link #pack()} and
+ * {@link #unpack(byte[])} methods do not change the {@link MsgField} definition and the {@link CodecPlan},
+ * so a frozen definition can be shared between threads, see the {@link FieldBuilder#freeze()} method.
  *
  * @author Kyrylo Semenko
  */
@@ -67,6 +78,29 @@ public class ValueHolder {
      */
     protected Visualizer visualizer;
 
+    /**
+     * The compiled {@link #msgField} graph, see the {@link FieldBuilder#compile()} method. If it is defined,
+     * the {@link #pack()} and {@link #unpack(byte[])} methods use it instead of walking the {@link #msgField} graph.
+     */
+    protected CodecPlan codecPlan;
+
+    /**
+     * The plan compiled from the {@link #msgField} graph when the {@link #codecPlan} is not defined. It is reused
+     * by the next invocations and compiled again only when the current {@link #msgField} is not found in it,
+     * see the {@link #findCodecPlan()} method.
+     */
+    protected CodecPlan compiledCodecPlan;
+
+    /**
+     * The {@link MsgField} of the last pair validated by the {@link #validateOnce(MsgPair)} method.
+     */
+    private MsgField validatedMsgField;
+
+    /**
+     * The {@link MsgValue} of the last pair validated by the {@link #validateOnce(MsgPair)} method.
+     */
+    private MsgValue validatedMsgValue;
+
     /**
      * Please do not create instances of this builder. It uses for internal purposes only,
      * please use one of the newInstance() methods.
@@ -114,6 +148,22 @@ public class ValueHolder {
         return valueHolder.setValueAndField(definition, fromRoot);
     }
 
+    /**
+     * Create a new instance of {@link ValueHolder} with the root {@link MsgField} of the {@link CodecPlan}
+     * as a current position. The plan will be used for packing and unpacking.
+     *
+     * @param codecPlan the compiled definition, see the {@link FieldBuilder#compile()} method.
+     * @return A new instance of the {@link ValueHolder} with the {@link #codecPlan} in its context.
+     */
+    public static ValueHolder newInstance(CodecPlan codecPlan) {
+        if (codecPlan == null) {
+            throw new PackerRuntimeException("CodecPlan cannot be 'null'.");
+        }
+        ValueHolder valueHolder = newInstance(codecPlan.getRoot().getMsgField(), true);
+        valueHolder.codecPlan = codecPlan;
+        return valueHolder;
+    }
+
     /**
      * Call the {@link #newInstance(FieldBuilder, boolean)} method with fromRoot=<b>false</b> value.
      *
@@ -160,7 +210,7 @@ public class ValueHolder {
         msgValue = navigator.newFromNameAndTag(definition);
         msgValue.setRoot(msgValue); // root field references to itself
         if (msgValue.getParent() != null) {
-            msgValue.getParent().getChildNamesMap().put(msgValue.getName(), msgValue);
+            navigator.indexChild(msgValue.getParent(), msgValue);
         }
         return this;
     }
@@ -229,25 +279,109 @@ public class ValueHolder {
      * @return The unpacked {@link MsgValue}.
      */
     protected MsgValue unpackMsgField(byte[] bytes, int offset) {
+        return unpackMsgField(bytes, offset, false);
+    }
+
+    /**
+     * Unpack the bytes started from offset to the {@link #msgField} in the context.
+     * @param bytes the source bytes.
+     * @param offset the index where the field starts in the bytes.
+     * @param lazy if 'true', field bodies will be copied and decoded on the first access,
+     *             see the {@link #unpack(byte[], boolean)} method.
+     * @return The unpacked {@link MsgValue}.
+     */
+    protected MsgValue unpackMsgField(byte[] bytes, int offset, boolean lazy) {
         MsgValue newMsgValue = msgValue;
         try {
             Offset offsetObject = new Offset();
             offsetObject.setValue(offset);
             MsgPair msgPair = new MsgPair(msgField, newMsgValue);
-            unpackFieldRecursively(bytes, offsetObject, msgPair);
-            msgValue = newMsgValue;
-            msgField = msgPair.getMsgField();
-            if (newMsgValue.getParent() != null) {
-                newMsgValue.getParent().getChildNamesMap().put(newMsgValue.getName(), newMsgValue);
+            CodecPlan plan = lazy ? findCodecPlan() : codecPlan;
+            FieldCodec fieldCodec = plan == null ? null : plan.findFieldCodec(msgField);
+            if (fieldCodec != null) {
+                validateOnce(msgPair);
+                FieldCodec parentCodec = plan.findFieldCodec(msgField.getParent());
+                CodecPlanService.getInstance()
+                    .unpack(bytes, offsetObject, fieldCodec, parentCodec, newMsgValue, lazy);
+            } else {
+                unpackFieldRecursively(bytes, offsetObject, msgPair);
             }
-            return newMsgValue;
+            return completeUnpack(newMsgValue, msgPair);
         } catch (Exception e) {
-            String dump = PARTIAL_DUMP + visualizer.dumpMsgValue(msgField, newMsgValue, true) +
-                ROOT_MSG_FIELD + visualizer.dumpMsgField(navigator.findRoot(msgField));
-            throw new PackerRuntimeException("Cannot unpack field: " + navigator.generatePath(newMsgValue) + dump, e);
+            throw createUnpackException(newMsgValue, e);
         }
     }
 
+    /**
+     * Unpack the source buffer from its position up to its limit to the {@link #msgField} in the context.
+     * The buffer is read by the {@link CodecPlanService} without copying to an intermediate array.
+     * @param source the source buffer, its position will be moved after the unpacked bytes.
+     * @param lazy if 'true', field bodies will be copied and decoded on the first access,
+     *             see the {@link #unpack(byte[], boolean)} method.
+     * @return The unpacked {@link MsgValue}.
+     */
+    protected MsgValue unpackMsgField(ByteBuffer source, boolean lazy) {
+        MsgValue newMsgValue = msgValue;
+        try {
+            Offset offsetObject = new Offset();
+            offsetObject.setValue(source.position());
+            MsgPair msgPair = new MsgPair(msgField, newMsgValue);
+            CodecPlan plan = findCodecPlan();
+            validateOnce(msgPair);
+            CodecPlanService.getInstance().unpack(source, offsetObject, plan.findFieldCodec(msgField),
+                plan.findFieldCodec(msgField.getParent()), newMsgValue, lazy);
+            source.position(offsetObject.getValue());
+            return completeUnpack(newMsgValue, msgPair);
+        } catch (Exception e) {
+            throw createUnpackException(newMsgValue, e);
+        }
+    }
+
+    /**
+     * @return The {@link #codecPlan} if it contains the current {@link #msgField}, else the
+     * {@link #compiledCodecPlan}. The {@link #compiledCodecPlan} is compiled only if it does not exist yet
+     * or if it does not contain the current {@link #msgField}, for example after a change of the structure.
+     */
+    protected CodecPlan findCodecPlan() {
+        if (codecPlan != null && codecPlan.findFieldCodec(msgField) != null) {
+            return codecPlan;
+        }
+        if (compiledCodecPlan == null || compiledCodecPlan.findFieldCodec(msgField) == null) {
+            compiledCodecPlan = CodecPlanService.getInstance().compile(msgField);
+        }
+        return compiledCodecPlan;
+    }
+
+    /**
+     * Call the {@link Navigator#validateSameNamesAndTags(MsgPair)} method only if the pair differs from the
+     * previously validated one. The {@link CodecPlanService} unpacks descendants by the plan, so only the current
+     * pair is validated and it is usually the same root pair for all messages unpacked by this instance.
+     *
+     * @param msgPair the current {@link #msgField} and {@link #msgValue}
+     */
+    private void validateOnce(MsgPair msgPair) {
+        if (msgPair.getMsgField() != validatedMsgField || msgPair.getMsgValue() != validatedMsgValue) {
+            navigator.validateSameNamesAndTags(msgPair);
+            validatedMsgField = msgPair.getMsgField();
+            validatedMsgValue = msgPair.getMsgValue();
+        }
+    }
+
+    private MsgValue completeUnpack(MsgValue newMsgValue, MsgPair msgPair) {
+        msgValue = newMsgValue;
+        msgField = msgPair.getMsgField();
+        if (newMsgValue.getParent() != null) {
+            navigator.indexChild(newMsgValue.getParent(), newMsgValue);
+        }
+        return newMsgValue;
+    }
+
+    protected PackerRuntimeException createUnpackException(MsgValue newMsgValue, Exception e) {
+        String dump = PARTIAL_DUMP + visualizer.dumpMsgValue(msgField, newMsgValue, true) +
+            ROOT_MSG_FIELD + visualizer.dumpMsgField(navigator.findRoot(msgField));
+        return new PackerRuntimeException("Cannot unpack field: " + navigator.generatePath(newMsgValue) + dump, e);
+    }
+
     /**
      * @param bytes the source bytes.
      * @param offset the index where the field starts in the bytes.
@@ -273,7 +407,7 @@ public class ValueHolder {
 
         MsgValue parent = msgPair.getMsgValue().getParent();
         if (parent != null) {
-            parent.getChildNamesMap().put(msgPair.getMsgValue().getName(), msgPair.getMsgValue());
+            navigator.indexChild(parent, msgPair.getMsgValue());
         }
         
         if (msgPair.getMsgField().getChildren() == null) {
@@ -434,7 +568,7 @@ public class ValueHolder {
                 childNum++; // the number of real children may be higher than defined in MsgField
                 // for example for repeated values or undefined TLV and LTV values
             }
-            MsgValue nextMsgValueChild = navigator.newFromNameAndTag(nextMsgFieldChild);
+            MsgValue nextMsgValueChild = navigator.newFromNameAndTag(nextMsgFieldChild, msgPair.getMsgValue());
             
             msgPair.getMsgValue().getChildren().add(nextMsgValueChild);
             nextMsgValueChild.setParent(msgPair.getMsgValue());
@@ -481,7 +615,7 @@ public class ValueHolder {
                 throw new PackerRuntimeException("Cannot find child with fieldNum '" + nextFieldNum +
                     "' in the msgField " + navigator.getPathRecursively(msgField));
             }
-            MsgValue msgValueChild = navigator.newFromNameAndTag(msgFieldChild);
+            MsgValue msgValueChild = navigator.newFromNameAndTag(msgFieldChild, msgPair.getMsgValue());
             List<MsgValue> children = msgPair.getMsgValue().getChildren();
             if (children == null) {
                 children = new ArrayList<>();
@@ -490,7 +624,7 @@ public class ValueHolder {
             children.add(msgValueChild);
             msgValueChild.setParent(msgPair.getMsgValue());
             msgValueChild.setRoot(msgPair.getMsgValue().getRoot());
-            msgPair.getMsgValue().getChildNamesMap().put(msgValueChild.getName(), msgValueChild);
+            navigator.indexChild(msgPair.getMsgValue(), msgValueChild);
             MsgPair msgPairChild = new MsgPair(msgFieldChild, msgValueChild);
             unpackFieldRecursively(bytes, offset, msgPairChild);
         }
@@ -565,16 +699,16 @@ public class ValueHolder {
         MsgValue parentMsgValue = oldMsgValue.getParent();
         result.setMsgField(msgFieldSibling);
         assert msgFieldSibling != null;
-        MsgValue newMsgValue = navigator.newFromNameAndTag(msgFieldSibling);
+        MsgValue newMsgValue = navigator.newFromNameAndTag(msgFieldSibling, parentMsgValue);
         if (parentMsgValue != null) {
             parentMsgValue.getChildren().remove(oldMsgValue);
             parentMsgValue.getChildren().add(newMsgValue);
             newMsgValue.setParent(parentMsgValue);
             newMsgValue.setRoot(parentMsgValue.getRoot());
-            parentMsgValue.getChildNamesMap().put(newMsgValue.getName(), newMsgValue);
+            navigator.indexChild(parentMsgValue, newMsgValue);
         }
         result.setMsgValue(newMsgValue);
-        newMsgValue.setBitSet(oldMsgValue.getBitSet());
+        newMsgValue.setBitmap(oldMsgValue.getBitmap());
         newMsgValue.setTagBytes(oldMsgValue.getTagBytes());
         newMsgValue.setLengthBytes(oldMsgValue.getLengthBytes());
 
@@ -650,25 +784,20 @@ public class ValueHolder {
     }
 
     protected MsgField findChildByFieldNumUnsafe(MsgField msgField, int nextFieldNum) {
-        for (MsgField child : msgField.getChildren()) {
-            if (nextFieldNum == child.getFieldNum()) {
-                return child;
-            }
-        }
-        return null;
+        return navigator.findChildByFieldNum(msgField, nextFieldNum);
     }
 
     protected List<Integer> getFieldNumsAndValidateBitSet(MsgPair msgPair) {
-        BitSet unpackedBitSet = msgPair.getMsgValue().getBitSet();
+        Bitmap unpackedBitmap = msgPair.getMsgValue().getBitmap();
         List<Integer> fieldNums = new ArrayList<>();
         int maxFieldNum = getMaxFieldNum(msgPair.getMsgField().getChildren(), msgPair.getMsgField());
         boolean secondaryBitmapMarked = false;
         boolean tertiaryBitmapMarked = false;
-        for (int nextFieldNum = 1; nextFieldNum <= maxFieldNum; nextFieldNum++) {
-            MsgField childMsgField = navigator.findByFieldNum(msgPair.getMsgField().getChildren(), nextFieldNum);
-            boolean bitMarked = unpackedBitSet.get(nextFieldNum);
+        for (int nextFieldNum = unpackedBitmap.nextFieldNum(1); nextFieldNum != -1 && nextFieldNum <= maxFieldNum;
+             nextFieldNum = unpackedBitmap.nextFieldNum(nextFieldNum + 1)) {
+            MsgField childMsgField = navigator.findChildByFieldNum(msgPair.getMsgField(), nextFieldNum);
             // Bits 1 and 65 in a bitmap may be used as flags of a secondary and tertiary bitmaps, as well as flags of used msgFields
-            if (!bitMarked || (childMsgField == null && (nextFieldNum == 65 || nextFieldNum == 1))) {
+            if (childMsgField == null && (nextFieldNum == 65 || nextFieldNum == 1)) {
                 continue;
             }
             if (childMsgField == null) {
@@ -767,13 +896,7 @@ public class ValueHolder {
     }
 
     protected MsgField findSiblingByTag(Object tag, MsgField msgField) {
-        MsgField parent = msgField.getParent();
-        for (MsgField child : parent.getChildren()) {
-            if (Objects.equals(child.getTag(), tag)) {
-                return child;
-            }
-        }
-        return null;
+        return navigator.findChildByTag(msgField.getParent(), tag);
     }
 
     /**
@@ -851,7 +974,7 @@ public class ValueHolder {
             } else {
                 newMsgValue = msgValueChildren.get(i);
                 if (!childNamesMap.containsKey(newMsgValue.getName())) {
-                    childNamesMap.put(newMsgValue.getName(), newMsgValue);
+                    navigator.indexChild(msgValue, newMsgValue);
                 }
             }
             if (newMsgValue.getName().equals(childName)) {
@@ -865,10 +988,10 @@ public class ValueHolder {
     }
 
     protected MsgValue createMsgValue(MsgField nextMsgField) {
-        MsgValue newMsgValue = navigator.newFromNameAndTag(nextMsgField);
+        MsgValue newMsgValue = navigator.newFromNameAndTag(nextMsgField, msgValue);
         newMsgValue.setParent(msgValue);
         newMsgValue.setRoot(msgValue.getRoot());
-        msgValue.getChildNamesMap().put(newMsgValue.getName(), newMsgValue);
+        navigator.indexChild(msgValue, newMsgValue);
         return newMsgValue;
     }
 
@@ -913,6 +1036,7 @@ public class ValueHolder {
             throw new PackerRuntimeException("Cannot set bodyValue to fields with children. Values can only be set to " +
                     "leaf fields. Field: " + navigator.getPathRecursively(msgField) + ", bodyValue: " + bodyValue);
         }
+        msgValue.setLazyBody(null);
         if (bodyValue == null) {
             msgValue.setBodyBytes(null);
             msgValue.setLengthBytes(null);
@@ -925,17 +1049,21 @@ public class ValueHolder {
             setTagAndLenBytes(valueBytes, msgValue, msgField);
             return this;
         } catch (Exception e) {
-            MsgValue rootMsgValue = navigator.findRoot(msgValue);
-            MsgField rootMsgField = navigator.findRoot(msgField);
-            MsgField appropriateMsgField = navigator.findByNameAndTagOrThrowException(rootMsgField, rootMsgValue);
-            throw new PackerRuntimeException("Exception message: " + e.getMessage() + "\nCannot set bodyValue" +
-                    " to field '" + navigator.getPathRecursively(msgField) + "'" +
-                    "\nRoot MsgValue:\n" + visualizer.dumpMsgValue(appropriateMsgField, rootMsgValue, true) +
-                    "\nThe MsgField:\n" + visualizer.dumpMsgField(msgField) +
-                ROOT_MSG_FIELD + visualizer.dumpMsgField(rootMsgField), e);
+            throw createSetValueException(e);
         }
     }
 
+    protected PackerRuntimeException createSetValueException(Exception e) {
+        MsgValue rootMsgValue = navigator.findRoot(msgValue);
+        MsgField rootMsgField = navigator.findRoot(msgField);
+        MsgField appropriateMsgField = navigator.findByNameAndTagOrThrowException(rootMsgField, rootMsgValue);
+        return new PackerRuntimeException("Exception message: " + e.getMessage() + "\nCannot set bodyValue" +
+                " to field '" + navigator.getPathRecursively(msgField) + "'" +
+                "\nRoot MsgValue:\n" + visualizer.dumpMsgValue(appropriateMsgField, rootMsgValue, true) +
+                "\nThe MsgField:\n" + visualizer.dumpMsgField(msgField) +
+            ROOT_MSG_FIELD + visualizer.dumpMsgField(rootMsgField), e);
+    }
+
     /**
      * Call the {@link #setValue(Object)} method. Current positions in the {@link #msgField} and {@link #msgValue}
      * object graphs remain unchanged.
@@ -967,21 +1095,89 @@ public class ValueHolder {
         return setValue(bodyValue, absolutePath.toArray(new String[0]));
     }
 
-    protected byte[] setBytes(Object bodyValue) {
+    /**
+     * Set the number to the current leaf field. Body bytes are packed directly from the primitive value without
+     * boxing and String conversion if the field {@link BodyPacker} is the {@link NumericBodyPacker}.
+     * The {@link MsgValue#getBodyValue()} is decoded from the body bytes, so it has the same type as after unpacking.
+     * <p>
+     * Fields with the 'len' or 'exactlyLength' definitions are padded with zeros from the left.
+     * Other {@link BodyPacker}s receive the decimal String of the value, see the {@link #setValue(Object)} method.
+     *
+     * @param bodyValue a non-negative number
+     * @return The current {@link ValueHolder} with the same {@link #msgValue} and {@link #msgField} in its context.
+     */
+    public ValueHolder setLong(long bodyValue) {
+        if (msgField.getChildren() != null && !msgField.getChildren().isEmpty()) {
+            throw new PackerRuntimeException("Cannot set bodyValue to fields with children. Values can only be set to " +
+                    "leaf fields. Field: " + navigator.getPathRecursively(msgField) + ", bodyValue: " + bodyValue);
+        }
+        BodyPacker bodyPacker = findBodyPacker();
+        if (!(bodyPacker instanceof NumericBodyPacker)) {
+            return setValue(Long.toString(bodyValue));
+        }
+        try {
+            NumericBodyPacker numericBodyPacker = (NumericBodyPacker) bodyPacker;
+            int bodyLength = numericBodyPacker.getLongPackedLength(bodyValue);
+            Integer fixedLength = msgField.getLen() != null ? msgField.getLen() : msgField.getExactlyLength();
+            if (fixedLength != null && fixedLength > bodyLength) {
+                bodyLength = fixedLength;
+            }
+            validateBodyLength(bodyLength);
+            byte[] bodyBytes = new byte[bodyLength];
+            numericBodyPacker.packLong(bodyValue, bodyBytes, 0, bodyLength);
+            msgValue.setBodyValue(numericBodyPacker.unpack(bodyBytes, 0, bodyLength));
+            msgValue.setBodyBytes(bodyBytes);
+            msgValue.setLazyBody(null);
+            setTagAndLenBytes(bodyBytes, msgValue, msgField);
+            return this;
+        } catch (Exception e) {
+            throw createSetValueException(e);
+        }
+    }
+
+    /**
+     * Call the {@link #setLong(long)} method.
+     *
+     * @param bodyValue a non-negative number
+     * @return The current {@link ValueHolder} with the same {@link #msgValue} and {@link #msgField} in its context.
+     */
+    public ValueHolder setInt(int bodyValue) {
+        return setLong(bodyValue);
+    }
+
+    /**
+     * @return The {@link MsgField#getBodyPacker()} of the current {@link #msgField} or the
+     * {@link MsgField#getChildrenBodyPacker()} of its parent or 'null'.
+     */
+    protected BodyPacker findBodyPacker() {
         BodyPacker bodyPacker = msgField.getBodyPacker();
         if (bodyPacker == null && msgField.getParent() != null) {
             bodyPacker = msgField.getParent().getChildrenBodyPacker();
         }
+        return bodyPacker;
+    }
 
+    protected BodyPacker getBodyPackerOrThrowException() {
+        BodyPacker bodyPacker = findBodyPacker();
         if (bodyPacker == null) {
             throw new PackerRuntimeException("BodyPacker not found. Please call setBodyPacker(...) " +
                     "method\n" +
                     "MsgField: " + navigator.getPathRecursively(msgField));
         }
-        
-        byte[] bodyBytes;
+        return bodyPacker;
+    }
+
+    protected byte[] setBytes(Object bodyValue) {
+        BodyPacker bodyPacker = getBodyPackerOrThrowException();
         int bodyLength = bodyPacker.getPackedLength(bodyValue);
+        validateBodyLength(bodyLength);
+        byte[] bodyBytes = new byte[bodyLength];
+        bodyPacker.pack(bodyValue, bodyBytes, 0);
+        msgValue.setBodyBytes(bodyBytes);
+        return bodyBytes;
+    }
 
+    protected void validateBodyLength(int bodyLength) {
         Integer exactlyLength = msgField.getExactlyLength();
         if (exactlyLength != null && bodyLength != exactlyLength) {
             throw new PackerRuntimeException(THE_MSG_FIELD + navigator.getPathRecursively(msgField) +
@@ -1002,11 +1198,6 @@ public class ValueHolder {
                 "' contains the 'len' definition with value '" + len +
                 "', but its bodyValue length '" + bodyLength + "' is different.");
         }
-        
-        bodyBytes = new byte[bodyLength];
-        bodyPacker.pack(bodyValue, bodyBytes, 0);
-        msgValue.setBodyBytes(bodyBytes);
-        return bodyBytes;
     }
 
     /**
@@ -1119,9 +1310,10 @@ public class ValueHolder {
      */
     public ValueHolder setChildren(List<MsgValue> subfields) {
         msgValue.getChildNamesMap().clear();
+        msgValue.getChildFieldNumsMap().clear();
         for (MsgValue child : subfields) {
             child.setParent(msgValue);
-            msgValue.getChildNamesMap().put(child.getName(), child);
+            navigator.indexChild(msgValue, child);
             child.setRoot(msgValue.getRoot());
         }
         msgValue.setChildren(subfields);
@@ -1139,29 +1331,96 @@ public class ValueHolder {
         return this;
     }
 
+    /**
+     * Navigate to the top {@link #msgValue} and clear all its values, so this instance can be used for packing
+     * or unpacking of the next message with the same definition. The removed {@link MsgValue}s are reused
+     * by the next unpacking or setting of values, see the {@link Navigator#reset(MsgValue)} method.
+     * <p>
+     * {@link MsgValue}s obtained from this instance before the call should not be used after.
+     *
+     * @return The current instance of {@link ValueHolder} with the cleared top {@link #msgValue} in its context.
+     */
+    public ValueHolder reset() {
+        while (msgValue.getParent() != null && msgField.getParent() != null) {
+            msgValue = msgValue.getParent();
+            msgField = msgField.getParent();
+        }
+        navigator.reset(msgValue);
+        return this;
+    }
+
     /**
      * Pack this {@link #msgValue} to bytes for sending to Host.
      * @return Bytes created from the {@link #msgValue}.
      */
     public byte[] pack() {
         try {
+            FieldCodec fieldCodec = codecPlan == null ? null : codecPlan.findFieldCodec(msgField);
+            if (fieldCodec != null) {
+                return CodecPlanService.getInstance().pack(fieldCodec, msgValue);
+            }
             ByteArrayOutputStream result = packRecursively(msgValue, msgField);
             return result.toByteArray();
         } catch (Exception e) {
-            if (msgField != null && msgValue != null) {
-                MsgValue rootMsgValue = navigator.findRoot(msgValue);
-                MsgField rootMsgField = navigator.findRoot(msgField);
-                if (Objects.equals(rootMsgValue.getName(), rootMsgField.getName()) &&
-                    Objects.equals(rootMsgValue.getTag(), rootMsgField.getTag())) {
-                    
-                    throw new PackerRuntimeException("Exception: " + e.getMessage() + "\n" +
-                        "Cannot pack field '" + navigator.getPathRecursively(msgValue) + "'" +
-                        PARTIAL_DUMP + visualizer.dumpMsgValue(rootMsgField, rootMsgValue, true) +
-                        MSG_FIELD + visualizer.dumpMsgField(msgField) + "\n", e);
-                }
+            throw createPackException(e);
+        }
+    }
+
+    /**
+     * Pack this {@link #msgValue} directly to the target array. Lengths of all fields are computed first,
+     * then the fields are written to their places in the target without intermediate buffers.
+     * <p>
+     * The {@link #codecPlan} is used if it is defined, else the {@link #msgField} graph is compiled once
+     * and reused, see the {@link #findCodecPlan()} method.
+     *
+     * @param target the destination
+     * @param offset the index in the target where the packed {@link #msgValue} starts
+     * @return Number of written bytes.
+     */
+    public int pack(byte[] target, int offset) {
+        try {
+            return CodecPlanService.getInstance().pack(findFieldCodec(), msgValue, target, offset);
+        } catch (Exception e) {
+            throw createPackException(e);
+        }
+    }
+
+    /**
+     * Pack this {@link #msgValue} to the target buffer from its current position, see the
+     * {@link #pack(byte[], int)} method. The buffer position is moved after the packed bytes.
+     *
+     * @param target the destination
+     * @return Number of written bytes.
+     */
+    public int pack(ByteBuffer target) {
+        try {
+            return CodecPlanService.getInstance().pack(findFieldCodec(), msgValue, target);
+        } catch (Exception e) {
+            throw createPackException(e);
+        }
+    }
+
+    /**
+     * @return The {@link FieldCodec} of the {@link #msgField} from the {@link #findCodecPlan()} method.
+     */
+    protected FieldCodec findFieldCodec() {
+        return findCodecPlan().findFieldCodec(msgField);
+    }
+
+    protected PackerRuntimeException createPackException(Exception e) {
+        if (msgField != null && msgValue != null) {
+            MsgValue rootMsgValue = navigator.findRoot(msgValue);
+            MsgField rootMsgField = navigator.findRoot(msgField);
+            if (Objects.equals(rootMsgValue.getName(), rootMsgField.getName()) &&
+                Objects.equals(rootMsgValue.getTag(), rootMsgField.getTag())) {
+
+                return new PackerRuntimeException("Exception: " + e.getMessage() + "\n" +
+                    "Cannot pack field '" + navigator.getPathRecursively(msgValue) + "'" +
+                    PARTIAL_DUMP + visualizer.dumpMsgValue(rootMsgField, rootMsgValue, true) +
+                    MSG_FIELD + visualizer.dumpMsgField(msgField) + "\n", e);
             }
-            throw new PackerRuntimeException(e);
         }
+        return new PackerRuntimeException(e);
     }
 
     protected ByteArrayOutputStream packRecursively(MsgValue msgValue, MsgField msgField) throws IOException {
@@ -1173,7 +1432,7 @@ public class ValueHolder {
                 packBitmap(msgValue, msgField, messageBytes);
             }
             for (MsgValue nextMsgValue : msgValue.getChildren()) {
-                MsgField msgFieldChild = navigator.findByName(msgField.getChildren(), nextMsgValue.getName());
+                MsgField msgFieldChild = navigator.findChildByName(msgField, nextMsgValue.getName());
                 ByteArrayOutputStream childArray = packRecursively(nextMsgValue, msgFieldChild);
                 childArray.writeTo(childrenBytes);
             }
@@ -1200,28 +1459,31 @@ public class ValueHolder {
                 "' '" + MsgFieldType.BIT_SET + "' type. " +
                 "Please call the defineHeaderBitmapPacker(...) method.");
         }
-        BitSet bitSet = new BitSet();
+        Bitmap bitmap = new Bitmap();
         int maxFieldNum = 0;
         for (MsgField nextMsgField : msgField.getChildren()) {
             Integer fieldNum = nextMsgField.getFieldNum();
-            MsgValue nextMsgValue = navigator.findByFieldNum(msgValue.getChildren(), fieldNum);
+            if (fieldNum == null) {
+                continue;
+            }
+            MsgValue nextMsgValue = navigator.findChildByFieldNum(msgValue, fieldNum);
             if (nextMsgValue != null &&
-                (nextMsgValue.getBodyValue() != null ||
+                (nextMsgValue.hasBodyValue() ||
                     (nextMsgValue.getChildren() != null && !nextMsgValue.getChildren().isEmpty())
                 )
             ) {
                 maxFieldNum = Math.max(maxFieldNum, fieldNum);
-                bitSet.set(fieldNum);
+                bitmap.set(fieldNum);
             }
         }
         if (maxFieldNum > 64) {
-            bitSet.set(1);
+            bitmap.set(1);
         }
         if (maxFieldNum > 128) {
-            bitSet.set(65);
+            bitmap.set(65);
         }
-        msgValue.setBitSet(bitSet);
-        byte[] bytes = bitmapPacker.pack(bitSet);
+        msgValue.setBitmap(bitmap);
+        byte[] bytes = bitmapPacker.pack(bitmap);
         msgValue.setBodyBytes(bytes);
         messageBytes.write(bytes);
     }
@@ -1330,11 +1592,11 @@ public class ValueHolder {
      * @return The current actual {@link ValueHolder}.
      */
     public ValueHolder cloneSibling() {
-        MsgValue clone = navigator.newFromNameAndTag(msgField);
+        MsgValue clone = navigator.newFromNameAndTag(msgField, msgValue.getParent());
         clone.setParent(msgValue.getParent());
         clone.setRoot(msgValue.getParent().getRoot());
         msgValue.getParent().getChildren().add(clone);
-        clone.getParent().getChildNamesMap().put(clone.getName(), clone);
+        navigator.indexChild(clone.getParent(), clone);
         msgValue = clone;
         return this;
     }
@@ -1349,6 +1611,7 @@ public class ValueHolder {
         clone.createDefaultServices();
         clone.msgValue = msgValue;
         clone.msgField = msgField;
+        clone.codecPlan = codecPlan;
         return clone;
     }
 
@@ -1364,6 +1627,54 @@ public class ValueHolder {
         return msgValue;
     }
 
+    /**
+     * Call the {@link #unpack(byte[])} method in the lazy or eager mode.
+     * <p>
+     * In the lazy mode only tags, lengths and bitmaps are unpacked and locations of field bodies are stored
+     * to {@link MsgValue#getLazyBody()}. The {@link MsgValue#getBodyBytes()} and {@link MsgValue#getBodyValue()}
+     * are decoded on the first access, so the bytes should not be changed until all values are read.
+     * The {@link #codecPlan} is used if it is defined, else the {@link #msgField} graph is compiled once
+     * and reused, see the {@link #findCodecPlan()} method.
+     *
+     * @param bytes will be set as first argument
+     * @param lazy if 'true', the values will be decoded on the first access
+     * @return The {@link MsgValue} unpacked from the bytes.
+     */
+    public MsgValue unpack(byte[] bytes, boolean lazy) {
+        unpackMsgField(bytes, 0, lazy);
+        return msgValue;
+    }
+
+    /**
+     * Unpack the source buffer from its position up to its limit. Heap and direct buffers are read
+     * by the packers directly, see the {@link CodecPlanService#unpack(ByteBuffer, Offset, FieldCodec, FieldCodec,
+     * MsgValue, boolean)} method. The position is moved after the unpacked bytes.
+     * <p>
+     * The {@link #codecPlan} is used if it is defined, else the {@link #msgField} graph is compiled once
+     * and reused, see the {@link #findCodecPlan()} method.
+     *
+     * @param source the buffer with a single message between its position and limit
+     * @return The {@link MsgValue} unpacked from the buffer.
+     */
+    public MsgValue unpack(ByteBuffer source) {
+        unpackMsgField(source, false);
+        return msgValue;
+    }
+
+    /**
+     * Call the {@link #unpack(ByteBuffer)} method in the lazy or eager mode, see the
+     * {@link #unpack(byte[], boolean)} method. In the lazy mode the buffer should not be changed or returned
+     * to a pool until all values are read.
+     *
+     * @param source the buffer with a single message between its position and limit
+     * @param lazy if 'true', the values will be decoded on the first access
+     * @return The {@link MsgValue} unpacked from the buffer.
+     */
+    public MsgValue unpack(ByteBuffer source, boolean lazy) {
+        unpackMsgField(source, lazy);
+        return msgValue;
+    }
+
     /**
      * @return Existing {@link #msgField} and {@link #msgValue} created previously by the {@link #newInstance(MsgField)} method.
      */
@@ -1406,6 +1717,46 @@ public class ValueHolder {
         return type.cast(msgValue.getBodyValue());
     }
 
+    /**
+     * Read the number from the current field. Not decoded bodies of lazy unpacking are read directly from bytes
+     * if the field {@link BodyPacker} is the {@link NumericBodyPacker}.
+     * Other {@link MsgValue#getBodyValue()}s are expected to be {@link Number}s or decimal Strings.
+     *
+     * @return The {@link MsgValue#getBodyValue()} as <b>long</b>.
+     * @throws PackerRuntimeException if the field has no value or the value is not a number
+     */
+    public long getLong() {
+        LazyBody lazyBody = msgValue.getLazyBody();
+        if (lazyBody != null && lazyBody.getBodyPacker() instanceof NumericBodyPacker) {
+            NumericBodyPacker numericBodyPacker = (NumericBodyPacker) lazyBody.getBodyPacker();
+            return numericBodyPacker.unpackLong(lazyBody.getSource(), lazyBody.getOffset(), lazyBody.getLength());
+        }
+        Object bodyValue = msgValue.getBodyValue();
+        if (bodyValue instanceof Number) {
+            return ((Number) bodyValue).longValue();
+        }
+        if (bodyValue instanceof String) {
+            try {
+                return Long.parseLong((String) bodyValue);
+            } catch (NumberFormatException e) {
+                throw new PackerRuntimeException("The field '" + navigator.getPathRecursively(msgField) +
+                    "' contains the '" + bodyValue + "' value that is not a number.", e);
+            }
+        }
+        throw new PackerRuntimeException("The field '" + navigator.getPathRecursively(msgField) +
+            "' contains no number. BodyValue: '" + bodyValue + "'.");
+    }
+
+    /**
+     * Call the {@link #getLong()} method.
+     *
+     * @return The {@link MsgValue#getBodyValue()} as <b>int</b>.
+     * @throws PackerRuntimeException if the field has no value or the value is out of the <b>int</b> range
+     */
+    public int getInt() {
+        return DecimalService.toInt(getLong());
+    }
+
     /**
      * @param navigator see the {@link #navigator} field description.
      */
@@ -1434,6 +1785,29 @@ public class ValueHolder {
         return visualizer;
     }
 
+    /**
+     * Set the {@link #codecPlan} and evict the {@link #compiledCodecPlan}.
+     * @param codecPlan see the {@link #codecPlan} field description.
+     */
+    public void setCodecPlan(CodecPlan codecPlan) {
+        this.codecPlan = codecPlan;
+        compiledCodecPlan = null;
+    }
+
+    /**
+     * @return The {@link #codecPlan} value.
+     */
+    public CodecPlan getCodecPlan() {
+        return codecPlan;
+    }
+
+    /**
+     * @return The {@link #compiledCodecPlan} field value.
+     */
+    public CodecPlan getCompiledCodecPlan() {
+        return compiledCodecPlan;
+    }
+
     /**
      * Change the actual {@link #msgValue} object graph place (location) to be the same as the {@link #msgField},
      * see the {@link Navigator#synchronizeMessageValue(MsgField, MsgValue)} method description.
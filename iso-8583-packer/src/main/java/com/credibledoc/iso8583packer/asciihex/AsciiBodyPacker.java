@@ -1,8 +1,12 @@
 package com.credibledoc.iso8583packer.asciihex;
 
 import com.credibledoc.iso8583packer.body.BodyPacker;
+import com.credibledoc.iso8583packer.body.NumericBodyPacker;
+import com.credibledoc.iso8583packer.buffer.ByteBufferService;
+import com.credibledoc.iso8583packer.decimal.DecimalService;
 import com.credibledoc.iso8583packer.exception.PackerRuntimeException;
 
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 
@@ -10,12 +14,14 @@ import java.nio.charset.StandardCharsets;
  * Implements ASCII {@link BodyPacker} of String value. Strings are converted to and from ASCII bytes.
  * The packer uses the {@link #ISO_88591} encoding.
  * <p>
+ * Non-negative numbers are converted to and from ASCII digits directly, see the {@link NumericBodyPacker} methods.
+ * <p>
  * More examples
  * <a href="https://github.com/credibledoc/credible-doc/blob/master/iso-8583-packer/doc/asciihex/ascii-body-packer.md">ascii-body-packer.md</a>
  * 
  * @author Kyrylo Semenko
  */
-public class AsciiBodyPacker implements BodyPacker {
+public class AsciiBodyPacker implements NumericBodyPacker {
 
     private static final Charset ISO_88591 = StandardCharsets.ISO_8859_1;
 
@@ -88,4 +94,67 @@ public class AsciiBodyPacker implements BodyPacker {
 
         return string.length();
     }
+
+    /**
+     * @param object the data to be packed. Expected String value.
+     * @param target an empty or partially filled buffer.
+     * @param offset the absolute index of the first unfilled byte in the target from start packing at.
+     */
+    @Override
+    public void pack(Object object, ByteBuffer target, int offset) {
+        if (object == null) {
+            return;
+        }
+        if (!(object instanceof String)) {
+            throw new PackerRuntimeException("Expected String but found " + object.getClass().getName());
+        }
+        String data = (String) object;
+        ByteBufferService.checkBounds(target, offset, data.length());
+        for (int i = data.length() - 1; i >= 0; i--) {
+            target.put(offset + i, (byte) data.charAt(i));
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public String unpack(ByteBuffer source, int offset, int bytesCount) {
+        ByteBufferService.checkBounds(source, offset, bytesCount);
+        char[] chars = new char[bytesCount];
+        for (int i = 0; i < bytesCount; i++) {
+            chars[i] = (char) (source.get(offset + i) & 0xFF);
+        }
+        return new String(chars);
+    }
+
+    /**
+     * @param value a non-negative number
+     * @return Number of the value decimal digits.
+     */
+    @Override
+    public int getLongPackedLength(long value) {
+        return DecimalService.countDigits(value);
+    }
+
+    /**
+     * Pack the value as ASCII digits without String conversion.
+     *
+     * @param value      a non-negative number
+     * @param bytes      an empty or partially filled bytes.
+     * @param offset     the index of the first unfilled byte in the bytes array from start packing at.
+     * @param bytesCount number of digits, the value is padded with zero digits from the left.
+     */
+    @Override
+    public void packLong(long value, byte[] bytes, int offset, int bytesCount) {
+        DecimalService.packDigits(value, DecimalService.ASCII_ZONE, bytes, offset, bytesCount);
+    }
+
+    @Override
+    public long unpackLong(byte[] sourceData, int offset, int bytesCount) {
+        return DecimalService.unpackDigits(DecimalService.ASCII_ZONE, sourceData, offset, bytesCount);
+    }
+
+    @Override
+    public long unpackLong(ByteBuffer source, int offset, int bytesCount) {
+        return DecimalService.unpackDigits(DecimalService.ASCII_ZONE, source, offset, bytesCount);
+    }
 }
@@ -1,12 +1,11 @@
 package com.credibledoc.iso8583packer.asciihex;
 
+import com.credibledoc.iso8583packer.decimal.DecimalService;
 import com.credibledoc.iso8583packer.exception.PackerRuntimeException;
 import com.credibledoc.iso8583packer.length.LengthPacker;
 import com.credibledoc.iso8583packer.message.MsgValue;
-import com.credibledoc.iso8583packer.string.StringUtils;
 
-import java.nio.charset.Charset;
-import java.nio.charset.StandardCharsets;
+import java.nio.ByteBuffer;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -21,10 +20,6 @@ import java.util.concurrent.ConcurrentHashMap;
  */
 public class AsciiLengthPacker implements LengthPacker {
 
-    private static final Charset ISO_88591 = StandardCharsets.ISO_8859_1;
-
-    private static final char PAD_CHAR_0 = '0';
-    
     /**
      * Contains created instances. Each instance is a Singleton.
      */
@@ -52,31 +47,31 @@ public class AsciiLengthPacker implements LengthPacker {
 
     @Override
     public byte[] pack(int bodyBytesLength) {
-        String lenString = Integer.toString(bodyBytesLength);
-        if (lenString.length() > numBytes) {
+        checkBodyBytesLength(bodyBytesLength);
+        byte[] bytes = new byte[numBytes];
+        DecimalService.packDigits(bodyBytesLength, DecimalService.ASCII_ZONE, bytes, 0, numBytes);
+        return bytes;
+    }
+
+    @Override
+    public int pack(int bodyBytesLength, ByteBuffer target, int offset) {
+        checkBodyBytesLength(bodyBytesLength);
+        DecimalService.packDigits(bodyBytesLength, DecimalService.ASCII_ZONE, target, offset, numBytes);
+        return numBytes;
+    }
+
+    private void checkBodyBytesLength(int bodyBytesLength) {
+        int digits = DecimalService.countDigits(bodyBytesLength);
+        if (digits > numBytes) {
             throw new PackerRuntimeException("Cannot pack bodyBytesLength '" + bodyBytesLength +
                 "' to a byte array with length '" + numBytes +
-                "' bytes because the value requires '" + lenString.length() + "' bytes for packing.");
-        }
-        String formattedLength = StringUtils.leftPad(lenString, numBytes, PAD_CHAR_0);
-        byte[] bytes = new byte[numBytes];
-        for (int i = 0; i < formattedLength.length(); i++) {
-            bytes[i] = (byte) formattedLength.charAt(i);
+                "' bytes because the value requires '" + digits + "' bytes for packing.");
         }
-        return bytes;
     }
 
     @Override
     public int unpack(byte[] messageBytes, int offset) {
-        int availableBytes = messageBytes.length - offset;
-        if (availableBytes < numBytes) {
-            throw new PackerRuntimeException("Required bytes length '" + numBytes +
-                "' is greater than available sourceData length '" + availableBytes + "'");
-        }
-        byte[] lenBytes = new byte[numBytes];
-        System.arraycopy(messageBytes, offset, lenBytes, 0, numBytes);
-        String number = new String(lenBytes, ISO_88591);
-        return Integer.parseInt(number);
+        return DecimalService.toInt(DecimalService.unpackDigits(DecimalService.ASCII_ZONE, messageBytes, offset, numBytes));
     }
 
     @Override
@@ -84,4 +79,14 @@ public class AsciiLengthPacker implements LengthPacker {
         return numBytes;
     }
 
+    @Override
+    public int unpack(ByteBuffer source, int offset) {
+        return DecimalService.toInt(DecimalService.unpackDigits(DecimalService.ASCII_ZONE, source, offset, numBytes));
+    }
+
+    @Override
+    public int calculateLenLength(ByteBuffer source, int offset) {
+        return numBytes;
+    }
+
 }
@@ -1,8 +1,11 @@
 package com.credibledoc.iso8583packer.bcd;
 
 import com.credibledoc.iso8583packer.body.BodyPacker;
+import com.credibledoc.iso8583packer.buffer.ByteBufferService;
 import com.credibledoc.iso8583packer.exception.PackerRuntimeException;
 
+import java.nio.ByteBuffer;
+
 /**
  * Implements BCD {@link BodyPacker} with padding. Numeric Strings (consisting of chars '0'..'9') are converted
  * to and from BCD bytes. Thus, "1234" is converted into 2 bytes: 0x12, 0x34.
@@ -129,8 +132,24 @@ public class BcdBodyPacker implements BodyPacker {
     @SuppressWarnings("unchecked")
     public String unpack(byte[] sourceData, int offset, int bytesCount) {
         boolean leftPadded = leftPadding0Instance == this || leftPaddingFInstance == this;
-        String result = BcdService.bcd2str(sourceData, offset, bytesCount * 2, leftPadded);
-        
+        return removePadding(BcdService.bcd2str(sourceData, offset, bytesCount * 2, leftPadded), leftPadded);
+    }
+
+    /**
+     * @param source     the packed source data.
+     * @param offset     the absolute index in the source to start unpacking at.
+     * @param bytesCount the number of bytes for unpacking.
+     * @return The String representation of the data.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public String unpack(ByteBuffer source, int offset, int bytesCount) {
+        ByteBufferService.checkBounds(source, offset, bytesCount);
+        boolean leftPadded = leftPadding0Instance == this || leftPaddingFInstance == this;
+        return removePadding(BcdService.bcd2str(source, offset, bytesCount * 2, leftPadded), leftPadded);
+    }
+
+    private String removePadding(String result, boolean leftPadded) {
         if (rightPaddingFInstance == this && result.charAt(result.length() - 1) == FILLER_F) {
             return result.substring(0, result.length() - 1);
         }
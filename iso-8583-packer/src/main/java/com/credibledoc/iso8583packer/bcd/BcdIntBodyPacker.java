@@ -1,10 +1,12 @@
 package com.credibledoc.iso8583packer.bcd;
 
 import com.credibledoc.iso8583packer.body.BodyPacker;
+import com.credibledoc.iso8583packer.body.NumericBodyPacker;
+import com.credibledoc.iso8583packer.decimal.DecimalService;
 import com.credibledoc.iso8583packer.exception.PackerRuntimeException;
 import com.credibledoc.iso8583packer.message.MsgValue;
-import com.credibledoc.iso8583packer.string.StringUtils;
 
+import java.nio.ByteBuffer;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -17,7 +19,7 @@ import java.util.concurrent.ConcurrentHashMap;
  *
  * @author Kyrylo Semenko
  */
-public class BcdIntBodyPacker implements BodyPacker {
+public class BcdIntBodyPacker implements NumericBodyPacker {
 
     /**
      * Contains created instances. Each instance is Singleton.
@@ -65,14 +67,7 @@ public class BcdIntBodyPacker implements BodyPacker {
             throw new PackerRuntimeException("Expected Integer but found " + object.getClass().getName());
         }
 
-        String value = Integer.toString((Integer) object);
-        if (value.length() > numBytes * 2) {
-            throw new PackerRuntimeException("Length '" + value.length() + "' of value '" + value +
-                "' is greater than the packer is able to pack because it has defined numBytes '" + numBytes + "'.");
-        }
-        String leftPadded = StringUtils.leftPad(value, numBytes * 2, FILLER_0);
-
-        BcdService.str2bcd(leftPadded, false, bytes, offset);
+        packLong((Integer) object, bytes, offset, numBytes);
     }
 
     /**
@@ -84,8 +79,19 @@ public class BcdIntBodyPacker implements BodyPacker {
     @Override
     @SuppressWarnings("unchecked")
     public Integer unpack(byte[] sourceData, int offset, int bytesCount) {
-        String result = BcdService.bcd2str(sourceData, offset, bytesCount * 2, false);
-        return Integer.valueOf(result);
+        return DecimalService.toInt(unpackLong(sourceData, offset, bytesCount));
+    }
+
+    /**
+     * @param source     the packed source data.
+     * @param offset     the absolute index in the source to start unpacking at.
+     * @param bytesCount the number of bytes for unpacking.
+     * @return The Integer representation of the data.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public Integer unpack(ByteBuffer source, int offset, int bytesCount) {
+        return DecimalService.toInt(unpackLong(source, offset, bytesCount));
     }
 
     /**
@@ -95,5 +101,40 @@ public class BcdIntBodyPacker implements BodyPacker {
     public int getPackedLength(Object object) {
         return numBytes;
     }
+
+    /**
+     * @return The {@link #numBytes} value.
+     */
+    @Override
+    public int getLongPackedLength(long value) {
+        return numBytes;
+    }
+
+    /**
+     * Pack the value as BCD digits without String conversion.
+     *
+     * @param value      a non-negative number
+     * @param bytes      an empty or partially filled bytes.
+     * @param offset     the index of the first unfilled byte in the bytes array from start packing at.
+     * @param bytesCount number of bytes, the value is padded with zero nibbles from the left.
+     */
+    @Override
+    public void packLong(long value, byte[] bytes, int offset, int bytesCount) {
+        if (value >= 0 && DecimalService.countDigits(value) > bytesCount * 2) {
+            throw new PackerRuntimeException("Length '" + DecimalService.countDigits(value) + "' of value '" + value +
+                "' is greater than the packer is able to pack because it has defined numBytes '" + bytesCount + "'.");
+        }
+        DecimalService.packBcd(value, bytes, offset, bytesCount);
+    }
+
+    @Override
+    public long unpackLong(byte[] sourceData, int offset, int bytesCount) {
+        return DecimalService.unpackBcd(sourceData, offset, bytesCount);
+    }
+
+    @Override
+    public long unpackLong(ByteBuffer source, int offset, int bytesCount) {
+        return DecimalService.unpackBcd(source, offset, bytesCount);
+    }
     
 }
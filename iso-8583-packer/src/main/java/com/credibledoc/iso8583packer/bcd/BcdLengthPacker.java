@@ -1,11 +1,11 @@
 package com.credibledoc.iso8583packer.bcd;
 
+import com.credibledoc.iso8583packer.decimal.DecimalService;
 import com.credibledoc.iso8583packer.exception.PackerRuntimeException;
-import com.credibledoc.iso8583packer.hex.HexService;
 import com.credibledoc.iso8583packer.length.LengthPacker;
 import com.credibledoc.iso8583packer.message.MsgValue;
-import com.credibledoc.iso8583packer.string.StringUtils;
 
+import java.nio.ByteBuffer;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -20,8 +20,6 @@ import java.util.concurrent.ConcurrentHashMap;
  */
 public class BcdLengthPacker implements LengthPacker {
 
-    private static final char PAD_CHAR_0 = '0';
-    
     /**
      * Contains created instances. Each instance is Singleton.
      */
@@ -48,22 +46,31 @@ public class BcdLengthPacker implements LengthPacker {
 
     @Override
     public byte[] pack(int bodyBytesLength) {
-        String lenString = Integer.toString(bodyBytesLength);
-        String hex = StringUtils.leftPad(lenString, numBytes * 2, PAD_CHAR_0);
-        if (hex.length() > numBytes * 2) {
+        checkBodyBytesLength(bodyBytesLength);
+        byte[] bytes = new byte[numBytes];
+        DecimalService.packBcd(bodyBytesLength, bytes, 0, numBytes);
+        return bytes;
+    }
+
+    @Override
+    public int pack(int bodyBytesLength, ByteBuffer target, int offset) {
+        checkBodyBytesLength(bodyBytesLength);
+        DecimalService.packBcd(bodyBytesLength, target, offset, numBytes);
+        return numBytes;
+    }
+
+    private void checkBodyBytesLength(int bodyBytesLength) {
+        int digits = DecimalService.countDigits(bodyBytesLength);
+        if (digits > numBytes * 2) {
             throw new PackerRuntimeException("The bodyBytesLength '" + bodyBytesLength +
                 "' cannot be packed to '" + numBytes + "' bytes " +
-                "because it is longer and '" + Math.round(hex.length() / 2f) + "' bytes is needed for packing " +
-                "the '" + hex + "' value.");
+                "because it is longer and '" + (digits + 1) / 2 + "' bytes is needed for packing.");
         }
-        return HexService.hex2byte(hex);
     }
 
     @Override
     public int unpack(byte[] messageBytes, int offset) {
-        byte[] lenBytes = new byte[numBytes];
-        System.arraycopy(messageBytes, offset, lenBytes, 0, lenBytes.length);
-        return Integer.parseInt(HexService.bytesToHex(lenBytes));
+        return DecimalService.toInt(DecimalService.unpackBcd(messageBytes, offset, numBytes));
     }
 
     @Override
@@ -71,4 +78,14 @@ public class BcdLengthPacker implements LengthPacker {
         return numBytes;
     }
 
+    @Override
+    public int unpack(ByteBuffer source, int offset) {
+        return DecimalService.toInt(DecimalService.unpackBcd(source, offset, numBytes));
+    }
+
+    @Override
+    public int calculateLenLength(ByteBuffer source, int offset) {
+        return numBytes;
+    }
+
 }
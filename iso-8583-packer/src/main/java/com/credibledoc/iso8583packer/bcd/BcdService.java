@@ -4,6 +4,8 @@ import com.credibledoc.iso8583packer.exception.PackerRuntimeException;
 import com.credibledoc.iso8583packer.message.MsgValue;
 import com.credibledoc.iso8583packer.string.StringUtils;
 
+import java.nio.ByteBuffer;
+
 /**
  * Static service. Converts <a href="https://en.wikipedia.org/wiki/Binary-coded_decimal">BCD</a> data.
  *
@@ -94,6 +96,30 @@ public class BcdService {
         return d.toString();
     }
 
+    /**
+     * The same as the {@link #bcd2str(byte[], int, int, boolean)} method for a buffer.
+     * The position of the buffer is not changed.
+     *
+     * @param b       BCD representation
+     * @param offset  starting absolute index
+     * @param len     BCD field len
+     * @param padLeft was padLeft packed?
+     * @return the String representation of the number
+     */
+    static String bcd2str(ByteBuffer b, int offset, int len, boolean padLeft) {
+        StringBuilder d = new StringBuilder(len);
+        int start = (((len & 1) == 1) && padLeft) ? 1 : 0;
+        for (int i = start; i < len + start; i++) {
+            int shift = ((i & 1) == 1 ? 0 : 4);
+            char c = Character.forDigit(((b.get(offset + (i >> 1)) >> shift) & 0x0F), 16);
+            if (c == 'd') {
+                c = '=';
+            }
+            d.append(Character.toUpperCase(c));
+        }
+        return d.toString();
+    }
+
     public static void validateIsStringBcdNumber(MsgValue msgValue) {
         Object value = msgValue.getBodyValue();
         if (value != null) {
@@ -1,9 +1,11 @@
 package com.credibledoc.iso8583packer.binary;
 
+import com.credibledoc.iso8583packer.buffer.ByteBufferService;
 import com.credibledoc.iso8583packer.exception.PackerRuntimeException;
 import com.credibledoc.iso8583packer.length.LengthPacker;
 import com.credibledoc.iso8583packer.message.MsgValue;
 
+import java.nio.ByteBuffer;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -71,4 +73,19 @@ public class BinaryLengthPacker implements LengthPacker {
         return numBytes;
     }
 
+    @Override
+    public int unpack(ByteBuffer source, int offset) {
+        ByteBufferService.checkBounds(source, offset, numBytes);
+        int len = 0;
+        for (int i = 0; i < this.numBytes; ++i) {
+            len = NUM_DECIMALS_IN_ONE_BYTE_256 * len + (source.get(offset + i) & MAX_DECIMAL_IN_ONE_BYTE_255);
+        }
+        return len;
+    }
+
+    @Override
+    public int calculateLenLength(ByteBuffer source, int offset) {
+        return numBytes;
+    }
+
 }
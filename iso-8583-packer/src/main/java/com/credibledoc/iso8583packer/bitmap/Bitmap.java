@@ -0,0 +1,188 @@
+package com.credibledoc.iso8583packer.bitmap;
+
+import com.credibledoc.iso8583packer.exception.PackerRuntimeException;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Primary, secondary and tertiary <a href="https://en.wikipedia.org/wiki/ISO_8583#Bitmaps">bitmaps</a>
+ * stored in three <b>long</b> words. Bits are numbered the same way as the fieldNums, from 1 to {@link #MAX_FIELD_NUM_192}.
+ * <p>
+ * The fieldNum 1 is the lowest bit of the first word, the fieldNum 64 is its highest bit, the fieldNum 65 is the lowest
+ * bit of the second word and so on. Set fieldNums are iterated by the {@link #nextFieldNum(int)} method
+ * with the {@link Long#numberOfTrailingZeros(long)} function.
+ * <p>
+ * The class is a lighter alternative of the {@link BitSet}, see the {@link #valueOf(BitSet)} and {@link #toBitSet()}
+ * methods for conversion.
+ *
+ * @author Kyrylo Semenko
+ */
+public class Bitmap {
+
+    /**
+     * Maximal fieldNum of the tertiary bitmap.
+     */
+    public static final int MAX_FIELD_NUM_192 = 192;
+
+    private static final int WORD_BITS_64 = 64;
+
+    /**
+     * The primary, secondary and tertiary bitmaps.
+     */
+    private final long[] words = new long[MAX_FIELD_NUM_192 / WORD_BITS_64];
+
+    /**
+     * Create a new instance with the fieldNums from the {@link BitSet}. The bit 0 of the {@link BitSet} is ignored
+     * because it has no fieldNum.
+     *
+     * @param bitSet the source
+     * @return A new instance of the {@link Bitmap}.
+     */
+    public static Bitmap valueOf(BitSet bitSet) {
+        Bitmap bitmap = new Bitmap();
+        for (int fieldNum = bitSet.nextSetBit(1); fieldNum >= 0; fieldNum = bitSet.nextSetBit(fieldNum + 1)) {
+            bitmap.set(fieldNum);
+        }
+        return bitmap;
+    }
+
+    /**
+     * @return A new {@link BitSet} with the same fieldNums.
+     */
+    public BitSet toBitSet() {
+        BitSet bitSet = new BitSet();
+        for (int fieldNum = nextFieldNum(1); fieldNum != -1; fieldNum = nextFieldNum(fieldNum + 1)) {
+            bitSet.set(fieldNum);
+        }
+        return bitSet;
+    }
+
+    /**
+     * @param fieldNum from 1 to {@link #MAX_FIELD_NUM_192}
+     */
+    public void set(int fieldNum) {
+        checkFieldNum(fieldNum);
+        words[(fieldNum - 1) >>> 6] |= 1L << (fieldNum - 1);
+    }
+
+    /**
+     * @param fieldNum from 1 to {@link #MAX_FIELD_NUM_192}
+     */
+    public void clear(int fieldNum) {
+        checkFieldNum(fieldNum);
+        words[(fieldNum - 1) >>> 6] &= ~(1L << (fieldNum - 1));
+    }
+
+    /**
+     * @param fieldNum any number
+     * @return 'true' if the fieldNum is set. Numbers out of the bitmap range are never set.
+     */
+    public boolean get(int fieldNum) {
+        if (fieldNum < 1 || fieldNum > MAX_FIELD_NUM_192) {
+            return false;
+        }
+        return (words[(fieldNum - 1) >>> 6] & (1L << (fieldNum - 1))) != 0;
+    }
+
+    /**
+     * @param fromFieldNum the first fieldNum to check
+     * @return The first set fieldNum that is greater than or equal to the fromFieldNum or -1 if no such fieldNum exists.
+     */
+    public int nextFieldNum(int fromFieldNum) {
+        int index = Math.max(fromFieldNum, 1) - 1;
+        int wordIndex = index >>> 6;
+        if (wordIndex >= words.length) {
+            return -1;
+        }
+        long word = words[wordIndex] & (-1L << index);
+        while (word == 0) {
+            wordIndex++;
+            if (wordIndex == words.length) {
+                return -1;
+            }
+            word = words[wordIndex];
+        }
+        return wordIndex * WORD_BITS_64 + Long.numberOfTrailingZeros(word) + 1;
+    }
+
+    /**
+     * @return The maximal set fieldNum or 0 if the bitmap is empty.
+     */
+    public int getMaxFieldNum() {
+        for (int wordIndex = words.length - 1; wordIndex >= 0; wordIndex--) {
+            if (words[wordIndex] != 0) {
+                return (wordIndex + 1) * WORD_BITS_64 - Long.numberOfLeadingZeros(words[wordIndex]);
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * @return 'true' if no fieldNum is set.
+     */
+    public boolean isEmpty() {
+        return (words[0] | words[1] | words[2]) == 0;
+    }
+
+    /**
+     * @return Number of the set fieldNums.
+     */
+    public int cardinality() {
+        return Long.bitCount(words[0]) + Long.bitCount(words[1]) + Long.bitCount(words[2]);
+    }
+
+    /**
+     * @param wordIndex 0 for the primary, 1 for the secondary and 2 for the tertiary bitmap
+     * @return The word with the fieldNum (wordIndex * 64 + 1) in its lowest bit.
+     */
+    public long getWord(int wordIndex) {
+        return words[wordIndex];
+    }
+
+    /**
+     * @param wordIndex see the {@link #getWord(int)} method description
+     * @param word      see the {@link #getWord(int)} method description
+     */
+    public void setWord(int wordIndex, long word) {
+        words[wordIndex] = word;
+    }
+
+    private static void checkFieldNum(int fieldNum) {
+        if (fieldNum < 1 || fieldNum > MAX_FIELD_NUM_192) {
+            throw new PackerRuntimeException("FieldNum '" + fieldNum + "' is out of the bitmap range. " +
+                "Expected values are from 1 to " + MAX_FIELD_NUM_192 + ".");
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        return Arrays.equals(words, ((Bitmap) o).words);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(words);
+    }
+
+    /**
+     * @return The same format as the {@link BitSet#toString()} method, for example {2, 11, 41}.
+     */
+    @Override
+    public String toString() {
+        StringBuilder stringBuilder = new StringBuilder("{");
+        for (int fieldNum = nextFieldNum(1); fieldNum != -1; fieldNum = nextFieldNum(fieldNum + 1)) {
+            if (stringBuilder.length() > 1) {
+                stringBuilder.append(", ");
+            }
+            stringBuilder.append(fieldNum);
+        }
+        return stringBuilder.append('}').toString();
+    }
+}
@@ -1,7 +1,9 @@
 package com.credibledoc.iso8583packer.bitmap;
 
+import com.credibledoc.iso8583packer.buffer.ByteBufferService;
 import com.credibledoc.iso8583packer.message.MsgValue;
 
+import java.nio.ByteBuffer;
 import java.util.BitSet;
 
 /**
@@ -21,7 +23,19 @@ public interface BitmapPacker {
     byte[] pack (BitSet bitSet);
 
     /**
-     * @param msgValue where the unpacked {@link BitSet} will be stored
+     * Pack the fieldNums without the {@link BitSet} conversion. The default implementation calls
+     * the {@link #pack(BitSet)} method.
+     *
+     * @param bitmap the {@link Bitmap} for packing
+     * @return packed {@link Bitmap}
+     */
+    default byte[] pack(Bitmap bitmap) {
+        return pack(bitmap.toBitSet());
+    }
+
+    /**
+     * @param msgValue where the unpacked {@link Bitmap} will be stored, see the {@link MsgValue#setBitmap(Bitmap)}
+     *                 method
      * @param bytes the data source
      * @param offset starting offset within the bytes
      * @return number of consumed bytes
@@ -32,4 +46,49 @@ public interface BitmapPacker {
      * @return The number of the {@link BitSet} bytes in a packed state without the children of the {@link BitmapPacker}.
      */
     int getPackedBytesLength();
+
+    /**
+     * Call the {@link #pack(BitSet)} method and write the result to the target buffer. The offset is an absolute
+     * index, the position of the target is not changed.
+     *
+     * @param bitSet the {@link BitSet} for packing
+     * @param target the destination buffer
+     * @param offset the index in the target where the packed bitmap starts
+     * @return number of written bytes
+     */
+    default int pack(BitSet bitSet, ByteBuffer target, int offset) {
+        return ByteBufferService.putBytes(target, offset, pack(bitSet));
+    }
+
+    /**
+     * Call the {@link #pack(Bitmap)} method and write the result to the target buffer. The offset is an absolute
+     * index, the position of the target is not changed.
+     *
+     * @param bitmap the {@link Bitmap} for packing
+     * @param target the destination buffer
+     * @param offset the index in the target where the packed bitmap starts
+     * @return number of written bytes
+     */
+    default int pack(Bitmap bitmap, ByteBuffer target, int offset) {
+        return ByteBufferService.putBytes(target, offset, pack(bitmap));
+    }
+
+    /**
+     * The offset is an absolute index, the position of the source is not changed.
+     * <p>
+     * The default implementation unpacks from the backing array of heap buffers, remaining bytes of other
+     * buffers are copied to a temporary array.
+     *
+     * @param msgValue where the unpacked {@link Bitmap} will be stored
+     * @param source   the data source
+     * @param offset   the index of the first bitmap byte
+     * @return number of consumed bytes
+     */
+    default int unpack(MsgValue msgValue, ByteBuffer source, int offset) {
+        if (source.hasArray()) {
+            return unpack(msgValue, source.array(), source.arrayOffset() + offset);
+        }
+        return unpack(msgValue,
+            ByteBufferService.copyBytes(source, offset, ByteBufferService.remaining(source, offset)), 0);
+    }
 }
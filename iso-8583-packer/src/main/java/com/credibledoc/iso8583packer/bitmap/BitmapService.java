@@ -2,6 +2,7 @@ package com.credibledoc.iso8583packer.bitmap;
 
 import com.credibledoc.iso8583packer.exception.PackerRuntimeException;
 
+import java.nio.ByteBuffer;
 import java.util.BitSet;
 import java.util.OptionalInt;
 
@@ -45,6 +46,48 @@ public class BitmapService {
         return bytes;
     }
 
+    /**
+     * The same as the {@link #bitSet2byte(BitSet, int)} method for a {@link Bitmap}.
+     *
+     * @param bitmap      the fieldNums
+     * @param bytesNumber number of bytes to return
+     * @return binary representation
+     */
+    public static byte[] bitmap2byte(Bitmap bitmap, int bytesNumber) {
+        byte[] bytes = new byte[bytesNumber];
+        bitmap2byte(bitmap, bytesNumber, ByteBuffer.wrap(bytes), 0);
+        return bytes;
+    }
+
+    /**
+     * Write the binary representation of the {@link Bitmap} to the target buffer.
+     * Each word is reversed by the {@link Long#reverse(long)} function, so the fieldNum 1 is the highest bit
+     * of the first byte. The position of the buffer is not changed.
+     *
+     * @param bitmap      the fieldNums
+     * @param bytesNumber number of bytes to write
+     * @param target      the destination
+     * @param offset      the absolute index of the first bitmap byte in the target
+     */
+    public static void bitmap2byte(Bitmap bitmap, int bytesNumber, ByteBuffer target, int offset) {
+        for (int wordIndex = 0; wordIndex * 8 < bytesNumber; wordIndex++) {
+            long packed = Long.reverse(bitmap.getWord(wordIndex));
+            int wordBytes = Math.min(8, bytesNumber - wordIndex * 8);
+            for (int i = 0; i < wordBytes; i++) {
+                target.put(offset + wordIndex * 8 + i, (byte) (packed >>> (56 - i * 8)));
+            }
+        }
+        if (!bitmap.isEmpty()) {
+            int maxBit = bitmap.getMaxFieldNum();
+            if (maxBit > 64 || bytesNumber == 16) {
+                target.put(offset, (byte) (target.get(offset) | 0x80));
+            }
+            if (maxBit > 128 || bytesNumber == 24) {
+                target.put(offset + 8, (byte) (target.get(offset + 8) | 0x80));
+            }
+        }
+    }
+
     /**
      * Converts an ASCII representation of a Bitmap field
      * into a Java BitSet
@@ -97,6 +140,63 @@ public class BitmapService {
         return bmap;
     }
 
+    /**
+     * The same as the {@link #byte2BitSet(byte[], int, int)} method for a buffer.
+     * The position of the buffer is not changed.
+     *
+     * @param buffer  binary representation
+     * @param offset  staring absolute index
+     * @param maxBits max number of bits (supports 64,128 or 192)
+     * @return java BitSet object
+     */
+    public static BitSet byte2BitSet(ByteBuffer buffer, int offset, int maxBits) {
+        int decidedLength = (buffer.get(offset) & 0x80) == 0x80 ? 128 : 64;
+        int len = maxBits > 64 ? decidedLength : maxBits;
+
+        if (maxBits > 128 && buffer.limit() > offset + 8 && (buffer.get(offset + 8) & 0x80) == 0x80) {
+            len = 192;
+        }
+        BitSet bmap = new BitSet(len);
+        for (int i = 0; i < len; i++) {
+            if (((buffer.get(offset + (i >> 3)) & 0xff) & (0x80 >> (i % 8))) > 0) {
+                bmap.set(i + 1);
+            }
+        }
+        return bmap;
+    }
+
+    /**
+     * The same as the {@link #byte2BitSet(ByteBuffer, int, int)} method, but the bytes are read to the
+     * {@link Bitmap} words directly. The position of the buffer is not changed.
+     *
+     * @param buffer  binary representation
+     * @param offset  staring absolute index
+     * @param maxBits max number of bits (supports 64,128 or 192)
+     * @return The unpacked {@link Bitmap}.
+     */
+    public static Bitmap byte2Bitmap(ByteBuffer buffer, int offset, int maxBits) {
+        int decidedLength = (buffer.get(offset) & 0x80) == 0x80 ? 128 : 64;
+        int len = maxBits > 64 ? decidedLength : maxBits;
+
+        if (maxBits > 128 && buffer.limit() > offset + 8 && (buffer.get(offset + 8) & 0x80) == 0x80) {
+            len = 192;
+        }
+        Bitmap bitmap = new Bitmap();
+        for (int wordIndex = 0; wordIndex * 64 < len; wordIndex++) {
+            int wordBits = Math.min(64, len - wordIndex * 64);
+            long packed = 0;
+            for (int i = 0; i * 8 < wordBits; i++) {
+                packed |= (buffer.get(offset + wordIndex * 8 + i) & 0xFFL) << (56 - i * 8);
+            }
+            long word = Long.reverse(packed);
+            if (wordBits < 64) {
+                word &= (1L << wordBits) - 1;
+            }
+            bitmap.setWord(wordIndex, word);
+        }
+        return bitmap;
+    }
+
     /**
      * For example HEX CO == 1100 0000 and the first bit (number 8 backward) is 1, return true
      * <p>
@@ -1,5 +1,9 @@
 package com.credibledoc.iso8583packer.body;
 
+import com.credibledoc.iso8583packer.buffer.ByteBufferService;
+
+import java.nio.ByteBuffer;
+
 /**
  * Implementations of the interface convert Objects into byte arrays and vice versa,
  * see the {@link #pack(Object, byte[], int)} and {@link #unpack(byte[], int, int)} methods.
@@ -36,4 +40,47 @@ public interface BodyPacker {
      * @return The number of bytes required to pack an Object from the argument.
      */
     int getPackedLength(Object object);
+
+    /**
+     * Converts the data into bytes of the target buffer. The offset is an absolute index, the position
+     * of the target is not changed.
+     * <p>
+     * The default implementation packs to the backing array of heap buffers, other buffers are filled
+     * from a temporary array.
+     *
+     * @param object the data to be packed.
+     * @param target an empty or partially filled buffer.
+     * @param offset the index of the first unfilled byte in the target from start packing at.
+     */
+    default void pack(Object object, ByteBuffer target, int offset) {
+        if (target.hasArray()) {
+            ByteBufferService.checkBounds(target, offset, getPackedLength(object));
+            pack(object, target.array(), target.arrayOffset() + offset);
+            return;
+        }
+        byte[] bytes = new byte[getPackedLength(object)];
+        pack(object, bytes, 0);
+        ByteBufferService.putBytes(target, offset, bytes);
+    }
+
+    /**
+     * Converts the bytes of the source buffer into an Object of T type. The offset is an absolute index,
+     * the position of the source is not changed.
+     * <p>
+     * The default implementation unpacks from the backing array of heap buffers, bytes of other buffers
+     * are copied to a temporary array.
+     *
+     * @param source     the packed source data.
+     * @param offset     the index in the source to start unpacking at.
+     * @param bytesCount the number of bytes to unpack.
+     * @param <T>        the type of the returned data.
+     * @return The unpacked data.
+     */
+    default <T> T unpack(ByteBuffer source, int offset, int bytesCount) {
+        ByteBufferService.checkBounds(source, offset, bytesCount);
+        if (source.hasArray()) {
+            return unpack(source.array(), source.arrayOffset() + offset, bytesCount);
+        }
+        return unpack(ByteBufferService.copyBytes(source, offset, bytesCount), 0, bytesCount);
+    }
 }
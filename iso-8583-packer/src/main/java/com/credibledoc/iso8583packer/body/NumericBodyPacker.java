@@ -0,0 +1,63 @@
+package com.credibledoc.iso8583packer.body;
+
+import com.credibledoc.iso8583packer.buffer.ByteBufferService;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The {@link BodyPacker} of non-negative integral numbers, for example amounts or STANs.
+ * The numbers are converted to and from bytes as primitive <b>long</b> values without boxing and String conversion,
+ * see the {@link #packLong(long, byte[], int, int)} and {@link #unpackLong(byte[], int, int)} methods.
+ * <p>
+ * The methods are used by the {@link com.credibledoc.iso8583packer.ValueHolder#setLong(long)} and
+ * {@link com.credibledoc.iso8583packer.ValueHolder#getLong()} methods.
+ *
+ * @author Kyrylo Semenko
+ */
+public interface NumericBodyPacker extends BodyPacker {
+    /**
+     * @param value a non-negative number
+     * @return The minimal number of bytes required to pack the value.
+     */
+    int getLongPackedLength(long value);
+
+    /**
+     * Converts the value into bytes. The value is aligned to the right and padded with zeros from the left.
+     *
+     * @param value      a non-negative number
+     * @param bytes      an empty or partially filled bytes.
+     * @param offset     the index of the first unfilled byte in the bytes array from start packing at.
+     * @param bytesCount the number of bytes to fill, not less than the {@link #getLongPackedLength(long)}.
+     */
+    void packLong(long value, byte[] bytes, int offset, int bytesCount);
+
+    /**
+     * Converts the bytes into a number. The method reverses the {@link #packLong(long, byte[], int, int)} method.
+     *
+     * @param sourceData the packed source data.
+     * @param offset     the index in sourceData to start unpacking at.
+     * @param bytesCount the number of bytes to unpack.
+     * @return The unpacked number.
+     */
+    long unpackLong(byte[] sourceData, int offset, int bytesCount);
+
+    /**
+     * Converts the bytes of the source buffer into a number. The offset is an absolute index,
+     * the position of the source is not changed.
+     * <p>
+     * The default implementation unpacks from the backing array of heap buffers, bytes of other buffers
+     * are copied to a temporary array.
+     *
+     * @param source     the packed source data.
+     * @param offset     the index in the source to start unpacking at.
+     * @param bytesCount the number of bytes to unpack.
+     * @return The unpacked number.
+     */
+    default long unpackLong(ByteBuffer source, int offset, int bytesCount) {
+        ByteBufferService.checkBounds(source, offset, bytesCount);
+        if (source.hasArray()) {
+            return unpackLong(source.array(), source.arrayOffset() + offset, bytesCount);
+        }
+        return unpackLong(ByteBufferService.copyBytes(source, offset, bytesCount), 0, bytesCount);
+    }
+}
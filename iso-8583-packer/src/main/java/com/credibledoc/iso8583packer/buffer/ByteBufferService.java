@@ -0,0 +1,80 @@
+package com.credibledoc.iso8583packer.buffer;
+
+import com.credibledoc.iso8583packer.exception.PackerRuntimeException;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Static service. Reads and writes {@link ByteBuffer}s by absolute indexes, so positions and limits
+ * of the buffers are not changed.
+ * <p>
+ * The indexes are the same as in the {@link ByteBuffer#get(int)} method, they are not shifted
+ * by the {@link ByteBuffer#position()}.
+ *
+ * @author Kyrylo Semenko
+ */
+public class ByteBufferService {
+
+    private ByteBufferService() {
+        throw new PackerRuntimeException("Please do not instantiate this static helper.");
+    }
+
+    /**
+     * @param source the buffer to read from
+     * @param offset the index of the first byte
+     * @param length number of bytes to copy
+     * @return A new array with the bytes from the source.
+     */
+    public static byte[] copyBytes(ByteBuffer source, int offset, int length) {
+        checkBounds(source, offset, length);
+        if (source.hasArray()) {
+            int start = source.arrayOffset() + offset;
+            return Arrays.copyOfRange(source.array(), start, start + length);
+        }
+        byte[] result = new byte[length];
+        ByteBuffer duplicate = source.duplicate();
+        duplicate.position(offset);
+        duplicate.get(result);
+        return result;
+    }
+
+    /**
+     * @param target the buffer to write to
+     * @param offset the index of the first written byte
+     * @param bytes  the bytes to write, 'null' is ignored
+     * @return Number of written bytes.
+     */
+    public static int putBytes(ByteBuffer target, int offset, byte[] bytes) {
+        if (bytes == null) {
+            return 0;
+        }
+        checkBounds(target, offset, bytes.length);
+        ByteBuffer duplicate = target.duplicate();
+        duplicate.position(offset);
+        duplicate.put(bytes);
+        return bytes.length;
+    }
+
+    /**
+     * @param buffer the buffer
+     * @param offset the index in the buffer
+     * @return Number of bytes between the offset and the {@link ByteBuffer#limit()}.
+     */
+    public static int remaining(ByteBuffer buffer, int offset) {
+        return buffer.limit() - offset;
+    }
+
+    /**
+     * @param buffer the buffer
+     * @param offset the index of the first byte
+     * @param length number of bytes
+     * @throws PackerRuntimeException if the bytes are not between 0 and the {@link ByteBuffer#limit()}
+     */
+    public static void checkBounds(ByteBuffer buffer, int offset, int length) {
+        if (offset < 0 || length < 0 || length > buffer.limit() - offset) {
+            throw new PackerRuntimeException("Required bytes length '" + length + "' from offset '" + offset +
+                "' is out of the buffer limit '" + buffer.limit() + "'.");
+        }
+    }
+}
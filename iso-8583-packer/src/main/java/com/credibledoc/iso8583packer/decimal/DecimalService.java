@@ -0,0 +1,250 @@
+package com.credibledoc.iso8583packer.decimal;
+
+import com.credibledoc.iso8583packer.buffer.ByteBufferService;
+import com.credibledoc.iso8583packer.exception.PackerRuntimeException;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Static service. Converts non-negative <b>long</b> numbers to and from decimal digits directly in bytes,
+ * without String conversion and boxing.
+ * <p>
+ * Each zoned digit occupies one byte, the zone is the high nibble and the digit is the low nibble, for example
+ * the number 154 is {@link #ASCII_ZONE} bytes 31 35 34 and {@link #EBCDIC_ZONE} bytes F1 F5 F4.
+ * <p>
+ * Each <a href="https://en.wikipedia.org/wiki/Binary-coded_decimal">BCD</a> byte contains two digits,
+ * for example the number 154 is BCD bytes 01 54.
+ *
+ * @author Kyrylo Semenko
+ */
+public class DecimalService {
+
+    /**
+     * The high nibble of the ASCII digits from '0' (0x30) to '9' (0x39).
+     */
+    public static final int ASCII_ZONE = 0x30;
+
+    /**
+     * The high nibble of the EBCDIC digits from 0xF0 to 0xF9.
+     */
+    public static final int EBCDIC_ZONE = 0xF0;
+
+    private static final int RADIX_10 = 10;
+
+    private DecimalService() {
+        throw new PackerRuntimeException("Please do not instantiate this static helper.");
+    }
+
+    /**
+     * @param value a non-negative number
+     * @return Number of the value decimal digits, for example 1 for 0 and 3 for 154.
+     */
+    public static int countDigits(long value) {
+        checkNonNegative(value);
+        int digits = 1;
+        while (value >= RADIX_10) {
+            value /= RADIX_10;
+            digits++;
+        }
+        return digits;
+    }
+
+    /**
+     * Write the value as zoned digits aligned to the right and padded with zero digits from the left.
+     *
+     * @param value       a non-negative number
+     * @param zone        {@link #ASCII_ZONE} or {@link #EBCDIC_ZONE}
+     * @param bytes       the target
+     * @param offset      the index of the first digit in the bytes
+     * @param digitsCount number of the digits to write
+     */
+    public static void packDigits(long value, int zone, byte[] bytes, int offset, int digitsCount) {
+        checkDigitsCount(value, digitsCount);
+        int available = bytes.length - offset;
+        if (digitsCount > available) {
+            throw new PackerRuntimeException("Byte array available length '" + available +
+                "' is less than required data length '" + digitsCount + "'");
+        }
+        for (int i = offset + digitsCount - 1; i >= offset; i--) {
+            bytes[i] = (byte) (zone | (int) (value % RADIX_10));
+            value /= RADIX_10;
+        }
+    }
+
+    /**
+     * The same as the {@link #packDigits(long, int, byte[], int, int)} method for a buffer.
+     * The position of the buffer is not changed.
+     *
+     * @param value       a non-negative number
+     * @param zone        {@link #ASCII_ZONE} or {@link #EBCDIC_ZONE}
+     * @param target      the target
+     * @param offset      the absolute index of the first digit in the target
+     * @param digitsCount number of the digits to write
+     */
+    public static void packDigits(long value, int zone, ByteBuffer target, int offset, int digitsCount) {
+        checkDigitsCount(value, digitsCount);
+        ByteBufferService.checkBounds(target, offset, digitsCount);
+        for (int i = offset + digitsCount - 1; i >= offset; i--) {
+            target.put(i, (byte) (zone | (int) (value % RADIX_10)));
+            value /= RADIX_10;
+        }
+    }
+
+    /**
+     * Read zoned digits, see the {@link #packDigits(long, int, byte[], int, int)} method.
+     *
+     * @param zone        {@link #ASCII_ZONE} or {@link #EBCDIC_ZONE}
+     * @param bytes       the source
+     * @param offset      the index of the first digit in the bytes
+     * @param digitsCount number of the digits to read
+     * @return The number.
+     */
+    public static long unpackDigits(int zone, byte[] bytes, int offset, int digitsCount) {
+        int available = bytes.length - offset;
+        if (digitsCount > available) {
+            throw new PackerRuntimeException("Required bytes length '" + digitsCount +
+                "' is greater than available sourceData length '" + available + "'");
+        }
+        long result = 0;
+        for (int i = offset; i < offset + digitsCount; i++) {
+            result = appendDigit(result, (bytes[i] & 0xFF) - zone);
+        }
+        return result;
+    }
+
+    /**
+     * The same as the {@link #unpackDigits(int, byte[], int, int)} method for a buffer.
+     * The position of the buffer is not changed.
+     *
+     * @param zone        {@link #ASCII_ZONE} or {@link #EBCDIC_ZONE}
+     * @param source      the source
+     * @param offset      the absolute index of the first digit in the source
+     * @param digitsCount number of the digits to read
+     * @return The number.
+     */
+    public static long unpackDigits(int zone, ByteBuffer source, int offset, int digitsCount) {
+        ByteBufferService.checkBounds(source, offset, digitsCount);
+        long result = 0;
+        for (int i = offset; i < offset + digitsCount; i++) {
+            result = appendDigit(result, (source.get(i) & 0xFF) - zone);
+        }
+        return result;
+    }
+
+    /**
+     * Write the value as BCD digits aligned to the right and padded with zero nibbles from the left.
+     *
+     * @param value      a non-negative number
+     * @param bytes      the target
+     * @param offset     the index of the first byte in the bytes
+     * @param bytesCount number of the bytes to write, two digits per byte
+     */
+    public static void packBcd(long value, byte[] bytes, int offset, int bytesCount) {
+        checkDigitsCount(value, bytesCount * 2);
+        for (int i = offset + bytesCount - 1; i >= offset; i--) {
+            int low = (int) (value % RADIX_10);
+            value /= RADIX_10;
+            bytes[i] = (byte) ((int) (value % RADIX_10) << 4 | low);
+            value /= RADIX_10;
+        }
+    }
+
+    /**
+     * The same as the {@link #packBcd(long, byte[], int, int)} method for a buffer.
+     * The position of the buffer is not changed.
+     *
+     * @param value      a non-negative number
+     * @param target     the target
+     * @param offset     the absolute index of the first byte in the target
+     * @param bytesCount number of the bytes to write, two digits per byte
+     */
+    public static void packBcd(long value, ByteBuffer target, int offset, int bytesCount) {
+        checkDigitsCount(value, bytesCount * 2);
+        ByteBufferService.checkBounds(target, offset, bytesCount);
+        for (int i = offset + bytesCount - 1; i >= offset; i--) {
+            int low = (int) (value % RADIX_10);
+            value /= RADIX_10;
+            target.put(i, (byte) ((int) (value % RADIX_10) << 4 | low));
+            value /= RADIX_10;
+        }
+    }
+
+    /**
+     * Read BCD digits, see the {@link #packBcd(long, byte[], int, int)} method.
+     *
+     * @param bytes      the source
+     * @param offset     the index of the first byte in the bytes
+     * @param bytesCount number of the bytes to read, two digits per byte
+     * @return The number.
+     */
+    public static long unpackBcd(byte[] bytes, int offset, int bytesCount) {
+        long result = 0;
+        for (int i = offset; i < offset + bytesCount; i++) {
+            result = appendDigit(result, (bytes[i] & 0xF0) >>> 4);
+            result = appendDigit(result, bytes[i] & 0x0F);
+        }
+        return result;
+    }
+
+    /**
+     * The same as the {@link #unpackBcd(byte[], int, int)} method for a buffer.
+     * The position of the buffer is not changed.
+     *
+     * @param source     the source
+     * @param offset     the absolute index of the first byte in the source
+     * @param bytesCount number of the bytes to read, two digits per byte
+     * @return The number.
+     */
+    public static long unpackBcd(ByteBuffer source, int offset, int bytesCount) {
+        ByteBufferService.checkBounds(source, offset, bytesCount);
+        long result = 0;
+        for (int i = offset; i < offset + bytesCount; i++) {
+            byte next = source.get(i);
+            result = appendDigit(result, (next & 0xF0) >>> 4);
+            result = appendDigit(result, next & 0x0F);
+        }
+        return result;
+    }
+
+    /**
+     * @param value a number
+     * @return The value casted to <b>int</b>.
+     * @throws PackerRuntimeException if the value is out of the <b>int</b> range
+     */
+    public static int toInt(long value) {
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            throw new PackerRuntimeException("The value '" + value + "' is out of the int range.");
+        }
+        return (int) value;
+    }
+
+    /**
+     * @param result the number from the previous digits
+     * @param digit  the next digit from 0 to 9
+     * @return The result with the appended digit.
+     * @throws PackerRuntimeException if the digit is not decimal or the result is out of the <b>long</b> range
+     */
+    public static long appendDigit(long result, int digit) {
+        if (digit < 0 || digit >= RADIX_10) {
+            throw new PackerRuntimeException("Expected a decimal digit from 0 to 9 but found '" + digit + "'.");
+        }
+        if (result > (Long.MAX_VALUE - digit) / RADIX_10) {
+            throw new PackerRuntimeException("The decimal number is out of the long range.");
+        }
+        return result * RADIX_10 + digit;
+    }
+
+    private static void checkDigitsCount(long value, int digitsCount) {
+        int required = countDigits(value);
+        if (required > digitsCount) {
+            throw new PackerRuntimeException("The value '" + value + "' requires '" + required +
+                "' digits, but only '" + digitsCount + "' digits are available.");
+        }
+    }
+
+    private static void checkNonNegative(long value) {
+        if (value < 0) {
+            throw new PackerRuntimeException("Expected a non-negative value but found '" + value + "'.");
+        }
+    }
+}
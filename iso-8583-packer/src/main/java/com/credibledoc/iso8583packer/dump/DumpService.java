@@ -1,5 +1,6 @@
 package com.credibledoc.iso8583packer.dump;
 
+import com.credibledoc.iso8583packer.bitmap.Bitmap;
 import com.credibledoc.iso8583packer.hex.HexService;
 import com.credibledoc.iso8583packer.length.LengthPacker;
 import com.credibledoc.iso8583packer.masking.AnyMasker;
@@ -19,12 +20,13 @@ import org.slf4j.LoggerFactory;
 import java.io.ByteArrayOutputStream;
 import java.io.PrintStream;
 import java.nio.charset.StandardCharsets;
-import java.util.BitSet;
 import java.util.List;
 import java.util.Objects;
 
 /**
  * The service creates the String representation of the {@link MsgField}s and {@link MsgValue}s for logging and debugging purposes.
+ * <p>
+ * The service is thread-safe, its settings are volatile and the dump methods do not change its state.
  * 
  * @author Kyrylo Semenko
  */
@@ -44,12 +46,12 @@ public class DumpService implements Visualizer {
      */
     protected static final String TRUNCATED = "... truncated ...";
 
-    protected Navigator navigator;
+    protected volatile Navigator navigator;
 
     /**
      * For a huge graphs it is necessary to limit the logging.
      */
-    protected int maxDepthForLogging = DEFAULT_MAX_DEPTH_FOR_LOGGING;
+    protected volatile int maxDepthForLogging = DEFAULT_MAX_DEPTH_FOR_LOGGING;
     
     static {
         instance.createDefaultServices();
@@ -314,9 +316,9 @@ public class DumpService implements Visualizer {
 
     protected String createBitmapString(MsgField msgField, MsgValue msgValue) {
         String bitmapString;
-        BitSet bitSet = msgValue.getBitSet();
-        if (msgField != null && bitSet != null) {
-            byte[] bytes = msgField.getBitMapPacker().pack(msgValue.getBitSet());
+        Bitmap bitmap = msgValue.getBitmap();
+        if (msgField != null && bitmap != null) {
+            byte[] bytes = msgField.getBitMapPacker().pack(bitmap);
             bitmapString = " bitmapHex=\"" + HexService.bytesToHex(bytes) + "\"";
         } else {
             bitmapString = "";
@@ -326,9 +328,8 @@ public class DumpService implements Visualizer {
 
     protected String createBitSetString(MsgField msgField, MsgValue msgValue) {
         String bitSetString;
-        if (msgField != null && msgValue.getBitSet() != null) {
-            BitSet bitSet = msgValue.getBitSet();
-            bitSetString = " bitSet=\"" + bitSet + "\"";
+        if (msgField != null && msgValue.getBitmap() != null) {
+            bitSetString = " bitSet=\"" + msgValue.getBitmap() + "\"";
         } else {
             bitSetString = "";
         }
@@ -383,12 +384,11 @@ public class DumpService implements Visualizer {
         printStream.print(indent + "<f" + content);
         if (msgValue.getChildren() != null) {
             printStream.println(">");
-            List<MsgField> list = msgField.getChildren();
             if (msgField.getDepth() < getMaxDepthForLogging()) {
                 for (MsgValue childMsgValue : msgValue.getChildren()) {
-                    MsgField childMsgField = navigator.findByName(list, childMsgValue.getName());
+                    MsgField childMsgField = navigator.findChildByName(msgField, childMsgValue.getName());
                     if (hasChildren(childMsgValue) || childMsgValue.getBodyValue() != null ||
-                        childMsgValue.getBodyBytes() != null || childMsgValue.getBitSet() != null) {
+                        childMsgValue.getBodyBytes() != null || childMsgValue.getBitmap() != null) {
                         
                         dumpMsgValue(childMsgField, childMsgValue, printStream, indent + indentForChildren, indentForChildren, maskPrivateData);
                     }
@@ -1,13 +1,18 @@
 package com.credibledoc.iso8583packer.ebcdic;
 
 import com.credibledoc.iso8583packer.body.BodyPacker;
+import com.credibledoc.iso8583packer.body.NumericBodyPacker;
+import com.credibledoc.iso8583packer.buffer.ByteBufferService;
+import com.credibledoc.iso8583packer.decimal.DecimalService;
 import com.credibledoc.iso8583packer.exception.PackerRuntimeException;
 
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 
 /**
  * Implements EBCDIC {@link BodyPacker}. Strings are converted to and from EBCDIC bytes.
+ * Non-negative numbers are converted to and from EBCDIC digits directly, see the {@link NumericBodyPacker} methods.
  * The {@link #ISO_88591} charset is used.
  * <p>
  * For example string 'Hello' packed to bytes as hex: C885939396.
@@ -17,7 +22,7 @@ import java.nio.charset.StandardCharsets;
  *
  * @author Kyrylo Semenko
  */
-public class EbcdicBodyPacker implements BodyPacker {
+public class EbcdicBodyPacker implements NumericBodyPacker {
 
     private static final Charset ISO_88591 = StandardCharsets.ISO_8859_1;
 
@@ -75,6 +80,26 @@ public class EbcdicBodyPacker implements BodyPacker {
         return EbcdicService.ebcdicToAscii(sourceData, offset, bytesCount, ISO_88591);
     }
 
+    @Override
+    public void pack(Object object, ByteBuffer target, int offset) {
+        if (object == null) {
+            return;
+        }
+        if (!(object instanceof String)) {
+            throw new PackerRuntimeException("Expected String but found " + object.getClass().getName());
+        }
+        String data = (String) object;
+        ByteBufferService.checkBounds(target, offset, data.length());
+        EbcdicService.asciiToEbcdic(data, target, offset);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public String unpack(ByteBuffer source, int offset, int bytesCount) {
+        ByteBufferService.checkBounds(source, offset, bytesCount);
+        return EbcdicService.ebcdicToAscii(source, offset, bytesCount);
+    }
+
     /**
      * @param object the String for packing.
      * @return The String length.
@@ -90,4 +115,36 @@ public class EbcdicBodyPacker implements BodyPacker {
         String string = (String) object;
         return string.length();
     }
+
+    /**
+     * @param value a non-negative number
+     * @return Number of the value decimal digits.
+     */
+    @Override
+    public int getLongPackedLength(long value) {
+        return DecimalService.countDigits(value);
+    }
+
+    /**
+     * Pack the value as EBCDIC digits without String conversion.
+     *
+     * @param value      a non-negative number
+     * @param bytes      an empty or partially filled bytes.
+     * @param offset     the index of the first unfilled byte in the bytes array from start packing at.
+     * @param bytesCount number of digits, the value is padded with zero digits from the left.
+     */
+    @Override
+    public void packLong(long value, byte[] bytes, int offset, int bytesCount) {
+        DecimalService.packDigits(value, DecimalService.EBCDIC_ZONE, bytes, offset, bytesCount);
+    }
+
+    @Override
+    public long unpackLong(byte[] sourceData, int offset, int bytesCount) {
+        return DecimalService.unpackDigits(DecimalService.EBCDIC_ZONE, sourceData, offset, bytesCount);
+    }
+
+    @Override
+    public long unpackLong(ByteBuffer source, int offset, int bytesCount) {
+        return DecimalService.unpackDigits(DecimalService.EBCDIC_ZONE, source, offset, bytesCount);
+    }
 }
@@ -1,12 +1,12 @@
 package com.credibledoc.iso8583packer.ebcdic;
 
+import com.credibledoc.iso8583packer.buffer.ByteBufferService;
+import com.credibledoc.iso8583packer.decimal.DecimalService;
 import com.credibledoc.iso8583packer.exception.PackerRuntimeException;
-import com.credibledoc.iso8583packer.hex.HexService;
 import com.credibledoc.iso8583packer.length.LengthPacker;
 import com.credibledoc.iso8583packer.message.MsgValue;
-import com.credibledoc.iso8583packer.string.StringUtils;
 
-import java.util.Arrays;
+import java.nio.ByteBuffer;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -22,8 +22,7 @@ import java.util.concurrent.ConcurrentHashMap;
  * @author Kyrylo Semenko
  */
 public class EbcdicDecimalLengthPacker implements LengthPacker {
-    private static final String FILLER_F = "F";
-    private static final char PAD_CHAR_0 = '0';
+    private static final int FILLER_F = 0x0F;
 
     /**
      * Contains created instances. Each instance is Singleton.
@@ -55,18 +54,26 @@ public class EbcdicDecimalLengthPacker implements LengthPacker {
      */
     @Override
     public byte[] pack(int bodyBytesLength) {
-        StringBuilder stringBuilder = new StringBuilder(numBytes * 2);
-        String lenString = StringUtils.leftPad(Integer.toString(bodyBytesLength), numBytes, PAD_CHAR_0);
-        for (char character : lenString.toCharArray()) {
-            stringBuilder.append(FILLER_F).append(character);
-        }
-        if (stringBuilder.length() > numBytes * 2) {
+        checkBodyBytesLength(bodyBytesLength);
+        byte[] bytes = new byte[numBytes];
+        DecimalService.packDigits(bodyBytesLength, DecimalService.EBCDIC_ZONE, bytes, 0, numBytes);
+        return bytes;
+    }
+
+    @Override
+    public int pack(int bodyBytesLength, ByteBuffer target, int offset) {
+        checkBodyBytesLength(bodyBytesLength);
+        DecimalService.packDigits(bodyBytesLength, DecimalService.EBCDIC_ZONE, target, offset, numBytes);
+        return numBytes;
+    }
+
+    private void checkBodyBytesLength(int bodyBytesLength) {
+        int digits = DecimalService.countDigits(bodyBytesLength);
+        if (digits > numBytes) {
             throw new PackerRuntimeException("The bodyBytesLength '" + bodyBytesLength +
                 "' cannot be packed to '" + numBytes + "' bytes " +
-                "because it is longer and '" + Math.round(stringBuilder.length() / 2f) + "' bytes is needed for packing " +
-                "the '" + stringBuilder.toString() + "' value.");
+                "because it is longer and '" + digits + "' bytes is needed for packing.");
         }
-        return HexService.hex2byte(stringBuilder.toString());
     }
 
     /**
@@ -74,10 +81,11 @@ public class EbcdicDecimalLengthPacker implements LengthPacker {
      */
     @Override
     public int unpack(byte[] messageBytes, int offset) {
-        byte[] lenBytes = Arrays.copyOfRange(messageBytes, offset, offset + numBytes);
-        String hex = HexService.bytesToHex(lenBytes);
-        String withoutF = hex.replace(FILLER_F, "");
-        return Integer.parseInt(withoutF);
+        long result = 0;
+        for (int i = offset; i < offset + numBytes; i++) {
+            result = appendNibbles(result, messageBytes[i]);
+        }
+        return DecimalService.toInt(result);
     }
 
     @Override
@@ -85,4 +93,35 @@ public class EbcdicDecimalLengthPacker implements LengthPacker {
         return numBytes;
     }
 
+    @Override
+    public int unpack(ByteBuffer source, int offset) {
+        ByteBufferService.checkBounds(source, offset, numBytes);
+        long result = 0;
+        for (int i = offset; i < offset + numBytes; i++) {
+            result = appendNibbles(result, source.get(i));
+        }
+        return DecimalService.toInt(result);
+    }
+
+    /**
+     * Append both nibbles of the byte to the result, but the {@link #FILLER_F} nibbles are skipped.
+     * For example the bytes 00 F1 are unpacked as 001.
+     */
+    private static long appendNibbles(long result, byte next) {
+        int high = (next & 0xF0) >>> 4;
+        if (high != FILLER_F) {
+            result = DecimalService.appendDigit(result, high);
+        }
+        int low = next & 0x0F;
+        if (low != FILLER_F) {
+            result = DecimalService.appendDigit(result, low);
+        }
+        return result;
+    }
+
+    @Override
+    public int calculateLenLength(ByteBuffer source, int offset) {
+        return numBytes;
+    }
+
 }
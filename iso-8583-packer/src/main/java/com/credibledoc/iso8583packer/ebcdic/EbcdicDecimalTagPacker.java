@@ -1,11 +1,13 @@
 package com.credibledoc.iso8583packer.ebcdic;
 
+import com.credibledoc.iso8583packer.buffer.ByteBufferService;
 import com.credibledoc.iso8583packer.exception.PackerRuntimeException;
 import com.credibledoc.iso8583packer.hex.HexService;
 import com.credibledoc.iso8583packer.message.MsgValue;
 import com.credibledoc.iso8583packer.string.StringUtils;
 import com.credibledoc.iso8583packer.tag.TagPacker;
 
+import java.nio.ByteBuffer;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -100,6 +102,17 @@ public class EbcdicDecimalTagPacker implements TagPacker {
         return Integer.parseInt(stringBuilder.toString());
     }
 
+    @Override
+    @SuppressWarnings("unchecked")
+    public Integer unpack(ByteBuffer source, int offset) {
+        ByteBufferService.checkBounds(source, offset, packedLength);
+        char[] digits = new char[packedLength];
+        for (int index = 0; index < packedLength; index++) {
+            digits[index] = Character.forDigit(source.get(offset + index) & 0x0F, 16);
+        }
+        return Integer.parseInt(new String(digits));
+    }
+
     @Override
     public int getPackedLength() {
         return packedLength;
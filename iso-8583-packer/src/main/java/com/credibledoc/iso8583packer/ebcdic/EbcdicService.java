@@ -2,6 +2,7 @@ package com.credibledoc.iso8583packer.ebcdic;
 
 import com.credibledoc.iso8583packer.exception.PackerRuntimeException;
 
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 
 /**
@@ -156,6 +157,21 @@ public class EbcdicService {
         }
     }
 
+    static void asciiToEbcdic(String s, ByteBuffer e, int offset) {
+        int len = s.length();
+        for (int i=0; i<len; i++) {
+            e.put(offset + i, ASCII2EBCDIC[s.charAt(i) & 0xFF]);
+        }
+    }
+
+    static String ebcdicToAscii(ByteBuffer e, int offset, int len) {
+        char[] a = new char[len];
+        for (int i=0; i<len; i++) {
+            a[i] = (char) (EBCDIC2ASCII[e.get(offset + i) & 0xFF] & 0xFF);
+        }
+        return new String(a);
+    }
+
     static String ebcdicToAscii(byte[] e, int offset, int len, Charset charset) {
         return new String(ebcdicToAsciiBytes(e, offset, len), charset);
     }
@@ -0,0 +1,184 @@
+package com.credibledoc.iso8583packer.frame;
+
+import com.credibledoc.iso8583packer.exception.PackerRuntimeException;
+import com.credibledoc.iso8583packer.length.LengthPacker;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * Splits a stream of length-prefixed messages, for example from a TCP connection, to frames.
+ * Each frame starts with a length header packed by the {@link #lengthPacker}, for example
+ * {@link com.credibledoc.iso8583packer.binary.BinaryLengthPacker} with 2 bytes or
+ * {@link com.credibledoc.iso8583packer.asciihex.AsciiLengthPacker} with 4 bytes.
+ * <p>
+ * Partial reads are accumulated in the {@link #buffer}. Complete frames are returned by the {@link #nextFrame()}
+ * method as slices of the {@link #buffer} without copying. A returned frame is valid until the next
+ * {@link #read(ReadableByteChannel)} or {@link #read(InputStream)} call.
+ * <pre>
+ *     FrameReader frameReader = new FrameReader(BinaryLengthPacker.getInstance(2), ByteBuffer.allocateDirect(8192));
+ *     while (frameReader.read(socketChannel) != -1) {
+ *         ByteBuffer frame;
+ *         while ((frame = frameReader.nextFrame()) != null) {
+ *             isoMsg.unpack(frame);
+ *             ...
+ *         }
+ *     }
+ * </pre>
+ * The instances are not thread-safe, please create a new instance for each connection.
+ *
+ * @author Kyrylo Semenko
+ */
+public class FrameReader {
+
+    /**
+     * Size of a temporary array used for reading from an {@link InputStream} to a direct {@link #buffer}.
+     */
+    private static final int TRANSFER_SIZE_8192 = 8192;
+
+    /**
+     * Unpacks the length headers of frames.
+     */
+    private final LengthPacker lengthPacker;
+
+    /**
+     * Accumulates the read bytes. Bytes from the {@link #frameStart} up to the buffer position are not consumed yet.
+     * The capacity limits the maximal frame length including its header.
+     */
+    private final ByteBuffer buffer;
+
+    /**
+     * Index of the first not consumed byte in the {@link #buffer}.
+     */
+    private int frameStart;
+
+    /**
+     * Create a reader with a heap buffer.
+     *
+     * @param lengthPacker see the {@link #lengthPacker} field description.
+     * @param capacity     the capacity of the {@link #buffer}.
+     */
+    public FrameReader(LengthPacker lengthPacker, int capacity) {
+        this(lengthPacker, ByteBuffer.allocate(capacity));
+    }
+
+    /**
+     * Create a reader with a provided buffer, for example a direct buffer from a pool. The buffer will be cleared.
+     *
+     * @param lengthPacker see the {@link #lengthPacker} field description.
+     * @param buffer       see the {@link #buffer} field description.
+     */
+    public FrameReader(LengthPacker lengthPacker, ByteBuffer buffer) {
+        if (lengthPacker == null) {
+            throw new PackerRuntimeException("LengthPacker cannot be 'null'.");
+        }
+        if (buffer == null || buffer.isReadOnly()) {
+            throw new PackerRuntimeException("Buffer cannot be 'null' or read-only.");
+        }
+        this.lengthPacker = lengthPacker;
+        this.buffer = buffer;
+        buffer.clear();
+    }
+
+    /**
+     * Read available bytes from the channel. Frames returned before are not valid after this call.
+     *
+     * @param channel the source
+     * @return The number of read bytes, possibly zero, or -1 if the channel has reached end-of-stream.
+     * @throws IOException from the channel
+     */
+    public int read(ReadableByteChannel channel) throws IOException {
+        compact();
+        return channel.read(buffer);
+    }
+
+    /**
+     * Read available bytes from the input stream. Frames returned before are not valid after this call.
+     *
+     * @param inputStream the source
+     * @return The number of read bytes or -1 if the end of the stream has been reached.
+     * @throws IOException from the input stream
+     */
+    public int read(InputStream inputStream) throws IOException {
+        compact();
+        int position = buffer.position();
+        if (buffer.hasArray()) {
+            int read = inputStream.read(buffer.array(), buffer.arrayOffset() + position, buffer.remaining());
+            if (read > 0) {
+                buffer.position(position + read);
+            }
+            return read;
+        }
+        byte[] bytes = new byte[Math.min(buffer.remaining(), TRANSFER_SIZE_8192)];
+        int read = inputStream.read(bytes);
+        if (read > 0) {
+            buffer.put(bytes, 0, read);
+        }
+        return read;
+    }
+
+    /**
+     * Find the next complete frame in the read bytes.
+     *
+     * @return The body of the frame without the length header as a slice of the {@link #buffer},
+     * or 'null' if the frame is not read completely yet.
+     */
+    public ByteBuffer nextFrame() {
+        int end = buffer.position();
+        int available = end - frameStart;
+        if (available == 0) {
+            return null;
+        }
+        ByteBuffer view = buffer.duplicate();
+        view.limit(end);
+        int lenLength = lengthPacker.calculateLenLength(view, frameStart);
+        if (available < lenLength) {
+            return null;
+        }
+        int bodyLength = lengthPacker.unpack(view, frameStart);
+        int frameLength = lenLength + bodyLength;
+        if (bodyLength < 0 || frameLength > buffer.capacity()) {
+            throw new PackerRuntimeException("Frame length '" + frameLength +
+                "' is out of the buffer capacity '" + buffer.capacity() + "'.");
+        }
+        if (available < frameLength) {
+            return null;
+        }
+        view.position(frameStart + lenLength);
+        view.limit(frameStart + frameLength);
+        frameStart += frameLength;
+        return view.slice();
+    }
+
+    /**
+     * @return Number of read bytes those are not returned as frames yet.
+     */
+    public int getPendingLength() {
+        return buffer.position() - frameStart;
+    }
+
+    /**
+     * Move not consumed bytes to the start of the {@link #buffer}.
+     */
+    private void compact() {
+        if (frameStart > 0) {
+            buffer.limit(buffer.position());
+            buffer.position(frameStart);
+            buffer.compact();
+            frameStart = 0;
+        }
+        if (!buffer.hasRemaining()) {
+            throw new PackerRuntimeException("The buffer with capacity '" + buffer.capacity() +
+                "' is full, but it contains no complete frame.");
+        }
+    }
+
+    /**
+     * @return The {@link #lengthPacker} field value.
+     */
+    public LengthPacker getLengthPacker() {
+        return lengthPacker;
+    }
+}
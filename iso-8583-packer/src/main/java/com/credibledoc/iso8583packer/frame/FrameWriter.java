@@ -0,0 +1,86 @@
+package com.credibledoc.iso8583packer.frame;
+
+import com.credibledoc.iso8583packer.exception.PackerRuntimeException;
+import com.credibledoc.iso8583packer.length.LengthPacker;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
+
+/**
+ * Writes packed messages with length headers, see the {@link FrameReader} for reading them.
+ * <p>
+ * Messages are not copied, the length headers and the messages are written to channels
+ * by gathering writes.
+ * <p>
+ * The instances have no state and can be shared between connections.
+ *
+ * @author Kyrylo Semenko
+ */
+public class FrameWriter {
+
+    /**
+     * Packs the length headers of frames.
+     */
+    private final LengthPacker lengthPacker;
+
+    /**
+     * @param lengthPacker see the {@link #lengthPacker} field description.
+     */
+    public FrameWriter(LengthPacker lengthPacker) {
+        if (lengthPacker == null) {
+            throw new PackerRuntimeException("LengthPacker cannot be 'null'.");
+        }
+        this.lengthPacker = lengthPacker;
+    }
+
+    /**
+     * Write the messages with their length headers to the channel. Bytes of each message between its position
+     * and limit are written and the position is moved to the limit.
+     * <p>
+     * The method returns when all bytes are written, so it is intended for blocking channels.
+     *
+     * @param channel  the destination
+     * @param messages packed messages
+     * @return Number of written bytes including the length headers.
+     * @throws IOException from the channel
+     */
+    public long write(GatheringByteChannel channel, ByteBuffer... messages) throws IOException {
+        ByteBuffer[] buffers = new ByteBuffer[messages.length * 2];
+        long length = 0;
+        for (int i = 0; i < messages.length; i++) {
+            ByteBuffer header = ByteBuffer.wrap(lengthPacker.pack(messages[i].remaining()));
+            buffers[i * 2] = header;
+            buffers[i * 2 + 1] = messages[i];
+            length += header.remaining() + messages[i].remaining();
+        }
+        long written = 0;
+        while (written < length) {
+            written += channel.write(buffers);
+        }
+        return written;
+    }
+
+    /**
+     * Write the message with its length header to the output stream.
+     *
+     * @param outputStream the destination
+     * @param message      a packed message
+     * @return Number of written bytes including the length header.
+     * @throws IOException from the output stream
+     */
+    public int write(OutputStream outputStream, byte[] message) throws IOException {
+        byte[] header = lengthPacker.pack(message.length);
+        outputStream.write(header);
+        outputStream.write(message);
+        return header.length + message.length;
+    }
+
+    /**
+     * @return The {@link #lengthPacker} field value.
+     */
+    public LengthPacker getLengthPacker() {
+        return lengthPacker;
+    }
+}
@@ -1,8 +1,10 @@
 package com.credibledoc.iso8583packer.hex;
 
 import com.credibledoc.iso8583packer.body.BodyPacker;
+import com.credibledoc.iso8583packer.buffer.ByteBufferService;
 import com.credibledoc.iso8583packer.exception.PackerRuntimeException;
 
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 
 /**
@@ -72,6 +74,13 @@ public class HexBodyPacker implements BodyPacker {
         return HexService.bytesToHex(bytes);
 	}
 
+	@Override
+	@SuppressWarnings("unchecked")
+	public String unpack(ByteBuffer source, int offset, int bytesCount) {
+		ByteBufferService.checkBounds(source, offset, bytesCount);
+		return HexService.bytesToHex(source, offset, bytesCount);
+	}
+
 	@Override
 	public int getPackedLength(Object object) {
 		if (object == null) {
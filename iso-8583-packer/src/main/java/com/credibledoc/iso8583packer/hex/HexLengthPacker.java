@@ -1,9 +1,11 @@
 package com.credibledoc.iso8583packer.hex;
 
+import com.credibledoc.iso8583packer.buffer.ByteBufferService;
 import com.credibledoc.iso8583packer.exception.PackerRuntimeException;
 import com.credibledoc.iso8583packer.length.LengthPacker;
 
 import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 
 /**
@@ -90,7 +92,29 @@ public class HexLengthPacker implements LengthPacker {
 
     @Override
     public int calculateLenLength(byte[] data, int offset) {
-        byte firstByte = data[offset];
+        return calculateLenLength(data[offset]);
+    }
+
+    @Override
+    public int unpack(ByteBuffer source, int offset) {
+        ByteBufferService.checkBounds(source, offset, calculateLenLength(source, offset));
+        byte firstByte = source.get(offset);
+        if (firstByte == FLAG_ONE_BYTE_81_AS_BYTE) {
+            return source.get(offset + 1) & 0xFF;
+        }
+        if (firstByte == FLAG_TWO_BYTES_82_AS_BYTE) {
+            return (source.get(offset + 1) & 0xFF) << 8 | source.get(offset + 2) & 0xFF;
+        }
+        return firstByte & 0xFF;
+    }
+
+    @Override
+    public int calculateLenLength(ByteBuffer source, int offset) {
+        ByteBufferService.checkBounds(source, offset, 1);
+        return calculateLenLength(source.get(offset));
+    }
+
+    private int calculateLenLength(byte firstByte) {
         if (firstByte == FLAG_TWO_BYTES_82_AS_BYTE) {
             return 3;
         }
@@ -2,6 +2,8 @@ package com.credibledoc.iso8583packer.hex;
 
 import com.credibledoc.iso8583packer.exception.PackerRuntimeException;
 
+import java.nio.ByteBuffer;
+
 /**
  * Static service for conversions of <a href="https://en.wikipedia.org/wiki/Hexadecimal">HEX</a> data format.
  * 
@@ -45,6 +47,22 @@ public class HexService {
         return stringBuilder.toString();
     }
 
+    /**
+     * Convert bytes of a buffer to a hex string. The position of the buffer is not changed.
+     *
+     * @param buffer the source buffer
+     * @param offset the absolute index of the first byte
+     * @param length number of bytes
+     * @return String representation
+     */
+    public static String bytesToHex(ByteBuffer buffer, int offset, int length) {
+        StringBuilder stringBuilder = new StringBuilder(length * 2);
+        for (int i = offset; i < offset + length; i++) {
+            stringBuilder.append(hexStrings[(int) buffer.get(i) & 0xFF]);
+        }
+        return stringBuilder.toString();
+    }
+
     /**
      * Call the {@link #bytesToHex(byte[])} method and optionally interlace single bytes with some separator (divider).
      * @param bytes a byte array
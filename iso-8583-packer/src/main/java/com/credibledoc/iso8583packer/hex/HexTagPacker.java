@@ -1,9 +1,11 @@
 package com.credibledoc.iso8583packer.hex;
 
+import com.credibledoc.iso8583packer.buffer.ByteBufferService;
 import com.credibledoc.iso8583packer.exception.PackerRuntimeException;
 import com.credibledoc.iso8583packer.message.MsgValue;
 import com.credibledoc.iso8583packer.tag.TagPacker;
 
+import java.nio.ByteBuffer;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -86,6 +88,13 @@ public class HexTagPacker implements TagPacker {
         return Integer.parseInt(hex, 16);
     }
 
+    @Override
+    @SuppressWarnings("unchecked")
+    public Integer unpack(ByteBuffer source, int offset) {
+        ByteBufferService.checkBounds(source, offset, packedLength);
+        return Integer.parseInt(HexService.bytesToHex(source, offset, packedLength), 16);
+    }
+
     @Override
     public int getPackedLength() {
         return packedLength;
@@ -1,16 +1,18 @@
 package com.credibledoc.iso8583packer.ifa;
 
+import com.credibledoc.iso8583packer.bitmap.Bitmap;
 import com.credibledoc.iso8583packer.bitmap.BitmapPacker;
 import com.credibledoc.iso8583packer.bitmap.BitmapService;
+import com.credibledoc.iso8583packer.buffer.ByteBufferService;
 import com.credibledoc.iso8583packer.exception.PackerRuntimeException;
 import com.credibledoc.iso8583packer.hex.HexService;
 import com.credibledoc.iso8583packer.ifb.IfbBitmapPacker;
 import com.credibledoc.iso8583packer.message.MsgField;
 import com.credibledoc.iso8583packer.message.MsgValue;
 
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
-import java.util.Arrays;
 import java.util.BitSet;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -38,7 +40,12 @@ public class IfaBitmapPacker implements BitmapPacker {
     private final int bitsetBytesLength;
 
     /**
-     * Helps to prepare {@link BitSet} data.
+     * Upper case hex digits of the packed bitmap.
+     */
+    private static final byte[] HEX_DIGITS = "0123456789ABCDEF".getBytes(ISO_88591);
+
+    /**
+     * Helps to prepare {@link Bitmap} data.
      */
     private final IfbBitmapPacker ifbBitmapPacker;
 
@@ -108,22 +115,56 @@ public class IfaBitmapPacker implements BitmapPacker {
      */
     @Override
     public byte[] pack(BitSet bitSet) {
-        byte[] ifb = ifbBitmapPacker.pack(bitSet);
-        return HexService.bytesToHex(ifb).getBytes(ISO_88591);
+        return toAsciiHex(ifbBitmapPacker.pack(bitSet));
+    }
+
+    /**
+     * @param bitmap for packing
+     * @return Packed bytes
+     */
+    @Override
+    public byte[] pack(Bitmap bitmap) {
+        return toAsciiHex(ifbBitmapPacker.pack(bitmap));
+    }
+
+    /**
+     * The same as the {@link HexService#bytesToHex(byte[])} method with the {@link #ISO_88591} encoding
+     * without a temporary {@link String}.
+     */
+    private static byte[] toAsciiHex(byte[] ifb) {
+        byte[] result = new byte[ifb.length * 2];
+        for (int i = 0; i < ifb.length; i++) {
+            result[i * 2] = HEX_DIGITS[(ifb[i] >> 4) & 0x0F];
+            result[i * 2 + 1] = HEX_DIGITS[ifb[i] & 0x0F];
+        }
+        return result;
     }
 
     /**
-     * @param msgValue the target container for storing the unpacked {@link BitSet}
+     * @param msgValue the target container for storing the unpacked {@link Bitmap}
      * @param bytes    the source bytes
      * @param offset   starting offset within the bytes
      * @return Consumed bytes number
      */
     @Override
     public int unpack(MsgValue msgValue, byte[] bytes, int offset) {
+        return unpack(msgValue, ByteBuffer.wrap(bytes), offset);
+    }
+
+    /**
+     * @param msgValue the target container for storing the unpacked {@link Bitmap}
+     * @param bytes    the source buffer, its position is not changed
+     * @param offset   the absolute index of the first bitmap byte
+     * @return Consumed bytes number
+     */
+    @Override
+    public int unpack(MsgValue msgValue, ByteBuffer bytes, int offset) {
         int resolvedLen = resolvePackedLen(bytes, offset);
-        byte[] ifaBytes = Arrays.copyOfRange(bytes, offset, offset + resolvedLen);
-        String ifbString = new String(ifaBytes, ISO_88591);
-        byte[] ifbBytes = HexService.hex2byte(ifbString);
+        ByteBufferService.checkBounds(bytes, offset, resolvedLen);
+        byte[] ifbBytes = new byte[resolvedLen / 2];
+        for (int i = 0; i < ifbBytes.length; i++) {
+            ifbBytes[i] = hexToByte(bytes, offset + i * 2);
+        }
         int unpackedLen = ifbBitmapPacker.unpack(msgValue, ifbBytes, 0);
         if (bitsetBytesLength != -1 && unpackedLen != bitsetBytesLength) {
             throw new PackerRuntimeException("Result bytes length '" + unpackedLen +
@@ -132,7 +173,7 @@ public class IfaBitmapPacker implements BitmapPacker {
         return resolvedLen;
     }
 
-    private int resolvePackedLen(byte[] bytes, int offset) {
+    private int resolvePackedLen(ByteBuffer bytes, int offset) {
         int result = 8;
         if (getPackedBytesLength() != -1) {
             return getPackedBytesLength();
@@ -146,15 +187,30 @@ public class IfaBitmapPacker implements BitmapPacker {
         return result * 2;
     }
 
-    private boolean firstBitHasFlag(byte[] bytes, int firstOffset, int secondOffset) {
+    private boolean firstBitHasFlag(ByteBuffer bytes, int firstOffset, int secondOffset) {
         int offset = firstOffset + secondOffset;
-        if (bytes.length < offset + 2) {
+        if (bytes.limit() < offset + 2) {
             return false;
         }
-        byte[] ifaBytes = Arrays.copyOfRange(bytes, offset, offset + 2);
-        String ifbString = new String(ifaBytes, ISO_88591);
-        byte[] ifbBytes = HexService.hex2byte(ifbString);
-        return BitmapService.hasFlag(ifbBytes[0]);
+        return BitmapService.hasFlag(hexToByte(bytes, offset));
+    }
+
+    /**
+     * Decode two hex chars, see the {@link HexService#hex2byte(byte[], int, int)} method.
+     *
+     * @throws PackerRuntimeException if the bytes do not contain hex chars
+     */
+    private static byte hexToByte(ByteBuffer bytes, int offset) {
+        return (byte) (hexToDigit(bytes, offset) << 4 | hexToDigit(bytes, offset + 1));
+    }
+
+    private static int hexToDigit(ByteBuffer bytes, int index) {
+        int digit = Character.digit((char) (bytes.get(index) & 0xFF), 16);
+        if (digit == -1) {
+            throw new PackerRuntimeException("The byte '" + (bytes.get(index) & 0xFF) + "' with index '" + index +
+                "' is not a hex char of the ASCII bitmap.");
+        }
+        return digit;
     }
 
     @Override
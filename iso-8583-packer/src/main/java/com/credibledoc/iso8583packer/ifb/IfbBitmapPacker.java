@@ -1,14 +1,16 @@
 package com.credibledoc.iso8583packer.ifb;
 
+import com.credibledoc.iso8583packer.bitmap.Bitmap;
 import com.credibledoc.iso8583packer.bitmap.BitmapPacker;
 import com.credibledoc.iso8583packer.bitmap.BitmapService;
+import com.credibledoc.iso8583packer.buffer.ByteBufferService;
 import com.credibledoc.iso8583packer.exception.PackerRuntimeException;
 import com.credibledoc.iso8583packer.message.MsgField;
 import com.credibledoc.iso8583packer.message.MsgValue;
 
+import java.nio.ByteBuffer;
 import java.util.BitSet;
 import java.util.Map;
-import java.util.OptionalInt;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
@@ -73,11 +75,48 @@ public class IfbBitmapPacker implements BitmapPacker {
     }
 
     /**
+     * Call the {@link #pack(Bitmap)} method.
+     *
      * @param bitSet for packing
      * @return packed bytes
      */
     @Override
     public byte[] pack(BitSet bitSet) {
+        int maxFieldNum = bitSet.length() - 1;
+        checkMaxBitSetSize(maxFieldNum);
+        if (maxFieldNum > MAX_FIELD_NUM_192) {
+            throw new PackerRuntimeException("Maximal allowed fieldNum is 192. Current field num is " + maxFieldNum);
+        }
+        return pack(Bitmap.valueOf(bitSet));
+    }
+
+    /**
+     * @param bitmap for packing
+     * @return packed bytes
+     */
+    @Override
+    public byte[] pack(Bitmap bitmap) {
+        int resolvedBytesLength = resolveBytesLength(bitmap);
+        return BitmapService.bitmap2byte(bitmap, resolvedBytesLength);
+    }
+
+    /**
+     * Write the packed bitmap to the target without a temporary array.
+     *
+     * @param bitmap for packing
+     * @param target the destination buffer, its position is not changed
+     * @param offset the absolute index of the first bitmap byte
+     * @return number of written bytes
+     */
+    @Override
+    public int pack(Bitmap bitmap, ByteBuffer target, int offset) {
+        int resolvedBytesLength = resolveBytesLength(bitmap);
+        ByteBufferService.checkBounds(target, offset, resolvedBytesLength);
+        BitmapService.bitmap2byte(bitmap, resolvedBytesLength, target, offset);
+        return resolvedBytesLength;
+    }
+
+    private int resolveBytesLength(Bitmap bitmap) {
         // 1 byte max fieldNum 8
         // 2 bytes max fieldNum 16
         // 3 bytes max fieldNum 24
@@ -86,14 +125,11 @@ public class IfbBitmapPacker implements BitmapPacker {
         // 16 bytes max fieldNum 128
         // 24 bytes max fieldNum 192
 
-        checkMaxBitSetSize(bitSet);
+        int maxFieldNum = bitmap.getMaxFieldNum();
+        checkMaxBitSetSize(maxFieldNum);
 
         int resolvedBytesLength;
         if (getPackedBytesLength() == -1) {
-            int maxFieldNum = bitSet.previousSetBit(MAX_FIELD_NUM_192 + 1);
-            if (maxFieldNum > 192) {
-                throw new PackerRuntimeException("Maximal allowed fieldNum is 192. Current field num is " + maxFieldNum);
-            }
             if (maxFieldNum > 128) {
                 resolvedBytesLength = 24;
             } else if (maxFieldNum > 64) {
@@ -104,7 +140,6 @@ public class IfbBitmapPacker implements BitmapPacker {
         } else {
             resolvedBytesLength = getPackedBytesLength();
             if (resolvedBytesLength == SINGLE_BITMAP_LENGTH_8) {
-                int maxFieldNum = bitSet.previousSetBit(MAX_FIELD_NUM_192 + 1);
                 if (maxFieldNum > 128) {
                     resolvedBytesLength = SINGLE_BITMAP_LENGTH_8 * 3;
                 } else if (maxFieldNum > 64) {
@@ -113,64 +148,70 @@ public class IfbBitmapPacker implements BitmapPacker {
             }
         }
         int maxPossibleSetBit = resolvedBytesLength * SINGLE_BITMAP_LENGTH_8;
-        int bitOutOfBoundary = bitSet.nextSetBit(maxPossibleSetBit + 1);
+        int bitOutOfBoundary = bitmap.nextFieldNum(maxPossibleSetBit + 1);
         boolean existsBitOutOfBoundary = bitOutOfBoundary > -1;
         if (existsBitOutOfBoundary) {
-            throw new PackerRuntimeException("BitSet '" + bitSet + "' contains bit '" + bitOutOfBoundary +
+            throw new PackerRuntimeException("BitSet '" + bitmap + "' contains bit '" + bitOutOfBoundary +
                 "' that is greater than maximum possible bit '" + maxPossibleSetBit +
                 "' that can be encoded to a bytes array with length '" + resolvedBytesLength + "'.");
         }
-
-        return BitmapService.bitSet2byte(bitSet, resolvedBytesLength);
+        return resolvedBytesLength;
     }
 
-    private void checkMaxBitSetSize(BitSet bitSet) {
+    private void checkMaxBitSetSize(int maxBit) {
         if (packedBytesLength != -1) {
-            OptionalInt optionalInt = bitSet.stream().max();
-            if (optionalInt.isPresent()) {
-                int maxBit = optionalInt.getAsInt();
-                int maxAllowedBit = packedBytesLength * 8;
-                if (maxAllowedBit < maxBit) {
-                    throw new PackerRuntimeException("Maximal allowed bit in bitSet is '" + maxAllowedBit + "'. " +
-                        "Current max bit in bitSet is " + maxBit);
-                }
+            int maxAllowedBit = packedBytesLength * 8;
+            if (maxAllowedBit < maxBit) {
+                throw new PackerRuntimeException("Maximal allowed bit in bitSet is '" + maxAllowedBit + "'. " +
+                    "Current max bit in bitSet is " + maxBit);
             }
         }
     }
 
     /**
-     * @param msgValue the target container for storing the unpacked {@link BitSet}
+     * @param msgValue the target container for storing the unpacked {@link Bitmap}
      * @param bytes       the source bytes
      * @param offset      starting offset within the bytes
      * @return consumed bytes number
      */
     @Override
     public int unpack(MsgValue msgValue, byte[] bytes, int offset) {
+        return unpack(msgValue, ByteBuffer.wrap(bytes), offset);
+    }
+
+    /**
+     * @param msgValue the target container for storing the unpacked {@link Bitmap}
+     * @param bytes    the source buffer, its position is not changed
+     * @param offset   the absolute index of the first bitmap byte
+     * @return consumed bytes number
+     */
+    @Override
+    public int unpack(MsgValue msgValue, ByteBuffer bytes, int offset) {
         int maxFieldNum = resolveMaxFieldNum(bytes, offset);
-        BitSet bitSet = BitmapService.byte2BitSet(bytes, offset, maxFieldNum);
+        Bitmap bitmap = BitmapService.byte2Bitmap(bytes, offset, maxFieldNum);
         int unpackedBytesLength = SINGLE_BITMAP_LENGTH_8;
-        if (packedBytesLength == -1 && bitSet.get(1)) {
+        if (packedBytesLength == -1 && bitmap.get(1)) {
             maxFieldNum = 128;
-            bitSet = BitmapService.byte2BitSet(bytes, offset, maxFieldNum);
+            bitmap = BitmapService.byte2Bitmap(bytes, offset, maxFieldNum);
             unpackedBytesLength = unpackedBytesLength + SINGLE_BITMAP_LENGTH_8;
-            if (bitSet.get(65)) {
+            if (bitmap.get(65)) {
                 maxFieldNum = 192;
-                bitSet = BitmapService.byte2BitSet(bytes, offset, maxFieldNum);
+                bitmap = BitmapService.byte2Bitmap(bytes, offset, maxFieldNum);
                 unpackedBytesLength = unpackedBytesLength + SINGLE_BITMAP_LENGTH_8;
             }
         } else if (packedBytesLength != -1) { // TODO Kyrylo Semenko - test
             unpackedBytesLength = packedBytesLength;
         }
-        msgValue.setBitSet(bitSet);
+        msgValue.setBitmap(bitmap);
         return unpackedBytesLength;
     }
 
-    private int resolveMaxFieldNum(byte[] bytes, int offset) {
+    private int resolveMaxFieldNum(ByteBuffer bytes, int offset) {
         if (packedBytesLength == -1) {
             int result = 64;
-            if (BitmapService.hasFlag(bytes[offset])) {
+            if (BitmapService.hasFlag(bytes.get(offset))) {
                 result = 128;
-                if (bytes.length >= offset + SINGLE_BITMAP_LENGTH_8 && BitmapService.hasFlag(bytes[offset + SINGLE_BITMAP_LENGTH_8])) {
+                if (bytes.limit() >= offset + SINGLE_BITMAP_LENGTH_8 && BitmapService.hasFlag(bytes.get(offset + SINGLE_BITMAP_LENGTH_8))) {
                     result = 192;
                 }
             }
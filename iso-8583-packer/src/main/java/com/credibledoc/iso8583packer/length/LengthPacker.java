@@ -1,8 +1,11 @@
 package com.credibledoc.iso8583packer.length;
 
+import com.credibledoc.iso8583packer.buffer.ByteBufferService;
 import com.credibledoc.iso8583packer.hex.HexLengthPacker;
 import com.credibledoc.iso8583packer.message.MsgValue;
 
+import java.nio.ByteBuffer;
+
 /**
  * Actual documentation and examples
  * <a href="https://github.com/credibledoc/credible-doc/blob/master/iso-8583-packer/doc/length/length-packer.md">length-packer.md</a>.
@@ -52,4 +55,57 @@ public interface LengthPacker {
      */
     int calculateLenLength(byte[] data, int offset);
 
+    /**
+     * Call the {@link #pack(int)} method and write the result to the target buffer. The offset is an absolute
+     * index, the position of the target is not changed.
+     *
+     * @param bodyBytesLength the number to be encoded and packed.
+     * @param target          the destination buffer.
+     * @param offset          the index in the target where the packed length starts.
+     * @return Number of written bytes.
+     */
+    default int pack(int bodyBytesLength, ByteBuffer target, int offset) {
+        return ByteBufferService.putBytes(target, offset, pack(bodyBytesLength));
+    }
+
+    /**
+     * Unpack a number how many bytes contains the {@link MsgValue#getBodyBytes()} subfield. The offset is
+     * an absolute index, the position of the source is not changed.
+     * <p>
+     * The default implementation unpacks from the backing array of heap buffers, remaining bytes of other
+     * buffers are copied to a temporary array.
+     *
+     * @param source packed bytes of incoming message.
+     * @param offset the index of the first length byte.
+     * @return Number of bytes to be unpacked from the source to the {@link MsgValue#setBodyBytes(byte[])} subfield.
+     * @throws com.credibledoc.iso8583packer.exception.PackerRuntimeException if the length bytes exceed
+     * the {@link ByteBuffer#limit()} of the source.
+     */
+    default int unpack(ByteBuffer source, int offset) {
+        ByteBufferService.checkBounds(source, offset, calculateLenLength(source, offset));
+        if (source.hasArray()) {
+            return unpack(source.array(), source.arrayOffset() + offset);
+        }
+        return unpack(ByteBufferService.copyBytes(source, offset, ByteBufferService.remaining(source, offset)), 0);
+    }
+
+    /**
+     * The same as the {@link #calculateLenLength(byte[], int)} method for a buffer. The offset is an absolute
+     * index, the position of the source is not changed.
+     *
+     * @param source message part started with field length bytes.
+     * @param offset the index of the first length byte.
+     * @return Number of the length bytes.
+     * @throws com.credibledoc.iso8583packer.exception.PackerRuntimeException if the offset is not less than
+     * the {@link ByteBuffer#limit()} of the source.
+     */
+    default int calculateLenLength(ByteBuffer source, int offset) {
+        ByteBufferService.checkBounds(source, offset, 1);
+        if (source.hasArray()) {
+            return calculateLenLength(source.array(), source.arrayOffset() + offset);
+        }
+        return calculateLenLength(
+            ByteBufferService.copyBytes(source, offset, ByteBufferService.remaining(source, offset)), 0);
+    }
+
 }
@@ -1,8 +1,11 @@
 package com.credibledoc.iso8583packer.literal;
 
 import com.credibledoc.iso8583packer.body.BodyPacker;
+import com.credibledoc.iso8583packer.buffer.ByteBufferService;
 import com.credibledoc.iso8583packer.exception.PackerRuntimeException;
 
+import java.nio.ByteBuffer;
+
 /**
  * This {@link BodyPacker} does not convert any data and leaves the input the same as the output.
  * <p>
@@ -74,6 +77,22 @@ public class LiteralBodyPacker implements BodyPacker {
         return ret;
     }
 
+    @Override
+    public void pack(Object object, ByteBuffer target, int offset) {
+        if (object == null) {
+            return;
+        }
+        if (!(object instanceof byte[])) {
+            throw new PackerRuntimeException("Expected array of bytes, but found " + object.getClass().getSimpleName());
+        }
+        ByteBufferService.putBytes(target, offset, (byte[]) object);
+    }
+
+    @Override
+    public byte[] unpack(ByteBuffer source, int offset, int bytesCount) {
+        return ByteBufferService.copyBytes(source, offset, bytesCount);
+    }
+
     /**
      * @param object the Object for packing. Expected an array of bytes.
      * @return The byte array length.
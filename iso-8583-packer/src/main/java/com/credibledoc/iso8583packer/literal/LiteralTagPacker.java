@@ -1,10 +1,12 @@
 package com.credibledoc.iso8583packer.literal;
 
+import com.credibledoc.iso8583packer.buffer.ByteBufferService;
 import com.credibledoc.iso8583packer.exception.PackerRuntimeException;
 import com.credibledoc.iso8583packer.hex.HexService;
 import com.credibledoc.iso8583packer.message.MsgValue;
 import com.credibledoc.iso8583packer.tag.TagPacker;
 
+import java.nio.ByteBuffer;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -83,6 +85,13 @@ public class LiteralTagPacker implements TagPacker {
         return HexService.bytesToHex(tagBytes);
     }
 
+    @Override
+    @SuppressWarnings("unchecked")
+    public String unpack(ByteBuffer source, int offset) {
+        ByteBufferService.checkBounds(source, offset, packedLength);
+        return HexService.bytesToHex(source, offset, packedLength);
+    }
+
     @Override
     public int getPackedLength() {
         return packedLength;
@@ -3,7 +3,9 @@ package com.credibledoc.iso8583packer.message;
 import com.credibledoc.iso8583packer.ValueHolder;
 import com.credibledoc.iso8583packer.exception.PackerRuntimeException;
 import com.credibledoc.iso8583packer.navigator.Navigator;
+import com.credibledoc.iso8583packer.plan.CodecPlan;
 
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -12,6 +14,9 @@ import java.util.List;
 /**
  * The class provides an interface for creating an object from an array of bytes and,
  * conversely, for creating an array of bytes from an object.
+ * <p>
+ * The instances are not thread-safe. A frozen definition can be shared by the instances of different threads,
+ * see the {@link com.credibledoc.iso8583packer.FieldBuilder#freeze()} method.
  * 
  * @author Kyrylo Semenko
  */
@@ -43,6 +48,16 @@ public class IsoMsg {
         valueHolder = ValueHolder.newInstance(msgField, true);
     }
 
+    /**
+     * Call the {@link ValueHolder#newInstance(CodecPlan)} method. The compiled plan will be used for packing
+     * and unpacking.
+     * @param codecPlan the compiled definition, see the
+     * {@link com.credibledoc.iso8583packer.FieldBuilder#compile()} method.
+     */
+    public void setPackager(CodecPlan codecPlan) {
+        valueHolder = ValueHolder.newInstance(codecPlan);
+    }
+
     /**
      * @return The root {@link ValueHolder#getCurrentMsgField()} node.
      */
@@ -59,6 +74,27 @@ public class IsoMsg {
         return valueHolder.pack();
     }
 
+    /**
+     * Call the {@link ValueHolder#pack(byte[], int)} method.
+     * @param target see the {@link ValueHolder#pack(byte[], int)} method description.
+     * @param offset see the {@link ValueHolder#pack(byte[], int)} method description.
+     * @return See the {@link ValueHolder#pack(byte[], int)} method description.
+     */
+    public int pack(byte[] target, int offset) {
+        valueHolder.jumpToRoot();
+        return valueHolder.pack(target, offset);
+    }
+
+    /**
+     * Call the {@link ValueHolder#pack(ByteBuffer)} method.
+     * @param target see the {@link ValueHolder#pack(ByteBuffer)} method description.
+     * @return See the {@link ValueHolder#pack(ByteBuffer)} method description.
+     */
+    public int pack(ByteBuffer target) {
+        valueHolder.jumpToRoot();
+        return valueHolder.pack(target);
+    }
+
     /**
      * Call the {@link ValueHolder#unpack(byte[])} method.
      * <p>
@@ -69,9 +105,45 @@ public class IsoMsg {
      * @param bytes see the {@link ValueHolder#unpack(byte[])} method description.
      */
     public void unpack(byte[] bytes) {
+        valueHolder.jumpToRoot();
         valueHolder.unpack(bytes);
     }
 
+    /**
+     * Call the {@link ValueHolder#unpack(byte[], boolean)} method.
+     * <p>
+     * In the lazy mode values are decoded when they are read by the getXXX methods,
+     * so the bytes should not be changed until then.
+     *
+     * @param bytes see the {@link ValueHolder#unpack(byte[], boolean)} method description.
+     * @param lazy  see the {@link ValueHolder#unpack(byte[], boolean)} method description.
+     */
+    public void unpack(byte[] bytes, boolean lazy) {
+        valueHolder.jumpToRoot();
+        valueHolder.unpack(bytes, lazy);
+    }
+
+    /**
+     * Call the {@link ValueHolder#unpack(ByteBuffer)} method.
+     *
+     * @param source see the {@link ValueHolder#unpack(ByteBuffer)} method description.
+     */
+    public void unpack(ByteBuffer source) {
+        valueHolder.jumpToRoot();
+        valueHolder.unpack(source);
+    }
+
+    /**
+     * Call the {@link ValueHolder#unpack(ByteBuffer, boolean)} method.
+     *
+     * @param source see the {@link ValueHolder#unpack(ByteBuffer, boolean)} method description.
+     * @param lazy   see the {@link ValueHolder#unpack(ByteBuffer, boolean)} method description.
+     */
+    public void unpack(ByteBuffer source, boolean lazy) {
+        valueHolder.jumpToRoot();
+        valueHolder.unpack(source, lazy);
+    }
+
     /**
      * Call the {@link ValueHolder#setValue(Object, List)} method.
      * @param bodyValue see the {@link ValueHolder#setValue(Object, List)} method description
@@ -124,12 +196,11 @@ public class IsoMsg {
             throw new PackerRuntimeException("Field with number '" + fieldNum + "' cannot be found, " +
                 "because BitMap not found.");
         }
-        for (MsgField msgField : valueHolder.getCurrentMsgField().getChildren()) {
-            if (msgField.getFieldNum() != null && fieldNum == msgField.getFieldNum()) {
-                valueHolder.jumpToChild(msgField.getName());
-                valueHolder.setValue(bodyValue);
-                return;
-            }
+        MsgField msgField = valueHolder.getNavigator().findChildByFieldNum(valueHolder.getCurrentMsgField(), fieldNum);
+        if (msgField != null) {
+            valueHolder.jumpToChild(msgField.getName());
+            valueHolder.setValue(bodyValue);
+            return;
         }
         throw new PackerRuntimeException("Field '" + fieldNum + "' cannot be set, " +
             "because BitMap has no field with such number.");
@@ -150,16 +221,11 @@ public class IsoMsg {
         if (bitSet == null) {
             return null;
         }
-        for (MsgValue msgValue : bitSet.getChildren()) {
-            if (msgValue.getFieldNum() != null && fieldNum == msgValue.getFieldNum()) {
-                Object bodyValue = msgValue.getBodyValue();
-                if (bodyValue == null) {
-                    return null;
-                }
-                return (T) msgValue.getBodyValue();
-            }
+        MsgValue msgValue = valueHolder.getNavigator().findChildByFieldNum(bitSet, fieldNum);
+        if (msgValue == null) {
+            return null;
         }
-        return null;
+        return (T) msgValue.getBodyValue();
     }
 
     /**
@@ -240,6 +306,13 @@ public class IsoMsg {
         return get(FIELD_TERMINAL_ID_41);
     }
 
+    /**
+     * Call the {@link ValueHolder#reset()} method. The message can be filled or unpacked again after this call.
+     */
+    public void reset() {
+        valueHolder.reset();
+    }
+
     /**
      * @return The {@link #valueHolder} field value.
      */
@@ -0,0 +1,95 @@
+package com.credibledoc.iso8583packer.message;
+
+import com.credibledoc.iso8583packer.exception.PackerRuntimeException;
+import com.credibledoc.iso8583packer.plan.CodecPlan;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Pool of {@link IsoMsg}s with the same {@link CodecPlan}. Released messages are cleared by the
+ * {@link IsoMsg#reset()} method and returned by the next {@link #acquire()} call, so theirs {@link MsgValue}s
+ * are reused for the next messages.
+ * <pre>
+ *     IsoMsgPool isoMsgPool = new IsoMsgPool(fieldBuilder.compile(), 64);
+ *     IsoMsg isoMsg = isoMsgPool.acquire();
+ *     try {
+ *         isoMsg.unpack(frame);
+ *         ...
+ *     } finally {
+ *         isoMsgPool.release(isoMsg);
+ *     }
+ * </pre>
+ * The pool is thread-safe, messages can be acquired and released by different threads.
+ * An acquired {@link IsoMsg} is not thread-safe and it should not be used after its release.
+ *
+ * @author Kyrylo Semenko
+ */
+public class IsoMsgPool {
+
+    /**
+     * The definition of all messages of the pool.
+     */
+    private final CodecPlan codecPlan;
+
+    /**
+     * Released messages ready for the next {@link #acquire()} call. Its capacity limits the number of idle messages,
+     * messages released over the capacity are left to the garbage collector.
+     */
+    private final BlockingQueue<IsoMsg> idleMessages;
+
+    /**
+     * @param codecPlan see the {@link #codecPlan} field description.
+     * @param capacity  maximal number of idle messages, see the {@link #idleMessages} field description.
+     */
+    public IsoMsgPool(CodecPlan codecPlan, int capacity) {
+        if (codecPlan == null) {
+            throw new PackerRuntimeException("CodecPlan cannot be 'null'.");
+        }
+        if (capacity < 1) {
+            throw new PackerRuntimeException("Capacity should be positive, but found '" + capacity + "'.");
+        }
+        this.codecPlan = codecPlan;
+        this.idleMessages = new ArrayBlockingQueue<>(capacity);
+    }
+
+    /**
+     * @return An idle {@link IsoMsg} from the pool or a new one, if the pool is empty.
+     */
+    public IsoMsg acquire() {
+        IsoMsg isoMsg = idleMessages.poll();
+        if (isoMsg == null) {
+            isoMsg = new IsoMsg();
+            isoMsg.setPackager(codecPlan);
+        }
+        return isoMsg;
+    }
+
+    /**
+     * Clear the message and return it to the pool.
+     *
+     * @param isoMsg a message from the {@link #acquire()} method.
+     */
+    public void release(IsoMsg isoMsg) {
+        if (isoMsg.getValueHolder().getCodecPlan() != codecPlan) {
+            throw new PackerRuntimeException("The IsoMsg has a different CodecPlan, it cannot be released " +
+                "to this pool.");
+        }
+        isoMsg.reset();
+        idleMessages.offer(isoMsg);
+    }
+
+    /**
+     * @return Number of the idle messages in the pool.
+     */
+    public int getIdleCount() {
+        return idleMessages.size();
+    }
+
+    /**
+     * @return The {@link #codecPlan} field value.
+     */
+    public CodecPlan getCodecPlan() {
+        return codecPlan;
+    }
+}
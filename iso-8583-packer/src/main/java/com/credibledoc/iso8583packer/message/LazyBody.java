@@ -0,0 +1,102 @@
+package com.credibledoc.iso8583packer.message;
+
+import com.credibledoc.iso8583packer.body.BodyPacker;
+import com.credibledoc.iso8583packer.buffer.ByteBufferService;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Data object. Contains a location of a not yet decoded {@link MsgValue} body in the source bytes,
+ * see the {@link MsgValue#getLazyBody()} method.
+ * <p>
+ * The source bytes are not copied, so they should not be changed until the {@link MsgValue#getBodyBytes()}
+ * and {@link MsgValue#getBodyValue()} are read. Pooled buffers should not be released before.
+ *
+ * @author Kyrylo Semenko
+ */
+public class LazyBody {
+
+    /**
+     * The unpacked bytes. Its position is not used.
+     */
+    private final ByteBuffer source;
+
+    /**
+     * Absolute index of the first body byte in the {@link #source}.
+     */
+    private final int offset;
+
+    /**
+     * Number of body bytes.
+     */
+    private final int length;
+
+    /**
+     * Decodes the {@link MsgValue#getBodyValue()}. It is 'null' for fields with children.
+     */
+    private final BodyPacker bodyPacker;
+
+    /**
+     * @param source     see the {@link #source} field description.
+     * @param offset     see the {@link #offset} field description.
+     * @param length     see the {@link #length} field description.
+     * @param bodyPacker see the {@link #bodyPacker} field description.
+     */
+    public LazyBody(ByteBuffer source, int offset, int length, BodyPacker bodyPacker) {
+        this.source = source;
+        this.offset = offset;
+        this.length = length;
+        this.bodyPacker = bodyPacker;
+    }
+
+    /**
+     * @return A copy of the body bytes from the {@link #source}.
+     */
+    public byte[] copyBytes() {
+        return ByteBufferService.copyBytes(source, offset, length);
+    }
+
+    /**
+     * @return The body value decoded by the {@link #bodyPacker} or 'null' if the packer is not defined.
+     */
+    public Object unpackValue() {
+        return bodyPacker == null ? null : bodyPacker.unpack(source, offset, length);
+    }
+
+    @Override
+    public String toString() {
+        return "LazyBody{" +
+            "offset=" + offset +
+            ", length=" + length +
+            ", bodyPacker=" + bodyPacker +
+            '}';
+    }
+
+    /**
+     * @return The {@link #source} field value.
+     */
+    public ByteBuffer getSource() {
+        return source;
+    }
+
+    /**
+     * @return The {@link #offset} field value.
+     */
+    public int getOffset() {
+        return offset;
+    }
+
+    /**
+     * @return The {@link #length} field value.
+     */
+    public int getLength() {
+        return length;
+    }
+
+    /**
+     * @return The {@link #bodyPacker} field value.
+     */
+    public BodyPacker getBodyPacker() {
+        return bodyPacker;
+    }
+}
@@ -4,13 +4,16 @@ import com.credibledoc.iso8583packer.FieldBuilder;
 import com.credibledoc.iso8583packer.ValueHolder;
 import com.credibledoc.iso8583packer.bitmap.BitmapPacker;
 import com.credibledoc.iso8583packer.body.BodyPacker;
+import com.credibledoc.iso8583packer.exception.PackerRuntimeException;
 import com.credibledoc.iso8583packer.length.LengthPacker;
 import com.credibledoc.iso8583packer.masking.Masker;
 import com.credibledoc.iso8583packer.stringer.StringStringer;
 import com.credibledoc.iso8583packer.stringer.Stringer;
 import com.credibledoc.iso8583packer.tag.TagPacker;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 /**
  * The data object describes a data structure.
@@ -21,6 +24,9 @@ import java.util.List;
  * uses the {@link MsgField} for packing or unpacking {@link MsgValue}s.
  * <p>
  * In the unpacked state the {@link MsgField} contains some value, see the {@link MsgValue#getBodyValue()} method.
+ * <p>
+ * A {@link MsgField} graph is mutable while it is defined. The {@link FieldBuilder#freeze()} method makes the whole
+ * graph immutable, see the {@link #freeze()} method. The frozen graph can be shared between threads.
  *
  * @author Kyrylo Semenko
  */
@@ -150,6 +156,31 @@ public class MsgField implements Msg {
      * See the {@link Msg#getRoot()} method description.
      */
     private MsgField root;
+
+    /**
+     * {@link #children} by their {@link #fieldNum}s, the first child wins in case of duplicates.
+     * The index is built when the structure is validated, see the
+     * {@link com.credibledoc.iso8583packer.navigator.Navigator#indexChildren(MsgField)} method.
+     * It is 'null' if the children are not indexed or the index is no more valid.
+     */
+    private MsgField[] childrenByFieldNum;
+
+    /**
+     * {@link #children} by their {@link #name}s, the first child wins in case of duplicates.
+     * See the {@link #childrenByFieldNum} description.
+     */
+    private Map<String, MsgField> childrenByName;
+
+    /**
+     * {@link #children} by their {@link #tag}s, the first child wins in case of duplicates.
+     * See the {@link #childrenByFieldNum} description.
+     */
+    private Map<Object, MsgField> childrenByTag;
+
+    /**
+     * If 'true', the field cannot be changed, see the {@link #freeze()} method.
+     */
+    private volatile boolean frozen;
     
     public MsgField() {
         this.stringer = StringStringer.getInstance();
@@ -196,10 +227,13 @@ public class MsgField implements Msg {
     }
 
     /**
-     * @param fieldNum see the {@link #fieldNum} field description.
+     * @param fieldNum see the {@link #fieldNum} field description. The children indexes of the {@link #parent}
+     *                 are removed.
      */
     public void setFieldNum(Integer fieldNum) {
+        checkNotFrozen();
         this.fieldNum = fieldNum;
+        clearParentIndexes();
     }
 
     /**
@@ -220,10 +254,13 @@ public class MsgField implements Msg {
     }
 
     /**
-     * @param tag see the {@link #tag} field description.
+     * @param tag see the {@link #tag} field description. The children indexes of the {@link #parent}
+     *            are removed.
      */
     public void setTag(Object tag) {
+        checkNotFrozen();
         this.tag = tag;
+        clearParentIndexes();
     }
 
     /**
@@ -235,10 +272,27 @@ public class MsgField implements Msg {
     }
 
     /**
-     * @param name see the {@link #name} field description.
+     * @param name see the {@link #name} field description. The children indexes of the {@link #parent}
+     *             are removed.
      */
     public void setName(String name) {
+        checkNotFrozen();
         this.name = name;
+        clearParentIndexes();
+    }
+
+    /**
+     * Remove the {@link #childrenByFieldNum}, {@link #childrenByName} and {@link #childrenByTag} indexes
+     * of the {@link #parent} after the {@link #fieldNum}, {@link #name} or {@link #tag} of this field has been
+     * changed. The parent will be searched linearly until its indexes are built again.
+     */
+    private void clearParentIndexes() {
+        if (parent != null) {
+            parent.checkNotFrozen();
+            parent.childrenByFieldNum = null;
+            parent.childrenByName = null;
+            parent.childrenByTag = null;
+        }
     }
 
     /**
@@ -253,6 +307,7 @@ public class MsgField implements Msg {
      * @param parent see the {@link #parent} field description.
      */
     public void setParent(MsgField parent) {
+        checkNotFrozen();
         this.parent = parent;
     }
 
@@ -268,7 +323,11 @@ public class MsgField implements Msg {
      * @param children see the {@link #children} field description.
      */
     public void setChildren(List<MsgField> children) {
+        checkNotFrozen();
         this.children = children;
+        this.childrenByFieldNum = null;
+        this.childrenByName = null;
+        this.childrenByTag = null;
     }
 
     /**
@@ -282,6 +341,7 @@ public class MsgField implements Msg {
      * @param maxLen see the {@link #maxLen} field description.
      */
     public void setMaxLen(Integer maxLen) {
+        checkNotFrozen();
         this.maxLen = maxLen;
     }
 
@@ -296,6 +356,7 @@ public class MsgField implements Msg {
      * @param len see the {@link #len} field description.
      */
     public void setLen(Integer len) {
+        checkNotFrozen();
         this.len = len;
     }
 
@@ -310,6 +371,7 @@ public class MsgField implements Msg {
      * @param bodyPacker see the {@link #bodyPacker} field description.
      */
     public void setBodyPacker(BodyPacker bodyPacker) {
+        checkNotFrozen();
         this.bodyPacker = bodyPacker;
     }
 
@@ -324,6 +386,7 @@ public class MsgField implements Msg {
      * @param childrenBodyLen see the {@link #childrenBodyLen} field description.
      */
     public void setChildrenBodyLen(Integer childrenBodyLen) {
+        checkNotFrozen();
         this.childrenBodyLen = childrenBodyLen;
     }
 
@@ -338,6 +401,7 @@ public class MsgField implements Msg {
      * @param tagPacker see the {@link #tagPacker} field description.
      */
     public void setTagPacker(TagPacker tagPacker) {
+        checkNotFrozen();
         this.tagPacker = tagPacker;
     }
 
@@ -352,6 +416,7 @@ public class MsgField implements Msg {
      * @param childrenTagPacker see the {@link #childrenTagPacker} field description.
      */
     public void setChildrenTagPacker(TagPacker childrenTagPacker) {
+        checkNotFrozen();
         this.childrenTagPacker = childrenTagPacker;
     }
 
@@ -366,6 +431,7 @@ public class MsgField implements Msg {
      * @param childrenLengthPacker see the {@link #childrenLengthPacker} field description.
      */
     public void setChildrenLengthPacker(LengthPacker childrenLengthPacker) {
+        checkNotFrozen();
         this.childrenLengthPacker = childrenLengthPacker;
     }
 
@@ -380,6 +446,7 @@ public class MsgField implements Msg {
      * @param childrenBodyPacker see the {@link #childrenBodyPacker} field description.
      */
     public void setChildrenBodyPacker(BodyPacker childrenBodyPacker) {
+        checkNotFrozen();
         this.childrenBodyPacker = childrenBodyPacker;
     }
 
@@ -394,6 +461,7 @@ public class MsgField implements Msg {
      * @param exactlyLength see the {@link #exactlyLength} field description.
      */
     public void setExactlyLength(Integer exactlyLength) {
+        checkNotFrozen();
         this.exactlyLength = exactlyLength;
     }
 
@@ -408,6 +476,7 @@ public class MsgField implements Msg {
      * @param type see the {@link #type} field description.
      */
     public void setType(MsgFieldType type) {
+        checkNotFrozen();
         this.type = type;
     }
 
@@ -422,6 +491,7 @@ public class MsgField implements Msg {
      * @param masker see the {@link #masker} field description.
      */
     public void setMasker(Masker masker) {
+        checkNotFrozen();
         this.masker = masker;
     }
 
@@ -436,6 +506,7 @@ public class MsgField implements Msg {
      * @param stringer see the {@link #stringer} field description.
      */
     public void setStringer(Stringer stringer) {
+        checkNotFrozen();
         this.stringer = stringer;
     }
 
@@ -450,6 +521,7 @@ public class MsgField implements Msg {
      * @param lengthPacker see the {@link #lengthPacker} field description.
      */
     public void setLengthPacker(LengthPacker lengthPacker) {
+        checkNotFrozen();
         this.lengthPacker = lengthPacker;
     }
 
@@ -464,6 +536,7 @@ public class MsgField implements Msg {
      * @param bitMapPacker see the {@link #bitMapPacker} field description.
      */
     public void setBitMapPacker(BitmapPacker bitMapPacker) {
+        checkNotFrozen();
         this.bitMapPacker = bitMapPacker;
     }
 
@@ -478,6 +551,7 @@ public class MsgField implements Msg {
      * @param depth see the {@link #depth} field description.
      */
     public void setDepth(int depth) {
+        checkNotFrozen();
         this.depth = depth;
     }
 
@@ -493,6 +567,112 @@ public class MsgField implements Msg {
      * @param root see the {@link #root} field description.
      */
     public void setRoot(MsgField root) {
+        checkNotFrozen();
         this.root = root;
     }
+
+    /**
+     * @return A copy of the {@link #childrenByFieldNum} field value or 'null' if the index does not exist.
+     * The index itself cannot be changed, see the {@link #findIndexedChild(int)} method.
+     */
+    public MsgField[] getChildrenByFieldNum() {
+        return childrenByFieldNum == null ? null : childrenByFieldNum.clone();
+    }
+
+    /**
+     * @return 'true' if the {@link #childrenByFieldNum} index exists.
+     */
+    public boolean hasChildrenByFieldNum() {
+        return childrenByFieldNum != null;
+    }
+
+    /**
+     * Find a child in the {@link #childrenByFieldNum} index without copying of the index.
+     *
+     * @param fieldNum the child {@link Msg#getFieldNum()}
+     * @return 'null' if the child or the index does not exist, see the {@link #hasChildrenByFieldNum()} method.
+     */
+    public MsgField findIndexedChild(int fieldNum) {
+        MsgField[] index = childrenByFieldNum;
+        if (index == null || fieldNum < 0 || fieldNum >= index.length) {
+            return null;
+        }
+        return index[fieldNum];
+    }
+
+    /**
+     * @param childrenByFieldNum see the {@link #childrenByFieldNum} field description.
+     */
+    public void setChildrenByFieldNum(MsgField[] childrenByFieldNum) {
+        checkNotFrozen();
+        this.childrenByFieldNum = childrenByFieldNum;
+    }
+
+    /**
+     * @return The {@link #childrenByName} field value.
+     */
+    public Map<String, MsgField> getChildrenByName() {
+        return childrenByName;
+    }
+
+    /**
+     * @param childrenByName see the {@link #childrenByName} field description.
+     */
+    public void setChildrenByName(Map<String, MsgField> childrenByName) {
+        checkNotFrozen();
+        this.childrenByName = childrenByName;
+    }
+
+    /**
+     * @return The {@link #childrenByTag} field value.
+     */
+    public Map<Object, MsgField> getChildrenByTag() {
+        return childrenByTag;
+    }
+
+    /**
+     * @param childrenByTag see the {@link #childrenByTag} field description.
+     */
+    public void setChildrenByTag(Map<Object, MsgField> childrenByTag) {
+        checkNotFrozen();
+        this.childrenByTag = childrenByTag;
+    }
+
+    /**
+     * Make this field immutable. The {@link #children} list and the children indexes are wrapped to unmodifiable
+     * views and all setters throw the {@link PackerRuntimeException} from now. Children are not frozen,
+     * please use the {@link FieldBuilder#freeze()} method for freezing of the whole graph.
+     * <p>
+     * The children indexes should be built before, see the
+     * {@link com.credibledoc.iso8583packer.navigator.Navigator#indexChildren(MsgField)} method.
+     */
+    public void freeze() {
+        if (frozen) {
+            return;
+        }
+        if (children != null) {
+            children = Collections.unmodifiableList(children);
+        }
+        if (childrenByName != null) {
+            childrenByName = Collections.unmodifiableMap(childrenByName);
+        }
+        if (childrenByTag != null) {
+            childrenByTag = Collections.unmodifiableMap(childrenByTag);
+        }
+        frozen = true;
+    }
+
+    /**
+     * @return The {@link #frozen} field value.
+     */
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    private void checkNotFrozen() {
+        if (frozen) {
+            throw new PackerRuntimeException("The MsgField '" + name + "' is frozen and cannot be changed. " +
+                "Please define a new structure by the FieldBuilder.");
+        }
+    }
 }
@@ -1,8 +1,10 @@
 package com.credibledoc.iso8583packer.message;
 
+import com.credibledoc.iso8583packer.bitmap.Bitmap;
 import com.credibledoc.iso8583packer.hex.HexService;
 
 import java.util.BitSet;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -53,6 +55,13 @@ public class MsgValue implements Msg {
      */
     private Object bodyValue;
 
+    /**
+     * Location of the not yet decoded {@link #bodyBytes} and {@link #bodyValue} in unpacked bytes.
+     * The values are decoded on the first access and the field is set to 'null' then.
+     * It is 'null' for eagerly unpacked and created values.
+     */
+    private LazyBody lazyBody;
+
     /**
      * Some fields has no name, others have. This name is used for dump.
      */
@@ -74,9 +83,15 @@ public class MsgValue implements Msg {
      * The field contains list of its children indexes. These children are located
      * in the {@link MsgValue#getChildren()} list.
      * <p>
-     * The bit set can be 'null' for some nodes or leaves,
+     * The bitmap can be 'null' for some nodes or leaves,
      * but cannot be 'null' for a field of the {@link MsgFieldType#BIT_SET} type.
      */
+    private Bitmap bitmap;
+
+    /**
+     * A copy of the {@link #bitmap} created by the {@link #getBitSet()} method. Changes of the copy
+     * are not reflected in the {@link #bitmap}.
+     */
     private BitSet bitSet;
 
     /**
@@ -90,6 +105,12 @@ public class MsgValue implements Msg {
      */
     private final Map<String, MsgValue> childNamesMap = new HashMap<>();
 
+    /**
+     * The same as the {@link #childNamesMap}, but the key is the child {@link Msg#getFieldNum()}.
+     * Children without the fieldNum are not contained in the map.
+     */
+    private final Map<Integer, MsgValue> childFieldNumsMap = new HashMap<>();
+
     /**
      * See the {@link Msg#getRoot()} method description.
      */
@@ -102,11 +123,19 @@ public class MsgValue implements Msg {
      */
     private final Map<String, MsgValue> undefinedChildrenMap = new HashMap<>();
 
+    /**
+     * Cleared descendants of the root {@link MsgValue} for reuse, see the
+     * {@link com.credibledoc.iso8583packer.navigator.Navigator#reset(MsgValue)} method.
+     * It is 'null' for not root values and for roots those have never been reset.
+     */
+    private Deque<MsgValue> recycledValues;
+
     @Override
     public String toString() {
         String tagBytesString = tagBytes == null ? "null" : HexService.bytesToHex(tagBytes);
         String lengthBytesString = lengthBytes == null ? "null" : HexService.bytesToHex(lengthBytes);
-        String bytesString = bodyBytes == null ? "null" : HexService.bytesToHex(bodyBytes);
+        byte[] body = getBodyBytes();
+        String bytesString = body == null ? "null" : HexService.bytesToHex(body);
         String parentString = parent == null ? "null" : parent.getName();
         String childrenSizeString = children == null ? "0" : Integer.toString(children.size());
         return "Field{" +
@@ -117,9 +146,9 @@ public class MsgValue implements Msg {
             ", lengthBytes=" + lengthBytesString +
             ", bodyBytes=" + bytesString +
             ", parent=" + parentString +
-            ", value=" + bodyValue +
+            ", value=" + getBodyValue() +
             ", childrenSize=" + childrenSizeString +
-            ", bitSet=" + bitSet +
+            ", bitSet=" + bitmap +
             '}';
     }
 
@@ -191,9 +220,13 @@ public class MsgValue implements Msg {
     }
 
     /**
-     * @return The {@link #bodyBytes} field value.
+     * @return The {@link #bodyBytes} field value. It is copied from the {@link #lazyBody} if it is not defined yet.
      */
     public byte[] getBodyBytes() {
+        if (bodyBytes == null && lazyBody != null) {
+            bodyBytes = lazyBody.copyBytes();
+            releaseLazyBody();
+        }
         return bodyBytes;
     }
 
@@ -205,12 +238,44 @@ public class MsgValue implements Msg {
     }
 
     /**
-     * @return The {@link #bodyValue} field value.
+     * @return The {@link #bodyValue} field value. It is decoded from the {@link #lazyBody} if it is not defined yet.
      */
     public Object getBodyValue() {
+        if (bodyValue == null && lazyBody != null) {
+            bodyValue = lazyBody.unpackValue();
+            releaseLazyBody();
+        }
         return bodyValue;
     }
 
+    /**
+     * @return 'true' if the {@link #bodyValue} is defined or it can be decoded from the {@link #lazyBody}.
+     * The {@link #lazyBody} is not decoded by this method.
+     */
+    public boolean hasBodyValue() {
+        return bodyValue != null || (lazyBody != null && lazyBody.getBodyPacker() != null);
+    }
+
+    private void releaseLazyBody() {
+        if (bodyBytes != null && (bodyValue != null || lazyBody.getBodyPacker() == null)) {
+            lazyBody = null;
+        }
+    }
+
+    /**
+     * @return The {@link #lazyBody} field value.
+     */
+    public LazyBody getLazyBody() {
+        return lazyBody;
+    }
+
+    /**
+     * @param lazyBody see the {@link #lazyBody} field description.
+     */
+    public void setLazyBody(LazyBody lazyBody) {
+        this.lazyBody = lazyBody;
+    }
+
     /**
      * @param type required type of returned {@link #bodyValue}.
      * @param <T> the required type.
@@ -273,16 +338,39 @@ public class MsgValue implements Msg {
     }
 
     /**
-     * @return The {@link #bitSet} field value.
+     * @return The {@link #bitmap} field value.
+     */
+    public Bitmap getBitmap() {
+        return bitmap;
+    }
+
+    /**
+     * @param bitmap see the {@link #bitmap} field description.
+     */
+    public void setBitmap(Bitmap bitmap) {
+        this.bitmap = bitmap;
+        this.bitSet = null;
+    }
+
+    /**
+     * Convert the {@link #bitmap} to the {@link BitSet}, please use the {@link #getBitmap()} method instead.
+     *
+     * @return The {@link #bitSet} field value or 'null' if the {@link #bitmap} is 'null'.
      */
     public BitSet getBitSet() {
+        if (bitSet == null && bitmap != null) {
+            bitSet = bitmap.toBitSet();
+        }
         return bitSet;
     }
 
     /**
+     * Convert the {@link BitSet} to the {@link #bitmap}, please use the {@link #setBitmap(Bitmap)} method instead.
+     *
      * @param bitSet see the {@link #bitSet} field description.
      */
     public void setBitSet(BitSet bitSet) {
+        this.bitmap = bitSet == null ? null : Bitmap.valueOf(bitSet);
         this.bitSet = bitSet;
     }
 
@@ -293,6 +381,13 @@ public class MsgValue implements Msg {
         return childNamesMap;
     }
 
+    /**
+     * @return The {@link #childFieldNumsMap} field value.
+     */
+    public Map<Integer, MsgValue> getChildFieldNumsMap() {
+        return childFieldNumsMap;
+    }
+
     /**
      * @return The {@link #root} field value.
      */
@@ -315,4 +410,18 @@ public class MsgValue implements Msg {
         return undefinedChildrenMap;
     }
 
+    /**
+     * @return The {@link #recycledValues} field value.
+     */
+    public Deque<MsgValue> getRecycledValues() {
+        return recycledValues;
+    }
+
+    /**
+     * @param recycledValues see the {@link #recycledValues} field description.
+     */
+    public void setRecycledValues(Deque<MsgValue> recycledValues) {
+        this.recycledValues = recycledValues;
+    }
+
 }
@@ -85,6 +85,27 @@ public interface Navigator {
      */
     MsgValue newFromNameAndTag(MsgField msgField);
 
+    /**
+     * The same as the {@link #newFromNameAndTag(MsgField)} method, but a {@link MsgValue} from the
+     * {@link MsgValue#getRecycledValues()} of the parent root is reused if exists, see the {@link #reset(MsgValue)}
+     * method.
+     * @param msgField the template.
+     * @param parent   the future parent of the created {@link MsgValue}, it can be 'null'.
+     * @return The created or reused {@link MsgValue}.
+     */
+    MsgValue newFromNameAndTag(MsgField msgField, MsgValue parent);
+
+    /**
+     * Clear values of the {@link MsgValue} and remove its children. The removed descendants are cleared
+     * and stored to the {@link MsgValue#getRecycledValues()} of the root for reuse by the
+     * {@link #newFromNameAndTag(MsgField, MsgValue)} method.
+     * <p>
+     * The {@link Msg#getName()}, {@link Msg#getTag()} and {@link MsgValue#getFieldNum()} of the {@link MsgValue}
+     * are not changed. References to the removed descendants should not be used after this call.
+     * @param msgValue usually the root of a message.
+     */
+    void reset(MsgValue msgValue);
+
     /**
      * Get {@link MsgPair#getMsgField()} and {@link MsgPair#getMsgValue()}
      * and check theirs {@link Msg#getName()} and {@link Msg#getTag()} equality.
@@ -102,6 +123,65 @@ public interface Navigator {
      */
     <T extends Msg> T findByFieldNum(List<? extends Msg> msgList, Integer fieldNum);
 
+    /**
+     * Build the {@link MsgField#getChildrenByFieldNum()}, {@link MsgField#getChildrenByName()}
+     * and {@link MsgField#getChildrenByTag()} indexes of the field and all its children recursively.
+     * Frozen fields are indexed already and they are skipped, see the {@link MsgField#freeze()} method.
+     *
+     * @param msgField the node to be indexed, usually the root.
+     */
+    void indexChildren(MsgField msgField);
+
+    /**
+     * Find the <b>first</b> child with the name. The {@link MsgField#getChildrenByName()} index is used
+     * if it exists, else the children are searched one by one.
+     *
+     * @param msgField the parent
+     * @param name     the child {@link Msg#getName()}
+     * @return 'null' if not found
+     */
+    MsgField findChildByName(MsgField msgField, String name);
+
+    /**
+     * Find the <b>first</b> child with the fieldNum. The {@link MsgField#getChildrenByFieldNum()} index is used
+     * if it exists, else the children are searched one by one.
+     *
+     * @param msgField the parent
+     * @param fieldNum the child {@link Msg#getFieldNum()}
+     * @return 'null' if not found
+     */
+    MsgField findChildByFieldNum(MsgField msgField, int fieldNum);
+
+    /**
+     * Find the <b>first</b> child with the tag. The {@link MsgField#getChildrenByTag()} index is used
+     * if it exists, else the children are searched one by one.
+     *
+     * @param msgField the parent
+     * @param tag      the child {@link Msg#getTag()}
+     * @return 'null' if not found
+     */
+    MsgField findChildByTag(MsgField msgField, Object tag);
+
+    /**
+     * Put the child to the {@link MsgValue#getChildNamesMap()} and {@link MsgValue#getChildFieldNumsMap()}
+     * of its parent. The child should be added to the {@link MsgValue#getChildren()} list by the caller.
+     *
+     * @param msgValue the parent
+     * @param child    the new child
+     */
+    void indexChild(MsgValue msgValue, MsgValue child);
+
+    /**
+     * Find a child with the fieldNum in the {@link MsgValue#getChildFieldNumsMap()}. If the map does not contain
+     * the child and some children are not indexed, for example they have been added to the
+     * {@link MsgValue#getChildren()} list directly, the children are searched one by one.
+     *
+     * @param msgValue the parent
+     * @param fieldNum the child {@link Msg#getFieldNum()}
+     * @return 'null' if not found
+     */
+    MsgValue findChildByFieldNum(MsgValue msgValue, int fieldNum);
+
     /**
      * Set service.
      *
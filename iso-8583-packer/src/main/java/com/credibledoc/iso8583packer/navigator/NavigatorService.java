@@ -7,11 +7,19 @@ import com.credibledoc.iso8583packer.hex.HexService;
 import com.credibledoc.iso8583packer.message.*;
 import com.credibledoc.iso8583packer.tag.TagPacker;
 
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 
 /**
  * The service contains methods for navigation (jumping) in the {@link MsgField}s graph.
+ * <p>
+ * The service is thread-safe. It changes the {@link MsgValue}s and not frozen {@link MsgField}s from its arguments
+ * only, so the arguments should not be shared between threads, except the frozen {@link MsgField}s,
+ * see the {@link MsgField#freeze()} method.
  * 
  * @author Kyrylo Semenko
  */
@@ -19,7 +27,7 @@ public class NavigatorService implements Navigator {
     
     private static final NavigatorService instance = new NavigatorService();
 
-    protected Visualizer visualizer;
+    protected volatile Visualizer visualizer;
 
     /**
      * Static factory.
@@ -55,8 +63,7 @@ public class NavigatorService implements Navigator {
 
     @Override
     public MsgField getChildOrThrowException(String childName, MsgField currentMsgField) {
-        List<MsgField> msgFields = currentMsgField.getChildren();
-        MsgField child = findByName(msgFields, childName);
+        MsgField child = findChildByName(currentMsgField, childName);
         if (child == null) {
             MsgField rootMsgField = findRoot(currentMsgField);
             if (visualizer == null) {
@@ -196,6 +203,63 @@ public class NavigatorService implements Navigator {
         return msgValue;
     }
 
+    @Override
+    public MsgValue newFromNameAndTag(MsgField msgField, MsgValue parent) {
+        MsgValue root = parent == null ? null : parent.getRoot();
+        MsgValue msgValue = null;
+        if (root != null && root.getRecycledValues() != null) {
+            msgValue = root.getRecycledValues().poll();
+        }
+        if (msgValue == null) {
+            return newFromNameAndTag(msgField);
+        }
+        msgValue.setName(msgField.getName());
+        msgValue.setTag(msgField.getTag());
+        msgValue.setFieldNum(msgField.getFieldNum());
+        return msgValue;
+    }
+
+    @Override
+    public void reset(MsgValue msgValue) {
+        MsgValue root = msgValue.getRoot() == null ? msgValue : msgValue.getRoot();
+        if (root.getRecycledValues() == null) {
+            root.setRecycledValues(new ArrayDeque<MsgValue>());
+        }
+        recycleChildren(msgValue, root.getRecycledValues());
+        clearValues(msgValue);
+    }
+
+    private void recycleChildren(MsgValue msgValue, Deque<MsgValue> recycledValues) {
+        List<MsgValue> children = msgValue.getChildren();
+        if (children == null) {
+            return;
+        }
+        for (int i = 0; i < children.size(); i++) {
+            MsgValue child = children.get(i);
+            recycleChildren(child, recycledValues);
+            clearValues(child);
+            child.setName(null);
+            child.setTag(null);
+            child.setFieldNum(null);
+            child.setParent(null);
+            child.setRoot(null);
+            recycledValues.push(child);
+        }
+    }
+
+    private void clearValues(MsgValue msgValue) {
+        msgValue.setTagBytes(null);
+        msgValue.setLengthBytes(null);
+        msgValue.setBodyBytes(null);
+        msgValue.setBodyValue(null);
+        msgValue.setLazyBody(null);
+        msgValue.setBitmap(null);
+        msgValue.setChildren(null);
+        msgValue.getChildNamesMap().clear();
+        msgValue.getChildFieldNumsMap().clear();
+        msgValue.getUndefinedChildrenMap().clear();
+    }
+
     @Override
     public void validateSameNamesAndTags(MsgPair msgPair) {
         MsgField msgField = msgPair.getMsgField();
@@ -240,6 +304,102 @@ public class NavigatorService implements Navigator {
         return null;
     }
 
+    @Override
+    public void indexChildren(MsgField msgField) {
+        if (msgField.isFrozen()) {
+            // indexed before freezing
+            return;
+        }
+        List<MsgField> children = msgField.getChildren();
+        if (children == null) {
+            msgField.setChildrenByFieldNum(null);
+            msgField.setChildrenByName(null);
+            msgField.setChildrenByTag(null);
+            return;
+        }
+        Map<String, MsgField> byName = new HashMap<>();
+        Map<Object, MsgField> byTag = new HashMap<>();
+        int maxFieldNum = -1;
+        for (MsgField child : children) {
+            if (child.getName() != null) {
+                byName.putIfAbsent(child.getName(), child);
+            }
+            if (child.getTag() != null) {
+                byTag.putIfAbsent(child.getTag(), child);
+            }
+            if (child.getFieldNum() != null) {
+                maxFieldNum = Math.max(maxFieldNum, child.getFieldNum());
+            }
+            indexChildren(child);
+        }
+        MsgField[] byFieldNum = new MsgField[maxFieldNum + 1];
+        for (MsgField child : children) {
+            Integer fieldNum = child.getFieldNum();
+            if (fieldNum != null && fieldNum >= 0 && byFieldNum[fieldNum] == null) {
+                byFieldNum[fieldNum] = child;
+            }
+        }
+        msgField.setChildrenByFieldNum(byFieldNum);
+        msgField.setChildrenByName(byName);
+        msgField.setChildrenByTag(byTag);
+    }
+
+    @Override
+    public MsgField findChildByName(MsgField msgField, String name) {
+        Map<String, MsgField> childrenByName = msgField.getChildrenByName();
+        if (childrenByName == null) {
+            return findByName(msgField.getChildren(), name);
+        }
+        return name == null ? null : childrenByName.get(name);
+    }
+
+    @Override
+    public MsgField findChildByFieldNum(MsgField msgField, int fieldNum) {
+        if (!msgField.hasChildrenByFieldNum()) {
+            return findByFieldNum(msgField.getChildren(), fieldNum);
+        }
+        return msgField.findIndexedChild(fieldNum);
+    }
+
+    @Override
+    public MsgField findChildByTag(MsgField msgField, Object tag) {
+        Map<Object, MsgField> childrenByTag = msgField.getChildrenByTag();
+        if (childrenByTag != null) {
+            return tag == null ? null : childrenByTag.get(tag);
+        }
+        if (msgField.getChildren() != null) {
+            for (MsgField child : msgField.getChildren()) {
+                if (Objects.equals(child.getTag(), tag)) {
+                    return child;
+                }
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void indexChild(MsgValue msgValue, MsgValue child) {
+        msgValue.getChildNamesMap().put(child.getName(), child);
+        if (child.getFieldNum() != null) {
+            msgValue.getChildFieldNumsMap().put(child.getFieldNum(), child);
+        }
+    }
+
+    @Override
+    public MsgValue findChildByFieldNum(MsgValue msgValue, int fieldNum) {
+        Map<Integer, MsgValue> childFieldNumsMap = msgValue.getChildFieldNumsMap();
+        MsgValue child = childFieldNumsMap.get(fieldNum);
+        if (child != null && child.getParent() == msgValue) {
+            return child;
+        }
+        List<MsgValue> children = msgValue.getChildren();
+        if (children == null || childFieldNumsMap.size() >= children.size()) {
+            // all children are indexed
+            return null;
+        }
+        return findByFieldNum(children, fieldNum);
+    }
+
     @Override
     public MsgValue synchronizeMessageValue(MsgField msgField, MsgValue msgValue) {
         if (Objects.equals(msgField.getName(), msgValue.getName()) &&
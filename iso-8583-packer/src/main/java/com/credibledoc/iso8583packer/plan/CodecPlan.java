@@ -0,0 +1,79 @@
+package com.credibledoc.iso8583packer.plan;
+
+import com.credibledoc.iso8583packer.message.MsgField;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable compiled form of a {@link MsgField} graph, see the {@link CodecPlanService#compile(MsgField)} method.
+ * <p>
+ * The plan contains the {@link FieldCodec} of every {@link MsgField} in the graph. It can be shared between
+ * threads and {@link com.credibledoc.iso8583packer.ValueHolder}s, if the compiled {@link MsgField}s are not changed,
+ * see the {@link com.credibledoc.iso8583packer.FieldBuilder#freeze()} method.
+ *
+ * @author Kyrylo Semenko
+ */
+public class CodecPlan {
+
+    /**
+     * The compiled root {@link MsgField}.
+     */
+    private final FieldCodec root;
+
+    /**
+     * All {@link FieldCodec}s of the plan in the depth-first order, the {@link #root} first.
+     */
+    private final List<FieldCodec> fieldCodecs;
+
+    /**
+     * All {@link FieldCodec}s of the plan by their {@link MsgField}s compared by identity.
+     */
+    private final Map<MsgField, FieldCodec> fieldCodecsByMsgField;
+
+    /**
+     * @param root        see the {@link #root} field description.
+     * @param fieldCodecs see the {@link #fieldCodecs} field description.
+     */
+    CodecPlan(FieldCodec root, List<FieldCodec> fieldCodecs) {
+        this.root = root;
+        this.fieldCodecs = Collections.unmodifiableList(fieldCodecs);
+        Map<MsgField, FieldCodec> map = new IdentityHashMap<>(fieldCodecs.size() * 2);
+        for (FieldCodec fieldCodec : fieldCodecs) {
+            map.put(fieldCodec.getMsgField(), fieldCodec);
+        }
+        this.fieldCodecsByMsgField = Collections.unmodifiableMap(map);
+    }
+
+    /**
+     * @param msgField a {@link MsgField} from the compiled graph or 'null'
+     * @return The compiled {@link MsgField} or 'null' if the {@link MsgField} does not belong to the plan.
+     */
+    public FieldCodec findFieldCodec(MsgField msgField) {
+        return msgField == null ? null : fieldCodecsByMsgField.get(msgField);
+    }
+
+    @Override
+    public String toString() {
+        return "CodecPlan{" +
+            "root=" + root +
+            ", size=" + fieldCodecs.size() +
+            '}';
+    }
+
+    /**
+     * @return The {@link #root} field value.
+     */
+    public FieldCodec getRoot() {
+        return root;
+    }
+
+    /**
+     * @return The {@link #fieldCodecs} field value.
+     */
+    public List<FieldCodec> getFieldCodecs() {
+        return fieldCodecs;
+    }
+}
@@ -0,0 +1,729 @@
+package com.credibledoc.iso8583packer.plan;
+
+import com.credibledoc.iso8583packer.bitmap.Bitmap;
+import com.credibledoc.iso8583packer.bitmap.BitmapPacker;
+import com.credibledoc.iso8583packer.body.BodyPacker;
+import com.credibledoc.iso8583packer.buffer.ByteBufferService;
+import com.credibledoc.iso8583packer.exception.PackerRuntimeException;
+import com.credibledoc.iso8583packer.length.LengthPacker;
+import com.credibledoc.iso8583packer.message.LazyBody;
+import com.credibledoc.iso8583packer.message.MsgField;
+import com.credibledoc.iso8583packer.message.MsgFieldType;
+import com.credibledoc.iso8583packer.message.MsgValue;
+import com.credibledoc.iso8583packer.navigator.Navigator;
+import com.credibledoc.iso8583packer.navigator.NavigatorService;
+import com.credibledoc.iso8583packer.offset.Offset;
+import com.credibledoc.iso8583packer.tag.TagPacker;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Compiles {@link MsgField} graphs to {@link CodecPlan}s and packs and unpacks {@link MsgValue}s by the plans.
+ * <p>
+ * The packing and unpacking rules are the same as in the {@link com.credibledoc.iso8583packer.ValueHolder},
+ * but packers, types and children are taken from the {@link FieldCodec}s instead of walking
+ * the {@link MsgField} graph.
+ * <p>
+ * Packing has two passes. The sizing pass computes lengths of all fields bottom-up, the write pass copies
+ * the fields to a single target array or buffer without intermediate buffers. Unpacking reads
+ * {@link ByteBuffer}s by absolute indexes, byte arrays are wrapped.
+ *
+ * @author Kyrylo Semenko
+ */
+public class CodecPlanService {
+
+    private static final int SECONDARY_BITMAP_FLAG = 1;
+    private static final int TERTIARY_BITMAP_FLAG = 65;
+
+    /**
+     * Singleton.
+     */
+    private static final CodecPlanService instance = new CodecPlanService();
+
+    /**
+     * The service is used for creation of {@link MsgValue}s and for error messages.
+     */
+    private final Navigator navigator = NavigatorService.getInstance();
+
+    /**
+     * @return The {@link CodecPlanService} singleton.
+     */
+    public static CodecPlanService getInstance() {
+        return instance;
+    }
+
+    /**
+     * Compile the whole graph of the {@link MsgField}, not only its subtree. The graph should be validated before,
+     * see the {@link com.credibledoc.iso8583packer.FieldBuilder#compile()} method.
+     *
+     * @param msgField the root or any other {@link MsgField} of the graph
+     * @return A new {@link CodecPlan}.
+     */
+    public CodecPlan compile(MsgField msgField) {
+        if (msgField == null) {
+            throw new PackerRuntimeException("MsgField cannot be 'null'.");
+        }
+        MsgField rootMsgField = navigator.findRoot(msgField);
+        List<FieldCodec> fieldCodecs = new ArrayList<>();
+        FieldCodec root = compileRecursively(rootMsgField, fieldCodecs);
+        return new CodecPlan(root, fieldCodecs);
+    }
+
+    private FieldCodec compileRecursively(MsgField msgField, List<FieldCodec> fieldCodecs) {
+        int index = fieldCodecs.size();
+        fieldCodecs.add(null);
+        FieldCodec[] children = null;
+        if (msgField.getChildren() != null) {
+            children = new FieldCodec[msgField.getChildren().size()];
+            for (int i = 0; i < children.length; i++) {
+                children[i] = compileRecursively(msgField.getChildren().get(i), fieldCodecs);
+            }
+        }
+        FieldCodec fieldCodec = new FieldCodec(msgField, children);
+        fieldCodecs.set(index, fieldCodec);
+        return fieldCodec;
+    }
+
+    /**
+     * Unpack the bytes to the {@link MsgValue} created from the {@link FieldCodec#getMsgField()}.
+     *
+     * @param bytes       the source bytes
+     * @param offset      the index where the field starts in the bytes, it will be moved to the end of the field
+     * @param fieldCodec  the compiled definition
+     * @param parentCodec the compiled parent of the fieldCodec or 'null'
+     * @param msgValue    the target, its tag may be changed to a sibling one
+     * @return The msgValue or its replacement in case when the unpacked tag belongs to a sibling.
+     */
+    public MsgValue unpack(byte[] bytes, Offset offset, FieldCodec fieldCodec, FieldCodec parentCodec,
+                           MsgValue msgValue) {
+        return unpack(ByteBuffer.wrap(bytes), offset, fieldCodec, parentCodec, msgValue, false);
+    }
+
+    /**
+     * Unpack the bytes to the {@link MsgValue} created from the {@link FieldCodec#getMsgField()}.
+     * <p>
+     * In the lazy mode bodies are not copied and decoded, only their locations are stored
+     * to {@link MsgValue#getLazyBody()}. Tags, lengths and bitmaps are unpacked always.
+     *
+     * @param bytes       the source bytes, in the lazy mode they should not be changed until the values are read
+     * @param offset      the index where the field starts in the bytes, it will be moved to the end of the field
+     * @param fieldCodec  the compiled definition
+     * @param parentCodec the compiled parent of the fieldCodec or 'null'
+     * @param msgValue    the target, its tag may be changed to a sibling one
+     * @param lazy        if 'true', the bodies will be decoded on the first access
+     * @return The msgValue or its replacement in case when the unpacked tag belongs to a sibling.
+     */
+    public MsgValue unpack(byte[] bytes, Offset offset, FieldCodec fieldCodec, FieldCodec parentCodec,
+                           MsgValue msgValue, boolean lazy) {
+        return unpack(ByteBuffer.wrap(bytes), offset, fieldCodec, parentCodec, msgValue, lazy);
+    }
+
+    /**
+     * Unpack the buffer to the {@link MsgValue} created from the {@link FieldCodec#getMsgField()}, see the
+     * {@link #unpack(byte[], Offset, FieldCodec, FieldCodec, MsgValue, boolean)} method.
+     * <p>
+     * The offset is an absolute index in the buffer and the buffer is read up to its {@link ByteBuffer#limit()}.
+     * The position of the buffer is not changed. Packers read the buffer directly, so direct buffers
+     * are not copied to intermediate arrays, only the field subfields are copied to the {@link MsgValue}.
+     *
+     * @param source      the source buffer, in the lazy mode it should not be changed until the values are read
+     * @param offset      the index where the field starts in the buffer, it will be moved to the end of the field
+     * @param fieldCodec  the compiled definition
+     * @param parentCodec the compiled parent of the fieldCodec or 'null'
+     * @param msgValue    the target, its tag may be changed to a sibling one
+     * @param lazy        if 'true', the bodies will be decoded on the first access
+     * @return The msgValue or its replacement in case when the unpacked tag belongs to a sibling.
+     */
+    public MsgValue unpack(ByteBuffer source, Offset offset, FieldCodec fieldCodec, FieldCodec parentCodec,
+                           MsgValue msgValue, boolean lazy) {
+        MsgFieldType type = fieldCodec.getType();
+        if (MsgFieldType.MSG == type) {
+            int valChildrenLength = fieldCodec.getValChildrenLength();
+            int rawDataLength = valChildrenLength == FieldCodec.VARIABLE ?
+                ByteBufferService.remaining(source, offset.getValue()) : valChildrenLength;
+            unpackContent(source, offset, fieldCodec, msgValue, rawDataLength, lazy);
+            return msgValue;
+        }
+        if (MsgFieldType.BIT_SET == type) {
+            unpackBitSet(source, offset, fieldCodec, msgValue, lazy);
+            unpackContent(source, offset, fieldCodec, msgValue, 0, lazy);
+            return msgValue;
+        }
+        if (MsgFieldType.VAL == type) {
+            int rawDataLength = unpackFixedLengthType(source, offset, fieldCodec, msgValue, lazy);
+            unpackContent(source, offset, fieldCodec, msgValue, rawDataLength, lazy);
+            return msgValue;
+        }
+        return unpackOtherTypes(source, offset, fieldCodec, parentCodec, msgValue, lazy);
+    }
+
+    private void unpackContent(ByteBuffer source, Offset offset, FieldCodec fieldCodec, MsgValue msgValue,
+                               int rawDataLength, boolean lazy) {
+        MsgValue parent = msgValue.getParent();
+        if (parent != null) {
+            navigator.indexChild(parent, msgValue);
+        }
+        if (fieldCodec.getChildren() == null) {
+            setValueToLeaf(source, offset, fieldCodec, msgValue, rawDataLength, lazy);
+            offset.add(rawDataLength);
+        } else {
+            unpackChildren(source, offset, fieldCodec, msgValue, rawDataLength, lazy);
+        }
+    }
+
+    private MsgValue unpackOtherTypes(ByteBuffer source, Offset offset, FieldCodec fieldCodec, FieldCodec parentCodec,
+                                      MsgValue msgValue, boolean lazy) {
+        Integer rawDataLength = null;
+        int tagPackedLength = fieldCodec.getTagLength();
+        boolean lengthFirst = fieldCodec.isLengthFirst();
+        if (lengthFirst && fieldCodec.isLengthType()) {
+            rawDataLength = unpackLength(source, offset, fieldCodec, msgValue) - tagPackedLength;
+        }
+
+        Object tag = null;
+        if (fieldCodec.isTagged()) {
+            TagPacker tagPacker = getTagPacker(fieldCodec);
+            tag = tagPacker == null ? fieldCodec.getMsgField().getTag() : tagPacker.unpack(source, offset.getValue());
+        }
+
+        FieldCodec currentCodec = fieldCodec;
+        MsgValue currentValue = msgValue;
+        if (tag != null && !Objects.equals(tag, fieldCodec.getMsgField().getTag())) {
+            FieldCodec sibling = parentCodec == null ? null : parentCodec.findChildByTag(tag);
+            boolean isUndefined = sibling == null;
+            currentCodec = isUndefined ? createUndefinedCodec(fieldCodec, msgValue, tag) : sibling;
+            currentValue = replaceMsgValue(msgValue, currentCodec, isUndefined);
+        }
+
+        if (currentCodec.isTagged()) {
+            byte[] tagBytes = ByteBufferService.copyBytes(source, offset.getValue(), tagPackedLength);
+            offset.add(tagPackedLength);
+            currentValue.setTagBytes(tagBytes);
+            currentValue.setTag(tag);
+        }
+
+        if (!lengthFirst && currentCodec.isLengthType()) {
+            rawDataLength = unpackLength(source, offset, currentCodec, currentValue);
+        }
+        if (currentCodec.getParentChildrenBodyLen() != null) {
+            rawDataLength = currentCodec.getParentChildrenBodyLen();
+        }
+        if (currentCodec.getLen() != null) {
+            rawDataLength = currentCodec.getLen();
+        }
+        if (rawDataLength == null) {
+            throw new PackerRuntimeException("Cannot find rawDataLength of the msgField with path '" +
+                navigator.getPathRecursively(currentCodec.getMsgField()) + "'");
+        }
+        unpackBodyBytes(source, offset, currentCodec, currentValue, rawDataLength, lazy);
+        unpackContent(source, offset, currentCodec, currentValue, rawDataLength, lazy);
+        return currentValue;
+    }
+
+    /**
+     * Create a sibling for an unknown tag in the same way as the {@link com.credibledoc.iso8583packer.ValueHolder}
+     * does.
+     */
+    private FieldCodec createUndefinedCodec(FieldCodec fieldCodec, MsgValue msgValue, Object tag) {
+        MsgField msgField = fieldCodec.getMsgField();
+        MsgField parent = msgField.getParent();
+        if (parent == null || parent.getChildrenTagPacker() == null) {
+            throw new PackerRuntimeException("Cannot find a sibling with tag '" + tag +
+                "' for the '" + navigator.getPathRecursively(msgValue) +
+                "' field. Its parent '" + navigator.getPathRecursively(parent) +
+                "' has no child with such tag. Unknown TLV and LTV tags should have tag, length and body packers " +
+                "in the parent.");
+        }
+        MsgField undefinedMsgField = new MsgField();
+        Map<String, MsgValue> undefinedSiblings = msgValue.getParent().getUndefinedChildrenMap();
+        undefinedMsgField.setName(msgField.getName() + "-clone-" + (undefinedSiblings.size() + 1));
+        undefinedMsgField.setParent(parent);
+        undefinedMsgField.setDepth(msgField.getDepth());
+        undefinedMsgField.setBodyPacker(msgField.getBodyPacker() != null ? msgField.getBodyPacker() :
+            parent.getChildrenBodyPacker());
+        undefinedMsgField.setLengthPacker(msgField.getLengthPacker() != null ? msgField.getLengthPacker() :
+            parent.getChildrenLengthPacker());
+        undefinedMsgField.setTagPacker(msgField.getTagPacker() != null ? msgField.getTagPacker() :
+            parent.getChildrenTagPacker());
+        undefinedMsgField.setLen(msgField.getLen() != null ? msgField.getLen() : parent.getChildrenBodyLen());
+        undefinedMsgField.setType(msgField.getType());
+        undefinedMsgField.setTag(tag);
+        return new FieldCodec(undefinedMsgField, null);
+    }
+
+    private MsgValue replaceMsgValue(MsgValue oldMsgValue, FieldCodec siblingCodec, boolean isUndefined) {
+        MsgValue parentMsgValue = oldMsgValue.getParent();
+        MsgValue newMsgValue = navigator.newFromNameAndTag(siblingCodec.getMsgField(), parentMsgValue);
+        if (parentMsgValue != null) {
+            parentMsgValue.getChildren().remove(oldMsgValue);
+            parentMsgValue.getChildren().add(newMsgValue);
+            newMsgValue.setParent(parentMsgValue);
+            newMsgValue.setRoot(parentMsgValue.getRoot());
+            navigator.indexChild(parentMsgValue, newMsgValue);
+        }
+        newMsgValue.setBitmap(oldMsgValue.getBitmap());
+        newMsgValue.setTagBytes(oldMsgValue.getTagBytes());
+        newMsgValue.setLengthBytes(oldMsgValue.getLengthBytes());
+        if (isUndefined) {
+            newMsgValue.getParent().getUndefinedChildrenMap().put(newMsgValue.getName(), newMsgValue);
+        }
+        return newMsgValue;
+    }
+
+    private int unpackFixedLengthType(ByteBuffer source, Offset offset, FieldCodec fieldCodec, MsgValue msgValue,
+                                      boolean lazy) {
+        Integer rawDataLength = fieldCodec.getLen();
+        if (rawDataLength == null) {
+            MsgValue parentMsgValue = msgValue.getParent();
+            if (parentMsgValue != null && parentMsgValue.getLengthBytes() != null) {
+                LengthPacker parentLengthPacker = fieldCodec.getParentLengthPacker();
+                if (parentLengthPacker == null) {
+                    throw new PackerRuntimeException("The parent of the MsgField with path '" +
+                        navigator.getPathRecursively(fieldCodec.getMsgField()) + "' has no lengthPacker.");
+                }
+                int parentLength = parentLengthPacker.unpack(parentMsgValue.getLengthBytes(), 0);
+                rawDataLength = parentLength - calculateLengthUpTo(parentMsgValue.getChildren(), msgValue);
+            } else {
+                rawDataLength = ByteBufferService.remaining(source, offset.getValue());
+            }
+        }
+        int remaining = ByteBufferService.remaining(source, offset.getValue());
+        if (rawDataLength > remaining) {
+            throw new PackerRuntimeException("Cannot unpack bytes because the remaining data length '" + remaining +
+                "' of the byte array is less than defined 'len' value '" + rawDataLength +
+                "' of the MsgField with path '" + navigator.getPathRecursively(fieldCodec.getMsgField()) + "'.");
+        }
+        unpackBodyBytes(source, offset, fieldCodec, msgValue, rawDataLength, lazy);
+        return rawDataLength;
+    }
+
+    private int calculateLengthUpTo(List<MsgValue> siblings, MsgValue currentSibling) {
+        int length = 0;
+        for (MsgValue sibling : siblings) {
+            if (sibling == currentSibling) {
+                return length;
+            }
+            LazyBody lazyBody = sibling.getLazyBody();
+            length += lazyBody == null ? sibling.getBodyBytes().length : lazyBody.getLength();
+        }
+        throw new PackerRuntimeException("It is expected, that the siblings' list contains the current sibling, " +
+            "but the current sibling cannot be found in the list.\n" +
+            "Siblings: '" + siblings + "'.\n" +
+            "Current sibling: '" + currentSibling + "'.");
+    }
+
+    private void unpackBodyBytes(ByteBuffer source, Offset offset, FieldCodec fieldCodec, MsgValue msgValue,
+                                 int rawDataLength, boolean lazy) {
+        if (rawDataLength < 0 || offset.getValue() + rawDataLength > source.limit()) {
+            String path = navigator.getPathRecursively(fieldCodec.getMsgField());
+            throw new PackerRuntimeException("Current MsgField: '" + path + "', source bytes length: '" +
+                source.limit() + "', offset: '" + offset.getValue() + "', rawDataLength: '" + rawDataLength + "'");
+        }
+        if (lazy) {
+            BodyPacker bodyPacker = fieldCodec.getChildren() == null ? fieldCodec.getBodyPacker() : null;
+            msgValue.setLazyBody(new LazyBody(source, offset.getValue(), rawDataLength, bodyPacker));
+            return;
+        }
+        msgValue.setBodyBytes(ByteBufferService.copyBytes(source, offset.getValue(), rawDataLength));
+    }
+
+    private void unpackChildren(ByteBuffer source, Offset offset, FieldCodec fieldCodec, MsgValue msgValue,
+                                int rawDataLength, boolean lazy) {
+        int offsetWithChildren = offset.getValue() + rawDataLength;
+        if (rawDataLength > 0) {
+            msgValue.setChildren(new ArrayList<MsgValue>());
+        }
+        FieldCodec[] children = fieldCodec.getChildren();
+        int childNum = 0;
+        while (offset.getValue() < offsetWithChildren) {
+            if (children.length == 0) {
+                throw new PackerRuntimeException("The MsgField with path '" +
+                    navigator.getPathRecursively(fieldCodec.getMsgField()) + "' has no children defined.");
+            }
+            FieldCodec childCodec = children[childNum];
+            if (children.length > childNum + 1) {
+                // the number of real children may be higher than defined in MsgField
+                childNum++;
+            }
+            MsgValue child = navigator.newFromNameAndTag(childCodec.getMsgField(), msgValue);
+            msgValue.getChildren().add(child);
+            child.setParent(msgValue);
+            child.setRoot(msgValue.getRoot());
+            unpack(source, offset, childCodec, fieldCodec, child, lazy);
+        }
+        if (offset.getValue() != offsetWithChildren) {
+            throw new PackerRuntimeException("Expected end of children is '" + offsetWithChildren +
+                "' but current offset is '" + offset.getValue() +
+                "'. These values should be equal.");
+        }
+    }
+
+    private void unpackBitSet(ByteBuffer source, Offset offset, FieldCodec fieldCodec, MsgValue msgValue,
+                              boolean lazy) {
+        BitmapPacker bitmapPacker = fieldCodec.getBitmapPacker();
+        if (bitmapPacker == null) {
+            throw new PackerRuntimeException("Please call the defineHeaderBitmapPacker(...) " +
+                "method for this field " + navigator.getPathRecursively(msgValue));
+        }
+        int consumed = bitmapPacker.unpack(msgValue, source, offset.getValue());
+        byte[] bitMapBytes = ByteBufferService.copyBytes(source, offset.getValue(), consumed);
+        offset.add(consumed);
+        msgValue.setBodyBytes(bitMapBytes);
+
+        for (int fieldNum : getFieldNums(fieldCodec, msgValue.getBitmap())) {
+            FieldCodec childCodec = fieldCodec.findChildByFieldNum(fieldNum);
+            if (childCodec == null) {
+                // the secondary and tertiary bitmap flags
+                continue;
+            }
+            MsgValue child = navigator.newFromNameAndTag(childCodec.getMsgField(), msgValue);
+            List<MsgValue> children = msgValue.getChildren();
+            if (children == null) {
+                children = new ArrayList<>();
+                msgValue.setChildren(children);
+            }
+            children.add(child);
+            child.setParent(msgValue);
+            child.setRoot(msgValue.getRoot());
+            navigator.indexChild(msgValue, child);
+            unpack(source, offset, childCodec, fieldCodec, child, lazy);
+        }
+    }
+
+    private List<Integer> getFieldNums(FieldCodec fieldCodec, Bitmap bitmap) {
+        MsgField childWithoutFieldNum = fieldCodec.getChildWithoutFieldNum();
+        if (childWithoutFieldNum != null) {
+            throw new PackerRuntimeException("The MsgField with path '" +
+                navigator.getPathRecursively(childWithoutFieldNum) + "' " +
+                "has no 'fieldNum' property defined. " +
+                "Please call the defineFieldNum(...) value to the MsgField. " +
+                "The value is mandatory because its parent has the '" + MsgFieldType.class.getSimpleName() +
+                "." + fieldCodec.getType() + "' type.");
+        }
+        List<Integer> fieldNums = new ArrayList<>();
+        int maxFieldNum = fieldCodec.getMaxFieldNum();
+        boolean secondaryBitmapMarked = false;
+        boolean tertiaryBitmapMarked = false;
+        for (int fieldNum = bitmap.nextFieldNum(1); fieldNum != -1 && fieldNum <= maxFieldNum;
+             fieldNum = bitmap.nextFieldNum(fieldNum + 1)) {
+            FieldCodec childCodec = fieldCodec.findChildByFieldNum(fieldNum);
+            if (childCodec == null && (fieldNum == TERTIARY_BITMAP_FLAG || fieldNum == SECONDARY_BITMAP_FLAG)) {
+                continue;
+            }
+            if (childCodec == null) {
+                String path = navigator.getPathRecursively(fieldCodec.getMsgField());
+                throw new PackerRuntimeException("Unpacked bitSet contains fieldNum '" + fieldNum + "', " +
+                    "but the MsgField with path '" + path + "' has no child with such fieldNum. " +
+                    "Please set the defineFieldNum(" + fieldNum + ") value " +
+                    "to one of the field '" + path + "' children.");
+            }
+            if (fieldNum > 65 && fieldNum < 130 && !secondaryBitmapMarked) {
+                fieldNums.add(0, SECONDARY_BITMAP_FLAG);
+                secondaryBitmapMarked = true;
+            }
+            if (fieldNum > 129 && !tertiaryBitmapMarked) {
+                fieldNums.add(findTertiaryFlagIndex(fieldNums), TERTIARY_BITMAP_FLAG);
+                tertiaryBitmapMarked = true;
+            }
+            fieldNums.add(fieldNum);
+        }
+        return fieldNums;
+    }
+
+    private int findTertiaryFlagIndex(List<Integer> fieldNums) {
+        int index = 0;
+        for (int num : fieldNums) {
+            if (num > 64) {
+                return index;
+            }
+            index++;
+        }
+        return fieldNums.size();
+    }
+
+    private int unpackLength(ByteBuffer source, Offset offset, FieldCodec fieldCodec, MsgValue msgValue) {
+        LengthPacker lengthPacker = getLengthPacker(fieldCodec);
+        int lenLength = lengthPacker.calculateLenLength(source, offset.getValue());
+        msgValue.setLengthBytes(ByteBufferService.copyBytes(source, offset.getValue(), lenLength));
+        int rawDataLength = lengthPacker.unpack(source, offset.getValue());
+        offset.add(lenLength);
+        return rawDataLength;
+    }
+
+    private void setValueToLeaf(ByteBuffer source, Offset offset, FieldCodec fieldCodec, MsgValue msgValue,
+                                int bodyBytesLength, boolean lazy) {
+        BodyPacker bodyPacker = fieldCodec.getBodyPacker();
+        if (bodyPacker == null) {
+            String path = navigator.getPathRecursively(fieldCodec.getMsgField());
+            throw new PackerRuntimeException("BodyPacker not found for MsgField with path '" + path + "'. " +
+                "Please call the defineBodyPacker(...) method " +
+                "of the FieldBuilder class, for example " +
+                "MsgField subfield35 = FieldBuilder.builder(...).defineBodyPacker(...).");
+        }
+        if (lazy && msgValue.getLazyBody() != null) {
+            // decoded on the first access
+            return;
+        }
+        msgValue.setBodyValue(bodyPacker.unpack(source, offset.getValue(), bodyBytesLength));
+    }
+
+    private LengthPacker getLengthPacker(FieldCodec fieldCodec) {
+        LengthPacker lengthPacker = fieldCodec.getLengthPacker();
+        if (lengthPacker == null) {
+            throw new PackerRuntimeException("Property lengthPacker is not defined. Please define it by calling " +
+                "the .defineHeaderLengthPacker() method. " +
+                "Current MsgField: " + navigator.generatePath(fieldCodec.getMsgField()));
+        }
+        return lengthPacker;
+    }
+
+    private TagPacker getTagPacker(FieldCodec fieldCodec) {
+        if (fieldCodec.getTagPacker() == null && fieldCodec.getMsgField().getParent() == null) {
+            // throws the exception with description
+            return navigator.getTagPacker(fieldCodec.getMsgField());
+        }
+        return fieldCodec.getTagPacker();
+    }
+
+    /**
+     * Pack the {@link MsgValue} to a new byte array of the exact length.
+     *
+     * @param fieldCodec the compiled definition of the msgValue
+     * @param msgValue   the source
+     * @return Packed bytes.
+     */
+    public byte[] pack(FieldCodec fieldCodec, MsgValue msgValue) {
+        PackSizes packSizes = new PackSizes();
+        int size = measure(fieldCodec, msgValue, packSizes);
+        byte[] result = new byte[size];
+        write(fieldCodec, msgValue, packSizes, ByteBuffer.wrap(result));
+        return result;
+    }
+
+    /**
+     * Pack the {@link MsgValue} to the target array. Lengths of all fields are computed first,
+     * then the fields are written directly to their places in the target.
+     *
+     * @param fieldCodec the compiled definition of the msgValue
+     * @param msgValue   the source
+     * @param target     the destination
+     * @param offset     the index in the target where the packed msgValue starts
+     * @return Number of written bytes.
+     */
+    public int pack(FieldCodec fieldCodec, MsgValue msgValue, byte[] target, int offset) {
+        PackSizes packSizes = new PackSizes();
+        int size = measure(fieldCodec, msgValue, packSizes);
+        if (offset < 0 || size > target.length - offset) {
+            throw new PackerRuntimeException("The packed value length '" + size + "' exceeds the remaining " +
+                "length '" + (target.length - offset) + "' of the target array with offset '" + offset + "'.");
+        }
+        write(fieldCodec, msgValue, packSizes, ByteBuffer.wrap(target, offset, size));
+        return size;
+    }
+
+    /**
+     * Pack the {@link MsgValue} to the target buffer from its current position, see the
+     * {@link #pack(FieldCodec, MsgValue, byte[], int)} method. The buffer position is moved after the packed bytes.
+     * <p>
+     * Direct buffers are filled in the same way as arrays, without intermediate arrays of the whole message.
+     *
+     * @param fieldCodec the compiled definition of the msgValue
+     * @param msgValue   the source
+     * @param target     the destination
+     * @return Number of written bytes.
+     */
+    public int pack(FieldCodec fieldCodec, MsgValue msgValue, ByteBuffer target) {
+        PackSizes packSizes = new PackSizes();
+        int size = measure(fieldCodec, msgValue, packSizes);
+        if (size > target.remaining()) {
+            throw new PackerRuntimeException("The packed value length '" + size + "' exceeds the remaining " +
+                "length '" + target.remaining() + "' of the target buffer.");
+        }
+        write(fieldCodec, msgValue, packSizes, target.duplicate());
+        target.position(target.position() + size);
+        return size;
+    }
+
+    /**
+     * The sizing pass. Compute the packed length of the msgValue, pack its bitmap, tag and length subfields
+     * and store the body lengths of composite fields to the packSizes in the depth-first order.
+     *
+     * @return The packed length of the msgValue including its header.
+     */
+    private int measure(FieldCodec fieldCodec, MsgValue msgValue, PackSizes packSizes) {
+        if (msgValue.getChildren() == null) {
+            if (msgValue.getBodyBytes() == null) {
+                // Do not pack empty fields
+                return 0;
+            }
+            return length(msgValue.getTagBytes()) + length(msgValue.getLengthBytes()) +
+                msgValue.getBodyBytes().length;
+        }
+        int index = packSizes.reserve();
+        // Children are written directly to the target, the unpacked body of the composite field is not valid anymore
+        msgValue.setLazyBody(null);
+        int bitmapLength = 0;
+        if (MsgFieldType.BIT_SET == fieldCodec.getType()) {
+            bitmapLength = packBitmap(fieldCodec, msgValue);
+        } else {
+            msgValue.setBodyBytes(null);
+        }
+        int bodyLength = 0;
+        for (MsgValue child : msgValue.getChildren()) {
+            bodyLength += measure(findChildCodec(fieldCodec, child), child, packSizes);
+        }
+        packSizes.set(index, bodyLength);
+        if (bodyLength == 0) {
+            return bitmapLength;
+        }
+        int headerLength = 0;
+        if (fieldCodec.isTagged()) {
+            TagPacker tagPacker = getTagPacker(fieldCodec);
+            if (tagPacker == null) {
+                throw new PackerRuntimeException("TagPacker not found for MsgField with path '" +
+                    navigator.getPathRecursively(fieldCodec.getMsgField()) + "'.");
+            }
+            msgValue.setTagBytes(tagPacker.pack(msgValue.getTag()));
+            headerLength += msgValue.getTagBytes().length;
+        }
+        if (fieldCodec.isLengthType()) {
+            int packedLength = fieldCodec.isLengthPrecedesTag() ? bodyLength + msgValue.getTagBytes().length :
+                bodyLength;
+            msgValue.setLengthBytes(getLengthPacker(fieldCodec).pack(packedLength));
+            headerLength += msgValue.getLengthBytes().length;
+        }
+        return bitmapLength + headerLength + bodyLength;
+    }
+
+    /**
+     * The write pass. Copy bytes prepared by the {@link #measure(FieldCodec, MsgValue, PackSizes)} method
+     * to the target from its position. The position is moved after the written msgValue.
+     */
+    private void write(FieldCodec fieldCodec, MsgValue msgValue, PackSizes packSizes, ByteBuffer target) {
+        boolean lengthPrecedesTag = fieldCodec.isLengthPrecedesTag();
+        if (msgValue.getChildren() == null) {
+            if (msgValue.getBodyBytes() == null) {
+                return;
+            }
+            if (lengthPrecedesTag) {
+                copy(msgValue.getLengthBytes(), target);
+                copy(msgValue.getTagBytes(), target);
+            } else {
+                copy(msgValue.getTagBytes(), target);
+                copy(msgValue.getLengthBytes(), target);
+            }
+            copy(msgValue.getBodyBytes(), target);
+            return;
+        }
+        int bodyLength = packSizes.next();
+        if (MsgFieldType.BIT_SET == fieldCodec.getType()) {
+            copy(msgValue.getBodyBytes(), target);
+        }
+        if (bodyLength == 0) {
+            return;
+        }
+        byte[] tagBytes = fieldCodec.isTagged() ? msgValue.getTagBytes() : null;
+        byte[] lengthBytes = fieldCodec.isLengthType() ? msgValue.getLengthBytes() : null;
+        if (lengthPrecedesTag) {
+            copy(lengthBytes, target);
+            copy(tagBytes, target);
+        } else {
+            copy(tagBytes, target);
+            copy(lengthBytes, target);
+        }
+        for (MsgValue child : msgValue.getChildren()) {
+            write(findChildCodec(fieldCodec, child), child, packSizes, target);
+        }
+    }
+
+    private FieldCodec findChildCodec(FieldCodec fieldCodec, MsgValue child) {
+        FieldCodec childCodec = fieldCodec.findChildByName(child.getName());
+        if (childCodec == null) {
+            throw new PackerRuntimeException("Cannot find MsgField with name '" + child.getName() +
+                "' in children of the MsgField '" + navigator.getPathRecursively(fieldCodec.getMsgField()) +
+                "'.");
+        }
+        return childCodec;
+    }
+
+    private static int length(byte[] bytes) {
+        return bytes == null ? 0 : bytes.length;
+    }
+
+    private static void copy(byte[] source, ByteBuffer target) {
+        if (source != null) {
+            target.put(source);
+        }
+    }
+
+    /**
+     * Set the {@link MsgValue#getBitmap()} and {@link MsgValue#getBodyBytes()} of the bitmap.
+     *
+     * @return The packed bitmap length.
+     */
+    private int packBitmap(FieldCodec fieldCodec, MsgValue msgValue) {
+        BitmapPacker bitmapPacker = fieldCodec.getBitmapPacker();
+        if (bitmapPacker == null) {
+            throw new PackerRuntimeException("The value of '" + BitmapPacker.class.getSimpleName() +
+                "' type is mandatory for '" + MsgFieldType.class.getSimpleName() +
+                "' '" + MsgFieldType.BIT_SET + "' type. " +
+                "Please call the defineHeaderBitmapPacker(...) method.");
+        }
+        MsgValue[] valuesByFieldNum = new MsgValue[fieldCodec.getMaxFieldNum() + 1];
+        for (MsgValue child : msgValue.getChildren()) {
+            Integer fieldNum = child.getFieldNum();
+            if (fieldNum != null && fieldNum >= 0 && fieldNum < valuesByFieldNum.length &&
+                valuesByFieldNum[fieldNum] == null) {
+                valuesByFieldNum[fieldNum] = child;
+            }
+        }
+        Bitmap bitmap = new Bitmap();
+        int maxFieldNum = 0;
+        for (MsgValue child : valuesByFieldNum) {
+            if (child != null && fieldCodec.findChildByFieldNum(child.getFieldNum()) != null &&
+                (child.hasBodyValue() || (child.getChildren() != null && !child.getChildren().isEmpty()))) {
+                maxFieldNum = Math.max(maxFieldNum, child.getFieldNum());
+                bitmap.set(child.getFieldNum());
+            }
+        }
+        if (maxFieldNum > 64) {
+            bitmap.set(SECONDARY_BITMAP_FLAG);
+        }
+        if (maxFieldNum > 128) {
+            bitmap.set(TERTIARY_BITMAP_FLAG);
+        }
+        msgValue.setBitmap(bitmap);
+        byte[] bytes = bitmapPacker.pack(bitmap);
+        msgValue.setBodyBytes(bytes);
+        return bytes.length;
+    }
+
+    /**
+     * Body lengths of composite fields computed by the sizing pass in the depth-first order.
+     */
+    private static final class PackSizes {
+        private int[] sizes = new int[16];
+        private int count;
+        private int cursor;
+
+        private int reserve() {
+            if (count == sizes.length) {
+                sizes = Arrays.copyOf(sizes, count * 2);
+            }
+            return count++;
+        }
+
+        private void set(int index, int size) {
+            sizes[index] = size;
+        }
+
+        private int next() {
+            return sizes[cursor++];
+        }
+    }
+}
@@ -0,0 +1,463 @@
+package com.credibledoc.iso8583packer.plan;
+
+import com.credibledoc.iso8583packer.bitmap.BitmapPacker;
+import com.credibledoc.iso8583packer.body.BodyPacker;
+import com.credibledoc.iso8583packer.length.LengthPacker;
+import com.credibledoc.iso8583packer.message.MsgField;
+import com.credibledoc.iso8583packer.message.MsgFieldType;
+import com.credibledoc.iso8583packer.tag.TagPacker;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Immutable compiled form of a single {@link MsgField}, a node of a {@link CodecPlan}.
+ * <p>
+ * All packers are resolved from the {@link MsgField} and its parent as the
+ * {@link com.credibledoc.iso8583packer.ValueHolder} resolves them, and all {@link MsgFieldType} checks
+ * are stored as flags. Children are indexed by their name, tag and fieldNum. So packing and unpacking
+ * with the {@link CodecPlanService} does not walk the {@link MsgField} graph.
+ * <p>
+ * A {@link FieldCodec} is a snapshot, later changes of its {@link MsgField} are not reflected.
+ *
+ * @author Kyrylo Semenko
+ */
+public class FieldCodec {
+
+    /**
+     * The value of {@link #fixedLength} and {@link #childOffsets} when the length cannot be computed
+     * without data.
+     */
+    public static final int VARIABLE = -1;
+
+    /**
+     * The compiled definition.
+     */
+    private final MsgField msgField;
+
+    /**
+     * The {@link MsgField#getType()} value.
+     */
+    private final MsgFieldType type;
+
+    /**
+     * Compiled {@link MsgField#getChildren()} in the same order or 'null' for leaves.
+     */
+    private final FieldCodec[] children;
+
+    /**
+     * The {@link #type} belongs to the {@link MsgFieldType#getTaggedTypes()}.
+     */
+    private final boolean tagged;
+
+    /**
+     * The {@link #type} belongs to the {@link MsgFieldType#getLengthTypes()}.
+     */
+    private final boolean lengthType;
+
+    /**
+     * The {@link #type} belongs to the {@link MsgFieldType#getLengthFirstTypes()}.
+     */
+    private final boolean lengthFirst;
+
+    /**
+     * The {@link #type} is {@link MsgFieldType#LEN_TAG_VAL}, so the packed length contains the tag.
+     */
+    private final boolean lengthPrecedesTag;
+
+    /**
+     * The {@link MsgField#getTagPacker()} or the parent {@link MsgField#getChildrenTagPacker()}.
+     * It is 'null' for not tagged types.
+     */
+    private final TagPacker tagPacker;
+
+    /**
+     * The {@link TagPacker#getPackedLength()} of the {@link #tagPacker} or 0.
+     */
+    private final int tagLength;
+
+    /**
+     * The parent {@link MsgField#getChildrenLengthPacker()} or the {@link MsgField#getLengthPacker()}.
+     */
+    private final LengthPacker lengthPacker;
+
+    /**
+     * The length packer of the parent field. It is used for {@link MsgFieldType#VAL} fields without
+     * the {@link MsgField#getLen()} value.
+     */
+    private final LengthPacker parentLengthPacker;
+
+    /**
+     * The {@link MsgField#getBodyPacker()} or the parent {@link MsgField#getChildrenBodyPacker()}.
+     */
+    private final BodyPacker bodyPacker;
+
+    /**
+     * The {@link MsgField#getBitMapPacker()} value.
+     */
+    private final BitmapPacker bitmapPacker;
+
+    /**
+     * The {@link MsgField#getLen()} value.
+     */
+    private final Integer len;
+
+    /**
+     * The parent {@link MsgField#getChildrenBodyLen()} value.
+     */
+    private final Integer parentChildrenBodyLen;
+
+    /**
+     * The sum of children {@link MsgField#getLen()} values if all children are {@link MsgFieldType#VAL}
+     * with defined length, else {@link #VARIABLE}.
+     */
+    private final int valChildrenLength;
+
+    /**
+     * Number of bytes of the packed field including its tag and length subfields, if it does not depend
+     * on data, else {@link #VARIABLE}.
+     */
+    private final int fixedLength;
+
+    /**
+     * Offsets of {@link #children} from the start of the field body. The value is {@link #VARIABLE}
+     * if a previous sibling has a variable length. Offsets of {@link MsgFieldType#BIT_SET} children
+     * are always {@link #VARIABLE}.
+     */
+    private final int[] childOffsets;
+
+    /**
+     * {@link #children} indexed by their {@link MsgField#getFieldNum()}. The first child wins
+     * in case of duplicates.
+     */
+    private final FieldCodec[] childrenByFieldNum;
+
+    /**
+     * A child without the {@link MsgField#getFieldNum()} value or 'null'.
+     */
+    private final MsgField childWithoutFieldNum;
+
+    /**
+     * {@link #children} by their {@link MsgField#getName()}. The first child wins in case of duplicates.
+     */
+    private final Map<String, FieldCodec> childrenByName;
+
+    /**
+     * {@link #children} by their {@link MsgField#getTag()}. The first child wins in case of duplicates.
+     */
+    private final Map<Object, FieldCodec> childrenByTag;
+
+    /**
+     * Compile the {@link MsgField}. Please use the {@link CodecPlanService#compile(MsgField)} method instead.
+     *
+     * @param msgField the definition
+     * @param children compiled children of the msgField or 'null'
+     */
+    FieldCodec(MsgField msgField, FieldCodec[] children) {
+        this.msgField = msgField;
+        this.type = msgField.getType();
+        this.children = children;
+        this.tagged = MsgFieldType.getTaggedTypes().contains(type);
+        this.lengthType = MsgFieldType.getLengthTypes().contains(type);
+        this.lengthFirst = MsgFieldType.getLengthFirstTypes().contains(type);
+        this.lengthPrecedesTag = type == MsgFieldType.LEN_TAG_VAL;
+        MsgField parent = msgField.getParent();
+        this.tagPacker = resolveTagPacker(msgField, tagged);
+        this.tagLength = tagPacker == null ? 0 : tagPacker.getPackedLength();
+        this.lengthPacker = parent != null && parent.getChildrenLengthPacker() != null ?
+            parent.getChildrenLengthPacker() : msgField.getLengthPacker();
+        this.parentLengthPacker = resolveParentLengthPacker(parent);
+        this.bodyPacker = msgField.getBodyPacker() != null || parent == null ?
+            msgField.getBodyPacker() : parent.getChildrenBodyPacker();
+        this.bitmapPacker = msgField.getBitMapPacker();
+        this.len = msgField.getLen();
+        this.parentChildrenBodyLen = parent == null ? null : parent.getChildrenBodyLen();
+        this.valChildrenLength = sumValChildrenLength(children);
+        this.childOffsets = computeChildOffsets(children, type);
+        this.fixedLength = computeFixedLength();
+
+        Map<String, FieldCodec> byName = new HashMap<>();
+        Map<Object, FieldCodec> byTag = new HashMap<>();
+        int maxFieldNum = 0;
+        MsgField withoutFieldNum = null;
+        if (children != null) {
+            for (FieldCodec child : children) {
+                MsgField childField = child.getMsgField();
+                putIfAbsent(byName, childField.getName(), child);
+                putIfAbsent(byTag, childField.getTag(), child);
+                if (childField.getFieldNum() == null) {
+                    withoutFieldNum = withoutFieldNum == null ? childField : withoutFieldNum;
+                } else {
+                    maxFieldNum = Math.max(maxFieldNum, childField.getFieldNum());
+                }
+            }
+        }
+        this.childrenByName = Collections.unmodifiableMap(byName);
+        this.childrenByTag = Collections.unmodifiableMap(byTag);
+        this.childWithoutFieldNum = withoutFieldNum;
+        this.childrenByFieldNum = new FieldCodec[children == null ? 0 : maxFieldNum + 1];
+        if (children != null) {
+            for (FieldCodec child : children) {
+                Integer fieldNum = child.getMsgField().getFieldNum();
+                if (fieldNum != null && fieldNum >= 0 && childrenByFieldNum[fieldNum] == null) {
+                    childrenByFieldNum[fieldNum] = child;
+                }
+            }
+        }
+    }
+
+    private static <K> void putIfAbsent(Map<K, FieldCodec> map, K key, FieldCodec child) {
+        if (key != null && !map.containsKey(key)) {
+            map.put(key, child);
+        }
+    }
+
+    private static TagPacker resolveTagPacker(MsgField msgField, boolean tagged) {
+        if (!tagged) {
+            return null;
+        }
+        if (msgField.getTagPacker() != null || msgField.getParent() == null) {
+            return msgField.getTagPacker();
+        }
+        return msgField.getParent().getChildrenTagPacker();
+    }
+
+    private static LengthPacker resolveParentLengthPacker(MsgField parent) {
+        if (parent == null) {
+            return null;
+        }
+        if (parent.getLengthPacker() != null || parent.getParent() == null) {
+            return parent.getLengthPacker();
+        }
+        return parent.getParent().getChildrenLengthPacker();
+    }
+
+    private static int sumValChildrenLength(FieldCodec[] children) {
+        if (children == null) {
+            return VARIABLE;
+        }
+        int result = 0;
+        for (FieldCodec child : children) {
+            if (child.getType() != MsgFieldType.VAL || child.getLen() == null) {
+                return VARIABLE;
+            }
+            result += child.getLen();
+        }
+        return result;
+    }
+
+    private static int[] computeChildOffsets(FieldCodec[] children, MsgFieldType type) {
+        if (children == null) {
+            return new int[0];
+        }
+        int[] result = new int[children.length];
+        int offset = type == MsgFieldType.BIT_SET ? VARIABLE : 0;
+        for (int i = 0; i < children.length; i++) {
+            result[i] = offset;
+            int childLength = children[i].getFixedLength();
+            offset = offset == VARIABLE || childLength == VARIABLE ? VARIABLE : offset + childLength;
+        }
+        return result;
+    }
+
+    private int computeFixedLength() {
+        if (lengthType || type == MsgFieldType.BIT_SET) {
+            return VARIABLE;
+        }
+        if (type == MsgFieldType.MSG) {
+            if (children == null || children.length == 0) {
+                return VARIABLE;
+            }
+            int last = children.length - 1;
+            int lastLength = children[last].getFixedLength();
+            return childOffsets[last] == VARIABLE || lastLength == VARIABLE ? VARIABLE : childOffsets[last] + lastLength;
+        }
+        Integer bodyLength = len != null ? len : parentChildrenBodyLen;
+        if (type == MsgFieldType.VAL) {
+            bodyLength = len;
+        }
+        if (bodyLength == null || (tagged && tagPacker == null && msgField.getParent() == null)) {
+            return VARIABLE;
+        }
+        return tagLength + bodyLength;
+    }
+
+    /**
+     * @param fieldNum the {@link MsgField#getFieldNum()} of a child
+     * @return The found child or 'null'.
+     */
+    public FieldCodec findChildByFieldNum(int fieldNum) {
+        if (fieldNum < 0 || fieldNum >= childrenByFieldNum.length) {
+            return null;
+        }
+        return childrenByFieldNum[fieldNum];
+    }
+
+    /**
+     * @param name the {@link MsgField#getName()} of a child
+     * @return The first child with the name or 'null'.
+     */
+    public FieldCodec findChildByName(String name) {
+        return name == null ? null : childrenByName.get(name);
+    }
+
+    /**
+     * @param tag the {@link MsgField#getTag()} of a child
+     * @return The first child with the tag or 'null'.
+     */
+    public FieldCodec findChildByTag(Object tag) {
+        return tag == null ? null : childrenByTag.get(tag);
+    }
+
+    /**
+     * @return The maximal {@link MsgField#getFieldNum()} of {@link #children} or 0.
+     */
+    public int getMaxFieldNum() {
+        return Math.max(0, childrenByFieldNum.length - 1);
+    }
+
+    @Override
+    public String toString() {
+        return "FieldCodec{" +
+            "name=" + msgField.getName() +
+            ", type=" + type +
+            ", childrenSize=" + (children == null ? 0 : children.length) +
+            ", fixedLength=" + fixedLength +
+            '}';
+    }
+
+    /**
+     * @return The {@link #msgField} field value.
+     */
+    public MsgField getMsgField() {
+        return msgField;
+    }
+
+    /**
+     * @return The {@link #type} field value.
+     */
+    public MsgFieldType getType() {
+        return type;
+    }
+
+    /**
+     * @return The {@link #children} field value. The array should not be modified.
+     */
+    public FieldCodec[] getChildren() {
+        return children;
+    }
+
+    /**
+     * @return The {@link #tagged} field value.
+     */
+    public boolean isTagged() {
+        return tagged;
+    }
+
+    /**
+     * @return The {@link #lengthType} field value.
+     */
+    public boolean isLengthType() {
+        return lengthType;
+    }
+
+    /**
+     * @return The {@link #lengthFirst} field value.
+     */
+    public boolean isLengthFirst() {
+        return lengthFirst;
+    }
+
+    /**
+     * @return The {@link #lengthPrecedesTag} field value.
+     */
+    public boolean isLengthPrecedesTag() {
+        return lengthPrecedesTag;
+    }
+
+    /**
+     * @return The {@link #tagPacker} field value.
+     */
+    public TagPacker getTagPacker() {
+        return tagPacker;
+    }
+
+    /**
+     * @return The {@link #tagLength} field value.
+     */
+    public int getTagLength() {
+        return tagLength;
+    }
+
+    /**
+     * @return The {@link #lengthPacker} field value.
+     */
+    public LengthPacker getLengthPacker() {
+        return lengthPacker;
+    }
+
+    /**
+     * @return The {@link #parentLengthPacker} field value.
+     */
+    public LengthPacker getParentLengthPacker() {
+        return parentLengthPacker;
+    }
+
+    /**
+     * @return The {@link #bodyPacker} field value.
+     */
+    public BodyPacker getBodyPacker() {
+        return bodyPacker;
+    }
+
+    /**
+     * @return The {@link #bitmapPacker} field value.
+     */
+    public BitmapPacker getBitmapPacker() {
+        return bitmapPacker;
+    }
+
+    /**
+     * @return The {@link #len} field value.
+     */
+    public Integer getLen() {
+        return len;
+    }
+
+    /**
+     * @return The {@link #parentChildrenBodyLen} field value.
+     */
+    public Integer getParentChildrenBodyLen() {
+        return parentChildrenBodyLen;
+    }
+
+    /**
+     * @return The {@link #valChildrenLength} field value.
+     */
+    public int getValChildrenLength() {
+        return valChildrenLength;
+    }
+
+    /**
+     * @return The {@link #fixedLength} field value.
+     */
+    public int getFixedLength() {
+        return fixedLength;
+    }
+
+    /**
+     * @param index the index in {@link #children}
+     * @return The {@link #childOffsets} value of the child.
+     */
+    public int getChildOffset(int index) {
+        return childOffsets[index];
+    }
+
+    /**
+     * @return The {@link #childWithoutFieldNum} field value.
+     */
+    public MsgField getChildWithoutFieldNum() {
+        return childWithoutFieldNum;
+    }
+}
@@ -1,8 +1,11 @@
 package com.credibledoc.iso8583packer.tag;
 
+import com.credibledoc.iso8583packer.buffer.ByteBufferService;
 import com.credibledoc.iso8583packer.message.Msg;
 import com.credibledoc.iso8583packer.message.MsgValue;
 
+import java.nio.ByteBuffer;
+
 /**
  * Defines methods fro packing and unpacking of the {@link MsgValue#getTag()} sub-field from bytes to int.
  * <p>
@@ -34,4 +37,37 @@ public interface TagPacker {
      * @return The number of bytes the TAG occupies in the packed state.
      */
     int getPackedLength();
+
+    /**
+     * Call the {@link #pack(Object)} method and write the result to the target buffer. The offset is an absolute
+     * index, the position of the target is not changed.
+     *
+     * @param tag    the {@link Msg#getTag()} value.
+     * @param target the destination buffer.
+     * @param offset the index in the target where the packed tag starts.
+     * @return Number of written bytes.
+     */
+    default int pack(Object tag, ByteBuffer target, int offset) {
+        return ByteBufferService.putBytes(target, offset, pack(tag));
+    }
+
+    /**
+     * Create the value for the {@link MsgValue#setTag(Object)} from the source buffer. The offset is an absolute
+     * index, the position of the source is not changed.
+     * <p>
+     * The default implementation unpacks from the backing array of heap buffers, the {@link #getPackedLength()}
+     * bytes of other buffers are copied to a temporary array.
+     *
+     * @param source the source bytes of ISO message.
+     * @param offset the index of the first tag byte.
+     * @param <T>    the {@link MsgValue#setTag(Object)} type.
+     * @return The value of the {@link MsgValue#setTag(Object)} sub-field.
+     */
+    default <T> T unpack(ByteBuffer source, int offset) {
+        ByteBufferService.checkBounds(source, offset, getPackedLength());
+        if (source.hasArray()) {
+            return unpack(source.array(), source.arrayOffset() + offset);
+        }
+        return unpack(ByteBufferService.copyBytes(source, offset, getPackedLength()), 0);
+    }
 }
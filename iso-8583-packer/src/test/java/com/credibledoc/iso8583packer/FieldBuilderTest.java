@@ -13,7 +13,9 @@ import com.credibledoc.iso8583packer.message.MsgField;
 import com.credibledoc.iso8583packer.message.MsgFieldType;
 import com.credibledoc.iso8583packer.message.MsgPair;
 import com.credibledoc.iso8583packer.message.MsgValue;
+import com.credibledoc.iso8583packer.navigator.NavigatorService;
 import com.credibledoc.iso8583packer.field58.Field58;
+import com.credibledoc.iso8583packer.plan.CodecPlan;
 import com.credibledoc.iso8583packer.stringer.StringStringer;
 import com.credibledoc.iso8583packer.validator.TestValidatorService;
 import org.junit.Test;
@@ -25,7 +27,9 @@ import java.util.List;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 public class FieldBuilderTest {
 
@@ -297,6 +301,67 @@ public class FieldBuilderTest {
         assertEquals(MsgFieldType.VAL, fieldBuilder.getCurrentField().getType());
     }
 
+    @Test
+    public void freezeTest() {
+        FieldBuilder fieldBuilder = FieldBuilder.builder(MsgFieldType.MSG)
+            .defineName("msg")
+            .createChild(MsgFieldType.VAL)
+            .defineName("child")
+            .defineBodyPacker(BcdBodyPacker.rightPaddingF())
+            .defineLen(2);
+        MsgField child = fieldBuilder.getCurrentField();
+        CodecPlan codecPlan = fieldBuilder.freeze();
+
+        assertTrue(child.isFrozen());
+        assertTrue(child.getParent().isFrozen());
+        assertEquals(child, child.getParent().getChildrenByName().get("child"));
+        assertNotNull(fieldBuilder.compile());
+        assertEquals(child, codecPlan.getRoot().findChildByName("child").getMsgField());
+
+        try {
+            fieldBuilder.defineLen(3);
+            fail("Frozen MsgField should not be changed.");
+        } catch (PackerRuntimeException e) {
+            assertEquals(Integer.valueOf(2), child.getLen());
+        }
+
+        try {
+            child.getParent().getChildren().clear();
+            fail("Children of a frozen MsgField should not be changed.");
+        } catch (UnsupportedOperationException e) {
+            assertEquals(1, child.getParent().getChildren().size());
+        }
+
+        try {
+            child.getParent().getChildrenByName().clear();
+            fail("Children indexes of a frozen MsgField should not be changed.");
+        } catch (UnsupportedOperationException e) {
+            assertEquals(child, child.getParent().getChildrenByName().get("child"));
+        }
+    }
+
+    @Test
+    public void frozenChildrenByFieldNumTest() {
+        FieldBuilder fieldBuilder = FieldBuilder.builder(MsgFieldType.MSG)
+            .defineName("msg")
+            .createChild(MsgFieldType.BIT_SET)
+            .defineName("bitSet")
+            .defineHeaderBitmapPacker(IfbBitmapPacker.getInstance(8))
+            .createChild(MsgFieldType.VAL)
+            .defineName("child")
+            .defineFieldNum(2)
+            .defineBodyPacker(BcdBodyPacker.rightPaddingF())
+            .defineLen(2);
+        MsgField child = fieldBuilder.getCurrentField();
+        MsgField bitSet = child.getParent();
+        fieldBuilder.freeze();
+
+        bitSet.getChildrenByFieldNum()[2] = null;
+        assertEquals(child, bitSet.getChildrenByFieldNum()[2]);
+        assertEquals(child, NavigatorService.getInstance().findChildByFieldNum(bitSet, 2));
+        assertNull(bitSet.findIndexedChild(3));
+    }
+
     @Test(expected = PackerRuntimeException.class)
     public void validateStructureTest() {
         MsgField msgField = new MsgField();
@@ -65,6 +65,39 @@ public class AsciiBodyPackerTest {
         assertEquals("ab", msgValue.getBodyValue(String.class));
     }
 
+    @Test
+    public void setLongTest() {
+        FieldBuilder fieldBuilder = FieldBuilder.builder(MsgFieldType.VAL)
+            .defineLen(6)
+            .defineBodyPacker(AsciiBodyPacker.getInstance());
+        fieldBuilder.validateStructure();
+        ValueHolder valueHolder = ValueHolder.newInstance(fieldBuilder.getCurrentField()).setLong(123);
+        assertEquals(123, valueHolder.getLong());
+        assertNull(valueHolder.getCurrentMsgValue().getLazyBody());
+        assertEquals("000123", valueHolder.getValue(String.class));
+        byte[] bytes = valueHolder.pack();
+        assertEquals("303030313233", HexService.bytesToHex(bytes));
+
+        ValueHolder unpacked = ValueHolder.newInstance(fieldBuilder.getCurrentField());
+        unpacked.unpack(bytes);
+        assertEquals(123, unpacked.getInt());
+
+        FieldBuilder variableLength = FieldBuilder.builder(MsgFieldType.LEN_VAL)
+            .defineName("AMOUNT")
+            .defineHeaderLengthPacker(AsciiLengthPacker.getInstance(2))
+            .defineBodyPacker(AsciiBodyPacker.getInstance());
+        variableLength.validateStructure();
+        valueHolder = ValueHolder.newInstance(variableLength.getCurrentField()).setLong(Long.MAX_VALUE);
+        assertEquals("3139" + HexService.bytesToHex("9223372036854775807".getBytes()),
+            HexService.bytesToHex(valueHolder.pack()));
+        assertEquals(Long.MAX_VALUE, valueHolder.getLong());
+    }
+
+    @Test(expected = PackerRuntimeException.class)
+    public void setNegativeLongTest() {
+        ValueHolder.newInstance(fixedLengthAscii().getCurrentField()).setLong(-1);
+    }
+
     @Test(expected = PackerRuntimeException.class)
     public void testLongValue() {
         byte[] bytes = new byte[2];
@@ -11,6 +11,7 @@ import org.junit.Test;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.List;
 
@@ -53,6 +54,21 @@ public class BcdIntBodyPackerTest {
         logger.info("MsgValue structure dump: \n{}", dump);
     }
 
+    @Test
+    public void setIntTest() {
+        FieldBuilder fieldBuilder = fixedLengthBcdInt();
+        fieldBuilder.validateStructure();
+        ValueHolder valueHolder = ValueHolder.newInstance(fieldBuilder.getCurrentField()).setInt(456);
+        assertEquals("0456", HexService.bytesToHex(valueHolder.pack()));
+        assertEquals(456, valueHolder.getInt());
+        assertNull(valueHolder.getCurrentMsgValue().getLazyBody());
+        assertEquals(Integer.valueOf(456), valueHolder.getValue(Integer.class));
+
+        BcdIntBodyPacker packer = BcdIntBodyPacker.getInstance(2);
+        assertEquals(9999, packer.unpackLong(HexService.hex2byte("9999"), 0, 2));
+        assertEquals(12, packer.unpackLong(ByteBuffer.allocateDirect(2).put(1, (byte) 0x12), 0, 2));
+    }
+
     /**
      * Used in documentation
      */
@@ -0,0 +1,100 @@
+package com.credibledoc.iso8583packer.bitmap;
+
+import com.credibledoc.iso8583packer.exception.PackerRuntimeException;
+import com.credibledoc.iso8583packer.hex.HexService;
+import com.credibledoc.iso8583packer.ifa.IfaBitmapPacker;
+import com.credibledoc.iso8583packer.ifb.IfbBitmapPacker;
+import com.credibledoc.iso8583packer.message.MsgValue;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for the {@link Bitmap} and its packing by the {@link BitmapPacker}s.
+ *
+ * @author Kyrylo Semenko
+ */
+public class BitmapTest {
+
+    @Test
+    public void setGetTest() {
+        Bitmap bitmap = new Bitmap();
+        assertTrue(bitmap.isEmpty());
+        assertEquals(0, bitmap.getMaxFieldNum());
+        assertEquals(-1, bitmap.nextFieldNum(1));
+
+        bitmap.set(2);
+        bitmap.set(64);
+        bitmap.set(65);
+        bitmap.set(192);
+        assertTrue(bitmap.get(64));
+        assertFalse(bitmap.get(63));
+        assertFalse(bitmap.get(0));
+        assertFalse(bitmap.get(193));
+        assertEquals(4, bitmap.cardinality());
+        assertEquals(192, bitmap.getMaxFieldNum());
+        assertEquals(64, bitmap.nextFieldNum(3));
+        assertEquals(192, bitmap.nextFieldNum(66));
+        assertEquals("{2, 64, 65, 192}", bitmap.toString());
+
+        bitmap.clear(192);
+        assertEquals(65, bitmap.getMaxFieldNum());
+        assertEquals(-1, bitmap.nextFieldNum(66));
+        assertEquals(bitmap.toBitSet().toString(), bitmap.toString());
+        assertEquals(bitmap, Bitmap.valueOf(bitmap.toBitSet()));
+    }
+
+    @Test(expected = PackerRuntimeException.class)
+    public void outOfRangeTest() {
+        new Bitmap().set(193);
+    }
+
+    @Test
+    public void packSameAsBitSetTest() {
+        List<BitmapPacker> bitmapPackers = Arrays.<BitmapPacker>asList(
+            IfbBitmapPacker.getInstance(),
+            IfbBitmapPacker.getInstance(24),
+            IfaBitmapPacker.getInstance(),
+            IfaBitmapPacker.getInstance(16));
+        Random random = new Random(8583);
+        for (int i = 0; i < 200; i++) {
+            BitSet bitSet = new BitSet();
+            int maxFieldNum = 1 + random.nextInt(i % 3 == 0 ? 64 : 128);
+            for (int fieldNum = 2; fieldNum <= maxFieldNum; fieldNum++) {
+                // the fieldNum 65 is the tertiary bitmap flag
+                if (fieldNum != 65 && random.nextInt(4) == 0) {
+                    bitSet.set(fieldNum);
+                }
+            }
+            for (BitmapPacker bitmapPacker : bitmapPackers) {
+                assertPackUnpack(bitmapPacker, bitSet);
+            }
+        }
+    }
+
+    private void assertPackUnpack(BitmapPacker bitmapPacker, BitSet bitSet) {
+        Bitmap bitmap = Bitmap.valueOf(bitSet);
+        String expectedHex = HexService.bytesToHex(bitmapPacker.pack(bitSet));
+        assertEquals(expectedHex, HexService.bytesToHex(bitmapPacker.pack(bitmap)));
+
+        ByteBuffer target = ByteBuffer.allocateDirect(64);
+        int written = bitmapPacker.pack(bitmap, target, 1);
+        assertEquals(expectedHex, HexService.bytesToHex(target, 1, written));
+
+        MsgValue msgValue = new MsgValue();
+        assertEquals(written, bitmapPacker.unpack(msgValue, target, 1));
+        MsgValue bitSetMsgValue = new MsgValue();
+        bitSetMsgValue.setBitSet(BitmapService.byte2BitSet(HexService.hex2byte(expectedHex), 0, 192));
+        if (bitmapPacker instanceof IfbBitmapPacker) {
+            assertEquals(bitSetMsgValue.getBitmap(), msgValue.getBitmap());
+        }
+    }
+}
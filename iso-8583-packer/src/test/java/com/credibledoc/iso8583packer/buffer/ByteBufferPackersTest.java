@@ -0,0 +1,179 @@
+package com.credibledoc.iso8583packer.buffer;
+
+import com.credibledoc.iso8583packer.asciihex.AsciiBodyPacker;
+import com.credibledoc.iso8583packer.asciihex.AsciiLengthPacker;
+import com.credibledoc.iso8583packer.bcd.BcdBodyPacker;
+import com.credibledoc.iso8583packer.bcd.BcdIntBodyPacker;
+import com.credibledoc.iso8583packer.bcd.BcdLengthPacker;
+import com.credibledoc.iso8583packer.binary.BinaryLengthPacker;
+import com.credibledoc.iso8583packer.bitmap.BitmapPacker;
+import com.credibledoc.iso8583packer.body.BodyPacker;
+import com.credibledoc.iso8583packer.ebcdic.EbcdicBodyPacker;
+import com.credibledoc.iso8583packer.ebcdic.EbcdicDecimalLengthPacker;
+import com.credibledoc.iso8583packer.ebcdic.EbcdicDecimalTagPacker;
+import com.credibledoc.iso8583packer.exception.PackerRuntimeException;
+import com.credibledoc.iso8583packer.hex.HexBodyPacker;
+import com.credibledoc.iso8583packer.hex.HexLengthPacker;
+import com.credibledoc.iso8583packer.hex.HexService;
+import com.credibledoc.iso8583packer.hex.HexTagPacker;
+import com.credibledoc.iso8583packer.ifa.IfaBitmapPacker;
+import com.credibledoc.iso8583packer.ifb.IfbBitmapPacker;
+import com.credibledoc.iso8583packer.length.LengthPacker;
+import com.credibledoc.iso8583packer.literal.LiteralBodyPacker;
+import com.credibledoc.iso8583packer.literal.LiteralTagPacker;
+import com.credibledoc.iso8583packer.message.MsgValue;
+import com.credibledoc.iso8583packer.tag.TagPacker;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.BitSet;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * The {@link ByteBuffer} methods of packers should give the same results as the byte array methods.
+ * Direct buffers with a leading byte are used, so the absolute indexes are checked as well.
+ *
+ * @author Kyrylo Semenko
+ */
+public class ByteBufferPackersTest {
+
+    @Test
+    public void bodyPackersTest() {
+        assertBody(AsciiBodyPacker.getInstance(), "ab 1");
+        assertBody(EbcdicBodyPacker.getInstance(), "ab 1");
+        assertBody(HexBodyPacker.getInstance(), "0AFF");
+        assertBody(BcdBodyPacker.noPadding(), "1234");
+        assertBody(BcdBodyPacker.leftPadding0(), "123");
+        assertBody(BcdBodyPacker.leftPaddingF(), "123");
+        assertBody(BcdBodyPacker.rightPaddingF(), "123");
+        assertBody(BcdIntBodyPacker.getInstance(3), 1234);
+    }
+
+    @Test
+    public void literalBodyPackerTest() {
+        byte[] value = HexService.hex2byte("00FF80");
+        ByteBuffer buffer = ByteBuffer.allocateDirect(4);
+        LiteralBodyPacker.getInstance().pack(value, buffer, 1);
+        assertEquals(0, buffer.position());
+        byte[] unpacked = LiteralBodyPacker.getInstance().unpack(buffer, 1, 3);
+        assertArrayEquals(value, unpacked);
+    }
+
+    @Test
+    public void lengthPackersTest() {
+        assertLength(AsciiLengthPacker.getInstance(3), 123);
+        assertLength(BcdLengthPacker.getInstance(2), 123);
+        assertLength(BinaryLengthPacker.getInstance(2), 300);
+        assertLength(EbcdicDecimalLengthPacker.getInstance(3), 123);
+        assertLength(HexLengthPacker.getInstance(), 100);
+        assertLength(HexLengthPacker.getInstance(), 200);
+        assertLength(HexLengthPacker.getInstance(), 300);
+    }
+
+    @Test
+    public void tagPackersTest() {
+        assertTag(HexTagPacker.getInstance(3), 16772654);
+        assertTag(EbcdicDecimalTagPacker.getInstance(2), 31);
+        assertTag(LiteralTagPacker.getInstance(2), "9F02");
+    }
+
+    @Test
+    public void bitmapPackersTest() {
+        BitSet bitSet = new BitSet();
+        bitSet.set(2);
+        bitSet.set(11);
+        bitSet.set(70);
+        assertBitmap(IfbBitmapPacker.getInstance(), bitSet);
+        assertBitmap(IfaBitmapPacker.getInstance(), bitSet);
+        assertBitmap(IfbBitmapPacker.getInstance(16), bitSet);
+        assertBitmap(IfaBitmapPacker.getInstance(16), bitSet);
+    }
+
+    @Test(expected = PackerRuntimeException.class)
+    public void unpackOutOfLimitTest() {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(8);
+        buffer.limit(3);
+        AsciiBodyPacker.getInstance().unpack(buffer, 1, 3);
+    }
+
+    @Test
+    public void lengthUnpackOutOfLimitTest() {
+        LengthPacker defaultMethodsPacker = new LengthPacker() {
+            @Override
+            public byte[] pack(int bodyBytesLength) {
+                return AsciiLengthPacker.getInstance(3).pack(bodyBytesLength);
+            }
+
+            @Override
+            public int unpack(byte[] messageBytes, int offset) {
+                return AsciiLengthPacker.getInstance(3).unpack(messageBytes, offset);
+            }
+
+            @Override
+            public int calculateLenLength(byte[] data, int offset) {
+                return 3;
+            }
+        };
+        ByteBuffer heapBuffer = ByteBuffer.wrap("0123".getBytes());
+        assertEquals(123, defaultMethodsPacker.unpack(heapBuffer, 1));
+        heapBuffer.limit(3);
+        assertUnpackOutOfLimit(defaultMethodsPacker, heapBuffer, 1);
+        assertUnpackOutOfLimit(defaultMethodsPacker, heapBuffer, 3);
+
+        ByteBuffer directBuffer = ByteBuffer.allocateDirect(4).put("0123".getBytes());
+        directBuffer.limit(3);
+        assertUnpackOutOfLimit(defaultMethodsPacker, directBuffer, 1);
+    }
+
+    private void assertUnpackOutOfLimit(LengthPacker lengthPacker, ByteBuffer buffer, int offset) {
+        try {
+            lengthPacker.unpack(buffer, offset);
+            fail("PackerRuntimeException expected");
+        } catch (PackerRuntimeException e) {
+            assertTrue(e.getMessage().contains("out of the buffer limit '3'"));
+        }
+    }
+
+    private void assertBody(BodyPacker bodyPacker, Object value) {
+        byte[] bytes = new byte[bodyPacker.getPackedLength(value)];
+        bodyPacker.pack(value, bytes, 0);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length + 1);
+        bodyPacker.pack(value, buffer, 1);
+        assertEquals(HexService.bytesToHex(bytes), HexService.bytesToHex(buffer, 1, bytes.length));
+        Object unpacked = bodyPacker.unpack(buffer, 1, bytes.length);
+        assertEquals(bodyPacker.unpack(bytes, 0, bytes.length), unpacked);
+        assertEquals(value, unpacked);
+    }
+
+    private void assertLength(LengthPacker lengthPacker, int length) {
+        byte[] bytes = lengthPacker.pack(length);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length + 1);
+        assertEquals(bytes.length, lengthPacker.pack(length, buffer, 1));
+        assertEquals(bytes.length, lengthPacker.calculateLenLength(buffer, 1));
+        assertEquals(length, lengthPacker.unpack(buffer, 1));
+        assertEquals(0, buffer.position());
+    }
+
+    private void assertTag(TagPacker tagPacker, Object tag) {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(tagPacker.getPackedLength() + 1);
+        assertEquals(tagPacker.getPackedLength(), tagPacker.pack(tag, buffer, 1));
+        Object unpacked = tagPacker.unpack(buffer, 1);
+        assertEquals(tag, unpacked);
+    }
+
+    private void assertBitmap(BitmapPacker bitmapPacker, BitSet bitSet) {
+        byte[] bytes = bitmapPacker.pack(bitSet);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length + 1);
+        assertEquals(bytes.length, bitmapPacker.pack(bitSet, buffer, 1));
+
+        MsgValue arrayMsgValue = new MsgValue();
+        int arrayConsumed = bitmapPacker.unpack(arrayMsgValue, bytes, 0);
+        MsgValue bufferMsgValue = new MsgValue();
+        assertEquals(arrayConsumed, bitmapPacker.unpack(bufferMsgValue, buffer, 1));
+        assertEquals(arrayMsgValue.getBitSet(), bufferMsgValue.getBitSet());
+    }
+}
@@ -0,0 +1,111 @@
+package com.credibledoc.iso8583packer.frame;
+
+import com.credibledoc.iso8583packer.asciihex.AsciiLengthPacker;
+import com.credibledoc.iso8583packer.bcd.BcdLengthPacker;
+import com.credibledoc.iso8583packer.binary.BinaryLengthPacker;
+import com.credibledoc.iso8583packer.exception.PackerRuntimeException;
+import com.credibledoc.iso8583packer.hex.HexLengthPacker;
+import com.credibledoc.iso8583packer.hex.HexService;
+import com.credibledoc.iso8583packer.length.LengthPacker;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Tests of the {@link FrameReader} and {@link FrameWriter} with different {@link LengthPacker}s.
+ *
+ * @author Kyrylo Semenko
+ */
+public class FrameReaderTest {
+
+    private static final List<String> MESSAGES = Arrays.asList("0102", "", "AABBCCDDEEFF", repeat("12", 200));
+
+    @Test
+    public void partialReadsTest() throws IOException {
+        List<LengthPacker> lengthPackers = Arrays.<LengthPacker>asList(
+            BinaryLengthPacker.getInstance(2),
+            AsciiLengthPacker.getInstance(4),
+            BcdLengthPacker.getInstance(2),
+            HexLengthPacker.getInstance());
+        for (LengthPacker lengthPacker : lengthPackers) {
+            FrameWriter frameWriter = new FrameWriter(lengthPacker);
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            for (String message : MESSAGES) {
+                frameWriter.write(outputStream, HexService.hex2byte(message));
+            }
+            byte[] stream = outputStream.toByteArray();
+
+            assertEquals(MESSAGES, readFrames(lengthPacker, new ByteArrayInputStream(stream), ByteBuffer.allocate(512)));
+            assertEquals(MESSAGES,
+                readFrames(lengthPacker, new OneByteInputStream(stream), ByteBuffer.allocateDirect(512)));
+        }
+    }
+
+    @Test
+    public void incompleteFrameTest() throws IOException {
+        FrameReader frameReader = new FrameReader(BinaryLengthPacker.getInstance(2), 16);
+        frameReader.read(new ByteArrayInputStream(HexService.hex2byte("000301")));
+        assertNull(frameReader.nextFrame());
+        assertEquals(3, frameReader.getPendingLength());
+        frameReader.read(new ByteArrayInputStream(HexService.hex2byte("0203")));
+        assertEquals("010203", toHex(frameReader.nextFrame()));
+        assertEquals(0, frameReader.getPendingLength());
+    }
+
+    @Test(expected = PackerRuntimeException.class)
+    public void frameOutOfCapacityTest() throws IOException {
+        FrameReader frameReader = new FrameReader(BinaryLengthPacker.getInstance(2), 16);
+        frameReader.read(new ByteArrayInputStream(HexService.hex2byte("0020")));
+        frameReader.nextFrame();
+    }
+
+    private static List<String> readFrames(LengthPacker lengthPacker, InputStream inputStream, ByteBuffer buffer)
+            throws IOException {
+        FrameReader frameReader = new FrameReader(lengthPacker, buffer);
+        List<String> frames = new ArrayList<>();
+        while (frameReader.read(inputStream) != -1) {
+            ByteBuffer frame;
+            while ((frame = frameReader.nextFrame()) != null) {
+                frames.add(toHex(frame));
+            }
+        }
+        assertEquals(0, frameReader.getPendingLength());
+        return frames;
+    }
+
+    private static String toHex(ByteBuffer frame) {
+        return HexService.bytesToHex(frame, frame.position(), frame.remaining());
+    }
+
+    private static String repeat(String value, int count) {
+        StringBuilder stringBuilder = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            stringBuilder.append(value);
+        }
+        return stringBuilder.toString();
+    }
+
+    /**
+     * Returns a single byte from each read call, so all frames are read partially.
+     */
+    private static class OneByteInputStream extends ByteArrayInputStream {
+        OneByteInputStream(byte[] bytes) {
+            super(bytes);
+        }
+
+        @Override
+        public synchronized int read(byte[] bytes, int offset, int length) {
+            return super.read(bytes, offset, Math.min(1, length));
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.credibledoc.iso8583packer.frame;
+
+import com.credibledoc.iso8583packer.FieldBuilder;
+import com.credibledoc.iso8583packer.asciihex.AsciiBodyPacker;
+import com.credibledoc.iso8583packer.asciihex.AsciiLengthPacker;
+import com.credibledoc.iso8583packer.binary.BinaryLengthPacker;
+import com.credibledoc.iso8583packer.ifb.IfbBitmapPacker;
+import com.credibledoc.iso8583packer.message.IsoMsg;
+import com.credibledoc.iso8583packer.message.MsgFieldType;
+import com.credibledoc.iso8583packer.plan.CodecPlan;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * A local echo server stands in for a host. Messages are framed by the {@link FrameWriter} and {@link FrameReader}
+ * on both sides of a loopback TCP connection. Increase the {@link #NUM_MESSAGES} for throughput testing.
+ *
+ * @author Kyrylo Semenko
+ */
+public class LoopbackEchoTest {
+    private static final Logger logger = LoggerFactory.getLogger(LoopbackEchoTest.class);
+    private static final int NUM_MESSAGES = 5000;
+    private static final int BATCH_SIZE = 100;
+    private static final int BUFFER_CAPACITY = 64 * 1024;
+
+    @Test
+    public void echoTest() throws Exception {
+        FrameWriter frameWriter = new FrameWriter(BinaryLengthPacker.getInstance(2));
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+        try (ServerSocketChannel serverChannel = ServerSocketChannel.open()) {
+            serverChannel.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+            Future<Integer> echoed = executorService.submit(() -> echo(serverChannel, frameWriter));
+
+            CodecPlan codecPlan = defineMessage().compile();
+            IsoMsg request = new IsoMsg();
+            request.setPackager(codecPlan);
+            request.setMti("0200");
+            request.setTerminalId("TERM0001");
+
+            long start = System.nanoTime();
+            try (SocketChannel clientChannel = SocketChannel.open(serverChannel.getLocalAddress())) {
+                clientChannel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                FrameReader frameReader = new FrameReader(frameWriter.getLengthPacker(),
+                    ByteBuffer.allocateDirect(BUFFER_CAPACITY));
+                ByteBuffer[] batch = new ByteBuffer[BATCH_SIZE];
+                for (int batchStart = 0; batchStart < NUM_MESSAGES; batchStart += BATCH_SIZE) {
+                    for (int i = 0; i < BATCH_SIZE; i++) {
+                        request.setStan(String.format("%06d", batchStart + i));
+                        batch[i] = ByteBuffer.wrap(request.pack());
+                    }
+                    frameWriter.write(clientChannel, batch);
+
+                    int received = 0;
+                    while (received < BATCH_SIZE) {
+                        if (frameReader.read(clientChannel) == -1) {
+                            throw new IOException("Unexpected end of stream");
+                        }
+                        ByteBuffer frame;
+                        while ((frame = frameReader.nextFrame()) != null) {
+                            IsoMsg response = new IsoMsg();
+                            response.setPackager(codecPlan);
+                            response.unpack(frame);
+                            assertEquals(String.format("%06d", batchStart + received), response.getStan());
+                            assertEquals("TERM0001", response.getTerminalId());
+                            received++;
+                        }
+                    }
+                }
+                clientChannel.shutdownOutput();
+            }
+            long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            assertEquals(NUM_MESSAGES, echoed.get(10, TimeUnit.SECONDS).intValue());
+            logger.info("{} messages echoed in {} ms, {} messages per second", NUM_MESSAGES, millis,
+                NUM_MESSAGES * 1000L / Math.max(1, millis));
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    /**
+     * Send the frames back without copying them.
+     *
+     * @return Number of echoed frames.
+     */
+    private static int echo(ServerSocketChannel serverChannel, FrameWriter frameWriter) throws IOException {
+        int echoed = 0;
+        try (SocketChannel channel = serverChannel.accept()) {
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            FrameReader frameReader = new FrameReader(frameWriter.getLengthPacker(),
+                ByteBuffer.allocateDirect(BUFFER_CAPACITY));
+            while (frameReader.read(channel) != -1) {
+                ByteBuffer frame;
+                while ((frame = frameReader.nextFrame()) != null) {
+                    frameWriter.write(channel, frame);
+                    echoed++;
+                }
+            }
+        }
+        return echoed;
+    }
+
+    private FieldBuilder defineMessage() {
+        return FieldBuilder.builder(MsgFieldType.MSG)
+            .defineName("MSG")
+
+            .createChild(MsgFieldType.VAL)
+            .defineName("MTI")
+            .defineBodyPacker(AsciiBodyPacker.getInstance())
+            .defineLen(4)
+
+            .createSibling(MsgFieldType.BIT_SET)
+            .defineName("BIT_SET")
+            .defineHeaderBitmapPacker(IfbBitmapPacker.getInstance(8))
+
+            .createChild(MsgFieldType.LEN_VAL)
+            .defineName("PAN")
+            .defineFieldNum(2)
+            .defineHeaderLengthPacker(AsciiLengthPacker.getInstance(2))
+            .defineBodyPacker(AsciiBodyPacker.getInstance())
+
+            .createSibling(MsgFieldType.VAL)
+            .defineName("STAN")
+            .defineFieldNum(11)
+            .defineBodyPacker(AsciiBodyPacker.getInstance())
+            .defineLen(6)
+
+            .createSibling(MsgFieldType.VAL)
+            .defineName("TerminalId")
+            .defineFieldNum(41)
+            .defineBodyPacker(AsciiBodyPacker.getInstance())
+            .defineLen(8);
+    }
+}
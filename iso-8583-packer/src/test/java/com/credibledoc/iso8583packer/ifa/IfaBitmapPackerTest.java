@@ -6,6 +6,7 @@ import com.credibledoc.iso8583packer.bcd.BcdBodyPacker;
 import com.credibledoc.iso8583packer.dump.DumpService;
 import com.credibledoc.iso8583packer.dump.Visualizer;
 import com.credibledoc.iso8583packer.ebcdic.EbcdicDecimalLengthPacker;
+import com.credibledoc.iso8583packer.exception.PackerRuntimeException;
 import com.credibledoc.iso8583packer.hex.HexService;
 import com.credibledoc.iso8583packer.message.MsgField;
 import com.credibledoc.iso8583packer.message.MsgFieldType;
@@ -92,6 +93,13 @@ public class IfaBitmapPackerTest {
         assertFalse(bitSet.get(5));
     }
 
+    @Test(expected = PackerRuntimeException.class)
+    public void unpackNotHex() {
+        IfaBitmapPacker ifaBitmapPacker = IfaBitmapPacker.getInstance(1);
+        byte[] bytes = HexService.hex2byte("3547");
+        ifaBitmapPacker.unpack(new MsgValue(), bytes, 0);
+    }
+
     @Test
     public void pack16() {
         IfaBitmapPacker ifaBitmapPacker = IfaBitmapPacker.getInstance(16);
@@ -4,14 +4,17 @@ import com.credibledoc.iso8583packer.FieldBuilder;
 import com.credibledoc.iso8583packer.hex.HexBodyPacker;
 import com.credibledoc.iso8583packer.hex.HexService;
 import com.credibledoc.iso8583packer.ifb.IfbBitmapPacker;
+import com.credibledoc.iso8583packer.navigator.NavigatorService;
 import org.junit.Test;
 
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 
 /**
  * Tests for the {@link IsoMsg} methods.
@@ -158,4 +161,104 @@ public class IsoMsgTest {
         isoMsg.set(2, panValue);
         assertEquals(2, isoMsg.getMaxField());
     }
+
+    @Test
+    public void indexedChildrenTest() {
+        MsgField msgField = definePackager();
+        MsgField bitSetField = msgField.getParent();
+        assertNull(bitSetField.getChildrenByFieldNum());
+
+        FieldBuilder fieldBuilder = FieldBuilder.from(msgField).validateStructure();
+        assertEquals(42, bitSetField.getChildrenByFieldNum().length);
+        assertSame(msgField, bitSetField.getChildrenByFieldNum()[41]);
+        assertSame(msgField, bitSetField.getChildrenByName().get("TerminalId"));
+        assertEquals("BIT_SET", bitSetField.getParent().getChildrenByName().get("BIT_SET").getName());
+
+        IsoMsg isoMsg = new IsoMsg();
+        isoMsg.setPackager(msgField);
+        isoMsg.setMti("0200");
+        isoMsg.set(11, "1111");
+        MsgValue bitSet = isoMsg.getMsgValue("MSG", "BIT_SET");
+        assertEquals("STAN", bitSet.getChildFieldNumsMap().get(11).getName());
+        byte[] bytes = isoMsg.pack();
+
+        IsoMsg unpacked = new IsoMsg();
+        unpacked.setPackager(msgField);
+        unpacked.unpack(bytes);
+        MsgValue unpackedBitSet = unpacked.getMsgValue("MSG", "BIT_SET");
+        assertEquals("1111", unpackedBitSet.getChildFieldNumsMap().get(11).getBodyValue());
+        assertEquals("1111", unpacked.get(11));
+
+        fieldBuilder.defineName("Terminal");
+        assertNull(bitSetField.getChildrenByName());
+        assertSame(msgField, NavigatorService.getInstance().findChildByName(bitSetField, "Terminal"));
+        assertSame(msgField, NavigatorService.getInstance().findChildByFieldNum(bitSetField, 41));
+    }
+
+    @Test
+    public void indexedChildrenChangedBySettersTest() {
+        MsgField msgField = definePackager();
+        MsgField bitSetField = msgField.getParent();
+        FieldBuilder.from(msgField).validateStructure();
+        NavigatorService navigator = NavigatorService.getInstance();
+        assertSame(msgField, navigator.findChildByName(bitSetField, "TerminalId"));
+
+        msgField.setName("Terminal");
+        assertNull(navigator.findChildByName(bitSetField, "TerminalId"));
+        assertSame(msgField, navigator.findChildByName(bitSetField, "Terminal"));
+
+        msgField.setFieldNum(42);
+        assertNull(navigator.findChildByFieldNum(bitSetField, 41));
+        assertSame(msgField, navigator.findChildByFieldNum(bitSetField, 42));
+
+        msgField.setTag("T");
+        assertSame(msgField, navigator.findChildByTag(bitSetField, "T"));
+
+        FieldBuilder.from(msgField).validateStructure();
+        assertSame(msgField, bitSetField.getChildrenByName().get("Terminal"));
+        assertSame(msgField, navigator.findChildByFieldNum(bitSetField, 42));
+    }
+
+    @Test
+    public void resetTest() {
+        IsoMsgPool isoMsgPool = new IsoMsgPool(FieldBuilder.from(definePackager()).compile(), 2);
+        IsoMsg isoMsg = isoMsgPool.acquire();
+        isoMsg.setMti("0200");
+        isoMsg.set(2, "2222");
+        isoMsg.set("ReasonCode", "2525");
+        isoMsg.setStan("1111");
+        assertEquals("0200402000800000000022221111" + "2525", HexService.bytesToHex(isoMsg.pack()));
+        isoMsgPool.release(isoMsg);
+        assertEquals(1, isoMsgPool.getIdleCount());
+
+        IsoMsg reused = isoMsgPool.acquire();
+        assertSame(isoMsg, reused);
+        assertEquals(0, isoMsgPool.getIdleCount());
+        assertNull(reused.getMti());
+        assertNull(reused.get(11));
+
+        String hex = "0200502000800080000022224444111125254141";
+        reused.unpack(HexService.hex2byte(hex));
+        assertEquals("4141", reused.getTerminalId());
+        assertEquals(hex, HexService.bytesToHex(reused.pack()));
+
+        reused.reset();
+        MsgValue root = reused.getValueHolder().getCurrentMsgValue();
+        assertNull(root.getChildren());
+        assertEquals(7, root.getRecycledValues().size());
+        String otherHex = "02000020000000800000" + "3333" + "4242";
+        reused.unpack(ByteBuffer.wrap(HexService.hex2byte(otherHex)), true);
+        assertEquals("3333", reused.getStan());
+        assertNull(reused.get(2));
+        assertEquals(3, root.getRecycledValues().size());
+        assertEquals(otherHex, HexService.bytesToHex(reused.pack()));
+
+        IsoMsg legacy = new IsoMsg();
+        legacy.setPackager(definePackager());
+        legacy.unpack(HexService.hex2byte(hex));
+        legacy.reset();
+        legacy.unpack(HexService.hex2byte(otherHex));
+        assertEquals("4242", legacy.getTerminalId());
+        assertEquals(otherHex, HexService.bytesToHex(legacy.pack()));
+    }
 }
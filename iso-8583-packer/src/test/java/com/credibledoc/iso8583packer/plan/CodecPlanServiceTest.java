@@ -0,0 +1,402 @@
+package com.credibledoc.iso8583packer.plan;
+
+import com.credibledoc.iso8583packer.FieldBuilder;
+import com.credibledoc.iso8583packer.ValueHolder;
+import com.credibledoc.iso8583packer.dump.DumpService;
+import com.credibledoc.iso8583packer.ebcdic.EbcdicBodyPacker;
+import com.credibledoc.iso8583packer.ebcdic.EbcdicDecimalLengthPacker;
+import com.credibledoc.iso8583packer.ebcdic.EbcdicDecimalTagPacker;
+import com.credibledoc.iso8583packer.exception.PackerRuntimeException;
+import com.credibledoc.iso8583packer.field58.Field58;
+import com.credibledoc.iso8583packer.hex.HexBodyPacker;
+import com.credibledoc.iso8583packer.hex.HexService;
+import com.credibledoc.iso8583packer.ifb.IfbBitmapPacker;
+import com.credibledoc.iso8583packer.message.IsoMsg;
+import com.credibledoc.iso8583packer.message.MsgField;
+import com.credibledoc.iso8583packer.message.MsgFieldType;
+import com.credibledoc.iso8583packer.message.MsgValue;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests for the {@link CodecPlanService} methods. Results of packing and unpacking with a {@link CodecPlan}
+ * should be the same as without the plan.
+ *
+ * @author Kyrylo Semenko
+ */
+public class CodecPlanServiceTest {
+
+    @Test
+    public void compileTest() {
+        FieldBuilder fieldBuilder = defineBitmapMessage();
+        CodecPlan codecPlan = fieldBuilder.compile();
+        MsgField root = fieldBuilder.jumpToRoot().getCurrentField();
+
+        assertSame(root, codecPlan.getRoot().getMsgField());
+        assertEquals(9, codecPlan.getFieldCodecs().size());
+
+        FieldCodec mti = codecPlan.getRoot().findChildByName("MTI");
+        assertEquals(2, mti.getFixedLength());
+        assertEquals(0, codecPlan.getRoot().getChildOffset(0));
+        assertEquals(2, codecPlan.getRoot().getChildOffset(1));
+
+        FieldCodec bitSet = codecPlan.getRoot().findChildByName("BIT_SET");
+        assertEquals(FieldCodec.VARIABLE, bitSet.getFixedLength());
+        assertEquals(41, bitSet.getMaxFieldNum());
+        assertEquals("STAN", bitSet.findChildByFieldNum(11).getMsgField().getName());
+        assertNull(bitSet.findChildByFieldNum(12));
+        assertSame(HexBodyPacker.getInstance(), bitSet.findChildByFieldNum(2).getBodyPacker());
+    }
+
+    @Test
+    public void bitmapPackUnpackTest() {
+        CodecPlan codecPlan = defineBitmapMessage().compile();
+        IsoMsg isoMsg = new IsoMsg();
+        isoMsg.setPackager(codecPlan);
+        isoMsg.setMti("0200");
+        isoMsg.set(2, "2222");
+        isoMsg.set("AmountReco", "5555");
+        isoMsg.setStan("1111");
+        isoMsg.setTerminalId("4141");
+        byte[] bytes = isoMsg.pack();
+        assertEquals("020048200000008000002222555511114141", HexService.bytesToHex(bytes));
+
+        IsoMsg legacyIsoMsg = new IsoMsg();
+        legacyIsoMsg.setPackager(codecPlan.getRoot().getMsgField());
+        legacyIsoMsg.unpack(bytes);
+
+        IsoMsg plannedIsoMsg = new IsoMsg();
+        plannedIsoMsg.setPackager(codecPlan);
+        plannedIsoMsg.unpack(bytes);
+
+        assertEquals("1111", plannedIsoMsg.getStan());
+        assertEquals(legacyIsoMsg.dumpMsgValue(false), plannedIsoMsg.dumpMsgValue(false));
+        assertEquals(HexService.bytesToHex(legacyIsoMsg.pack()), HexService.bytesToHex(plannedIsoMsg.pack()));
+    }
+
+    @Test
+    public void lazyUnpackTest() {
+        byte[] bytes = HexService.hex2byte("020048200000008000002222555511114141");
+        IsoMsg isoMsg = new IsoMsg();
+        isoMsg.setPackager(defineBitmapMessage().jumpToRoot().getCurrentField());
+        isoMsg.unpack(bytes, true);
+
+        MsgValue stan = isoMsg.getMsgValue("MSG", "BIT_SET", "STAN");
+        assertNotNull(stan.getLazyBody());
+        assertEquals(2, stan.getLazyBody().getLength());
+        assertEquals("1111", isoMsg.getStan());
+        assertEquals("1111", HexService.bytesToHex(stan.getBodyBytes()));
+        assertNull(stan.getLazyBody());
+
+        assertEquals("0200", isoMsg.getMti());
+        assertEquals("4141", isoMsg.getTerminalId());
+        assertEquals(HexService.bytesToHex(bytes), HexService.bytesToHex(isoMsg.pack()));
+    }
+
+    @Test
+    public void compiledPlanReusedTest() {
+        byte[] bytes = HexService.hex2byte("020048200000008000002222555511114141");
+        ValueHolder valueHolder = ValueHolder.newInstance(defineBitmapMessage(), true);
+        assertNull(valueHolder.getCompiledCodecPlan());
+
+        valueHolder.unpack(bytes, true);
+        CodecPlan compiledCodecPlan = valueHolder.getCompiledCodecPlan();
+        assertNotNull(compiledCodecPlan);
+        valueHolder.unpack(bytes, true);
+        assertSame(compiledCodecPlan, valueHolder.getCompiledCodecPlan());
+        valueHolder.unpack(ByteBuffer.wrap(bytes));
+        assertEquals("1111", valueHolder.getValue("MSG", "BIT_SET", "STAN"));
+        assertSame(compiledCodecPlan, valueHolder.getCompiledCodecPlan());
+
+        valueHolder.setCodecPlan(null);
+        assertNull(valueHolder.getCompiledCodecPlan());
+    }
+
+    @Test
+    public void packToTargetTest() {
+        IsoMsg isoMsg = new IsoMsg();
+        isoMsg.setPackager(defineBitmapMessage().jumpToRoot().getCurrentField());
+        isoMsg.setMti("0200");
+        isoMsg.set(2, "2222");
+        isoMsg.setTerminalId("4141");
+        String expectedHex = HexService.bytesToHex(isoMsg.pack());
+
+        byte[] target = new byte[expectedHex.length()];
+        int written = isoMsg.pack(target, 3);
+        assertEquals(expectedHex.length() / 2, written);
+        assertEquals(expectedHex, HexService.bytesToHex(Arrays.copyOfRange(target, 3, 3 + written)));
+
+        ByteBuffer heapBuffer = ByteBuffer.allocate(64);
+        heapBuffer.put((byte) 1);
+        assertEquals(written, isoMsg.pack(heapBuffer));
+        assertEquals(1 + written, heapBuffer.position());
+
+        ByteBuffer directBuffer = ByteBuffer.allocateDirect(64);
+        isoMsg.pack(directBuffer);
+        directBuffer.flip();
+        byte[] directBytes = new byte[directBuffer.remaining()];
+        directBuffer.get(directBytes);
+        assertEquals(expectedHex, HexService.bytesToHex(directBytes));
+    }
+
+    @Test
+    public void unpackDirectBufferTest() {
+        byte[] bytes = HexService.hex2byte("020048200000008000002222555511114141");
+        ByteBuffer directBuffer = ByteBuffer.allocateDirect(bytes.length + 1);
+        directBuffer.put((byte) 1).put(bytes).flip();
+        directBuffer.get();
+
+        IsoMsg isoMsg = new IsoMsg();
+        isoMsg.setPackager(defineBitmapMessage().compile());
+        isoMsg.unpack(directBuffer);
+        assertEquals(directBuffer.limit(), directBuffer.position());
+
+        IsoMsg arrayIsoMsg = new IsoMsg();
+        arrayIsoMsg.setPackager(defineBitmapMessage().compile());
+        arrayIsoMsg.unpack(bytes);
+        assertEquals("1111", isoMsg.getStan());
+        assertEquals(arrayIsoMsg.dumpMsgValue(false), isoMsg.dumpMsgValue(false));
+
+        directBuffer.position(1);
+        IsoMsg lazyIsoMsg = new IsoMsg();
+        lazyIsoMsg.setPackager(defineBitmapMessage().jumpToRoot().getCurrentField());
+        lazyIsoMsg.unpack(directBuffer, true);
+        assertEquals("4141", lazyIsoMsg.getTerminalId());
+
+        ByteBuffer target = ByteBuffer.allocateDirect(bytes.length);
+        lazyIsoMsg.pack(target);
+        assertEquals(HexService.bytesToHex(bytes), HexService.bytesToHex(target, 0, target.position()));
+    }
+
+    @Test
+    public void packToTargetReusesCompiledPlanTest() {
+        byte[] bytes = HexService.hex2byte("020048200000008000002222555511114141");
+        ValueHolder valueHolder = ValueHolder.newInstance(defineBitmapMessage(), true);
+        valueHolder.unpack(bytes);
+        assertNull(valueHolder.getCompiledCodecPlan());
+
+        byte[] target = new byte[bytes.length];
+        assertEquals(bytes.length, valueHolder.pack(target, 0));
+        CodecPlan compiledCodecPlan = valueHolder.getCompiledCodecPlan();
+        assertNotNull(compiledCodecPlan);
+        assertEquals(bytes.length, valueHolder.pack(ByteBuffer.wrap(target)));
+        assertSame(compiledCodecPlan, valueHolder.getCompiledCodecPlan());
+        assertEquals(HexService.bytesToHex(bytes), HexService.bytesToHex(target));
+
+        MsgValue bitSet = valueHolder.getCurrentMsgValue().getChildren().get(1);
+        assertEquals("4820000000800000", HexService.bytesToHex(bitSet.getBodyBytes()));
+    }
+
+    @Test(expected = PackerRuntimeException.class)
+    public void packToShortTargetTest() {
+        IsoMsg isoMsg = new IsoMsg();
+        isoMsg.setPackager(defineBitmapMessage().compile());
+        isoMsg.setMti("0200");
+        isoMsg.set(2, "2222");
+        isoMsg.pack(new byte[11], 0);
+    }
+
+    @Test
+    public void tlvUndefinedTagsTest() {
+        FieldBuilder fieldBuilder = FieldBuilder.builder(MsgFieldType.MSG)
+            .defineName("msg")
+            .defineChildrenLengthPacker(EbcdicDecimalLengthPacker.getInstance(2))
+            .defineChildrenTagPacker(EbcdicDecimalTagPacker.getInstance(2))
+
+            .createChild(MsgFieldType.TAG_LEN_VAL)
+            .defineHeaderTag(1)
+            .defineBodyPacker(EbcdicBodyPacker.getInstance())
+            .defineName("tag-1")
+
+            .createSibling(MsgFieldType.TAG_LEN_VAL)
+            .defineHeaderTag(3)
+            .defineBodyPacker(EbcdicBodyPacker.getInstance())
+            .defineName("tag-3");
+        CodecPlan codecPlan = fieldBuilder.compile();
+
+        // tag-3, undefined 02, undefined 04, tag-1
+        byte[] bytes = HexService.hex2byte("F0F3F0F2F3F3F0F2F0F2F2F2F0F4F0F2F4F4F0F1F0F2F1F1");
+        ValueHolder legacyValueHolder = ValueHolder.newInstance(fieldBuilder, true);
+        MsgValue legacyMsgValue = legacyValueHolder.unpack(bytes);
+
+        ValueHolder plannedValueHolder = ValueHolder.newInstance(codecPlan);
+        MsgValue plannedMsgValue = plannedValueHolder.unpack(bytes);
+
+        assertEquals("11", plannedValueHolder.getValue("msg", "tag-1"));
+        assertEquals("33", plannedValueHolder.getValue("msg", "tag-3"));
+        assertEquals(2, plannedMsgValue.getUndefinedChildrenMap().size());
+        MsgValue clone = plannedMsgValue.getUndefinedChildrenMap().get("tag-3-clone-1");
+        assertNotNull(clone);
+        assertEquals("22", clone.getBodyValue());
+
+        MsgField root = codecPlan.getRoot().getMsgField();
+        DumpService dumpService = DumpService.getInstance();
+        assertEquals(dumpService.dumpMsgValue(root, legacyMsgValue, false),
+            dumpService.dumpMsgValue(root, plannedMsgValue, false));
+    }
+
+    @Test
+    public void nestedTlvRoundTripTest() {
+        MsgField root = defineField58Message();
+        ValueHolder valueHolder = ValueHolder.newInstance(root);
+        fillField58Message(valueHolder);
+        byte[] legacyBytes = valueHolder.jumpToRoot().pack();
+
+        // the two-pass pack of created values with nested lengths
+        byte[] plannedBytes = new byte[legacyBytes.length];
+        assertEquals(legacyBytes.length, valueHolder.pack(plannedBytes, 0));
+        assertEquals(HexService.bytesToHex(legacyBytes), HexService.bytesToHex(plannedBytes));
+
+        CodecPlan codecPlan = FieldBuilder.from(root).compile();
+        ValueHolder plannedValueHolder = assertUnpackSameAsLegacy(codecPlan, legacyBytes);
+        byte[] target = new byte[legacyBytes.length];
+        assertEquals(legacyBytes.length, plannedValueHolder.pack(target, 0));
+        assertEquals(HexService.bytesToHex(legacyBytes), HexService.bytesToHex(target));
+
+        ValueHolder lazyValueHolder = ValueHolder.newInstance(codecPlan);
+        lazyValueHolder.unpack(legacyBytes, true);
+        assertEquals("978", lazyValueHolder.getValue("msg", "bitmap", Field58.F_58_NAME, Field58.DCC_DATA_37_NAME,
+            Field58.CURRENCY_CODE_37_2));
+        assertEquals(HexService.bytesToHex(legacyBytes), HexService.bytesToHex(lazyValueHolder.pack()));
+    }
+
+    @Test
+    public void nestedTlvUndefinedTagRoundTripTest() {
+        MsgField otherRoot = defineField58Message();
+        MsgField bitmap = otherRoot.getChildren().get(1);
+        MsgField field58 = bitmap.getChildren().get(0);
+        field58.getChildren().get(2).setTag(36);
+        ValueHolder valueHolder = ValueHolder.newInstance(otherRoot);
+        fillField58Message(valueHolder);
+        byte[] bytes = valueHolder.jumpToRoot().pack();
+
+        // the tag 36 is not defined in the schema
+        CodecPlan codecPlan = FieldBuilder.from(defineField58Message()).compile();
+        ValueHolder plannedValueHolder = assertUnpackSameAsLegacy(codecPlan, bytes);
+        MsgValue field58Value = plannedValueHolder.getCurrentMsgValue().getChildren().get(1).getChildren().get(0);
+        assertEquals(1, field58Value.getUndefinedChildrenMap().size());
+        assertEquals("003021", field58Value.getUndefinedChildrenMap().get("non_loyalty_group-clone-1")
+            .getBodyValue());
+
+        // clones of undefined fields are not packed, neither without the plan
+        try {
+            plannedValueHolder.pack(new byte[bytes.length], 0);
+            fail("PackerRuntimeException expected");
+        } catch (PackerRuntimeException e) {
+            assertTrue(e.getMessage().contains("non_loyalty_group-clone-1"));
+        }
+    }
+
+    /**
+     * Unpack the bytes with and without the codec plan, eagerly and lazily, and compare dumps of the results.
+     *
+     * @return The {@link ValueHolder} with the eagerly unpacked message.
+     */
+    private ValueHolder assertUnpackSameAsLegacy(CodecPlan codecPlan, byte[] bytes) {
+        MsgField root = codecPlan.getRoot().getMsgField();
+        DumpService dumpService = DumpService.getInstance();
+        MsgValue legacyMsgValue = ValueHolder.unpack(bytes, 0, root);
+        String legacyDump = dumpService.dumpMsgValue(root, legacyMsgValue, false);
+
+        ValueHolder plannedValueHolder = ValueHolder.newInstance(codecPlan);
+        MsgValue plannedMsgValue = plannedValueHolder.unpack(bytes);
+        assertEquals(legacyDump, dumpService.dumpMsgValue(root, plannedMsgValue, false));
+
+        MsgValue lazyMsgValue = ValueHolder.newInstance(codecPlan).unpack(bytes, true);
+        assertEquals(legacyDump, dumpService.dumpMsgValue(root, lazyMsgValue, false));
+        return plannedValueHolder;
+    }
+
+    /**
+     * @return The root of a message with the nested {@link Field58}.
+     */
+    private MsgField defineField58Message() {
+        FieldBuilder fieldBuilder = FieldBuilder.builder(MsgFieldType.MSG)
+            .defineName("msg")
+
+            .createChild(MsgFieldType.VAL)
+            .defineName("MTI")
+            .defineBodyPacker(HexBodyPacker.getInstance())
+            .defineLen(2)
+
+            .createSibling(MsgFieldType.BIT_SET)
+            .defineName("bitmap")
+            .defineHeaderBitmapPacker(IfbBitmapPacker.getInstance(16));
+        Field58.defineField58(fieldBuilder.getCurrentField());
+        return fieldBuilder.jumpToRoot().validateStructure().getCurrentField();
+    }
+
+    private void fillField58Message(ValueHolder valueHolder) {
+        valueHolder.jumpToChild("MTI").setValue("0200")
+            .jumpToSibling("bitmap")
+            .jumpToChild(Field58.F_58_NAME)
+            .jumpToChild(Field58.RATE_REQUEST_REFERENCE_ID_35_NAME).setValue("018F1AEE03E404843C")
+            .jumpToSibling(Field58.DCC_DATA_37_NAME)
+            .jumpToChild(Field58.DCC_STATUS_37_1).setValue("U")
+            .jumpToSibling(Field58.CURRENCY_CODE_37_2).setValue("978")
+            .jumpToSibling(Field58.TRANSACTION_AMOUNT_37_5).setValue("000000005555")
+            .jumpToSibling(Field58.CONVERSION_RATE_37_17).setValue("40011670")
+            .jumpToParent()
+            .jumpToSibling(Field58.NON_LOYALTY_GROUP_53_NAME).setValue("003021")
+            .jumpToSibling(Field58.POS_TERMINAL_CAPABILITIES_98_NAME).setValue("8");
+    }
+
+    private FieldBuilder defineBitmapMessage() {
+        return FieldBuilder.builder(MsgFieldType.MSG)
+            .defineName("MSG")
+
+            .createChild(MsgFieldType.VAL)
+            .defineName("MTI")
+            .defineBodyPacker(HexBodyPacker.getInstance())
+            .defineLen(2)
+
+            .createSibling(MsgFieldType.BIT_SET)
+            .defineName("BIT_SET")
+            .defineHeaderBitmapPacker(IfbBitmapPacker.getInstance(8))
+
+            .createChild(MsgFieldType.VAL)
+            .defineName("PAN")
+            .defineFieldNum(2)
+            .defineBodyPacker(HexBodyPacker.getInstance())
+            .defineLen(2)
+
+            .createSibling(MsgFieldType.VAL)
+            .defineName("Amount")
+            .defineFieldNum(4)
+            .defineBodyPacker(HexBodyPacker.getInstance())
+            .defineLen(2)
+
+            .createSibling(MsgFieldType.VAL)
+            .defineName("AmountReco")
+            .defineFieldNum(5)
+            .defineBodyPacker(HexBodyPacker.getInstance())
+            .defineLen(2)
+
+            .createSibling(MsgFieldType.VAL)
+            .defineName("STAN")
+            .defineFieldNum(11)
+            .defineBodyPacker(HexBodyPacker.getInstance())
+            .defineLen(2)
+
+            .createSibling(MsgFieldType.VAL)
+            .defineName("ReasonCode")
+            .defineFieldNum(25)
+            .defineBodyPacker(HexBodyPacker.getInstance())
+            .defineLen(2)
+
+            .createSibling(MsgFieldType.VAL)
+            .defineName("TerminalId")
+            .defineFieldNum(41)
+            .defineBodyPacker(HexBodyPacker.getInstance())
+            .defineLen(2);
+    }
+}
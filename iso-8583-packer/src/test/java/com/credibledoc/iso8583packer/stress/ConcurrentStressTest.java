@@ -0,0 +1,160 @@
+package com.credibledoc.iso8583packer.stress;
+
+import com.credibledoc.iso8583packer.FieldBuilder;
+import com.credibledoc.iso8583packer.asciihex.AsciiBodyPacker;
+import com.credibledoc.iso8583packer.asciihex.AsciiLengthPacker;
+import com.credibledoc.iso8583packer.ifb.IfbBitmapPacker;
+import com.credibledoc.iso8583packer.message.IsoMsg;
+import com.credibledoc.iso8583packer.message.IsoMsgPool;
+import com.credibledoc.iso8583packer.message.MsgField;
+import com.credibledoc.iso8583packer.message.MsgFieldType;
+import com.credibledoc.iso8583packer.plan.CodecPlan;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * A single frozen definition is shared by many worker threads, see the {@link FieldBuilder#freeze()} method.
+ * Every worker packs and unpacks its own messages and checks their content. Throughput of a single worker
+ * and of {@link #NUM_THREADS} workers is logged. Increase the {@link #NUM_MESSAGES} for throughput testing.
+ *
+ * @author Kyrylo Semenko
+ */
+public class ConcurrentStressTest {
+    private static final Logger logger = LoggerFactory.getLogger(ConcurrentStressTest.class);
+    private static final int NUM_THREADS = 64;
+    private static final int NUM_MESSAGES = 64_000;
+
+    @Test
+    public void packUnpackTest() throws Exception {
+        FieldBuilder fieldBuilder = defineMessage();
+        CodecPlan codecPlan = fieldBuilder.freeze();
+        MsgField root = codecPlan.getRoot().getMsgField();
+        IsoMsgPool isoMsgPool = new IsoMsgPool(codecPlan, NUM_THREADS * 2);
+
+        // warm up
+        run(1, NUM_MESSAGES / 4, isoMsgPool, root);
+
+        long singleThreadMillis = run(1, NUM_MESSAGES, isoMsgPool, root);
+        long multiThreadMillis = run(NUM_THREADS, NUM_MESSAGES, isoMsgPool, root);
+
+        logger.info("{} messages packed and unpacked by 1 thread in {} ms, {} messages per second",
+            NUM_MESSAGES, singleThreadMillis, NUM_MESSAGES * 1000L / Math.max(1, singleThreadMillis));
+        logger.info("{} messages packed and unpacked by {} threads on {} processors in {} ms, " +
+                "{} messages per second, speedup {}", NUM_MESSAGES, NUM_THREADS,
+            Runtime.getRuntime().availableProcessors(), multiThreadMillis,
+            NUM_MESSAGES * 1000L / Math.max(1, multiThreadMillis),
+            String.format("%.2f", (double) singleThreadMillis / Math.max(1, multiThreadMillis)));
+    }
+
+    /**
+     * Split the messages between the threads and wait for all of them.
+     *
+     * @return Duration in millis.
+     */
+    private long run(int numThreads, int numMessages, IsoMsgPool isoMsgPool, MsgField root) throws Exception {
+        ExecutorService executorService = Executors.newFixedThreadPool(numThreads);
+        try {
+            int messagesPerThread = numMessages / numThreads;
+            List<Callable<Integer>> workers = new ArrayList<>(numThreads);
+            for (int i = 0; i < numThreads; i++) {
+                int threadNum = i;
+                workers.add(() -> packUnpack(threadNum, messagesPerThread, isoMsgPool, root));
+            }
+            long start = System.nanoTime();
+            List<Future<Integer>> futures = executorService.invokeAll(workers);
+            long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            for (Future<Integer> future : futures) {
+                assertEquals(messagesPerThread, future.get().intValue());
+            }
+            return millis;
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    /**
+     * Pack and unpack messages with the plan from the pool. Every hundredth message is unpacked by the
+     * {@link MsgField} definition without the plan.
+     *
+     * @return Number of checked messages.
+     */
+    private int packUnpack(int threadNum, int numMessages, IsoMsgPool isoMsgPool, MsgField root) {
+        String terminalId = String.format("TERM%04d", threadNum);
+        String pan = "4" + String.format("%015d", threadNum);
+        int checked = 0;
+        for (int i = 0; i < numMessages; i++) {
+            String stan = String.format("%06d", i);
+            IsoMsg request = isoMsgPool.acquire();
+            IsoMsg response = null;
+            try {
+                request.setMti("0200");
+                request.set(2, pan);
+                request.setStan(stan);
+                request.setTerminalId(terminalId);
+                byte[] bytes = request.pack();
+
+                if (i % 100 == 0) {
+                    response = new IsoMsg();
+                    response.setPackager(root);
+                } else {
+                    response = isoMsgPool.acquire();
+                }
+                response.unpack(bytes);
+                assertEquals("0200", response.getMti());
+                assertEquals(pan, response.get(2));
+                assertEquals(stan, response.getStan());
+                assertEquals(terminalId, response.getTerminalId());
+                checked++;
+            } finally {
+                isoMsgPool.release(request);
+                if (response != null && response.getValueHolder().getCodecPlan() != null) {
+                    isoMsgPool.release(response);
+                }
+            }
+        }
+        return checked;
+    }
+
+    private FieldBuilder defineMessage() {
+        return FieldBuilder.builder(MsgFieldType.MSG)
+            .defineName("MSG")
+
+            .createChild(MsgFieldType.VAL)
+            .defineName("MTI")
+            .defineBodyPacker(AsciiBodyPacker.getInstance())
+            .defineLen(4)
+
+            .createSibling(MsgFieldType.BIT_SET)
+            .defineName("BIT_SET")
+            .defineHeaderBitmapPacker(IfbBitmapPacker.getInstance(8))
+
+            .createChild(MsgFieldType.LEN_VAL)
+            .defineName("PAN")
+            .defineFieldNum(2)
+            .defineHeaderLengthPacker(AsciiLengthPacker.getInstance(2))
+            .defineBodyPacker(AsciiBodyPacker.getInstance())
+
+            .createSibling(MsgFieldType.VAL)
+            .defineName("STAN")
+            .defineFieldNum(11)
+            .defineBodyPacker(AsciiBodyPacker.getInstance())
+            .defineLen(6)
+
+            .createSibling(MsgFieldType.VAL)
+            .defineName("TerminalId")
+            .defineFieldNum(41)
+            .defineBodyPacker(AsciiBodyPacker.getInstance())
+            .defineLen(8);
+    }
+}
@@ -1,7 +1,11 @@
 package com.credibledoc.combiner.config;
 
+import com.credibledoc.combiner.filter.LineFilter;
+
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * This data object contains a configuration of the
@@ -12,6 +16,7 @@ import java.util.List;
 public class Config {
 
     private static final String DEFAULT_TARGET_FILE_NAME_COMBINED_TXT = "combined.txt";
+    private static final int DEFAULT_TIME_OFFSET_SAMPLE_LINES = 10000;
     /**
      * Contains values parsed from a config file
      */
@@ -36,6 +41,50 @@ public class Config {
      */
     private String targetFileName = DEFAULT_TARGET_FILE_NAME_COMBINED_TXT;
 
+    /**
+     * (optional) the keys are node names (sub-folder names) and values are milliseconds added to dates
+     * of the node lines during ordering, see the {@link com.credibledoc.combiner.node.log.NodeLog#getTimeOffset()}.
+     * The configured offsets take precedence over estimated ones.
+     */
+    private Map<String, Long> nodeTimeOffsets = new HashMap<>();
+
+    /**
+     * (optional) if defined, the time offsets of nodes will be estimated from lines with the same correlation
+     * identifier, for example a request ID. The first group of the regex (or the whole match if the regex has no
+     * groups) is used as the identifier.
+     */
+    private String timeOffsetCorrelationRegex;
+
+    /**
+     * (optional, default 10000) how many lines of each node will be read for the time offsets estimation.
+     */
+    private int timeOffsetSampleLines = DEFAULT_TIME_OFFSET_SAMPLE_LINES;
+
+    /**
+     * (optional) if defined, only records applicable to the filter will be combined.
+     */
+    private LineFilter lineFilter;
+
+    /**
+     * (optional) if defined, the incremental mode is switched on. The name of a file in the source folder,
+     * where offsets of already combined files are stored, see the
+     * {@link com.credibledoc.combiner.state.IncrementalStateService}.
+     */
+    private String incrementalStateFileName;
+
+    /**
+     * (optional) used in the incremental mode only. Records newer than the latest record date minus this
+     * value are held back for the next run, so lines which come late by less than the value will be
+     * combined in order. Default value is 0.
+     */
+    private long incrementalWatermarkMillis;
+
+    /**
+     * (optional) used when no {@link #tacticConfigs} defined and files are joined. How many files can be copied
+     * to the target file in parallel. Default value is 1.
+     */
+    private int joinThreads = 1;
+
     @Override
     public String toString() {
         return "Config{" +
@@ -43,6 +92,13 @@ public class Config {
             ", insertLineSeparatorBetweenFiles=" + insertLineSeparatorBetweenFiles +
             ", printNodeName=" + printNodeName +
             ", targetFileName=" + targetFileName +
+            ", nodeTimeOffsets=" + nodeTimeOffsets +
+            ", timeOffsetCorrelationRegex=" + timeOffsetCorrelationRegex +
+            ", timeOffsetSampleLines=" + timeOffsetSampleLines +
+            ", lineFilter=" + lineFilter +
+            ", incrementalStateFileName=" + incrementalStateFileName +
+            ", incrementalWatermarkMillis=" + incrementalWatermarkMillis +
+            ", joinThreads=" + joinThreads +
             '}';
     }
 
@@ -94,4 +150,95 @@ public class Config {
     public void setTargetFileName(String targetFileName) {
         this.targetFileName = targetFileName;
     }
+
+    /**
+     * @return The {@link #nodeTimeOffsets} field value.
+     */
+    public Map<String, Long> getNodeTimeOffsets() {
+        return nodeTimeOffsets;
+    }
+
+    /**
+     * @return The {@link #timeOffsetCorrelationRegex} field value.
+     */
+    public String getTimeOffsetCorrelationRegex() {
+        return timeOffsetCorrelationRegex;
+    }
+
+    /**
+     * @param timeOffsetCorrelationRegex see the {@link #timeOffsetCorrelationRegex} field description.
+     */
+    public void setTimeOffsetCorrelationRegex(String timeOffsetCorrelationRegex) {
+        this.timeOffsetCorrelationRegex = timeOffsetCorrelationRegex;
+    }
+
+    /**
+     * @return The {@link #timeOffsetSampleLines} field value.
+     */
+    public int getTimeOffsetSampleLines() {
+        return timeOffsetSampleLines;
+    }
+
+    /**
+     * @param timeOffsetSampleLines see the {@link #timeOffsetSampleLines} field description.
+     */
+    public void setTimeOffsetSampleLines(int timeOffsetSampleLines) {
+        this.timeOffsetSampleLines = timeOffsetSampleLines;
+    }
+
+    /**
+     * @return The {@link #lineFilter} field value.
+     */
+    public LineFilter getLineFilter() {
+        return lineFilter;
+    }
+
+    /**
+     * @param lineFilter see the {@link #lineFilter} field description.
+     */
+    public void setLineFilter(LineFilter lineFilter) {
+        this.lineFilter = lineFilter;
+    }
+
+    /**
+     * @return The {@link #incrementalStateFileName} field value.
+     */
+    public String getIncrementalStateFileName() {
+        return incrementalStateFileName;
+    }
+
+    /**
+     * @param incrementalStateFileName see the {@link #incrementalStateFileName} field description.
+     */
+    public void setIncrementalStateFileName(String incrementalStateFileName) {
+        this.incrementalStateFileName = incrementalStateFileName;
+    }
+
+    /**
+     * @return The {@link #incrementalWatermarkMillis} field value.
+     */
+    public long getIncrementalWatermarkMillis() {
+        return incrementalWatermarkMillis;
+    }
+
+    /**
+     * @param incrementalWatermarkMillis see the {@link #incrementalWatermarkMillis} field description.
+     */
+    public void setIncrementalWatermarkMillis(long incrementalWatermarkMillis) {
+        this.incrementalWatermarkMillis = incrementalWatermarkMillis;
+    }
+
+    /**
+     * @return The {@link #joinThreads} field value.
+     */
+    public int getJoinThreads() {
+        return joinThreads;
+    }
+
+    /**
+     * @param joinThreads see the {@link #joinThreads} field description.
+     */
+    public void setJoinThreads(int joinThreads) {
+        this.joinThreads = joinThreads;
+    }
 }
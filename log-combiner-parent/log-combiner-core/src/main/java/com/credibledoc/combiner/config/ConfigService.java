@@ -1,6 +1,7 @@
 package com.credibledoc.combiner.config;
 
 import com.credibledoc.combiner.exception.CombinerRuntimeException;
+import com.credibledoc.combiner.filter.LineFilter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -8,6 +9,8 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.InputStream;
 import java.util.Properties;
+import java.util.Set;
+import java.util.regex.Pattern;
 
 /**
  * This stateful singleton loads configuration parameters from a file and provides it to the application.
@@ -22,6 +25,11 @@ public class ConfigService {
      */
     private static final String LOG_COMBINER_PROPERTIES = "log-combiner.properties";
 
+    /**
+     * Prefix of properties with time offsets of nodes, for example <pre>nodeTimeOffset[node1] = -1500</pre>
+     */
+    private static final String NODE_TIME_OFFSET_PREFIX = "nodeTimeOffset[";
+
     /**
      * {@link Config} loaded from file
      */
@@ -95,14 +103,106 @@ public class ConfigService {
                 config.setTargetFileName(targetFileName);
             }
 
+            String timeOffsetCorrelationRegex = properties.getProperty("timeOffsetCorrelationRegex");
+            if (timeOffsetCorrelationRegex != null) {
+                config.setTimeOffsetCorrelationRegex(timeOffsetCorrelationRegex);
+            }
+
+            String timeOffsetSampleLines = properties.getProperty("timeOffsetSampleLines");
+            if (timeOffsetSampleLines != null) {
+                config.setTimeOffsetSampleLines(Integer.parseInt(timeOffsetSampleLines.trim()));
+            }
+
+            String incrementalStateFileName = properties.getProperty("incrementalStateFileName");
+            if (incrementalStateFileName != null) {
+                config.setIncrementalStateFileName(incrementalStateFileName.trim());
+            }
+
+            String incrementalWatermarkMillis = properties.getProperty("incrementalWatermarkMillis");
+            if (incrementalWatermarkMillis != null) {
+                config.setIncrementalWatermarkMillis(Long.parseLong(incrementalWatermarkMillis.trim()));
+            }
+
+            String joinThreads = properties.getProperty("joinThreads");
+            if (joinThreads != null) {
+                config.setJoinThreads(Integer.parseInt(joinThreads.trim()));
+            }
+
+            loadNodeTimeOffsets(properties);
+
+            loadLineFilter(properties);
+
             loadTacticConfigurations(properties);
 
+            validateThreadNamesFilter();
+
         } catch (Exception e) {
             throw new CombinerRuntimeException("Configuration file cannot be loaded. File: '" +
                 propertiesFile.getAbsolutePath() + "'", e);
         }
     }
 
+    private void loadNodeTimeOffsets(Properties properties) {
+        for (String name : properties.stringPropertyNames()) {
+            if (name.startsWith(NODE_TIME_OFFSET_PREFIX) && name.endsWith("]")) {
+                String nodeName = name.substring(NODE_TIME_OFFSET_PREFIX.length(), name.length() - 1);
+                Long offset = Long.valueOf(properties.getProperty(name).trim());
+                config.getNodeTimeOffsets().put(nodeName, offset);
+            }
+        }
+    }
+
+    private void loadLineFilter(Properties properties) {
+        LineFilter lineFilter = new LineFilter();
+        boolean defined = addValues(properties.getProperty("filterLiterals"), lineFilter.getLiterals());
+        defined = addValues(properties.getProperty("filterLevels"), lineFilter.getLevels()) || defined;
+        defined = addValues(properties.getProperty("filterThreadNames"), lineFilter.getThreadNames()) || defined;
+        defined = addValues(properties.getProperty("filterNodeNames"), lineFilter.getNodeNames()) || defined;
+        String filterRegex = properties.getProperty("filterRegex");
+        if (filterRegex != null) {
+            lineFilter.setPattern(Pattern.compile(filterRegex));
+            defined = true;
+        }
+        if (defined) {
+            config.setLineFilter(lineFilter);
+        }
+    }
+
+    /**
+     * The thread names of the {@link LineFilter} are found by the {@link TacticConfig#getThreadNameRegex()},
+     * so all {@link TacticConfig}s should contain the regex.
+     */
+    private void validateThreadNamesFilter() {
+        LineFilter lineFilter = config.getLineFilter();
+        if (lineFilter == null || lineFilter.getThreadNames().isEmpty()) {
+            return;
+        }
+        for (int index = 0; index < config.getTacticConfigs().size(); index++) {
+            if (config.getTacticConfigs().get(index).getThreadNameRegex() == null) {
+                throw new CombinerRuntimeException("The 'filterThreadNames' property requires the " +
+                    "'threadNameRegex[" + index + "]' property for finding of thread names in log lines.");
+            }
+        }
+    }
+
+    /**
+     * @param commaSeparatedValues for example 'ERROR, WARN', can be 'null'
+     * @param target where the trimmed values will be added
+     * @return 'true' if some values have been added
+     */
+    private boolean addValues(String commaSeparatedValues, Set<String> target) {
+        if (commaSeparatedValues == null) {
+            return false;
+        }
+        for (String value : commaSeparatedValues.split(",")) {
+            String trimmed = value.trim();
+            if (!trimmed.isEmpty()) {
+                target.add(trimmed);
+            }
+        }
+        return !target.isEmpty();
+    }
+
     private void loadTacticConfigurations(Properties properties) {
         int index = 0;
         boolean foundNext = true;
@@ -117,6 +217,9 @@ public class ConfigService {
                 tacticConfig.setMaxIndexEndOfTime(Integer.valueOf(maxIndexEndOfTime));
                 String applicationName = properties.getProperty("applicationName[" + index + "]");
                 tacticConfig.setApplicationName(applicationName);
+                String singleLineRecords = properties.getProperty("singleLineRecords[" + index + "]");
+                tacticConfig.setSingleLineRecords("true".equals(singleLineRecords));
+                tacticConfig.setThreadNameRegex(properties.getProperty("threadNameRegex[" + index + "]"));
                 config.getTacticConfigs().add(tacticConfig);
                 index++;
             } else {
@@ -30,6 +30,19 @@ public class TacticConfig {
      */
     private String applicationName;
 
+    /**
+     * (optional, default false) if defined as `true`, every line of the log starts a new record.
+     * The search for continuation lines (lines without a date) will be skipped.
+     */
+    private boolean singleLineRecords;
+
+    /**
+     * (optional) the pattern of a thread name in a log line. The first group of the regex (or the whole match
+     * if the regex has no groups) is the thread name. It is mandatory if the
+     * {@link com.credibledoc.combiner.filter.LineFilter#getThreadNames()} condition is defined.
+     */
+    private String threadNameRegex;
+
     @Override
     public String toString() {
         return "TacticConfig{" +
@@ -37,6 +50,8 @@ public class TacticConfig {
             ", maxIndexEndOfTime=" + maxIndexEndOfTime +
             ", simpleDateFormat='" + simpleDateFormat + '\'' +
             ", applicationName='" + applicationName + '\'' +
+            ", singleLineRecords=" + singleLineRecords +
+            ", threadNameRegex='" + threadNameRegex + '\'' +
             '}';
     }
 
@@ -96,4 +111,32 @@ public class TacticConfig {
         this.applicationName = applicationName;
     }
 
+    /**
+     * @return The {@link #singleLineRecords} field value.
+     */
+    public boolean isSingleLineRecords() {
+        return singleLineRecords;
+    }
+
+    /**
+     * @param singleLineRecords see the {@link #singleLineRecords} field description.
+     */
+    public void setSingleLineRecords(boolean singleLineRecords) {
+        this.singleLineRecords = singleLineRecords;
+    }
+
+    /**
+     * @return The {@link #threadNameRegex} field value.
+     */
+    public String getThreadNameRegex() {
+        return threadNameRegex;
+    }
+
+    /**
+     * @param threadNameRegex see the {@link #threadNameRegex} field description.
+     */
+    public void setThreadNameRegex(String threadNameRegex) {
+        this.threadNameRegex = threadNameRegex;
+    }
+
 }
@@ -472,7 +472,11 @@ public class FileService {
             "File: " + compressed.getAbsolutePath());
     }
 
-    private boolean canBeDecompressed(String name) {
+    /**
+     * @param name a file name
+     * @return 'true' if the file name has an extension of a compressed file, for example zip, 7z or gz.
+     */
+    public boolean canBeDecompressed(String name) {
         String lowerCase = name.toLowerCase();
         for (String extension : extensions) {
             if (lowerCase.endsWith(extension)) {
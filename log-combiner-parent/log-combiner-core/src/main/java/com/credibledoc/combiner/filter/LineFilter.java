@@ -0,0 +1,126 @@
+package com.credibledoc.combiner.filter;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Data object. Contains conditions of a record filter, see the {@link LineFilterService}.
+ * <p>
+ * The conditions are checked in the first line of a record only. Empty conditions are not checked.
+ * A record is applicable if all non-empty conditions are satisfied.
+ *
+ * @author Kyrylo Semenko
+ */
+public class LineFilter {
+
+    /**
+     * The first line of a record should contain at least one of these literals.
+     */
+    private Set<String> literals = new HashSet<>();
+
+    /**
+     * The first line of a record should contain this pattern.
+     * It is checked after all other conditions.
+     */
+    private Pattern pattern;
+
+    /**
+     * The first line of a record should contain at least one of these log levels as a whole word,
+     * for example ERROR or WARN.
+     */
+    private Set<String> levels = new HashSet<>();
+
+    /**
+     * The first line of a record should have one of these thread names,
+     * see the {@link com.credibledoc.combiner.tactic.Tactic#findThreadName(String)} method.
+     */
+    private Set<String> threadNames = new HashSet<>();
+
+    /**
+     * A record should be read from one of these nodes,
+     * see the {@link com.credibledoc.combiner.node.log.NodeLog#getName()} method.
+     */
+    private Set<String> nodeNames = new HashSet<>();
+
+    @Override
+    public String toString() {
+        return "LineFilter{" +
+            "literals=" + literals +
+            ", pattern=" + pattern +
+            ", levels=" + levels +
+            ", threadNames=" + threadNames +
+            ", nodeNames=" + nodeNames +
+            '}';
+    }
+
+    /**
+     * @return The {@link #literals} field value.
+     */
+    public Set<String> getLiterals() {
+        return literals;
+    }
+
+    /**
+     * @param literals see the {@link #literals} field description.
+     */
+    public void setLiterals(Set<String> literals) {
+        this.literals = literals;
+    }
+
+    /**
+     * @return The {@link #pattern} field value.
+     */
+    public Pattern getPattern() {
+        return pattern;
+    }
+
+    /**
+     * @param pattern see the {@link #pattern} field description.
+     */
+    public void setPattern(Pattern pattern) {
+        this.pattern = pattern;
+    }
+
+    /**
+     * @return The {@link #levels} field value.
+     */
+    public Set<String> getLevels() {
+        return levels;
+    }
+
+    /**
+     * @param levels see the {@link #levels} field description.
+     */
+    public void setLevels(Set<String> levels) {
+        this.levels = levels;
+    }
+
+    /**
+     * @return The {@link #threadNames} field value.
+     */
+    public Set<String> getThreadNames() {
+        return threadNames;
+    }
+
+    /**
+     * @param threadNames see the {@link #threadNames} field description.
+     */
+    public void setThreadNames(Set<String> threadNames) {
+        this.threadNames = threadNames;
+    }
+
+    /**
+     * @return The {@link #nodeNames} field value.
+     */
+    public Set<String> getNodeNames() {
+        return nodeNames;
+    }
+
+    /**
+     * @param nodeNames see the {@link #nodeNames} field description.
+     */
+    public void setNodeNames(Set<String> nodeNames) {
+        this.nodeNames = nodeNames;
+    }
+}
@@ -0,0 +1,81 @@
+package com.credibledoc.combiner.filter;
+
+import com.credibledoc.combiner.node.file.NodeFile;
+
+import java.util.Set;
+
+/**
+ * Stateless service for working with {@link LineFilter}s.
+ * <p>
+ * The cheap conditions are checked first: node names, literals and levels by {@link String#indexOf(String)},
+ * then thread names. The regex {@link LineFilter#getPattern()} runs only for lines which passed all other conditions.
+ *
+ * @author Kyrylo Semenko
+ */
+public class LineFilterService {
+
+    /**
+     * Singleton.
+     */
+    private static final LineFilterService instance = new LineFilterService();
+
+    /**
+     * @return The {@link LineFilterService} singleton.
+     */
+    public static LineFilterService getInstance() {
+        return instance;
+    }
+
+    /**
+     * Check the first line of a record.
+     *
+     * @param lineFilter the conditions
+     * @param line       the first line of a record
+     * @param nodeFile   the source of the line
+     * @return 'true' if the record should be read, 'false' if it should be skipped.
+     */
+    public boolean isApplicable(LineFilter lineFilter, String line, NodeFile nodeFile) {
+        if (!lineFilter.getNodeNames().isEmpty() &&
+            !lineFilter.getNodeNames().contains(nodeFile.getNodeLog().getName())) {
+            return false;
+        }
+        if (!lineFilter.getLiterals().isEmpty() && !containsAny(line, lineFilter.getLiterals())) {
+            return false;
+        }
+        if (!lineFilter.getLevels().isEmpty() && !containsAnyWord(line, lineFilter.getLevels())) {
+            return false;
+        }
+        if (!lineFilter.getThreadNames().isEmpty()) {
+            String threadName = nodeFile.getNodeLog().getTactic().findThreadName(line);
+            if (threadName == null || !lineFilter.getThreadNames().contains(threadName)) {
+                return false;
+            }
+        }
+        return lineFilter.getPattern() == null || lineFilter.getPattern().matcher(line).find();
+    }
+
+    private boolean containsAny(String line, Set<String> literals) {
+        for (String literal : literals) {
+            if (line.contains(literal)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean containsAnyWord(String line, Set<String> words) {
+        for (String word : words) {
+            int index = line.indexOf(word);
+            while (index != -1) {
+                int end = index + word.length();
+                boolean wordBegins = index == 0 || !Character.isLetterOrDigit(line.charAt(index - 1));
+                boolean wordEnds = end == line.length() || !Character.isLetterOrDigit(line.charAt(end));
+                if (wordBegins && wordEnds) {
+                    return true;
+                }
+                index = line.indexOf(word, index + 1);
+            }
+        }
+        return false;
+    }
+}
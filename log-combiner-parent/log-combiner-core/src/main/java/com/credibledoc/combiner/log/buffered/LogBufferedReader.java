@@ -37,6 +37,42 @@ public class LogBufferedReader extends BufferedReader {
      */
     private Date lineDate;
 
+    /**
+     * If 'true', every line of this reader starts a new record and continuation lines
+     * are not searched for. See the {@link com.credibledoc.combiner.tactic.SingleLineRecordTactic}.
+     */
+    private boolean singleLineRecords;
+
+    /**
+     * Length in bytes of line endings of the source file. If greater than zero, the {@link #position}
+     * is tracked by the {@link #readLine()} method. Default value is 0, the {@link #position} is not tracked.
+     */
+    private int lineEndingLength;
+
+    /**
+     * The number of UTF-8 bytes of the source file consumed by the {@link #readLine()} method,
+     * including the initial skipped bytes. It is tracked only if the {@link #lineEndingLength} is greater than zero.
+     */
+    private long position;
+
+    /**
+     * The {@link #position} value stored by the {@link #mark(int)} method and restored by the {@link #reset()} method.
+     */
+    private long markedPosition;
+
+    /**
+     * The number of bytes of the source file which can be consumed by the {@link #readLine()} method. It is used
+     * only if the {@link #position} is tracked. A line which ends after the limit, for example the last line without
+     * a line ending which is still being written, is not returned. Default value is {@link Long#MAX_VALUE}.
+     */
+    private long limit = Long.MAX_VALUE;
+
+    /**
+     * Is 'true' when the {@link #readLine()} method found a line after the {@link #limit}.
+     * The value is cleared by the {@link #reset()} method.
+     */
+    private boolean limitReached;
+
     /**
      * See the {@link BufferedReader#BufferedReader(Reader)}
      * constructor description.
@@ -64,11 +100,22 @@ public class LogBufferedReader extends BufferedReader {
     public void mark(int maxCharactersInOneLine) {
         try {
             super.mark(maxCharactersInOneLine);
+            markedPosition = position;
         } catch (IOException e) {
             throw new CombinerRuntimeException(e);
         }
     }
 
+    /**
+     * Calls the {@link BufferedReader#reset()} method and restores the {@link #position} value.
+     */
+    @Override
+    public void reset() throws IOException {
+        super.reset();
+        position = markedPosition;
+        limitReached = false;
+    }
+
     /**
      * @return the {@link #reader} field value.
      */
@@ -107,14 +154,47 @@ public class LogBufferedReader extends BufferedReader {
     /**
      * See the {@link BufferedReader#readLine()} method description.
      * Sets the {@link #lineDate} value to 'null'.
+     * <p>
+     * If the {@link #position} is tracked, a line which ends after the {@link #limit} is not consumed
+     * and 'null' is returned.
      */
     @Override
     public String readLine() throws IOException {
         lineDate = null;
-        if (closed) {
+        if (closed || limitReached) {
             return null;
         }
-        return super.readLine();
+        String line = super.readLine();
+        if (line != null && lineEndingLength > 0) {
+            long nextPosition = position + countUtf8Bytes(line) + lineEndingLength;
+            if (nextPosition > limit) {
+                // the line is not terminated yet, it will be read next time from the same position
+                limitReached = true;
+                return null;
+            }
+            position = nextPosition;
+        }
+        return line;
+    }
+
+    private static int countUtf8Bytes(String line) {
+        int length = line.length();
+        int result = length;
+        for (int i = 0; i < length; i++) {
+            char character = line.charAt(i);
+            if (character >= 0x800) {
+                if (Character.isHighSurrogate(character)) {
+                    // a surrogate pair is encoded to 4 bytes
+                    result = result + 2;
+                    i++;
+                } else {
+                    result = result + 2;
+                }
+            } else if (character >= 0x80) {
+                result++;
+            }
+        }
+        return result;
     }
 
     /**
@@ -170,4 +250,61 @@ public class LogBufferedReader extends BufferedReader {
     public void setLineDate(Date lineDate) {
         this.lineDate = lineDate;
     }
+
+    /**
+     * @return The {@link #singleLineRecords} field value.
+     */
+    public boolean isSingleLineRecords() {
+        return singleLineRecords;
+    }
+
+    /**
+     * @param singleLineRecords see the {@link #singleLineRecords} field description.
+     */
+    public void setSingleLineRecords(boolean singleLineRecords) {
+        this.singleLineRecords = singleLineRecords;
+    }
+
+    /**
+     * @return The {@link #lineEndingLength} field value.
+     */
+    public int getLineEndingLength() {
+        return lineEndingLength;
+    }
+
+    /**
+     * @param lineEndingLength see the {@link #lineEndingLength} field description.
+     */
+    public void setLineEndingLength(int lineEndingLength) {
+        this.lineEndingLength = lineEndingLength;
+    }
+
+    /**
+     * @return The {@link #position} field value.
+     */
+    public long getPosition() {
+        return position;
+    }
+
+    /**
+     * @param position see the {@link #position} field description.
+     */
+    public void setPosition(long position) {
+        this.position = position;
+        this.markedPosition = position;
+    }
+
+    /**
+     * @return The {@link #limit} field value.
+     */
+    public long getLimit() {
+        return limit;
+    }
+
+    /**
+     * @param limit see the {@link #limit} field description.
+     */
+    public void setLimit(long limit) {
+        this.limit = limit;
+    }
 }
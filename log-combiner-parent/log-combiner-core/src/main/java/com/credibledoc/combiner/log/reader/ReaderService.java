@@ -2,6 +2,8 @@ package com.credibledoc.combiner.log.reader;
 
 import com.credibledoc.combiner.context.CombinerContext;
 import com.credibledoc.combiner.exception.CombinerRuntimeException;
+import com.credibledoc.combiner.filter.LineFilter;
+import com.credibledoc.combiner.filter.LineFilterService;
 import com.credibledoc.combiner.log.buffered.LogBufferedReader;
 import com.credibledoc.combiner.log.buffered.LogConcatenatedInputStream;
 import com.credibledoc.combiner.log.buffered.LogFileInputStream;
@@ -9,6 +11,7 @@ import com.credibledoc.combiner.log.buffered.LogInputStreamReader;
 import com.credibledoc.combiner.node.file.NodeFile;
 import com.credibledoc.combiner.node.file.NodeFileTreeSet;
 import com.credibledoc.combiner.state.FilesMergerState;
+import com.credibledoc.combiner.tactic.SingleLineRecordTactic;
 import com.credibledoc.combiner.tactic.Tactic;
 import com.credibledoc.combiner.tactic.TacticService;
 import org.slf4j.Logger;
@@ -75,6 +78,8 @@ public class ReaderService {
      *     Scheduler class: 'org.quartz.core.QuartzSchedule...
      *     NOT STARTED.
      * </pre>
+     * If the {@link LogBufferedReader#isSingleLineRecords()} is 'true', the next lines are not read
+     * and the single line is returned.
      *
      * @param line              the first line of the record.
      * @param logBufferedReader the data source
@@ -82,6 +87,11 @@ public class ReaderService {
      * @return A single line, multi-line or 'null'.
      */
     public List<String> readMultiline(String line, LogBufferedReader logBufferedReader, CombinerContext combinerContext) {
+        if (logBufferedReader.isSingleLineRecords()) {
+            List<String> result = new ArrayList<>(1);
+            result.add(cutIfLonger(line));
+            return result;
+        }
         List<String> result = new ArrayList<>();
         try {
             Date lineDate = logBufferedReader.getLineDate(); // keep the date if exists
@@ -151,10 +161,59 @@ public class ReaderService {
      * Change the {@link FilesMergerState#setCurrentNodeFile(NodeFile)}
      * and current position in the {@link NodeFile#getLogBufferedReader()}.
      *
+     * <p>
+     * If the {@link FilesMergerState#getLineFilter()} exists, records not applicable to the filter
+     * are skipped without creating of multi-line lists, see the {@link LineFilterService}.
+     *
      * @param filesMergerState contains information of last used index and {@link NodeFile}s
      * @return a preferred line from one of {@link LogBufferedReader}s or 'null' if all buffers are empty.
      */
     public String readLineFromReaders(FilesMergerState filesMergerState) {
+        String line = readNextLineFromReaders(filesMergerState);
+        LineFilter lineFilter = filesMergerState.getLineFilter();
+        if (lineFilter == null) {
+            return line;
+        }
+        LineFilterService lineFilterService = LineFilterService.getInstance();
+        while (line != null && !lineFilterService.isApplicable(lineFilter, line, filesMergerState.getCurrentNodeFile())) {
+            skipContinuationLines(filesMergerState.getCurrentNodeFile());
+            line = readNextLineFromReaders(filesMergerState);
+        }
+        return line;
+    }
+
+    /**
+     * Read and drop lines without a date pattern, i.e. the rest of the current multi-line record.
+     * The position of the {@link NodeFile#getLogBufferedReader()} will be set before the next record.
+     *
+     * @param nodeFile the source of the current record
+     */
+    private void skipContinuationLines(NodeFile nodeFile) {
+        LogBufferedReader logBufferedReader = nodeFile.getLogBufferedReader();
+        if (logBufferedReader.isSingleLineRecords()) {
+            return;
+        }
+        Tactic tactic = nodeFile.getNodeLog().getTactic();
+        try {
+            logBufferedReader.mark(MAX_CHARACTERS_IN_ONE_LINE);
+            String line = logBufferedReader.readLine();
+            while (line != null) {
+                if (line.length() > MAX_CHARACTERS_IN_ONE_LINE) {
+                    return;
+                }
+                if (tactic.containsDate(line)) {
+                    logBufferedReader.reset();
+                    return;
+                }
+                logBufferedReader.mark(MAX_CHARACTERS_IN_ONE_LINE);
+                line = logBufferedReader.readLine();
+            }
+        } catch (IOException e) {
+            throw new CombinerRuntimeException("Cannot skip lines. File: " + getFile(logBufferedReader), e);
+        }
+    }
+
+    private String readNextLineFromReaders(FilesMergerState filesMergerState) {
         File file = null;
         try {
             NodeFile currentNodeFile = filesMergerState.getCurrentNodeFile();
@@ -168,12 +227,19 @@ public class ReaderService {
             LogBufferedReader logBufferedReader = actualNodeFile.getLogBufferedReader();
             file = ReaderService.getInstance().getFile(logBufferedReader);
             Date lineDate = logBufferedReader.getLineDate(); // keep the date if exists, because it was set in the findTheOldest method.
+            if (filesMergerState.getMaxDate() != null) {
+                logBufferedReader.mark(MAX_CHARACTERS_IN_ONE_LINE);
+            }
             String line = logBufferedReader.readLine();
             if (line != null) {
                 if (lineDate == null) {
                     lineDate = actualNodeFile.getNodeLog().getTactic().findDate(line);
                 }
                 logBufferedReader.setLineDate(lineDate);
+                if (isHeldBack(lineDate, actualNodeFile, filesMergerState)) {
+                    logBufferedReader.reset();
+                    return null;
+                }
             }
             
             filesMergerState.setCurrentNodeFile(actualNodeFile);
@@ -188,6 +254,34 @@ public class ReaderService {
         }
     }
 
+    /**
+     * If the {@link FilesMergerState#getMaxDate()} is defined, compare the record date with the date
+     * and update the {@link FilesMergerState#getNodeLastDates()} and {@link FilesMergerState#getLateRecords()}.
+     *
+     * @param lineDate         the date of the first line of a record, can be 'null'
+     * @param nodeFile         the source of the record
+     * @param filesMergerState the state of the merge process
+     * @return 'true' if the record is newer than the {@link FilesMergerState#getMaxDate()}
+     * and it should not be read now.
+     */
+    private boolean isHeldBack(Date lineDate, NodeFile nodeFile, FilesMergerState filesMergerState) {
+        if (filesMergerState.getMaxDate() == null || lineDate == null) {
+            return false;
+        }
+        long time = lineDate.getTime() + nodeFile.getNodeLog().getTimeOffset();
+        if (time > filesMergerState.getMaxDate().getTime()) {
+            return true;
+        }
+        String nodeName = nodeFile.getNodeLog().getName();
+        Long lastTime = filesMergerState.getNodeLastDates().get(nodeName);
+        if (lastTime != null && time < lastTime) {
+            filesMergerState.setLateRecords(filesMergerState.getLateRecords() + 1);
+        } else {
+            filesMergerState.getNodeLastDates().put(nodeName, time);
+        }
+        return false;
+    }
+
     public NodeFile findTheOldest(FilesMergerState filesMergerState) {
         try {
             NodeFile result = filesMergerState.getCurrentNodeFile();
@@ -238,9 +332,14 @@ public class ReaderService {
         nextLogBufferedReader.reset();
         nextLogBufferedReader.setLineDate(nextLineDate);
         
+        // Dates are compared with the NodeLog time offsets, the clock skew of nodes is compensated
+        long actualOffset = actual.getNodeLog().getTimeOffset();
+        long nextOffset = next.getNodeLog().getTimeOffset();
         boolean isNextLineWithoutDate = nextLineDate == null && !isNextLast;
-        boolean isNextNodeFileOlder = actualLineDate != null && isNextLineWithoutDate && next.getDate().before(actualLineDate);
-        boolean isNextLineOlder = nextLineDate != null && actualLineDate != null && nextLineDate.before(actualLineDate);
+        boolean isNextNodeFileOlder = actualLineDate != null && isNextLineWithoutDate &&
+            next.getDate().getTime() + nextOffset < actualLineDate.getTime() + actualOffset;
+        boolean isNextLineOlder = nextLineDate != null && actualLineDate != null &&
+            nextLineDate.getTime() + nextOffset < actualLineDate.getTime() + actualOffset;
         if (isNextNodeFileOlder || isNextLineOlder) {
             // older line wins
             return next;
@@ -313,18 +412,10 @@ public class ReaderService {
         try {
             long startNanos = System.nanoTime();
             for (NodeFile nodeFile : nodeFiles) {
-                List<LogFileInputStream> inputStreams = new ArrayList<>();
-                inputStreams.add(new LogFileInputStream(nodeFile.getFileWithSources().getFile()));
-                Enumeration<LogFileInputStream> enumeration = Collections.enumeration(inputStreams);
-                LogConcatenatedInputStream logConcatenatedInputStream = new LogConcatenatedInputStream(enumeration);
-                // TODO Kyrylo Semenko - charset from combinerContext
-                LogInputStreamReader logInputStreamReader
-                    = new LogInputStreamReader(logConcatenatedInputStream, StandardCharsets.UTF_8);
-                LogBufferedReader logBufferedReader = new LogBufferedReader(logInputStreamReader);
                 if (nodeFile.getLogBufferedReader() != null && nodeFile.getLogBufferedReader().isNotClosed()) {
                     throw new CombinerRuntimeException("LogBufferedReader is not closed yet. Expected 'null' or closed LogBufferedReader.");
                 }
-                nodeFile.setLogBufferedReader(logBufferedReader);
+                nodeFile.setLogBufferedReader(createLogBufferedReader(nodeFile, 0));
             }
             long durationInNanoseconds = System.nanoTime() - startNanos;
             String durationInMs = durationInNanoseconds / 1000000 + "," + durationInNanoseconds % 1000000;
@@ -334,4 +425,44 @@ public class ReaderService {
         }
     }
 
+    /**
+     * Create a new {@link LogBufferedReader} of the {@link NodeFile} file.
+     *
+     * @param nodeFile the source of the reader
+     * @param offset   how many bytes from the beginning of the file should be skipped, for example
+     *                 bytes already combined in a previous run
+     * @return The new {@link LogBufferedReader}, its {@link LogBufferedReader#getPosition()} is the offset.
+     * @throws IOException in case of a file reading problem
+     */
+    public LogBufferedReader createLogBufferedReader(NodeFile nodeFile, long offset) throws IOException {
+        LogFileInputStream logFileInputStream = new LogFileInputStream(nodeFile.getFileWithSources().getFile());
+        if (offset > 0) {
+            long skipped = logFileInputStream.skip(offset);
+            if (skipped != offset) {
+                logFileInputStream.close();
+                throw new CombinerRuntimeException("Cannot skip " + offset + " bytes of the file: " +
+                    nodeFile.getFileWithSources().getFile().getAbsolutePath());
+            }
+        }
+        List<LogFileInputStream> inputStreams = new ArrayList<>();
+        inputStreams.add(logFileInputStream);
+        Enumeration<LogFileInputStream> enumeration = Collections.enumeration(inputStreams);
+        LogConcatenatedInputStream logConcatenatedInputStream = new LogConcatenatedInputStream(enumeration);
+        // TODO Kyrylo Semenko - charset from combinerContext
+        LogInputStreamReader logInputStreamReader
+            = new LogInputStreamReader(logConcatenatedInputStream, StandardCharsets.UTF_8);
+        LogBufferedReader logBufferedReader = new LogBufferedReader(logInputStreamReader);
+        logBufferedReader.setSingleLineRecords(isSingleLineRecords(nodeFile.getNodeLog().getTactic()));
+        logBufferedReader.setPosition(offset);
+        return logBufferedReader;
+    }
+
+    /**
+     * @param tactic the {@link Tactic} of a log
+     * @return 'true' if the tactic is a {@link SingleLineRecordTactic} with single line records.
+     */
+    public boolean isSingleLineRecords(Tactic tactic) {
+        return tactic instanceof SingleLineRecordTactic && ((SingleLineRecordTactic) tactic).isSingleLineRecords();
+    }
+
 }
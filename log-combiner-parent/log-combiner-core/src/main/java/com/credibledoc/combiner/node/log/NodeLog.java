@@ -20,6 +20,13 @@ public class NodeLog implements Comparable<NodeLog> {
      * A {@link Tactic} this {@link NodeLog} belongs to.
      */
     private Tactic tactic;
+
+    /**
+     * Milliseconds added to dates of this node lines when the lines of different nodes are ordered.
+     * It compensates a clock skew of the node. The text of lines is not changed.
+     * Default value is 0.
+     */
+    private long timeOffset;
     
     /**
      * An empty constructor.
@@ -81,4 +88,18 @@ public class NodeLog implements Comparable<NodeLog> {
     public void setTactic(Tactic tactic) {
         this.tactic = tactic;
     }
+
+    /**
+     * @return The {@link #timeOffset} field value.
+     */
+    public long getTimeOffset() {
+        return timeOffset;
+    }
+
+    /**
+     * @param timeOffset see the {@link #timeOffset} field description.
+     */
+    public void setTimeOffset(long timeOffset) {
+        this.timeOffset = timeOffset;
+    }
 }
@@ -1,15 +1,29 @@
 package com.credibledoc.combiner.node.log;
 
+import com.credibledoc.combiner.config.Config;
 import com.credibledoc.combiner.context.CombinerContext;
 import com.credibledoc.combiner.exception.CombinerRuntimeException;
 import com.credibledoc.combiner.file.FileWithSources;
 import com.credibledoc.combiner.log.buffered.LogBufferedReader;
+import com.credibledoc.combiner.log.buffered.LogFileReader;
 import com.credibledoc.combiner.node.file.NodeFile;
+import com.credibledoc.combiner.node.file.NodeFileService;
 import com.credibledoc.combiner.tactic.Tactic;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.io.File;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  * Service for working with {@link NodeLog}.
@@ -17,6 +31,7 @@ import java.util.TreeSet;
  * @author Kyrylo Semenko
  */
 public class NodeLogService {
+    private static final Logger logger = LoggerFactory.getLogger(NodeLogService.class);
 
     /**
      * Singleton.
@@ -81,4 +96,121 @@ public class NodeLogService {
     public String findNodeName(LogBufferedReader logBufferedReader, CombinerContext combinerContext) {
         return findNodeLog(logBufferedReader, combinerContext).getName();
     }
+
+    /**
+     * Set the {@link NodeLog#getTimeOffset()} values of all {@link NodeLog}s from the combinerContext.
+     * <p>
+     * If the {@link Config#getTimeOffsetCorrelationRegex()} is defined, the offsets will be estimated first,
+     * see the {@link #estimateTimeOffsets(Pattern, int, CombinerContext)} method.
+     * Then the {@link Config#getNodeTimeOffsets()} will be applied.
+     *
+     * @param config contains the time offsets configuration
+     * @param combinerContext the current state
+     */
+    public void applyTimeOffsets(Config config, CombinerContext combinerContext) {
+        if (config.getTimeOffsetCorrelationRegex() != null) {
+            Pattern pattern = Pattern.compile(config.getTimeOffsetCorrelationRegex());
+            estimateTimeOffsets(pattern, config.getTimeOffsetSampleLines(), combinerContext);
+        }
+        if (config.getNodeTimeOffsets().isEmpty()) {
+            return;
+        }
+        for (NodeLog nodeLog : combinerContext.getNodeLogRepository().getNodeLogs()) {
+            Long offset = config.getNodeTimeOffsets().get(nodeLog.getName());
+            if (offset != null) {
+                nodeLog.setTimeOffset(offset);
+            }
+        }
+    }
+
+    /**
+     * Estimate a clock skew of nodes and set it to the {@link NodeLog#getTimeOffset()} fields.
+     * <p>
+     * Lines with the same correlation identifier (for example a request ID) are searched in the first lines
+     * of each node. The first node (ordered by name) is a reference node. The offset of other nodes is a median
+     * of differences between the dates of the identifier in the reference node and the node.
+     * Nodes without common identifiers with the reference node are not changed.
+     *
+     * @param correlationPattern the first group (or the whole match, if the pattern has no groups)
+     *                           is a correlation identifier
+     * @param maxLines how many lines of each node will be read
+     * @param combinerContext the current state
+     */
+    public void estimateTimeOffsets(Pattern correlationPattern, int maxLines, CombinerContext combinerContext) {
+        Map<String, List<NodeLog>> nodeNameToNodeLogs = new TreeMap<>();
+        for (NodeLog nodeLog : combinerContext.getNodeLogRepository().getNodeLogs()) {
+            List<NodeLog> list = nodeNameToNodeLogs.get(nodeLog.getName());
+            if (list == null) {
+                list = new ArrayList<>();
+                nodeNameToNodeLogs.put(nodeLog.getName(), list);
+            }
+            list.add(nodeLog);
+        }
+        if (nodeNameToNodeLogs.size() < 2) {
+            return;
+        }
+        Map<String, Long> referenceDates = null;
+        for (Map.Entry<String, List<NodeLog>> entry : nodeNameToNodeLogs.entrySet()) {
+            Map<String, Long> correlationDates =
+                collectCorrelationDates(entry.getValue(), correlationPattern, maxLines, combinerContext);
+            if (referenceDates == null) {
+                referenceDates = correlationDates;
+                continue;
+            }
+            List<Long> differences = new ArrayList<>();
+            for (Map.Entry<String, Long> correlationEntry : correlationDates.entrySet()) {
+                Long referenceDate = referenceDates.get(correlationEntry.getKey());
+                if (referenceDate != null) {
+                    differences.add(referenceDate - correlationEntry.getValue());
+                }
+            }
+            if (differences.isEmpty()) {
+                logger.info("Time offset of node '{}' cannot be estimated, correlated lines not found.",
+                    entry.getKey());
+                continue;
+            }
+            Collections.sort(differences);
+            long offset = differences.get(differences.size() / 2);
+            for (NodeLog nodeLog : entry.getValue()) {
+                nodeLog.setTimeOffset(offset);
+            }
+            logger.info("Estimated time offset of node '{}' is {} ms, correlated lines: {}",
+                entry.getKey(), offset, differences.size());
+        }
+    }
+
+    private Map<String, Long> collectCorrelationDates(List<NodeLog> nodeLogs, Pattern correlationPattern,
+                                                      int maxLines, CombinerContext combinerContext) {
+        Map<String, Long> result = new HashMap<>();
+        NodeFileService nodeFileService = NodeFileService.getInstance();
+        for (NodeLog nodeLog : nodeLogs) {
+            int linesNumber = 0;
+            for (NodeFile nodeFile : nodeFileService.findNodeFiles(nodeLog, combinerContext)) {
+                File file = nodeFile.getFileWithSources().getFile();
+                try (LogBufferedReader logBufferedReader = new LogBufferedReader(new LogFileReader(file))) {
+                    Date lastDate = nodeFile.getDate();
+                    String line = logBufferedReader.readLine();
+                    while (line != null && linesNumber < maxLines) {
+                        linesNumber++;
+                        Date date = nodeLog.getTactic().findDate(line, nodeFile);
+                        if (date != null) {
+                            lastDate = date;
+                        }
+                        Matcher matcher = correlationPattern.matcher(line);
+                        if (matcher.find() && lastDate != null) {
+                            String correlationId = matcher.groupCount() > 0 ? matcher.group(1) : matcher.group();
+                            if (correlationId != null && !result.containsKey(correlationId)) {
+                                result.put(correlationId, lastDate.getTime());
+                            }
+                        }
+                        line = logBufferedReader.readLine();
+                    }
+                } catch (Exception e) {
+                    throw new CombinerRuntimeException("Cannot estimate time offset. File: " +
+                        file.getAbsolutePath(), e);
+                }
+            }
+        }
+        return result;
+    }
 }
@@ -0,0 +1,97 @@
+package com.credibledoc.combiner.state;
+
+/**
+ * Data object. Contains information about a log file combined in a previous run,
+ * see the {@link IncrementalState}.
+ *
+ * @author Kyrylo Semenko
+ */
+public class FileState {
+
+    /**
+     * Absolute path of the file at the moment of the last combining.
+     */
+    private String path;
+
+    /**
+     * How many bytes from the beginning of the file have been combined.
+     */
+    private long offset;
+
+    /**
+     * CRC32 checksum of the first {@link #fingerprintLength} bytes of the file. It serves for recognition of the file
+     * after rotation, when the file has been renamed, or after truncation, when the file has been overwritten.
+     */
+    private long fingerprint;
+
+    /**
+     * How many bytes from the beginning of the file are included in the {@link #fingerprint}.
+     */
+    private int fingerprintLength;
+
+    @Override
+    public String toString() {
+        return "FileState{" +
+            "path=" + path +
+            ", offset=" + offset +
+            ", fingerprint=" + fingerprint +
+            ", fingerprintLength=" + fingerprintLength +
+            '}';
+    }
+
+    /**
+     * @return The {@link #path} field value.
+     */
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * @param path see the {@link #path} field description.
+     */
+    public void setPath(String path) {
+        this.path = path;
+    }
+
+    /**
+     * @return The {@link #offset} field value.
+     */
+    public long getOffset() {
+        return offset;
+    }
+
+    /**
+     * @param offset see the {@link #offset} field description.
+     */
+    public void setOffset(long offset) {
+        this.offset = offset;
+    }
+
+    /**
+     * @return The {@link #fingerprint} field value.
+     */
+    public long getFingerprint() {
+        return fingerprint;
+    }
+
+    /**
+     * @param fingerprint see the {@link #fingerprint} field description.
+     */
+    public void setFingerprint(long fingerprint) {
+        this.fingerprint = fingerprint;
+    }
+
+    /**
+     * @return The {@link #fingerprintLength} field value.
+     */
+    public int getFingerprintLength() {
+        return fingerprintLength;
+    }
+
+    /**
+     * @param fingerprintLength see the {@link #fingerprintLength} field description.
+     */
+    public void setFingerprintLength(int fingerprintLength) {
+        this.fingerprintLength = fingerprintLength;
+    }
+}
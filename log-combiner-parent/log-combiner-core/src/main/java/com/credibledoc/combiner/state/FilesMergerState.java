@@ -1,7 +1,11 @@
 package com.credibledoc.combiner.state;
 
+import com.credibledoc.combiner.filter.LineFilter;
 import com.credibledoc.combiner.node.file.NodeFile;
 
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
 
@@ -22,6 +26,31 @@ public class FilesMergerState {
      */
     private Set<NodeFile> nodeFiles = new TreeSet<>();
 
+    /**
+     * If not 'null', records not applicable to the filter are skipped during reading,
+     * see the {@link com.credibledoc.combiner.filter.LineFilterService}.
+     */
+    private LineFilter lineFilter;
+
+    /**
+     * If not 'null', records with a later date (including the {@link com.credibledoc.combiner.node.log.NodeLog#getTimeOffset()})
+     * are not read. They are held back for the next incremental combining,
+     * see the {@link IncrementalStateService}.
+     */
+    private Date maxDate;
+
+    /**
+     * The latest read record dates in milliseconds (including time offsets) by node names.
+     * It is filled only if the {@link #maxDate} is defined.
+     */
+    private Map<String, Long> nodeLastDates = new HashMap<>();
+
+    /**
+     * How many records are older than the {@link #nodeLastDates} of their node. Such records
+     * came too late and they cannot be placed in order with records already written.
+     */
+    private int lateRecords;
+
     /**
      * @return The {@link #nodeFiles} field value.
      */
@@ -49,4 +78,53 @@ public class FilesMergerState {
     public void setCurrentNodeFile(NodeFile currentNodeFile) {
         this.currentNodeFile = currentNodeFile;
     }
+
+    /**
+     * @return The {@link #lineFilter} field value.
+     */
+    public LineFilter getLineFilter() {
+        return lineFilter;
+    }
+
+    /**
+     * @param lineFilter see the {@link #lineFilter} field description.
+     */
+    public void setLineFilter(LineFilter lineFilter) {
+        this.lineFilter = lineFilter;
+    }
+
+    /**
+     * @return The {@link #maxDate} field value.
+     */
+    public Date getMaxDate() {
+        return maxDate;
+    }
+
+    /**
+     * @param maxDate see the {@link #maxDate} field description.
+     */
+    public void setMaxDate(Date maxDate) {
+        this.maxDate = maxDate;
+    }
+
+    /**
+     * @return The {@link #nodeLastDates} field value.
+     */
+    public Map<String, Long> getNodeLastDates() {
+        return nodeLastDates;
+    }
+
+    /**
+     * @return The {@link #lateRecords} field value.
+     */
+    public int getLateRecords() {
+        return lateRecords;
+    }
+
+    /**
+     * @param lateRecords see the {@link #lateRecords} field description.
+     */
+    public void setLateRecords(int lateRecords) {
+        this.lateRecords = lateRecords;
+    }
 }
@@ -0,0 +1,47 @@
+package com.credibledoc.combiner.state;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Data object. Contains the state of the last incremental combining of a source folder,
+ * see the {@link IncrementalStateService}.
+ *
+ * @author Kyrylo Semenko
+ */
+public class IncrementalState {
+
+    /**
+     * Files combined in the previous runs.
+     */
+    private List<FileState> fileStates = new ArrayList<>();
+
+    /**
+     * The latest combined record dates in milliseconds (including time offsets) by node names.
+     */
+    private Map<String, Long> nodeLastDates = new HashMap<>();
+
+    @Override
+    public String toString() {
+        return "IncrementalState{" +
+            "fileStates=" + fileStates +
+            ", nodeLastDates=" + nodeLastDates +
+            '}';
+    }
+
+    /**
+     * @return The {@link #fileStates} field value.
+     */
+    public List<FileState> getFileStates() {
+        return fileStates;
+    }
+
+    /**
+     * @return The {@link #nodeLastDates} field value.
+     */
+    public Map<String, Long> getNodeLastDates() {
+        return nodeLastDates;
+    }
+}
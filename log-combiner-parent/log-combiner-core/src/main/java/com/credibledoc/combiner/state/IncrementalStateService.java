@@ -0,0 +1,334 @@
+package com.credibledoc.combiner.state;
+
+import com.credibledoc.combiner.exception.CombinerRuntimeException;
+import com.credibledoc.combiner.file.FileService;
+import com.credibledoc.combiner.log.buffered.LogBufferedReader;
+import com.credibledoc.combiner.log.reader.ReaderService;
+import com.credibledoc.combiner.node.file.NodeFile;
+import com.credibledoc.combiner.tactic.Tactic;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.zip.CRC32;
+
+/**
+ * Stateless service for working with {@link IncrementalState}s. It is used when the same folder is combined
+ * repeatedly, for example by a cron job.
+ * <p>
+ * Only lines appended after the previous run and lines of new (for example rotated) files will be read.
+ * The newest records are held back for the next run, see the {@link #findMaxDate(Collection, long)} method.
+ *
+ * @author Kyrylo Semenko
+ */
+public class IncrementalStateService {
+    private static final Logger logger = LoggerFactory.getLogger(IncrementalStateService.class);
+
+    /**
+     * How many bytes from the beginning of a file are used for the {@link FileState#getFingerprint()}.
+     */
+    private static final int FINGERPRINT_LENGTH = 1024;
+
+    /**
+     * How many bytes from the end of a file are read for searching of the last record date.
+     */
+    private static final int TAIL_LENGTH = 64 * 1024;
+
+    private static final String FILE_PREFIX = "file[";
+    private static final String NODE_LAST_DATE_PREFIX = "nodeLastDate[";
+    private static final String PATH_SUFFIX = "].path";
+    private static final String OFFSET_SUFFIX = "].offset";
+    private static final String FINGERPRINT_SUFFIX = "].fingerprint";
+    private static final String FINGERPRINT_LENGTH_SUFFIX = "].fingerprintLength";
+
+    /**
+     * Singleton.
+     */
+    private static final IncrementalStateService instance = new IncrementalStateService();
+
+    /**
+     * @return The {@link IncrementalStateService} singleton.
+     */
+    public static IncrementalStateService getInstance() {
+        return instance;
+    }
+
+    /**
+     * Load the {@link IncrementalState} from the file.
+     *
+     * @param stateFile the file created by the {@link #save(IncrementalState, File)} method
+     * @return The loaded state or an empty {@link IncrementalState} if the file does not exist.
+     */
+    public IncrementalState load(File stateFile) {
+        IncrementalState incrementalState = new IncrementalState();
+        if (!stateFile.exists()) {
+            return incrementalState;
+        }
+        Properties properties = new Properties();
+        try (InputStream inputStream = new FileInputStream(stateFile)) {
+            properties.load(inputStream);
+        } catch (IOException e) {
+            throw new CombinerRuntimeException("Cannot load the state file: '" + stateFile.getAbsolutePath() + "'", e);
+        }
+        int index = 0;
+        while (properties.getProperty(FILE_PREFIX + index + PATH_SUFFIX) != null) {
+            FileState fileState = new FileState();
+            fileState.setPath(properties.getProperty(FILE_PREFIX + index + PATH_SUFFIX));
+            fileState.setOffset(Long.parseLong(properties.getProperty(FILE_PREFIX + index + OFFSET_SUFFIX)));
+            fileState.setFingerprint(Long.parseLong(properties.getProperty(FILE_PREFIX + index + FINGERPRINT_SUFFIX)));
+            fileState.setFingerprintLength(
+                Integer.parseInt(properties.getProperty(FILE_PREFIX + index + FINGERPRINT_LENGTH_SUFFIX)));
+            incrementalState.getFileStates().add(fileState);
+            index++;
+        }
+        for (String name : properties.stringPropertyNames()) {
+            if (name.startsWith(NODE_LAST_DATE_PREFIX) && name.endsWith("]")) {
+                String nodeName = name.substring(NODE_LAST_DATE_PREFIX.length(), name.length() - 1);
+                incrementalState.getNodeLastDates().put(nodeName, Long.valueOf(properties.getProperty(name)));
+            }
+        }
+        logger.debug("Incremental state loaded: {}", incrementalState);
+        return incrementalState;
+    }
+
+    /**
+     * Save the {@link IncrementalState} to the file.
+     *
+     * @param incrementalState the state for saving
+     * @param stateFile        the target file, it will be overwritten
+     */
+    public void save(IncrementalState incrementalState, File stateFile) {
+        Properties properties = new Properties();
+        int index = 0;
+        for (FileState fileState : incrementalState.getFileStates()) {
+            properties.setProperty(FILE_PREFIX + index + PATH_SUFFIX, fileState.getPath());
+            properties.setProperty(FILE_PREFIX + index + OFFSET_SUFFIX, Long.toString(fileState.getOffset()));
+            properties.setProperty(FILE_PREFIX + index + FINGERPRINT_SUFFIX, Long.toString(fileState.getFingerprint()));
+            properties.setProperty(FILE_PREFIX + index + FINGERPRINT_LENGTH_SUFFIX,
+                Integer.toString(fileState.getFingerprintLength()));
+            index++;
+        }
+        for (Map.Entry<String, Long> entry : incrementalState.getNodeLastDates().entrySet()) {
+            properties.setProperty(NODE_LAST_DATE_PREFIX + entry.getKey() + "]", Long.toString(entry.getValue()));
+        }
+        try (OutputStream outputStream = new FileOutputStream(stateFile)) {
+            properties.store(outputStream, "The log-combiner incremental state");
+        } catch (IOException e) {
+            throw new CombinerRuntimeException("Cannot save the state file: '" + stateFile.getAbsolutePath() + "'", e);
+        }
+    }
+
+    /**
+     * Replace the {@link NodeFile#getLogBufferedReader()}s with new readers positioned after
+     * the already combined bytes.
+     * <p>
+     * The readers are limited by the current length of the files, see the {@link LogBufferedReader#getLimit()}.
+     * The last line without a line ending is left for the next run, because it can be still written.
+     * <p>
+     * A file is recognized by its path or, after rotation, by its {@link FileState#getFingerprint()}.
+     * Files with a changed beginning or shorter than the combined part are read from the beginning.
+     * <p>
+     * The {@link IncrementalState#getNodeLastDates()} will be copied to the {@link FilesMergerState#getNodeLastDates()}.
+     *
+     * @param incrementalState the state of the previous run
+     * @param filesMergerState contains the {@link NodeFile}s
+     */
+    public void prepareReaders(IncrementalState incrementalState, FilesMergerState filesMergerState) {
+        List<FileState> unusedFileStates = new ArrayList<>(incrementalState.getFileStates());
+        ReaderService readerService = ReaderService.getInstance();
+        try {
+            for (NodeFile nodeFile : filesMergerState.getNodeFiles()) {
+                File file = nodeFile.getFileWithSources().getFile();
+                long length = file.length();
+                FileState fileState = findFileState(file, unusedFileStates);
+                long offset = 0;
+                if (fileState != null) {
+                    unusedFileStates.remove(fileState);
+                    offset = fileState.getOffset();
+                    logger.debug("File '{}' will be read from the offset {}", file.getAbsolutePath(), offset);
+                }
+                if (nodeFile.getLogBufferedReader() != null) {
+                    nodeFile.getLogBufferedReader().close();
+                }
+                LogBufferedReader logBufferedReader = readerService.createLogBufferedReader(nodeFile, offset);
+                String lineEnding = FileService.findLineEndingIfExists(file);
+                if (lineEnding == null) {
+                    lineEnding = System.lineSeparator();
+                }
+                logBufferedReader.setLineEndingLength(lineEnding.length());
+                logBufferedReader.setLimit(length);
+                nodeFile.setLogBufferedReader(logBufferedReader);
+            }
+        } catch (IOException e) {
+            throw new CombinerRuntimeException(e);
+        }
+        filesMergerState.getNodeLastDates().putAll(incrementalState.getNodeLastDates());
+    }
+
+    /**
+     * Find the {@link FileState} of the file from a previous run. The file is recognized by its path
+     * and beginning, or by its beginning only in case of a rotated file.
+     *
+     * @param incrementalState the state of the previous run
+     * @param file             the current file
+     * @return 'null' if the file is new or its beginning has changed, in this case it will be read
+     * from the beginning by the {@link #prepareReaders(IncrementalState, FilesMergerState)} method.
+     */
+    public FileState findFileState(IncrementalState incrementalState, File file) {
+        try {
+            return findFileState(file, incrementalState.getFileStates());
+        } catch (IOException e) {
+            throw new CombinerRuntimeException(e);
+        }
+    }
+
+    private FileState findFileState(File file, List<FileState> fileStates) throws IOException {
+        long length = file.length();
+        String path = file.getAbsolutePath();
+        for (FileState fileState : fileStates) {
+            if (fileState.getPath().equals(path) && isSameFile(file, length, fileState)) {
+                return fileState;
+            }
+        }
+        for (FileState fileState : fileStates) {
+            if (isSameFile(file, length, fileState)) {
+                logger.info("File '{}' is recognized as the rotated file '{}'", path, fileState.getPath());
+                return fileState;
+            }
+        }
+        return null;
+    }
+
+    private boolean isSameFile(File file, long length, FileState fileState) throws IOException {
+        return length >= fileState.getOffset() && length >= fileState.getFingerprintLength() &&
+            computeFingerprint(file, fileState.getFingerprintLength()) == fileState.getFingerprint();
+    }
+
+    private long computeFingerprint(File file, int length) throws IOException {
+        CRC32 crc32 = new CRC32();
+        byte[] buffer = new byte[length];
+        try (InputStream inputStream = new FileInputStream(file)) {
+            int total = 0;
+            while (total < length) {
+                int read = inputStream.read(buffer, total, length - total);
+                if (read == -1) {
+                    break;
+                }
+                total = total + read;
+            }
+            crc32.update(buffer, 0, total);
+        }
+        return crc32.getValue();
+    }
+
+    /**
+     * Find the latest record date in not combined parts of the {@link NodeFile}s and subtract the watermark.
+     * Only the tail of each file is read.
+     * <p>
+     * Records newer than the returned date will be held back for the next run, so a record which comes late
+     * by less than the watermark will be combined in order.
+     *
+     * @param nodeFiles       with readers prepared by the {@link #prepareReaders(IncrementalState, FilesMergerState)} method
+     * @param watermarkMillis see the {@link com.credibledoc.combiner.config.Config#getIncrementalWatermarkMillis()}
+     * @return The date for the {@link FilesMergerState#setMaxDate(Date)} method or 'null' if no new records found.
+     */
+    public Date findMaxDate(Collection<NodeFile> nodeFiles, long watermarkMillis) {
+        Long maxTime = null;
+        for (NodeFile nodeFile : nodeFiles) {
+            Date lastDate = findLastDate(nodeFile, nodeFile.getLogBufferedReader().getPosition());
+            if (lastDate != null) {
+                long time = lastDate.getTime() + nodeFile.getNodeLog().getTimeOffset();
+                if (maxTime == null || time > maxTime) {
+                    maxTime = time;
+                }
+            }
+        }
+        if (maxTime == null) {
+            return null;
+        }
+        return new Date(maxTime - watermarkMillis);
+    }
+
+    private Date findLastDate(NodeFile nodeFile, long position) {
+        File file = nodeFile.getFileWithSources().getFile();
+        long start = Math.max(position, file.length() - TAIL_LENGTH);
+        Date date = findLastDate(file, start, start > position, nodeFile.getNodeLog().getTactic());
+        if (date == null && start > position) {
+            date = findLastDate(file, position, false, nodeFile.getNodeLog().getTactic());
+        }
+        return date;
+    }
+
+    private Date findLastDate(File file, long start, boolean skipFirstLine, Tactic tactic) {
+        try (InputStream inputStream = new FileInputStream(file)) {
+            long skipped = inputStream.skip(start);
+            if (skipped != start) {
+                return null;
+            }
+            BufferedReader bufferedReader =
+                new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+            if (skipFirstLine) {
+                // the first line can be a part of a line
+                bufferedReader.readLine();
+            }
+            Date result = null;
+            String line = bufferedReader.readLine();
+            while (line != null) {
+                Date date = tactic.findDate(line);
+                if (date != null) {
+                    result = date;
+                }
+                line = bufferedReader.readLine();
+            }
+            return result;
+        } catch (IOException e) {
+            throw new CombinerRuntimeException("Cannot read the file: '" + file.getAbsolutePath() + "'", e);
+        }
+    }
+
+    /**
+     * Replace the {@link IncrementalState#getFileStates()} with the current positions of the
+     * {@link NodeFile#getLogBufferedReader()}s and copy the {@link FilesMergerState#getNodeLastDates()}.
+     *
+     * @param incrementalState the state for updating
+     * @param filesMergerState the state after combining
+     */
+    public void updateState(IncrementalState incrementalState, FilesMergerState filesMergerState) {
+        incrementalState.getFileStates().clear();
+        try {
+            for (NodeFile nodeFile : filesMergerState.getNodeFiles()) {
+                File file = nodeFile.getFileWithSources().getFile();
+                long length = file.length();
+                int fingerprintLength = (int) Math.min(FINGERPRINT_LENGTH, length);
+                FileState fileState = new FileState();
+                fileState.setPath(file.getAbsolutePath());
+                // only terminated lines are consumed, see the LogBufferedReader.limit
+                fileState.setOffset(nodeFile.getLogBufferedReader().getPosition());
+                fileState.setFingerprintLength(fingerprintLength);
+                fileState.setFingerprint(computeFingerprint(file, fingerprintLength));
+                incrementalState.getFileStates().add(fileState);
+            }
+        } catch (IOException e) {
+            throw new CombinerRuntimeException(e);
+        }
+        incrementalState.getNodeLastDates().putAll(filesMergerState.getNodeLastDates());
+        if (filesMergerState.getLateRecords() > 0) {
+            logger.warn("{} records came too late and they are appended out of order",
+                filesMergerState.getLateRecords());
+        }
+    }
+}
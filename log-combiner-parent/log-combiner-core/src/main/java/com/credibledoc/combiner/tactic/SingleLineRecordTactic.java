@@ -0,0 +1,17 @@
+package com.credibledoc.combiner.tactic;
+
+/**
+ * An optional extension of the {@link Tactic} interface for log formats without multi-line records,
+ * for example access logs. Lines of such logs are not checked for continuation lines,
+ * see the {@link com.credibledoc.combiner.log.reader.ReaderService#readMultiline} method.
+ *
+ * @author Kyrylo Semenko
+ */
+public interface SingleLineRecordTactic extends Tactic {
+
+    /**
+     * @return 'true' if every line of the log starts a new record. In this case the lookahead
+     * search for a date in the next line is skipped. Else return 'false'.
+     */
+    boolean isSingleLineRecords();
+}
@@ -1,9 +1,14 @@
 package com.credibledoc.enricher.context;
 
 import com.credibledoc.enricher.line.LineProcessor;
+import com.credibledoc.enricher.line.LineProcessorDispatchTable;
+import com.credibledoc.enricher.line.LineProcessorIndex;
 import com.credibledoc.enricher.line.LineProcessorRepository;
+import com.credibledoc.enricher.line.LineProcessorService;
 import com.credibledoc.enricher.printable.Printable;
+import com.credibledoc.enricher.statistics.EnricherStatistics;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -12,7 +17,8 @@ import java.util.Map;
  * Contains instances of stateful objects (repositories) used in Combiner:
  * <ul>
  *     <li>{@link #lineProcessorRepository}</li>
- *     <li>{@link #printableToLineProcessorsMap}</li>
+ *     <li>{@link #lineProcessorDispatchTable}</li>
+ *     <li>{@link #enricherStatistics}</li>
  * </ul>
  *
  * @author Kyrylo Semenko
@@ -24,21 +30,32 @@ public class EnricherContext {
     private LineProcessorRepository lineProcessorRepository;
 
     /**
-     * Map where a key is a report document and a value is a list of parsers.
+     * Compiled {@link #lineProcessorRepository} content, where a key is a report document and a value
+     * is a list of its parsers. The field is volatile, the immutable table is safely published
+     * to all report workers.
      */
-    private Map<Printable, List<LineProcessor>> printableToLineProcessorsMap = new HashMap<>();
+    private volatile LineProcessorDispatchTable lineProcessorDispatchTable;
+
+    /**
+     * Throughput statistics of {@link com.credibledoc.enricher.searchcommand.SearchCommand}s and
+     * {@link com.credibledoc.enricher.transformer.Transformer}s. The value is 'null' if the statistics
+     * are disabled, see the {@link EnricherStatistics#ENABLED} property.
+     */
+    private EnricherStatistics enricherStatistics;
 
     /**
      * Create new instances of
      * <ul>
      *     <li>{@link #lineProcessorRepository}</li>
-     *     <li>{@link #printableToLineProcessorsMap}</li>
+     *     <li>{@link #enricherStatistics} if the {@link EnricherStatistics#ENABLED} property is 'true'</li>
      * </ul>
+     * and evict the {@link #lineProcessorDispatchTable}.
      * @return the current instance
      */
     public EnricherContext init() {
         lineProcessorRepository = new LineProcessorRepository();
-        printableToLineProcessorsMap = new HashMap<>();
+        lineProcessorDispatchTable = null;
+        enricherStatistics = Boolean.getBoolean(EnricherStatistics.ENABLED) ? new EnricherStatistics() : null;
         return this;
     }
 
@@ -46,7 +63,8 @@ public class EnricherContext {
     public String toString() {
         return "EnricherContext{" +
             "lineProcessorRepository=" + lineProcessorRepository +
-            ", derivingToLineProcessorsMap=" + printableToLineProcessorsMap +
+            ", lineProcessorDispatchTable=" + lineProcessorDispatchTable +
+            ", enricherStatistics=" + enricherStatistics +
             '}';
     }
 
@@ -58,23 +76,66 @@ public class EnricherContext {
     }
 
     /**
+     * Set the {@link #lineProcessorRepository} and evict the {@link #lineProcessorDispatchTable}.
      * @param lineProcessorRepository see the {@link #lineProcessorRepository} field description.
      */
     public void setLineProcessorRepository(LineProcessorRepository lineProcessorRepository) {
         this.lineProcessorRepository = lineProcessorRepository;
+        lineProcessorDispatchTable = null;
     }
 
     /**
-     * @return The {@link #printableToLineProcessorsMap} field value.
+     * @return Unmodifiable map where a key is a report document and a value is a list of its parsers,
+     * see the {@link LineProcessorService#getLineProcessorDispatchTable(EnricherContext)} method.
+     * @deprecated use the {@link LineProcessorService#getLineProcessors(Printable, EnricherContext)} method.
      */
+    @Deprecated
     public Map<Printable, List<LineProcessor>> getPrintableToLineProcessorsMap() {
-        return printableToLineProcessorsMap;
+        Map<Printable, LineProcessorIndex> indexMap = LineProcessorService.getInstance()
+            .getLineProcessorDispatchTable(this).getPrintableToLineProcessorIndexMap();
+        Map<Printable, List<LineProcessor>> result = new HashMap<>();
+        for (Map.Entry<Printable, LineProcessorIndex> entry : indexMap.entrySet()) {
+            result.put(entry.getKey(), entry.getValue().getLineProcessorList());
+        }
+        return Collections.unmodifiableMap(result);
     }
 
     /**
-     * @param printableToLineProcessorsMap see the {@link #printableToLineProcessorsMap} field description.
+     * The map is compiled from the {@link #lineProcessorRepository}, so this method only evicts
+     * the {@link #lineProcessorDispatchTable}.
+     * @param printableToLineProcessorsMap it is ignored
+     * @deprecated use the {@link LineProcessorService#addAll(List, EnricherContext)} method.
      */
+    @Deprecated
     public void setPrintableToLineProcessorsMap(Map<Printable, List<LineProcessor>> printableToLineProcessorsMap) {
-        this.printableToLineProcessorsMap = printableToLineProcessorsMap;
+        lineProcessorDispatchTable = null;
+    }
+
+    /**
+     * @return The {@link #lineProcessorDispatchTable} field value.
+     */
+    public LineProcessorDispatchTable getLineProcessorDispatchTable() {
+        return lineProcessorDispatchTable;
+    }
+
+    /**
+     * @param lineProcessorDispatchTable see the {@link #lineProcessorDispatchTable} field description.
+     */
+    public void setLineProcessorDispatchTable(LineProcessorDispatchTable lineProcessorDispatchTable) {
+        this.lineProcessorDispatchTable = lineProcessorDispatchTable;
+    }
+
+    /**
+     * @return The {@link #enricherStatistics} field value.
+     */
+    public EnricherStatistics getEnricherStatistics() {
+        return enricherStatistics;
+    }
+
+    /**
+     * @param enricherStatistics see the {@link #enricherStatistics} field description.
+     */
+    public void setEnricherStatistics(EnricherStatistics enricherStatistics) {
+        this.enricherStatistics = enricherStatistics;
     }
 }
@@ -0,0 +1,72 @@
+package com.credibledoc.enricher.line;
+
+import com.credibledoc.enricher.printable.Printable;
+import com.credibledoc.enricher.searchcommand.KeywordMatcher;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Immutable compiled form of the {@link LineProcessorRepository}, a {@link LineProcessorIndex}
+ * for each {@link Printable}. It is created by the {@link LineProcessorService#compile(com.credibledoc.enricher.context.EnricherContext)}
+ * method and published in the volatile
+ * {@link com.credibledoc.enricher.context.EnricherContext#getLineProcessorDispatchTable()} field,
+ * so it can be shared by many threads without locks.
+ *
+ * @author Kyrylo Semenko
+ */
+public class LineProcessorDispatchTable {
+
+    /**
+     * The {@link LineProcessorIndex} of {@link Printable}s without {@link LineProcessor}s.
+     */
+    private static final LineProcessorIndex EMPTY_INDEX = new LineProcessorIndex(new LineProcessor[0],
+        null, new int[0][], new int[0][], false);
+
+    /**
+     * Unmodifiable map where a key is a report document and a value is its parsers with compiled keywords.
+     */
+    private final Map<Printable, LineProcessorIndex> printableToLineProcessorIndexMap;
+
+    /**
+     * The {@link LineProcessorRepository#getModificationsNumber()} value at the time of compilation.
+     * It is used for recognition of {@link LineProcessor}s added, removed or replaced after the compilation.
+     */
+    private final int modificationsNumber;
+
+    /**
+     * Constructor sets the fields:
+     * @param printableToLineProcessorIndexMap {@link #printableToLineProcessorIndexMap}, it will be wrapped
+     *                                         to an unmodifiable map
+     * @param modificationsNumber              {@link #modificationsNumber}
+     */
+    public LineProcessorDispatchTable(Map<Printable, LineProcessorIndex> printableToLineProcessorIndexMap,
+                                      int modificationsNumber) {
+        this.printableToLineProcessorIndexMap = Collections.unmodifiableMap(printableToLineProcessorIndexMap);
+        this.modificationsNumber = modificationsNumber;
+    }
+
+    /**
+     * @param printable a report document
+     * @return The {@link LineProcessorIndex} of the {@link Printable}, it has no {@link LineProcessor}s and no
+     * {@link KeywordMatcher} if the {@link Printable} is unknown.
+     */
+    public LineProcessorIndex get(Printable printable) {
+        LineProcessorIndex lineProcessorIndex = printableToLineProcessorIndexMap.get(printable);
+        return lineProcessorIndex == null ? EMPTY_INDEX : lineProcessorIndex;
+    }
+
+    /**
+     * @return The {@link #printableToLineProcessorIndexMap} field value.
+     */
+    public Map<Printable, LineProcessorIndex> getPrintableToLineProcessorIndexMap() {
+        return printableToLineProcessorIndexMap;
+    }
+
+    /**
+     * @return The {@link #modificationsNumber} field value.
+     */
+    public int getModificationsNumber() {
+        return modificationsNumber;
+    }
+}
@@ -0,0 +1,113 @@
+package com.credibledoc.enricher.line;
+
+import com.credibledoc.enricher.printable.Printable;
+import com.credibledoc.enricher.searchcommand.DeclarativeSearchCommand;
+import com.credibledoc.enricher.searchcommand.KeywordMatcher;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable data object. Contains the {@link LineProcessor}s of a {@link Printable} and the compiled keywords
+ * of their {@link DeclarativeSearchCommand}s. It is a part of the {@link LineProcessorDispatchTable}.
+ *
+ * @author Kyrylo Semenko
+ */
+public class LineProcessorIndex {
+
+    /**
+     * The {@link LineProcessor}s of a {@link Printable} in their order. The array should not be modified.
+     */
+    private final LineProcessor[] lineProcessors;
+
+    /**
+     * Unmodifiable view of the {@link #lineProcessors}.
+     */
+    private final List<LineProcessor> lineProcessorList;
+
+    /**
+     * Keywords of all {@link DeclarativeSearchCommand}s from the {@link #lineProcessors}.
+     * It is 'null' if no {@link DeclarativeSearchCommand} contains keywords.
+     */
+    private final KeywordMatcher keywordMatcher;
+
+    /**
+     * Indexes of the {@link DeclarativeSearchCommand#getIncludedKeywords()} in the {@link #keywordMatcher}
+     * by the {@link #lineProcessors} index. The value is 'null' for {@link LineProcessor}s with other
+     * {@link com.credibledoc.enricher.searchcommand.SearchCommand}s.
+     */
+    private final int[][] includedKeywordIndexes;
+
+    /**
+     * Indexes of the {@link DeclarativeSearchCommand#getExcludedKeywords()} in the {@link #keywordMatcher}
+     * by the {@link #lineProcessors} index.
+     */
+    private final int[][] excludedKeywordIndexes;
+
+    /**
+     * The {@link Printable#checkAllLineProcessors()} value at the time of the index creation.
+     */
+    private final boolean checkAllLineProcessors;
+
+    /**
+     * Constructor sets the fields:
+     * @param lineProcessors         {@link #lineProcessors}
+     * @param keywordMatcher         {@link #keywordMatcher}
+     * @param includedKeywordIndexes {@link #includedKeywordIndexes}
+     * @param excludedKeywordIndexes {@link #excludedKeywordIndexes}
+     * @param checkAllLineProcessors {@link #checkAllLineProcessors}
+     */
+    public LineProcessorIndex(LineProcessor[] lineProcessors, KeywordMatcher keywordMatcher,
+                              int[][] includedKeywordIndexes, int[][] excludedKeywordIndexes,
+                              boolean checkAllLineProcessors) {
+        this.lineProcessors = lineProcessors;
+        this.lineProcessorList = Collections.unmodifiableList(Arrays.asList(lineProcessors));
+        this.keywordMatcher = keywordMatcher;
+        this.includedKeywordIndexes = includedKeywordIndexes;
+        this.excludedKeywordIndexes = excludedKeywordIndexes;
+        this.checkAllLineProcessors = checkAllLineProcessors;
+    }
+
+    /**
+     * @return The {@link #lineProcessors} field value.
+     */
+    public LineProcessor[] getLineProcessors() {
+        return lineProcessors;
+    }
+
+    /**
+     * @return The {@link #lineProcessorList} field value.
+     */
+    public List<LineProcessor> getLineProcessorList() {
+        return lineProcessorList;
+    }
+
+    /**
+     * @return The {@link #keywordMatcher} field value.
+     */
+    public KeywordMatcher getKeywordMatcher() {
+        return keywordMatcher;
+    }
+
+    /**
+     * @return The {@link #includedKeywordIndexes} field value.
+     */
+    public int[][] getIncludedKeywordIndexes() {
+        return includedKeywordIndexes;
+    }
+
+    /**
+     * @return The {@link #excludedKeywordIndexes} field value.
+     */
+    public int[][] getExcludedKeywordIndexes() {
+        return excludedKeywordIndexes;
+    }
+
+    /**
+     * @return The {@link #checkAllLineProcessors} field value.
+     */
+    public boolean isCheckAllLineProcessors() {
+        return checkAllLineProcessors;
+    }
+}
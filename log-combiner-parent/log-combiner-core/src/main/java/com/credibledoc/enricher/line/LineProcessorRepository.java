@@ -1,7 +1,9 @@
 package com.credibledoc.enricher.line;
 
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.RandomAccess;
 
 /**
  * Stateful singleton. Repository of {@link LineProcessor}s.
@@ -10,9 +12,16 @@ import java.util.List;
  */
 public class LineProcessorRepository {
     /**
-     * All {@link LineProcessor}s of Visualizer.
+     * All {@link LineProcessor}s of Visualizer. Every modification of the list increments
+     * the {@link #modificationsNumber}.
      */
-    private List<LineProcessor> lineProcessors = new ArrayList<>();
+    private List<LineProcessor> lineProcessors = new LineProcessorList(new ArrayList<LineProcessor>());
+
+    /**
+     * Number of modifications of the {@link #lineProcessors} list. It is used for recognition
+     * of modifications after compilation of the {@link LineProcessorDispatchTable}.
+     */
+    private int modificationsNumber;
 
     /**
      * @return the {@link #lineProcessors} value
@@ -22,9 +31,59 @@ public class LineProcessorRepository {
     }
 
     /**
-     * @param lineProcessors see the {@link #lineProcessors} field
+     * @param lineProcessors see the {@link #lineProcessors} field, its modifications should be done
+     *                       by the {@link #getLineProcessors()} list
      */
     public void setLineProcessors(List<LineProcessor> lineProcessors) {
-        this.lineProcessors = lineProcessors;
+        this.lineProcessors = new LineProcessorList(lineProcessors);
+        modificationsNumber++;
+    }
+
+    /**
+     * @return The {@link #modificationsNumber} field value.
+     */
+    public int getModificationsNumber() {
+        return modificationsNumber;
+    }
+
+    /**
+     * A view of a list, it counts modifications in the {@link #modificationsNumber} field.
+     */
+    private class LineProcessorList extends AbstractList<LineProcessor> implements RandomAccess {
+        private final List<LineProcessor> list;
+
+        private LineProcessorList(List<LineProcessor> list) {
+            this.list = list;
+        }
+
+        @Override
+        public LineProcessor get(int index) {
+            return list.get(index);
+        }
+
+        @Override
+        public int size() {
+            return list.size();
+        }
+
+        @Override
+        public LineProcessor set(int index, LineProcessor lineProcessor) {
+            LineProcessor previous = list.set(index, lineProcessor);
+            modificationsNumber++;
+            return previous;
+        }
+
+        @Override
+        public void add(int index, LineProcessor lineProcessor) {
+            list.add(index, lineProcessor);
+            modificationsNumber++;
+        }
+
+        @Override
+        public LineProcessor remove(int index) {
+            LineProcessor removed = list.remove(index);
+            modificationsNumber++;
+            return removed;
+        }
     }
 }
@@ -2,6 +2,9 @@ package com.credibledoc.enricher.line;
 
 import com.credibledoc.enricher.context.EnricherContext;
 import com.credibledoc.enricher.printable.Printable;
+import com.credibledoc.enricher.searchcommand.DeclarativeSearchCommand;
+import com.credibledoc.enricher.searchcommand.KeywordMatcher;
+import com.credibledoc.enricher.searchcommand.SearchCommand;
 
 import java.util.*;
 
@@ -38,41 +41,119 @@ public class LineProcessorService {
      * Find {@link LineProcessor}s which belong to a {@link Printable}.
      * @param printable an object in the {@link LineProcessor#getPrintable()} value
      * @param enricherContext the current state
-     * @return list of {@link LineProcessor}s
+     * @return unmodifiable list of {@link LineProcessor}s
      */
     public List<LineProcessor> getLineProcessors(Printable printable, EnricherContext enricherContext) {
-        if (enricherContext.getPrintableToLineProcessorsMap().isEmpty()) {
-            initializeCache(enricherContext);
-        }
-        if (enricherContext.getPrintableToLineProcessorsMap().containsKey(printable)) {
-            return enricherContext.getPrintableToLineProcessorsMap().get(printable);
-        }
-        return Collections.emptyList();
+        return getLineProcessorIndex(printable, enricherContext).getLineProcessorList();
     }
 
     /**
-     * Evict the {@link EnricherContext#getPrintableToLineProcessorsMap()} cache and add all {@link LineProcessor}s
-     * to the {@link LineProcessorRepository}. Please use this method instead of direct addition to the
+     * Add all {@link LineProcessor}s to the {@link LineProcessorRepository} and compile the
+     * {@link LineProcessorDispatchTable}. Please use this method instead of direct addition to the
      * {@link #getLineProcessors(EnricherContext)} list.
      *
      * @param lineProcessors rules for searching and transformation.
      * @param enricherContext the current state
      */
     public void addAll(List<LineProcessor> lineProcessors, EnricherContext enricherContext) {
-        enricherContext.getPrintableToLineProcessorsMap().clear();
         enricherContext.getLineProcessorRepository().getLineProcessors().addAll(lineProcessors);
+        compile(enricherContext);
     }
 
-    private void initializeCache(EnricherContext enricherContext) {
-        for (LineProcessor lineProcessor : getLineProcessors(enricherContext)) {
+    /**
+     * Compile the {@link LineProcessorRepository} content to a new immutable {@link LineProcessorDispatchTable}
+     * and publish it in the {@link EnricherContext#getLineProcessorDispatchTable()} field.
+     * <p>
+     * For each {@link Printable} find its {@link LineProcessor}s and compile keywords of their
+     * {@link DeclarativeSearchCommand}s to a single {@link KeywordMatcher}.
+     *
+     * @param enricherContext the current state
+     * @return The new {@link LineProcessorDispatchTable}.
+     */
+    public LineProcessorDispatchTable compile(EnricherContext enricherContext) {
+        LineProcessorRepository lineProcessorRepository = enricherContext.getLineProcessorRepository();
+        List<LineProcessor> allLineProcessors = lineProcessorRepository.getLineProcessors();
+        Map<Printable, List<LineProcessor>> printableToLineProcessors = new LinkedHashMap<>();
+        for (LineProcessor lineProcessor : allLineProcessors) {
             Printable printable = lineProcessor.getPrintable();
-            if (enricherContext.getPrintableToLineProcessorsMap().containsKey(printable)) {
-                enricherContext.getPrintableToLineProcessorsMap().get(printable).add(lineProcessor);
-            } else {
-                List<LineProcessor> list = new ArrayList<>();
-                list.add(lineProcessor);
-                enricherContext.getPrintableToLineProcessorsMap().put(printable, list);
+            List<LineProcessor> list = printableToLineProcessors.get(printable);
+            if (list == null) {
+                list = new ArrayList<>();
+                printableToLineProcessors.put(printable, list);
+            }
+            list.add(lineProcessor);
+        }
+        Map<Printable, LineProcessorIndex> map = new HashMap<>();
+        for (Map.Entry<Printable, List<LineProcessor>> entry : printableToLineProcessors.entrySet()) {
+            map.put(entry.getKey(), createLineProcessorIndex(entry.getKey(), entry.getValue()));
+        }
+        LineProcessorDispatchTable lineProcessorDispatchTable =
+            new LineProcessorDispatchTable(map, lineProcessorRepository.getModificationsNumber());
+        enricherContext.setLineProcessorDispatchTable(lineProcessorDispatchTable);
+        return lineProcessorDispatchTable;
+    }
+
+    /**
+     * Return the {@link EnricherContext#getLineProcessorDispatchTable()}. It is compiled if it does not
+     * exist yet or if the {@link LineProcessorRepository} was modified after the compilation, see the
+     * {@link LineProcessorRepository#getModificationsNumber()} method. It should be called before report workers are started, then the workers
+     * share the same table.
+     *
+     * @param enricherContext the current state
+     * @return The current {@link LineProcessorDispatchTable}.
+     */
+    public LineProcessorDispatchTable getLineProcessorDispatchTable(EnricherContext enricherContext) {
+        LineProcessorDispatchTable lineProcessorDispatchTable = enricherContext.getLineProcessorDispatchTable();
+        if (lineProcessorDispatchTable == null ||
+            lineProcessorDispatchTable.getModificationsNumber() !=
+                enricherContext.getLineProcessorRepository().getModificationsNumber()) {
+            lineProcessorDispatchTable = compile(enricherContext);
+        }
+        return lineProcessorDispatchTable;
+    }
+
+    /**
+     * @param printable       an object in the {@link LineProcessor#getPrintable()} value
+     * @param enricherContext the current state
+     * @return The {@link LineProcessorIndex} of the {@link Printable} from the
+     * {@link #getLineProcessorDispatchTable(EnricherContext)}.
+     */
+    public LineProcessorIndex getLineProcessorIndex(Printable printable, EnricherContext enricherContext) {
+        return getLineProcessorDispatchTable(enricherContext).get(printable);
+    }
+
+    private LineProcessorIndex createLineProcessorIndex(Printable printable, List<LineProcessor> lineProcessors) {
+        List<String> keywords = new ArrayList<>();
+        for (LineProcessor lineProcessor : lineProcessors) {
+            SearchCommand searchCommand = lineProcessor.getSearchCommand();
+            if (searchCommand instanceof DeclarativeSearchCommand) {
+                keywords.addAll(((DeclarativeSearchCommand) searchCommand).getIncludedKeywords());
+                keywords.addAll(((DeclarativeSearchCommand) searchCommand).getExcludedKeywords());
+            }
+        }
+        KeywordMatcher keywordMatcher = keywords.isEmpty() ? null : new KeywordMatcher(keywords);
+        int[][] includedKeywordIndexes = new int[lineProcessors.size()][];
+        int[][] excludedKeywordIndexes = new int[lineProcessors.size()][];
+        for (int i = 0; i < lineProcessors.size(); i++) {
+            SearchCommand searchCommand = lineProcessors.get(i).getSearchCommand();
+            if (searchCommand instanceof DeclarativeSearchCommand) {
+                DeclarativeSearchCommand declarativeSearchCommand = (DeclarativeSearchCommand) searchCommand;
+                includedKeywordIndexes[i] =
+                    toKeywordIndexes(declarativeSearchCommand.getIncludedKeywords(), keywordMatcher);
+                excludedKeywordIndexes[i] =
+                    toKeywordIndexes(declarativeSearchCommand.getExcludedKeywords(), keywordMatcher);
             }
         }
+        return new LineProcessorIndex(lineProcessors.toArray(new LineProcessor[lineProcessors.size()]),
+            keywordMatcher, includedKeywordIndexes, excludedKeywordIndexes,
+            printable != null && printable.checkAllLineProcessors());
+    }
+
+    private int[] toKeywordIndexes(List<String> keywords, KeywordMatcher keywordMatcher) {
+        int[] result = new int[keywords.size()];
+        for (int i = 0; i < keywords.size(); i++) {
+            result[i] = keywordMatcher.getKeywordIndex(keywords.get(i));
+        }
+        return result;
     }
 }
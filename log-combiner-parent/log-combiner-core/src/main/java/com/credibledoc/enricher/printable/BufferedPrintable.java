@@ -0,0 +1,16 @@
+package com.credibledoc.enricher.printable;
+
+/**
+ * An optional extension of the {@link Printable} interface. Transformed lines of such {@link Printable}s
+ * are collected in the {@link #getOutputBuffer()} and written to the {@link #getPrintWriter()} in large chunks,
+ * see the {@link com.credibledoc.enricher.transformer.TransformerService#flush(Printable)} method.
+ *
+ * @author Kyrylo Semenko
+ */
+public interface BufferedPrintable extends Printable {
+
+    /**
+     * @return The buffer of this {@link Printable}. It should not be shared with other {@link Printable}s.
+     */
+    OutputBuffer getOutputBuffer();
+}
@@ -0,0 +1,316 @@
+package com.credibledoc.enricher.printable;
+
+import com.credibledoc.combiner.exception.CombinerRuntimeException;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Append-only list of transformed lines, see the {@link Printable#getCacheLines()} method.
+ * <p>
+ * Lines are held in memory until their total length exceeds the {@link #memoryThreshold}. Then all of them
+ * are moved (spilled) to a temporary file, so the memory contains the last lines only. The content is read
+ * sequentially by the {@link #iterator()} or {@link #appendTo(Appendable, String)} methods. Spilled lines
+ * are read by a single {@link RandomAccessFile}, the {@link #iterator()} reads them by blocks of
+ * {@link #READ_BLOCK_SIZE} bytes.
+ * <p>
+ * The {@link #close()} method closes the {@link RandomAccessFile} and deletes the temporary file.
+ *
+ * @author Kyrylo Semenko
+ */
+public class CacheLines extends AbstractList<String> implements Closeable {
+
+    /**
+     * The {@link System#getProperty(String)} key of the {@link #memoryThreshold} default value.
+     */
+    public static final String MEMORY_THRESHOLD = "cache.lines.memory.threshold";
+
+    /**
+     * The {@link #memoryThreshold} value if the {@link #MEMORY_THRESHOLD} property is not defined.
+     */
+    public static final long DEFAULT_MEMORY_THRESHOLD = 4L * 1024 * 1024;
+
+    private static final String TEMP_FILE_PREFIX = "cacheLines";
+    private static final int INITIAL_OFFSETS_LENGTH = 1024;
+
+    /**
+     * How many bytes of the {@link #spillFile} are read at once by the {@link #iterator()}.
+     */
+    private static final int READ_BLOCK_SIZE = 64 * 1024;
+
+    /**
+     * Maximal number of characters held in the {@link #memoryLines}. Values less than 1 mean the lines
+     * are never spilled to a file.
+     */
+    private final long memoryThreshold;
+
+    /**
+     * The last lines, not spilled to the {@link #spillFile} yet.
+     */
+    private final List<String> memoryLines = new ArrayList<>();
+
+    /**
+     * The sum of lengths of the {@link #memoryLines}.
+     */
+    private long memoryCharacters;
+
+    /**
+     * The temporary file with the first {@link #spilledSize} lines. It is 'null' until the first spill.
+     */
+    private File spillFile;
+
+    /**
+     * Appends lines to the {@link #spillFile}.
+     */
+    private DataOutputStream spillOutputStream;
+
+    /**
+     * Reads lines from the {@link #spillFile}. It is opened by the first reading and closed
+     * by the {@link #close()} method.
+     */
+    private RandomAccessFile spillReader;
+
+    /**
+     * Number of lines in the {@link #spillFile}.
+     */
+    private int spilledSize;
+
+    /**
+     * Number of bytes written to the {@link #spillFile}.
+     */
+    private long spillFileLength;
+
+    /**
+     * Positions of spilled lines in the {@link #spillFile}, used by the {@link #get(int)} method.
+     */
+    private long[] offsets = new long[0];
+
+    /**
+     * Create an instance with the {@link #memoryThreshold} from the {@link #MEMORY_THRESHOLD} system property
+     * or with the {@link #DEFAULT_MEMORY_THRESHOLD} value.
+     */
+    public CacheLines() {
+        this(Long.getLong(MEMORY_THRESHOLD, DEFAULT_MEMORY_THRESHOLD));
+    }
+
+    /**
+     * @param memoryThreshold see the {@link #memoryThreshold} field description.
+     */
+    public CacheLines(long memoryThreshold) {
+        this.memoryThreshold = memoryThreshold;
+    }
+
+    @Override
+    public boolean add(String line) {
+        memoryLines.add(line);
+        memoryCharacters += line.length();
+        modCount++;
+        if (memoryThreshold > 0 && memoryCharacters > memoryThreshold) {
+            spill();
+        }
+        return true;
+    }
+
+    private void spill() {
+        try {
+            if (spillFile == null) {
+                spillFile = File.createTempFile(TEMP_FILE_PREFIX, null);
+                spillOutputStream =
+                    new DataOutputStream(new BufferedOutputStream(new FileOutputStream(spillFile)));
+            }
+            for (String line : memoryLines) {
+                if (spilledSize == offsets.length) {
+                    offsets = Arrays.copyOf(offsets, Math.max(INITIAL_OFFSETS_LENGTH, offsets.length * 2));
+                }
+                offsets[spilledSize++] = spillFileLength;
+                byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+                spillOutputStream.writeInt(bytes.length);
+                spillOutputStream.write(bytes);
+                spillFileLength += 4 + bytes.length;
+            }
+            memoryLines.clear();
+            memoryCharacters = 0;
+        } catch (IOException e) {
+            throw new CombinerRuntimeException("Cannot spill cache lines to the file " + spillFile, e);
+        }
+    }
+
+    @Override
+    public String get(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size());
+        }
+        if (index >= spilledSize) {
+            return memoryLines.get(index - spilledSize);
+        }
+        try {
+            RandomAccessFile randomAccessFile = getSpillReader();
+            randomAccessFile.seek(offsets[index]);
+            byte[] bytes = new byte[randomAccessFile.readInt()];
+            randomAccessFile.readFully(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new CombinerRuntimeException("Cannot read the line " + index + " from the file " + spillFile, e);
+        }
+    }
+
+    /**
+     * Flush the {@link #spillOutputStream} and open the {@link #spillReader} if it is not opened yet.
+     */
+    private RandomAccessFile getSpillReader() throws IOException {
+        spillOutputStream.flush();
+        if (spillReader == null) {
+            spillReader = new RandomAccessFile(spillFile, "r");
+        }
+        return spillReader;
+    }
+
+    /**
+     * Read spilled lines from the index. The lines are read by a single {@link RandomAccessFile#readFully(byte[])}
+     * call. Its length is limited by the {@link #READ_BLOCK_SIZE}, but at least one line is read.
+     *
+     * @param fromIndex    the index of the first line
+     * @param spilledLines the number of spilled lines which can be read
+     * @param result       the read lines will be appended to this list
+     */
+    private void readSpilledLines(int fromIndex, int spilledLines, List<String> result) {
+        long start = offsets[fromIndex];
+        int toIndex = fromIndex + 1;
+        while (toIndex < spilledLines && getEndOffset(toIndex) - start <= READ_BLOCK_SIZE) {
+            toIndex++;
+        }
+        try {
+            RandomAccessFile randomAccessFile = getSpillReader();
+            byte[] bytes = new byte[(int) (getEndOffset(toIndex - 1) - start)];
+            randomAccessFile.seek(start);
+            randomAccessFile.readFully(bytes);
+            int position = 0;
+            for (int i = fromIndex; i < toIndex; i++) {
+                int length = (bytes[position] & 0xFF) << 24 | (bytes[position + 1] & 0xFF) << 16 |
+                    (bytes[position + 2] & 0xFF) << 8 | bytes[position + 3] & 0xFF;
+                result.add(new String(bytes, position + 4, length, StandardCharsets.UTF_8));
+                position += 4 + length;
+            }
+        } catch (IOException e) {
+            throw new CombinerRuntimeException("Cannot read cache lines from the file " + spillFile, e);
+        }
+    }
+
+    /**
+     * @return The position in the {@link #spillFile} after the spilled line.
+     */
+    private long getEndOffset(int index) {
+        return index + 1 < spilledSize ? offsets[index + 1] : spillFileLength;
+    }
+
+    @Override
+    public int size() {
+        return spilledSize + memoryLines.size();
+    }
+
+    /**
+     * Read lines sequentially, the spilled lines first. The spilled lines are read by blocks,
+     * so no stream stays opened when the iteration is stopped before its end.
+     */
+    @Override
+    public Iterator<String> iterator() {
+        if (spilledSize == 0) {
+            return memoryLines.iterator();
+        }
+        final int spilledLines = spilledSize;
+        final Iterator<String> memoryIterator = memoryLines.iterator();
+        return new Iterator<String>() {
+            private final List<String> block = new ArrayList<>();
+            private int blockIndex;
+            private int nextIndex;
+
+            @Override
+            public boolean hasNext() {
+                return nextIndex < spilledLines || memoryIterator.hasNext();
+            }
+
+            @Override
+            public String next() {
+                if (nextIndex >= spilledLines) {
+                    return memoryIterator.next();
+                }
+                if (blockIndex == block.size()) {
+                    block.clear();
+                    blockIndex = 0;
+                    readSpilledLines(nextIndex, spilledLines, block);
+                }
+                nextIndex++;
+                return block.get(blockIndex++);
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException("CacheLines is append-only");
+            }
+        };
+    }
+
+    /**
+     * Append all lines joined by the separator, the same as the {@link String#join(CharSequence, Iterable)}
+     * method does, but without a copy of all lines in memory.
+     *
+     * @param appendable the target
+     * @param separator  will be appended between lines
+     * @throws IOException if the appendable throws it
+     */
+    public void appendTo(Appendable appendable, String separator) throws IOException {
+        Iterator<String> iterator = iterator();
+        while (iterator.hasNext()) {
+            appendable.append(iterator.next());
+            if (iterator.hasNext()) {
+                appendable.append(separator);
+            }
+        }
+    }
+
+    @Override
+    public void clear() {
+        close();
+        memoryLines.clear();
+        memoryCharacters = 0;
+        modCount++;
+    }
+
+    /**
+     * Close the {@link #spillReader} and delete the temporary file. The spilled lines are lost.
+     */
+    @Override
+    public void close() {
+        if (spillFile != null) {
+            try {
+                spillOutputStream.close();
+                if (spillReader != null) {
+                    spillReader.close();
+                }
+            } catch (IOException e) {
+                throw new CombinerRuntimeException("Cannot close the file " + spillFile, e);
+            } finally {
+                if (!spillFile.delete()) {
+                    spillFile.deleteOnExit();
+                }
+                spillFile = null;
+                spillOutputStream = null;
+                spillReader = null;
+                spilledSize = 0;
+                spillFileLength = 0;
+                offsets = new long[0];
+            }
+        }
+    }
+}
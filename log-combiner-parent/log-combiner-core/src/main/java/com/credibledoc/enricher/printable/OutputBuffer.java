@@ -0,0 +1,99 @@
+package com.credibledoc.enricher.printable;
+
+import java.io.PrintWriter;
+
+/**
+ * Collects transformed lines of a {@link BufferedPrintable} and writes them to its
+ * {@link Printable#getPrintWriter()} in large chunks, see the {@link #isFull()} and
+ * {@link #flushTo(PrintWriter)} methods.
+ *
+ * @author Kyrylo Semenko
+ */
+public class OutputBuffer implements Appendable {
+
+    /**
+     * Default value of the {@link #capacity} field.
+     */
+    public static final int DEFAULT_CAPACITY = 64 * 1024;
+
+    /**
+     * Number of characters, when the content should be written out, see the {@link #isFull()} method.
+     */
+    private final int capacity;
+
+    /**
+     * The buffered content.
+     */
+    private final StringBuilder stringBuilder;
+
+    /**
+     * Reusable array for copying of the {@link #stringBuilder} content to a {@link PrintWriter}.
+     */
+    private char[] chunk = new char[0];
+
+    /**
+     * Create a buffer with the {@link #DEFAULT_CAPACITY}.
+     */
+    public OutputBuffer() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity see the {@link #capacity} field description.
+     */
+    public OutputBuffer(int capacity) {
+        this.capacity = capacity;
+        this.stringBuilder = new StringBuilder(capacity);
+    }
+
+    @Override
+    public OutputBuffer append(CharSequence charSequence) {
+        stringBuilder.append(charSequence);
+        return this;
+    }
+
+    @Override
+    public OutputBuffer append(CharSequence charSequence, int start, int end) {
+        stringBuilder.append(charSequence, start, end);
+        return this;
+    }
+
+    @Override
+    public OutputBuffer append(char character) {
+        stringBuilder.append(character);
+        return this;
+    }
+
+    /**
+     * @return Number of buffered characters.
+     */
+    public int length() {
+        return stringBuilder.length();
+    }
+
+    /**
+     * @return 'true' if the buffered content reached the {@link #capacity}.
+     */
+    public boolean isFull() {
+        return stringBuilder.length() >= capacity;
+    }
+
+    /**
+     * Write the buffered content to the {@link PrintWriter} without creation of a new {@link String}
+     * and clear the buffer. The {@link PrintWriter} is not flushed.
+     *
+     * @param printWriter the target
+     */
+    public void flushTo(PrintWriter printWriter) {
+        int length = stringBuilder.length();
+        if (length == 0) {
+            return;
+        }
+        if (chunk.length < length) {
+            chunk = new char[length];
+        }
+        stringBuilder.getChars(0, length, chunk, 0);
+        printWriter.write(chunk, 0, length);
+        stringBuilder.setLength(0);
+    }
+}
@@ -17,6 +17,7 @@ public interface Printable {
 
     /**
      * @return This list contains transformed lines prepared for printing by the {@link #getPrintWriter()}.
+     * Large reports can use the {@link CacheLines} implementation, which holds only a part of lines in memory.
      */
     List<String> getCacheLines();
 
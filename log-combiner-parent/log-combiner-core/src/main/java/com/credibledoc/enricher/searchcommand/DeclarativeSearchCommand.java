@@ -0,0 +1,100 @@
+package com.credibledoc.enricher.searchcommand;
+
+import com.credibledoc.combiner.log.buffered.LogBufferedReader;
+import com.credibledoc.enricher.printable.Printable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * A {@link SearchCommand} defined by keywords and an optional regex. The conditions are applied
+ * to the first line of a record.
+ * <p>
+ * The {@link com.credibledoc.enricher.transformer.TransformerService} does not call the
+ * {@link #isApplicable(Printable, List, LogBufferedReader)} method of these commands. Keywords of all
+ * {@link DeclarativeSearchCommand}s of a {@link Printable} are compiled to a single {@link KeywordMatcher},
+ * so the record is scanned once for all of them. That is why the method is final, please implement
+ * the {@link SearchCommand} interface for custom conditions.
+ *
+ * @author Kyrylo Semenko
+ */
+public class DeclarativeSearchCommand implements SearchCommand {
+
+    /**
+     * The first line of a record should contain at least one of these keywords. If the list is empty,
+     * this condition is satisfied by every line.
+     */
+    private List<String> includedKeywords = new ArrayList<>();
+
+    /**
+     * The first line of a record should not contain any of these keywords.
+     */
+    private List<String> excludedKeywords = new ArrayList<>();
+
+    /**
+     * (optional) if not 'null', the pattern should be found in the first line of a record.
+     * It is checked after the keywords.
+     */
+    private Pattern pattern;
+
+    @Override
+    public final boolean isApplicable(Printable printable, List<String> multiLine, LogBufferedReader logBufferedReader) {
+        String line = multiLine.get(0);
+        for (String excludedKeyword : excludedKeywords) {
+            if (line.contains(excludedKeyword)) {
+                return false;
+            }
+        }
+        if (!includedKeywords.isEmpty() && !containsAny(line)) {
+            return false;
+        }
+        return pattern == null || pattern.matcher(line).find();
+    }
+
+    private boolean containsAny(String line) {
+        for (String includedKeyword : includedKeywords) {
+            if (line.contains(includedKeyword)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return "DeclarativeSearchCommand{" +
+            "includedKeywords=" + includedKeywords +
+            ", excludedKeywords=" + excludedKeywords +
+            ", pattern=" + pattern +
+            '}';
+    }
+
+    /**
+     * @return The {@link #includedKeywords} field value.
+     */
+    public List<String> getIncludedKeywords() {
+        return includedKeywords;
+    }
+
+    /**
+     * @return The {@link #excludedKeywords} field value.
+     */
+    public List<String> getExcludedKeywords() {
+        return excludedKeywords;
+    }
+
+    /**
+     * @return The {@link #pattern} field value.
+     */
+    public Pattern getPattern() {
+        return pattern;
+    }
+
+    /**
+     * @param pattern see the {@link #pattern} field description.
+     */
+    public void setPattern(Pattern pattern) {
+        this.pattern = pattern;
+    }
+}
@@ -0,0 +1,189 @@
+package com.credibledoc.enricher.searchcommand;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+
+/**
+ * Immutable multi-keyword matcher (the Aho-Corasick automaton). It finds all keywords in a line
+ * in a single pass, independently of the number of keywords.
+ * <p>
+ * The automaton is compiled to a table of primitive transitions, so the {@link #search(String)} method
+ * does one array lookup per character without boxing and failure transitions.
+ * <p>
+ * Every keyword has its index, see the {@link #getKeywordIndex(String)} method.
+ *
+ * @author Kyrylo Semenko
+ */
+public class KeywordMatcher {
+
+    /**
+     * Characters with a code lower than this value are mapped to symbols by the {@link #asciiSymbols} table.
+     */
+    private static final int ASCII_SIZE_128 = 128;
+
+    /**
+     * Keywords and their indexes.
+     */
+    private final Map<String, Integer> keywordIndexes;
+
+    /**
+     * Sorted distinct characters of all keywords. The index of a character is its symbol,
+     * see the {@link #transitions} table.
+     */
+    private final char[] alphabet;
+
+    /**
+     * Symbols of ASCII characters, the symbol is the index of the character in the {@link #alphabet} or -1
+     * if the keywords do not contain the character.
+     */
+    private final int[] asciiSymbols = new int[ASCII_SIZE_128];
+
+    /**
+     * Transitions of the automaton states. The first index is a state number, the second index is a symbol,
+     * see the {@link #alphabet}. Failure transitions are already resolved in the table.
+     */
+    private final int[][] transitions;
+
+    /**
+     * Indexes of keywords found in the state, including keywords of the failure states.
+     * It is 'null' if the state has no keywords.
+     */
+    private final BitSet[] outputs;
+
+    /**
+     * Build the automaton.
+     *
+     * @param keywords not empty strings, duplicates are ignored
+     */
+    public KeywordMatcher(List<String> keywords) {
+        keywordIndexes = new LinkedHashMap<>();
+        List<Map<Character, Integer>> trie = new ArrayList<>();
+        List<BitSet> trieOutputs = new ArrayList<>();
+        addState(trie, trieOutputs);
+        for (String keyword : keywords) {
+            if (keyword.isEmpty()) {
+                throw new IllegalArgumentException("Empty keyword is not allowed");
+            }
+            if (!keywordIndexes.containsKey(keyword)) {
+                int keywordIndex = keywordIndexes.size();
+                keywordIndexes.put(keyword, keywordIndex);
+                addKeyword(keyword, keywordIndex, trie, trieOutputs);
+            }
+        }
+        alphabet = collectAlphabet(keywordIndexes.keySet());
+        Arrays.fill(asciiSymbols, -1);
+        for (int symbol = 0; symbol < alphabet.length && alphabet[symbol] < ASCII_SIZE_128; symbol++) {
+            asciiSymbols[alphabet[symbol]] = symbol;
+        }
+        transitions = new int[trie.size()][];
+        outputs = new BitSet[trie.size()];
+        compile(trie, trieOutputs);
+    }
+
+    private static int addState(List<Map<Character, Integer>> trie, List<BitSet> trieOutputs) {
+        trie.add(new HashMap<Character, Integer>());
+        trieOutputs.add(new BitSet());
+        return trie.size() - 1;
+    }
+
+    private static void addKeyword(String keyword, int keywordIndex, List<Map<Character, Integer>> trie,
+                                   List<BitSet> trieOutputs) {
+        int state = 0;
+        for (int i = 0; i < keyword.length(); i++) {
+            Character character = keyword.charAt(i);
+            Integer next = trie.get(state).get(character);
+            if (next == null) {
+                next = addState(trie, trieOutputs);
+                trie.get(state).put(character, next);
+            }
+            state = next;
+        }
+        trieOutputs.get(state).set(keywordIndex);
+    }
+
+    private static char[] collectAlphabet(Iterable<String> keywords) {
+        StringBuilder stringBuilder = new StringBuilder();
+        for (String keyword : keywords) {
+            stringBuilder.append(keyword);
+        }
+        char[] chars = stringBuilder.toString().toCharArray();
+        Arrays.sort(chars);
+        int size = 0;
+        for (int i = 0; i < chars.length; i++) {
+            if (i == 0 || chars[i] != chars[i - 1]) {
+                chars[size++] = chars[i];
+            }
+        }
+        return Arrays.copyOf(chars, size);
+    }
+
+    /**
+     * Fill the {@link #transitions} and {@link #outputs} in the breadth-first order of the trie, so the transitions
+     * of a failure state are always compiled before the transitions of the state.
+     */
+    private void compile(List<Map<Character, Integer>> trie, List<BitSet> trieOutputs) {
+        int[] failures = new int[trie.size()];
+        transitions[0] = new int[alphabet.length];
+        for (Map.Entry<Character, Integer> entry : trie.get(0).entrySet()) {
+            transitions[0][findSymbol(entry.getKey())] = entry.getValue();
+        }
+        Queue<Integer> queue = new ArrayDeque<>(trie.get(0).values());
+        while (!queue.isEmpty()) {
+            int state = queue.remove();
+            BitSet output = trieOutputs.get(state);
+            output.or(trieOutputs.get(failures[state]));
+            outputs[state] = output.isEmpty() ? null : output;
+            transitions[state] = transitions[failures[state]].clone();
+            for (Map.Entry<Character, Integer> entry : trie.get(state).entrySet()) {
+                int symbol = findSymbol(entry.getKey());
+                int child = entry.getValue();
+                failures[child] = transitions[failures[state]][symbol];
+                transitions[state][symbol] = child;
+                queue.add(child);
+            }
+        }
+    }
+
+    private int findSymbol(char character) {
+        if (character < ASCII_SIZE_128) {
+            return asciiSymbols[character];
+        }
+        int symbol = Arrays.binarySearch(alphabet, character);
+        return symbol < 0 ? -1 : symbol;
+    }
+
+    /**
+     * Find all keywords contained in the line.
+     *
+     * @param line the searched text
+     * @return Indexes of found keywords, see the {@link #getKeywordIndex(String)} method.
+     */
+    public BitSet search(String line) {
+        BitSet result = new BitSet(keywordIndexes.size());
+        int state = 0;
+        for (int i = 0; i < line.length(); i++) {
+            int symbol = findSymbol(line.charAt(i));
+            state = symbol == -1 ? 0 : transitions[state][symbol];
+            if (outputs[state] != null) {
+                result.or(outputs[state]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @param keyword one of the keywords from the constructor
+     * @return The index of the keyword in the {@link #search(String)} result or -1 if the keyword is unknown.
+     */
+    public int getKeywordIndex(String keyword) {
+        Integer index = keywordIndexes.get(keyword);
+        return index == null ? -1 : index;
+    }
+}
@@ -0,0 +1,148 @@
+package com.credibledoc.enricher.statistics;
+
+import com.credibledoc.enricher.printable.Printable;
+import com.credibledoc.enricher.searchcommand.SearchCommand;
+import com.credibledoc.enricher.transformer.Transformer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput statistics of {@link SearchCommand}s and {@link Transformer}s collected by the
+ * {@link com.credibledoc.enricher.transformer.TransformerService}. Counters are grouped by a
+ * {@link SearchCommand} or {@link Transformer} class and a {@link Printable}. They are found in two nested maps,
+ * so no key is created for a single invocation.
+ * <p>
+ * The statistics are collected only if the
+ * {@link com.credibledoc.enricher.context.EnricherContext#getEnricherStatistics()} is not 'null',
+ * see the {@link #ENABLED} system property.
+ *
+ * @author Kyrylo Semenko
+ */
+public class EnricherStatistics {
+
+    /**
+     * The {@link System#getProperty(String)} key. The statistics are enabled if its value is 'true'.
+     */
+    public static final String ENABLED = "enricher.statistics.enabled";
+
+    private static final String SEARCH_COMMAND = "SearchCommand";
+    private static final String TRANSFORMER = "Transformer";
+    private static final String REPORT_ROW_FORMAT = "%-12s %-60s %-40s %12s %12s %12s%n";
+
+    /**
+     * Counters of {@link SearchCommand#isApplicable} invocations, where a key is a {@link SearchCommand} class
+     * and a value is a map of counters of {@link Printable}s.
+     */
+    private final ConcurrentMap<Class<?>, ConcurrentMap<Printable, StatisticsCounter>> searchCommandCounters =
+        new ConcurrentHashMap<>();
+
+    /**
+     * Counters of {@link Transformer#transform} invocations, where a key is a {@link Transformer} class
+     * and a value is a map of counters of {@link Printable}s.
+     */
+    private final ConcurrentMap<Class<?>, ConcurrentMap<Printable, StatisticsCounter>> transformerCounters =
+        new ConcurrentHashMap<>();
+
+    /**
+     * @param searchCommand the measured instance
+     * @param printable     the report document
+     * @return The existing or a new {@link StatisticsCounter}.
+     */
+    public StatisticsCounter getSearchCommandCounter(SearchCommand searchCommand, Printable printable) {
+        return getCounter(searchCommandCounters, searchCommand.getClass(), printable);
+    }
+
+    /**
+     * @param transformer the measured instance
+     * @param printable   the report document
+     * @return The existing or a new {@link StatisticsCounter}.
+     */
+    public StatisticsCounter getTransformerCounter(Transformer transformer, Printable printable) {
+        return getCounter(transformerCounters, transformer.getClass(), printable);
+    }
+
+    private StatisticsCounter getCounter(
+        ConcurrentMap<Class<?>, ConcurrentMap<Printable, StatisticsCounter>> counters, Class<?> type,
+        Printable printable) {
+        ConcurrentMap<Printable, StatisticsCounter> printableCounters = counters.get(type);
+        if (printableCounters == null) {
+            ConcurrentMap<Printable, StatisticsCounter> newMap = new ConcurrentHashMap<>();
+            printableCounters = counters.putIfAbsent(type, newMap);
+            if (printableCounters == null) {
+                printableCounters = newMap;
+            }
+        }
+        StatisticsCounter statisticsCounter = printableCounters.get(printable);
+        if (statisticsCounter == null) {
+            StatisticsCounter newCounter = new StatisticsCounter();
+            statisticsCounter = printableCounters.putIfAbsent(printable, newCounter);
+            if (statisticsCounter == null) {
+                statisticsCounter = newCounter;
+            }
+        }
+        return statisticsCounter;
+    }
+
+    /**
+     * @return A table of all counters sorted by their duration, the slowest first.
+     */
+    public String createReport() {
+        List<Object[]> rows = new ArrayList<>();
+        addRows(rows, SEARCH_COMMAND, searchCommandCounters);
+        addRows(rows, TRANSFORMER, transformerCounters);
+        Collections.sort(rows, new Comparator<Object[]>() {
+            @Override
+            public int compare(Object[] first, Object[] second) {
+                long firstNanos = ((StatisticsCounter) first[3]).getNanos();
+                long secondNanos = ((StatisticsCounter) second[3]).getNanos();
+                return firstNanos < secondNanos ? 1 : (firstNanos == secondNanos ? 0 : -1);
+            }
+        });
+        StringBuilder stringBuilder = new StringBuilder();
+        stringBuilder.append(String.format(Locale.ROOT, REPORT_ROW_FORMAT,
+            "Kind", "Class", "Printable", "Invocations", "Hits", "Millis"));
+        for (Object[] row : rows) {
+            StatisticsCounter statisticsCounter = (StatisticsCounter) row[3];
+            stringBuilder.append(String.format(Locale.ROOT, REPORT_ROW_FORMAT, row[0], row[1], row[2],
+                statisticsCounter.getInvocations(), statisticsCounter.getHits(),
+                TimeUnit.NANOSECONDS.toMillis(statisticsCounter.getNanos())));
+        }
+        return stringBuilder.toString();
+    }
+
+    private void addRows(List<Object[]> rows, String kind,
+                         Map<Class<?>, ConcurrentMap<Printable, StatisticsCounter>> counters) {
+        for (Map.Entry<Class<?>, ConcurrentMap<Printable, StatisticsCounter>> typeEntry : counters.entrySet()) {
+            for (Map.Entry<Printable, StatisticsCounter> entry : typeEntry.getValue().entrySet()) {
+                Printable printable = entry.getKey();
+                String printableName = printable.getClass().getSimpleName() + "@" +
+                    Integer.toHexString(System.identityHashCode(printable));
+                rows.add(new Object[]{kind, typeEntry.getKey().getName(), printableName, entry.getValue()});
+            }
+        }
+    }
+
+    /**
+     * Clear all counters.
+     */
+    public void clear() {
+        searchCommandCounters.clear();
+        transformerCounters.clear();
+    }
+
+    @Override
+    public String toString() {
+        return "EnricherStatistics{" +
+            "searchCommandCounters=" + searchCommandCounters.size() +
+            ", transformerCounters=" + transformerCounters.size() +
+            '}';
+    }
+}
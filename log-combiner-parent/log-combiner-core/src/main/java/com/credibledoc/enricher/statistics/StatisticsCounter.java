@@ -0,0 +1,72 @@
+package com.credibledoc.enricher.statistics;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Thread-safe counters of a {@link com.credibledoc.enricher.searchcommand.SearchCommand}
+ * or {@link com.credibledoc.enricher.transformer.Transformer} class applied to a
+ * {@link com.credibledoc.enricher.printable.Printable}, see the {@link EnricherStatistics}.
+ *
+ * @author Kyrylo Semenko
+ */
+public class StatisticsCounter {
+
+    /**
+     * Number of invocations.
+     */
+    private final AtomicLong invocations = new AtomicLong();
+
+    /**
+     * Number of invocations with a positive result, an applicable line or a transformed line.
+     */
+    private final AtomicLong hits = new AtomicLong();
+
+    /**
+     * Duration of all invocations in nanoseconds.
+     */
+    private final AtomicLong nanos = new AtomicLong();
+
+    /**
+     * Record a single invocation.
+     *
+     * @param hit      'true' if the invocation has a positive result
+     * @param duration in nanoseconds
+     */
+    public void add(boolean hit, long duration) {
+        invocations.incrementAndGet();
+        if (hit) {
+            hits.incrementAndGet();
+        }
+        nanos.addAndGet(duration);
+    }
+
+    /**
+     * @return The {@link #invocations} field value.
+     */
+    public long getInvocations() {
+        return invocations.get();
+    }
+
+    /**
+     * @return The {@link #hits} field value.
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * @return The {@link #nanos} field value.
+     */
+    public long getNanos() {
+        return nanos.get();
+    }
+
+    @Override
+    public String toString() {
+        return "StatisticsCounter{" +
+            "invocations=" + invocations +
+            ", hits=" + hits +
+            ", nanos=" + nanos +
+            '}';
+    }
+}
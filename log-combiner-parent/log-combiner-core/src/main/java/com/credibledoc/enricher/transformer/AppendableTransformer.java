@@ -0,0 +1,38 @@
+package com.credibledoc.enricher.transformer;
+
+import com.credibledoc.combiner.context.CombinerContext;
+import com.credibledoc.combiner.log.buffered.LogBufferedReader;
+import com.credibledoc.enricher.printable.BufferedPrintable;
+import com.credibledoc.enricher.printable.Printable;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * An optional extension of the {@link Transformer} interface. It appends the transformed content
+ * to an {@link Appendable} instead of creation of a new {@link String}.
+ * <p>
+ * The {@link TransformerService} calls the
+ * {@link #transform(Printable, List, LogBufferedReader, CombinerContext, Appendable)} method
+ * for {@link BufferedPrintable}s and the
+ * {@link #transform(Printable, List, LogBufferedReader, CombinerContext)} method for other {@link Printable}s.
+ *
+ * @author Kyrylo Semenko
+ */
+public interface AppendableTransformer extends Transformer {
+
+    /**
+     * Transform log lines and append the result to the output.
+     *
+     * @param printable         a state of the document where the transformed line will be placed
+     * @param multiLine         one or more lines from the {@link LogBufferedReader}
+     * @param logBufferedReader the data source created from log files
+     * @param combinerContext   contains the actual state entities for the current application
+     * @param output            the {@link BufferedPrintable#getOutputBuffer()}. The transformed content should be
+     *                          appended without a line separator at the end, the separator will be appended by
+     *                          the {@link TransformerService} if something was appended.
+     * @throws IOException in case of an {@link Appendable} problem
+     */
+    void transform(Printable printable, List<String> multiLine, LogBufferedReader logBufferedReader,
+                   CombinerContext combinerContext, Appendable output) throws IOException;
+}
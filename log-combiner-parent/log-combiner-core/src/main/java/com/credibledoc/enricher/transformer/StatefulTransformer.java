@@ -0,0 +1,34 @@
+package com.credibledoc.enricher.transformer;
+
+import com.credibledoc.enricher.printable.Printable;
+
+import java.util.Map;
+
+/**
+ * A {@link Transformer} with a state, which is collected from transformed lines of a {@link Printable},
+ * for example a number of transformed lines or the last found thread name.
+ * <p>
+ * The state can be stored after a report is created and restored before the report is continued
+ * with new lines of the same log files, so the continued report is the same as the report created at once.
+ * The {@link Printable#getCacheLines()} are stored separately, they are not a part of the state.
+ *
+ * @author Kyrylo Semenko
+ */
+public interface StatefulTransformer extends Transformer {
+
+    /**
+     * @param printable the document which lines have been transformed
+     * @return The current state of transformation of the printable lines. Keys and values must not be 'null'.
+     * An empty map if there is no state.
+     */
+    Map<String, String> saveState(Printable printable);
+
+    /**
+     * Restore the state returned from the {@link #saveState(Printable)} method before the printable lines
+     * will be transformed.
+     *
+     * @param printable the document which lines will be transformed
+     * @param state     the state stored by the {@link #saveState(Printable)} method
+     */
+    void restoreState(Printable printable, Map<String, String> state);
+}
@@ -23,7 +23,8 @@ public interface Transformer {
      * @param logBufferedReader the data source created from log files
      * @param combinerContext contains the actual state entities for the current application
      * @return transformed string without a line separator at the end.
-     * It will be printed out immediately to the {@link Printable#getPrintWriter()}.
+     * It will be printed out to the {@link Printable#getPrintWriter()}, in case of a
+     * {@link com.credibledoc.enricher.printable.BufferedPrintable} through its output buffer.
      */
     String transform(Printable printable, List<String> multiLine, LogBufferedReader logBufferedReader, CombinerContext combinerContext);
 
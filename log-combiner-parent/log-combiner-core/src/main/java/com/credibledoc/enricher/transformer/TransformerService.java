@@ -1,13 +1,22 @@
 package com.credibledoc.enricher.transformer;
 
 import com.credibledoc.combiner.context.CombinerContext;
+import com.credibledoc.combiner.exception.CombinerRuntimeException;
 import com.credibledoc.combiner.log.buffered.LogBufferedReader;
 import com.credibledoc.enricher.context.EnricherContext;
+import com.credibledoc.enricher.printable.BufferedPrintable;
+import com.credibledoc.enricher.printable.OutputBuffer;
 import com.credibledoc.enricher.printable.Printable;
 import com.credibledoc.enricher.line.LineProcessor;
+import com.credibledoc.enricher.line.LineProcessorIndex;
 import com.credibledoc.enricher.line.LineProcessorService;
+import com.credibledoc.enricher.searchcommand.DeclarativeSearchCommand;
 import com.credibledoc.enricher.searchcommand.SearchCommand;
+import com.credibledoc.enricher.statistics.EnricherStatistics;
 
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.BitSet;
 import java.util.List;
 
 /**
@@ -18,6 +27,8 @@ import java.util.List;
  */
 public class TransformerService {
 
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+
     /**
      * Singleton.
      */
@@ -42,11 +53,22 @@ public class TransformerService {
      * Apply a {@link Transformer} to the multiLine
      *
      * <li>
-     * Write transformed lines to the {@link Printable#getPrintWriter()} object.
+     * Write transformed lines to the {@link Printable#getPrintWriter()} object. Lines of a {@link BufferedPrintable}
+     * are collected in its {@link OutputBuffer} and written out in chunks, {@link AppendableTransformer}s
+     * append them to the buffer directly. See the {@link #flush(Printable)} method.
+     *
+     * <li>
+     * The first line of the multiLine is scanned once for keywords of all {@link DeclarativeSearchCommand}s,
+     * see the {@link LineProcessorService#getLineProcessorIndex(Printable, EnricherContext)} method.
      *
      * <li>
      * If the {@link Printable#checkAllLineProcessors()} is 'false', only the first applicable {@link LineProcessor}
-     * will be processed. Else all applicable line processors will be processed.
+     * will be processed. Else all applicable line processors will be processed. The value is read when
+     * the {@link com.credibledoc.enricher.line.LineProcessorDispatchTable} is compiled.
+     *
+     * <li>
+     * If the {@link EnricherContext#getEnricherStatistics()} is not 'null', invocations of {@link SearchCommand}s
+     * and {@link Transformer}s are counted and measured.
      *
      * </ul>
      *
@@ -63,20 +85,146 @@ public class TransformerService {
                                   LogBufferedReader logBufferedReader,
                                   CombinerContext combinerContext,
                                   EnricherContext enricherContext) {
-        List<LineProcessor> lineProcessors = LineProcessorService.getInstance().getLineProcessors(printable, enricherContext);
-        for (LineProcessor lineProcessor : lineProcessors) {
-            boolean isApplicable = lineProcessor.getSearchCommand().isApplicable(printable, multiline, logBufferedReader);
+        LineProcessorIndex lineProcessorIndex =
+            LineProcessorService.getInstance().getLineProcessorIndex(printable, enricherContext);
+        LineProcessor[] lineProcessors = lineProcessorIndex.getLineProcessors();
+        int[][] includedKeywordIndexes = lineProcessorIndex.getIncludedKeywordIndexes();
+        boolean checkAllLineProcessors = lineProcessorIndex.isCheckAllLineProcessors();
+        EnricherStatistics enricherStatistics = enricherContext.getEnricherStatistics();
+        BitSet foundKeywords = null;
+        if (lineProcessorIndex.getKeywordMatcher() != null) {
+            foundKeywords = lineProcessorIndex.getKeywordMatcher().search(multiline.get(0));
+        }
+        for (int i = 0; i < lineProcessors.length; i++) {
+            LineProcessor lineProcessor = lineProcessors[i];
+            long start = enricherStatistics == null ? 0 : System.nanoTime();
+            boolean isApplicable;
+            if (includedKeywordIndexes[i] == null) {
+                isApplicable = lineProcessor.getSearchCommand().isApplicable(printable, multiline, logBufferedReader);
+            } else {
+                isApplicable = isApplicable(lineProcessorIndex, i, foundKeywords, multiline.get(0));
+            }
+            if (enricherStatistics != null) {
+                long end = System.nanoTime();
+                enricherStatistics.getSearchCommandCounter(lineProcessor.getSearchCommand(), printable)
+                    .add(isApplicable, end - start);
+                start = end;
+            }
             if (isApplicable) {
-                String transformed = lineProcessor.getTransformer()
-                    .transform(printable, multiline, logBufferedReader, combinerContext);
-                if (transformed != null) {
-                    printable.getPrintWriter().write(transformed + System.lineSeparator());
+                boolean transformed = transform(printable, lineProcessor.getTransformer(), multiline,
+                    logBufferedReader, combinerContext);
+                if (enricherStatistics != null) {
+                    enricherStatistics.getTransformerCounter(lineProcessor.getTransformer(), printable)
+                        .add(transformed, System.nanoTime() - start);
                 }
-                if (!printable.checkAllLineProcessors()) {
+                if (!checkAllLineProcessors) {
                     break;
                 }
             }
         }
     }
 
+    /**
+     * Apply the {@link Transformer} and write its result.
+     *
+     * @return 'true' if some content has been written
+     */
+    private boolean transform(Printable printable, Transformer transformer, List<String> multiline,
+                              LogBufferedReader logBufferedReader, CombinerContext combinerContext) {
+        if (printable instanceof BufferedPrintable) {
+            return transformToBuffer((BufferedPrintable) printable, transformer, multiline,
+                logBufferedReader, combinerContext);
+        }
+        String transformed = transformer.transform(printable, multiline, logBufferedReader, combinerContext);
+        if (transformed != null) {
+            PrintWriter printWriter = printable.getPrintWriter();
+            printWriter.write(transformed);
+            printWriter.write(LINE_SEPARATOR);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Append the transformed content to the {@link BufferedPrintable#getOutputBuffer()}
+     * and write the buffer out when it is full.
+     *
+     * @return 'true' if some content has been appended
+     */
+    private boolean transformToBuffer(BufferedPrintable printable, Transformer transformer, List<String> multiline,
+                                      LogBufferedReader logBufferedReader, CombinerContext combinerContext) {
+        OutputBuffer outputBuffer = printable.getOutputBuffer();
+        boolean result;
+        if (transformer instanceof AppendableTransformer) {
+            int length = outputBuffer.length();
+            try {
+                ((AppendableTransformer) transformer)
+                    .transform(printable, multiline, logBufferedReader, combinerContext, outputBuffer);
+            } catch (IOException e) {
+                throw new CombinerRuntimeException(e);
+            }
+            result = outputBuffer.length() > length;
+            if (result) {
+                outputBuffer.append(LINE_SEPARATOR);
+            }
+        } else {
+            String transformed = transformer.transform(printable, multiline, logBufferedReader, combinerContext);
+            result = transformed != null;
+            if (result) {
+                outputBuffer.append(transformed).append(LINE_SEPARATOR);
+            }
+        }
+        if (outputBuffer.isFull()) {
+            outputBuffer.flushTo(printable.getPrintWriter());
+        }
+        return result;
+    }
+
+    /**
+     * Write the content of the {@link BufferedPrintable#getOutputBuffer()} to the
+     * {@link Printable#getPrintWriter()} and flush the {@link PrintWriter}. It should be called before the
+     * {@link PrintWriter} is used directly, for example by a footer, and before it is closed.
+     *
+     * @param printable the report state, other than {@link BufferedPrintable}s are just flushed.
+     *                  Nothing happens if its {@link Printable#getPrintWriter()} is 'null'.
+     */
+    public void flush(Printable printable) {
+        PrintWriter printWriter = printable.getPrintWriter();
+        if (printWriter == null) {
+            return;
+        }
+        if (printable instanceof BufferedPrintable) {
+            ((BufferedPrintable) printable).getOutputBuffer().flushTo(printWriter);
+        }
+        printWriter.flush();
+    }
+
+    /**
+     * Check the conditions of a {@link DeclarativeSearchCommand} with keywords found by the
+     * {@link LineProcessorIndex#getKeywordMatcher()}.
+     */
+    private boolean isApplicable(LineProcessorIndex lineProcessorIndex, int index, BitSet foundKeywords, String line) {
+        for (int keywordIndex : lineProcessorIndex.getExcludedKeywordIndexes()[index]) {
+            if (foundKeywords.get(keywordIndex)) {
+                return false;
+            }
+        }
+        int[] includedKeywordIndexes = lineProcessorIndex.getIncludedKeywordIndexes()[index];
+        if (includedKeywordIndexes.length > 0) {
+            boolean found = false;
+            for (int keywordIndex : includedKeywordIndexes) {
+                if (foundKeywords.get(keywordIndex)) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) {
+                return false;
+            }
+        }
+        DeclarativeSearchCommand declarativeSearchCommand =
+            (DeclarativeSearchCommand) lineProcessorIndex.getLineProcessors()[index].getSearchCommand();
+        return declarativeSearchCommand.getPattern() == null || declarativeSearchCommand.getPattern().matcher(line).find();
+    }
+
 }
@@ -9,10 +9,19 @@ import org.w3c.dom.ls.LSSerializer;
 import org.xml.sax.InputSource;
 
 import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
 import java.io.StringReader;
+import java.util.BitSet;
 
 /**
  * Helps to format an unformatted xml into a pretty tree.
+ * <p>
+ * The {@link #prettyPrint(String, Appendable, int)} method is a streaming formatter, it does not create a DOM
+ * and writes the result straight into an {@link Appendable}. All methods can be used from many threads.
  * 
  * @author Kyrylo Semenko
  */
@@ -22,6 +31,37 @@ public class XmlFormatter {
         throw new CombinerRuntimeException("Don't instantiate this static helper, please");
     }
     
+    /**
+     * XML longer than this number of characters is not formatted by the {@link #getPrettyString(String, boolean)}
+     * method, see the {@link #prettyPrint(String, Appendable, int)} method.
+     */
+    public static final int DEFAULT_MAX_LENGTH = 1024 * 1024;
+
+    private static final String INDENT = "    ";
+
+    /**
+     * The property of the JDK {@link XMLInputFactory}, CDATA sections are reported as
+     * {@link XMLStreamConstants#CDATA} events, so they are not lost.
+     */
+    private static final String REPORT_CDATA_EVENT = "http://java.sun.com/xml/stream/properties/report-cdata-event";
+
+    /**
+     * {@link XMLInputFactory} is not guaranteed to be thread-safe, so each thread has its own instance.
+     */
+    private static final ThreadLocal<XMLInputFactory> xmlInputFactory = new ThreadLocal<XMLInputFactory>() {
+        @Override
+        protected XMLInputFactory initialValue() {
+            XMLInputFactory factory = XMLInputFactory.newInstance();
+            factory.setProperty(XMLInputFactory.IS_COALESCING, Boolean.FALSE);
+            if (factory.isPropertySupported(REPORT_CDATA_EVENT)) {
+                factory.setProperty(REPORT_CDATA_EVENT, Boolean.TRUE);
+            }
+            factory.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+            factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+            return factory;
+        }
+    };
+
     private static final DocumentBuilderFactory documentBuilderFactory;
 
     private static final LSSerializer writer;
@@ -50,25 +90,9 @@ public class XmlFormatter {
      */
     public static String getPrettyString(String xml, boolean suppressException) {
         try {
-            boolean hasHeader = xml.contains("?xml");
-            String lineEnding = FileService.findLineEndingIfExists(xml);
-
-            // Save a header unchanged
-            int headerEndIndex = 0;
-            if (hasHeader) {
-                int headerEnd = xml.indexOf(">");
-                headerEndIndex = xml.indexOf("<", headerEnd);
-            }
-            
-            String formattedXml = format(xml, false);
-
-            // Save a header unchanged
-            String header = xml.substring(0, headerEndIndex);
-            String headerAndXml = header + formattedXml;
-            if (lineEnding != null) {
-                return headerAndXml.replaceAll(FileService.ANY_LINE_ENDING, lineEnding);
-            }
-            return headerAndXml;
+            StringBuilder stringBuilder = new StringBuilder(xml.length() + xml.length() / 2);
+            prettyPrint(xml, stringBuilder, DEFAULT_MAX_LENGTH);
+            return stringBuilder.toString();
         } catch (Exception e) {
             if (suppressException) {
                 return xml;
@@ -87,7 +111,235 @@ public class XmlFormatter {
     }
 
     /**
-     * Format the source XML.
+     * Format the xml and append it to the output, let its header (if any) unchanged. The source is parsed
+     * by a {@link XMLStreamReader} and written event by event with indentation of nested elements, like the
+     * {@link #format(String, boolean)} method does. Whitespace between elements is replaced by line endings
+     * of the source or by the {@link System#lineSeparator()} if the source has no line endings.
+     * <p>
+     * Elements with text and CDATA content only are not indented inside. In mixed content every text
+     * is trimmed and written on its own line like child elements, comments and processing instructions.
+     * CDATA sections are written unchanged.
+     * <p>
+     * In case of an invalid XML an exception is thrown, a part of the output may be appended already.
+     *
+     * @param xml       the source XML
+     * @param output    the target, for example a {@link StringBuilder}
+     *                  or {@link com.credibledoc.enricher.printable.OutputBuffer}
+     * @param maxLength if the source is longer, it will be appended unformatted
+     */
+    public static void prettyPrint(String xml, Appendable output, int maxLength) {
+        try {
+            if (xml.length() > maxLength) {
+                output.append(xml);
+                return;
+            }
+            String lineEnding = FileService.findLineEndingIfExists(xml);
+            if (lineEnding == null) {
+                lineEnding = System.lineSeparator();
+            }
+
+            // Save a header unchanged
+            int headerEndIndex = 0;
+            if (xml.contains("?xml")) {
+                int headerEnd = xml.indexOf(">");
+                headerEndIndex = Math.max(0, xml.indexOf("<", headerEnd));
+                output.append(xml, 0, headerEndIndex);
+            }
+            XMLStreamReader reader = xmlInputFactory.get()
+                .createXMLStreamReader(new StringReader(xml.substring(headerEndIndex)));
+            try {
+                writeEvents(reader, output, lineEnding);
+            } finally {
+                reader.close();
+            }
+        } catch (IOException | XMLStreamException e) {
+            throw new CombinerRuntimeException(e);
+        }
+    }
+
+    private static void writeEvents(XMLStreamReader reader, Appendable output, String lineEnding)
+        throws XMLStreamException, IOException {
+        int depth = 0;
+        boolean startTagOpen = false;
+        // elements with child elements, comments or processing instructions, their content is indented
+        BitSet blockElements = new BitSet();
+        // text and CDATA of the current element, it is written when the kind of its content is known
+        StringBuilder text = new StringBuilder();
+        boolean textHasContent = false;
+        while (reader.hasNext()) {
+            int event = reader.next();
+            switch (event) {
+                case XMLStreamConstants.START_ELEMENT:
+                    if (depth > 0) {
+                        startTagOpen = startChild(startTagOpen, blockElements, text, textHasContent, output,
+                            lineEnding, depth);
+                        textHasContent = false;
+                    }
+                    writeStartTag(reader, output);
+                    startTagOpen = true;
+                    blockElements.clear(depth);
+                    depth++;
+                    break;
+                case XMLStreamConstants.END_ELEMENT:
+                    depth--;
+                    if (blockElements.get(depth)) {
+                        writeBlockText(text, textHasContent, output, lineEnding, depth + 1);
+                        newLine(output, lineEnding, depth);
+                    } else if (textHasContent) {
+                        startTagOpen = closeStartTag(startTagOpen, output);
+                        output.append(text);
+                    }
+                    text.setLength(0);
+                    textHasContent = false;
+                    if (startTagOpen) {
+                        output.append("/>");
+                        startTagOpen = false;
+                    } else {
+                        output.append("</");
+                        appendName(reader.getPrefix(), reader.getLocalName(), output);
+                        output.append('>');
+                    }
+                    blockElements.clear(depth);
+                    break;
+                case XMLStreamConstants.CHARACTERS:
+                case XMLStreamConstants.SPACE:
+                case XMLStreamConstants.CDATA:
+                    if (depth == 0) {
+                        break;
+                    }
+                    if (event == XMLStreamConstants.CDATA) {
+                        text.append("<![CDATA[").append(reader.getText()).append("]]>");
+                        textHasContent = true;
+                    } else {
+                        appendEscaped(reader.getText(), false, lineEnding, text);
+                        textHasContent = textHasContent || !reader.isWhiteSpace();
+                    }
+                    break;
+                case XMLStreamConstants.COMMENT:
+                case XMLStreamConstants.PROCESSING_INSTRUCTION:
+                    if (depth > 0) {
+                        startTagOpen = startChild(startTagOpen, blockElements, text, textHasContent, output,
+                            lineEnding, depth);
+                        textHasContent = false;
+                    }
+                    if (event == XMLStreamConstants.COMMENT) {
+                        output.append("<!--").append(reader.getText()).append("-->");
+                    } else {
+                        output.append("<?").append(reader.getPITarget()).append(' ')
+                            .append(reader.getPIData()).append("?>");
+                    }
+                    if (depth == 0) {
+                        output.append(lineEnding);
+                    }
+                    break;
+                case XMLStreamConstants.END_DOCUMENT:
+                    output.append(lineEnding);
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Prepare the output for a child element, comment or processing instruction. The parent element content
+     * is indented, its text before the child is written on its own line.
+     *
+     * @return Always 'false', the new value of the startTagOpen variable.
+     */
+    private static boolean startChild(boolean startTagOpen, BitSet blockElements, StringBuilder text,
+                                      boolean textHasContent, Appendable output, String lineEnding, int depth)
+        throws IOException {
+        closeStartTag(startTagOpen, output);
+        blockElements.set(depth - 1);
+        writeBlockText(text, textHasContent, output, lineEnding, depth);
+        text.setLength(0);
+        newLine(output, lineEnding, depth);
+        return false;
+    }
+
+    /**
+     * Write the trimmed text of mixed content on its own line. Whitespace-only text is ignored.
+     */
+    private static void writeBlockText(StringBuilder text, boolean textHasContent, Appendable output,
+                                       String lineEnding, int depth) throws IOException {
+        if (textHasContent) {
+            newLine(output, lineEnding, depth);
+            output.append(text.toString().trim());
+        }
+    }
+
+    /**
+     * @return Always 'false', the new value of the startTagOpen variable.
+     */
+    private static boolean closeStartTag(boolean startTagOpen, Appendable output) throws IOException {
+        if (startTagOpen) {
+            output.append('>');
+        }
+        return false;
+    }
+
+    private static void newLine(Appendable output, String lineEnding, int depth) throws IOException {
+        output.append(lineEnding);
+        for (int i = 0; i < depth; i++) {
+            output.append(INDENT);
+        }
+    }
+
+    private static void writeStartTag(XMLStreamReader reader, Appendable output) throws IOException {
+        output.append('<');
+        appendName(reader.getPrefix(), reader.getLocalName(), output);
+        for (int i = 0; i < reader.getAttributeCount(); i++) {
+            output.append(' ');
+            appendName(reader.getAttributePrefix(i), reader.getAttributeLocalName(i), output);
+            output.append("=\"");
+            appendEscaped(reader.getAttributeValue(i), true, null, output);
+            output.append('"');
+        }
+        for (int i = 0; i < reader.getNamespaceCount(); i++) {
+            String prefix = reader.getNamespacePrefix(i);
+            output.append(" xmlns");
+            if (prefix != null && !prefix.isEmpty()) {
+                output.append(':').append(prefix);
+            }
+            output.append("=\"");
+            appendEscaped(reader.getNamespaceURI(i), true, null, output);
+            output.append('"');
+        }
+    }
+
+    private static void appendName(String prefix, String localName, Appendable output) throws IOException {
+        if (prefix != null && !prefix.isEmpty()) {
+            output.append(prefix).append(':');
+        }
+        output.append(localName);
+    }
+
+    /**
+     * @param lineEnding replaces '\n' in text content, the parser normalizes all line endings to '\n'
+     */
+    private static void appendEscaped(String text, boolean attribute, String lineEnding, Appendable output)
+        throws IOException {
+        for (int i = 0; i < text.length(); i++) {
+            char character = text.charAt(i);
+            if (character == '&') {
+                output.append("&amp;");
+            } else if (character == '<') {
+                output.append("&lt;");
+            } else if (character == '>' && !attribute) {
+                output.append("&gt;");
+            } else if (character == '"' && attribute) {
+                output.append("&quot;");
+            } else if (character == '\n' && lineEnding != null) {
+                output.append(lineEnding);
+            } else {
+                output.append(character);
+            }
+        }
+    }
+
+    /**
+     * Format the source XML by a DOM serializer.
      * @param xml the source
      * @param keepDeclaration should be the xml header generated?
      * @return The formatted XML
@@ -96,8 +348,11 @@ public class XmlFormatter {
         try {
             final InputSource src = new InputSource(new StringReader(xml));
             final Node document = documentBuilderFactory.newDocumentBuilder().parse(src).getDocumentElement();
-            writer.getDomConfig().setParameter("xml-declaration", keepDeclaration);
-            return writer.writeToString(document);
+            // the serializer is shared and not thread-safe
+            synchronized (writer) {
+                writer.getDomConfig().setParameter("xml-declaration", keepDeclaration);
+                return writer.writeToString(document);
+            }
         } catch (Exception e) {
             throw new CombinerRuntimeException(e);
         }
@@ -0,0 +1,99 @@
+package com.credibledoc.enricher.line;
+
+import com.credibledoc.combiner.context.CombinerContext;
+import com.credibledoc.combiner.log.buffered.LogBufferedReader;
+import com.credibledoc.enricher.context.EnricherContext;
+import com.credibledoc.enricher.printable.Printable;
+import com.credibledoc.enricher.searchcommand.DeclarativeSearchCommand;
+import com.credibledoc.enricher.transformer.Transformer;
+import org.junit.Test;
+
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+/**
+ * The {@link LineProcessorDispatchTable} should be compiled again after every modification of the
+ * {@link LineProcessorRepository}, see the {@link LineProcessorService#getLineProcessorDispatchTable} method.
+ *
+ * @author Kyrylo Semenko
+ */
+public class LineProcessorServiceTest {
+
+    @Test
+    public void testRemoveAndAddWithSameNumber() {
+        Printable printable = new TestPrintable();
+        LineProcessor first = createLineProcessor(printable);
+        LineProcessor second = createLineProcessor(printable);
+        LineProcessor third = createLineProcessor(printable);
+        EnricherContext enricherContext = new EnricherContext().init();
+        LineProcessorService lineProcessorService = LineProcessorService.getInstance();
+        lineProcessorService.addAll(Arrays.asList(first, second), enricherContext);
+        LineProcessorDispatchTable lineProcessorDispatchTable =
+            lineProcessorService.getLineProcessorDispatchTable(enricherContext);
+        assertSame(lineProcessorDispatchTable, lineProcessorService.getLineProcessorDispatchTable(enricherContext));
+
+        List<LineProcessor> lineProcessors = lineProcessorService.getLineProcessors(enricherContext);
+        lineProcessors.remove(first);
+        lineProcessors.add(third);
+
+        assertNotSame(lineProcessorDispatchTable, lineProcessorService.getLineProcessorDispatchTable(enricherContext));
+        assertEquals(Arrays.asList(second, third), lineProcessorService.getLineProcessors(printable, enricherContext));
+
+        lineProcessors.set(0, first);
+        assertEquals(Arrays.asList(first, third), lineProcessorService.getLineProcessors(printable, enricherContext));
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    public void testPrintableToLineProcessorsMap() {
+        Printable printable = new TestPrintable();
+        LineProcessor lineProcessor = createLineProcessor(printable);
+        EnricherContext enricherContext = new EnricherContext().init();
+        LineProcessorService.getInstance().addAll(Collections.singletonList(lineProcessor), enricherContext);
+
+        assertEquals(Collections.singletonList(lineProcessor),
+            enricherContext.getPrintableToLineProcessorsMap().get(printable));
+
+        LineProcessorRepository lineProcessorRepository = new LineProcessorRepository();
+        lineProcessorRepository.setLineProcessors(new ArrayList<LineProcessor>());
+        enricherContext.setLineProcessorRepository(lineProcessorRepository);
+        assertEquals(0, enricherContext.getPrintableToLineProcessorsMap().size());
+    }
+
+    private LineProcessor createLineProcessor(Printable printable) {
+        DeclarativeSearchCommand declarativeSearchCommand = new DeclarativeSearchCommand();
+        declarativeSearchCommand.getIncludedKeywords().add("keyword");
+        Transformer transformer = new Transformer() {
+            @Override
+            public String transform(Printable printable, List<String> multiLine, LogBufferedReader logBufferedReader,
+                                    CombinerContext combinerContext) {
+                return multiLine.get(0);
+            }
+        };
+        return new LineProcessor(declarativeSearchCommand, transformer, printable);
+    }
+
+    private static class TestPrintable implements Printable {
+        @Override
+        public PrintWriter getPrintWriter() {
+            return null;
+        }
+
+        @Override
+        public List<String> getCacheLines() {
+            return new ArrayList<>();
+        }
+
+        @Override
+        public boolean checkAllLineProcessors() {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.credibledoc.enricher.printable;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests of the {@link CacheLines} list with lines spilled to a temporary file.
+ *
+ * @author Kyrylo Semenko
+ */
+public class CacheLinesTest {
+
+    @Test
+    public void testSpilledLines() throws IOException {
+        List<String> expected = new ArrayList<>();
+        StringBuilder joined = new StringBuilder();
+        try (CacheLines cacheLines = new CacheLines(20)) {
+            for (int i = 0; i < 100; i++) {
+                String line = "|Swimlane" + i + "|\n    :příliš žluťoučký " + i + ";";
+                expected.add(line);
+                joined.append(i == 0 ? "" : System.lineSeparator()).append(line);
+                cacheLines.add(line);
+            }
+            assertEquals(100, cacheLines.size());
+            assertEquals(expected.get(0), cacheLines.get(0));
+            assertEquals(expected.get(57), cacheLines.get(57));
+            assertEquals(expected.get(99), cacheLines.get(99));
+            assertEquals(expected, new ArrayList<>(cacheLines));
+
+            StringBuilder stringBuilder = new StringBuilder();
+            cacheLines.appendTo(stringBuilder, System.lineSeparator());
+            assertEquals(joined.toString(), stringBuilder.toString());
+
+            cacheLines.clear();
+            assertEquals(0, cacheLines.size());
+            cacheLines.add("after clear");
+            assertEquals("after clear", cacheLines.get(0));
+        }
+    }
+
+    @Test
+    public void testBlocksAndStoppedIteration() {
+        List<String> expected = new ArrayList<>();
+        try (CacheLines cacheLines = new CacheLines(1000)) {
+            for (int i = 0; i < 3000; i++) {
+                StringBuilder line = new StringBuilder("line " + i);
+                if (i % 500 == 0) {
+                    // longer than a block
+                    for (int k = 0; k < 10000; k++) {
+                        line.append(" ").append(k);
+                    }
+                }
+                expected.add(line.toString());
+                cacheLines.add(line.toString());
+            }
+            Iterator<String> iterator = cacheLines.iterator();
+            for (int i = 0; i < 5; i++) {
+                assertEquals(expected.get(i), iterator.next());
+            }
+            // the iteration is stopped, the next reading uses the same file reader
+            assertEquals(expected.get(2500), cacheLines.get(2500));
+            assertEquals(expected.get(1), cacheLines.get(1));
+            assertEquals(expected, new ArrayList<>(cacheLines));
+            assertEquals(expected.get(5), iterator.next());
+        }
+    }
+
+    @Test
+    public void testMemoryOnly() throws IOException {
+        try (CacheLines cacheLines = new CacheLines(0)) {
+            cacheLines.add("a");
+            cacheLines.add("b");
+            StringBuilder stringBuilder = new StringBuilder();
+            cacheLines.appendTo(stringBuilder, ",");
+            assertEquals("a,b", stringBuilder.toString());
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.credibledoc.enricher.searchcommand;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests of the {@link KeywordMatcher} and {@link DeclarativeSearchCommand}.
+ *
+ * @author Kyrylo Semenko
+ */
+public class KeywordMatcherTest {
+
+    @Test
+    public void testSearch() {
+        KeywordMatcher keywordMatcher = new KeywordMatcher(Arrays.asList("he", "she", "his", "hers", "|TRACE|", "she"));
+        assertEquals(-1, keywordMatcher.getKeywordIndex("unknown"));
+
+        BitSet found = keywordMatcher.search("ushers");
+        assertTrue(found.get(keywordMatcher.getKeywordIndex("he")));
+        assertTrue(found.get(keywordMatcher.getKeywordIndex("she")));
+        assertTrue(found.get(keywordMatcher.getKeywordIndex("hers")));
+        assertFalse(found.get(keywordMatcher.getKeywordIndex("his")));
+        assertFalse(found.get(keywordMatcher.getKeywordIndex("|TRACE|")));
+
+        found = keywordMatcher.search("2019-04-22 |TRACE| hi");
+        assertEquals(1, found.cardinality());
+        assertTrue(found.get(keywordMatcher.getKeywordIndex("|TRACE|")));
+    }
+
+    @Test
+    public void testSearchAsContains() {
+        List<String> keywords = Arrays.asList("aab", "ab", "ba", "bab", "\u0161a", "a\u0161\u0161", "b");
+        KeywordMatcher keywordMatcher = new KeywordMatcher(keywords);
+        char[] chars = {'a', 'b', '\u0161', 'x'};
+        Random random = new Random(1);
+        for (int i = 0; i < 1000; i++) {
+            StringBuilder line = new StringBuilder();
+            int length = random.nextInt(12);
+            for (int k = 0; k < length; k++) {
+                line.append(chars[random.nextInt(chars.length)]);
+            }
+            BitSet found = keywordMatcher.search(line.toString());
+            for (String keyword : keywords) {
+                assertEquals(line + " contains " + keyword, line.toString().contains(keyword),
+                    found.get(keywordMatcher.getKeywordIndex(keyword)));
+            }
+        }
+    }
+
+    @Test
+    public void testDeclarativeSearchCommand() {
+        DeclarativeSearchCommand searchCommand = new DeclarativeSearchCommand();
+        searchCommand.getIncludedKeywords().add("launched");
+        searchCommand.getExcludedKeywords().add("|TRACE|");
+        searchCommand.setPattern(Pattern.compile("\\d+ ms"));
+
+        assertTrue(searchCommand.isApplicable(null, Collections.singletonList("|INFO| launched in 15 ms"), null));
+        assertFalse(searchCommand.isApplicable(null, Collections.singletonList("|TRACE| launched in 15 ms"), null));
+        assertFalse(searchCommand.isApplicable(null, Collections.singletonList("|INFO| launched"), null));
+        assertFalse(searchCommand.isApplicable(null, Collections.singletonList("|INFO| finished in 15 ms"), null));
+    }
+}
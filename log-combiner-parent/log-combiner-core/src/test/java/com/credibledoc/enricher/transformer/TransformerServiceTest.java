@@ -0,0 +1,159 @@
+package com.credibledoc.enricher.transformer;
+
+import com.credibledoc.combiner.context.CombinerContext;
+import com.credibledoc.combiner.log.buffered.LogBufferedReader;
+import com.credibledoc.enricher.context.EnricherContext;
+import com.credibledoc.enricher.line.LineProcessor;
+import com.credibledoc.enricher.line.LineProcessorService;
+import com.credibledoc.enricher.printable.BufferedPrintable;
+import com.credibledoc.enricher.printable.OutputBuffer;
+import com.credibledoc.enricher.printable.Printable;
+import com.credibledoc.enricher.searchcommand.DeclarativeSearchCommand;
+import com.credibledoc.enricher.statistics.EnricherStatistics;
+import com.credibledoc.enricher.statistics.StatisticsCounter;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Transformation of lines to {@link Printable}s and {@link BufferedPrintable}s, see the
+ * {@link TransformerService#transformToReport} method.
+ *
+ * @author Kyrylo Semenko
+ */
+public class TransformerServiceTest {
+
+    @Test
+    public void testBufferedOutput() {
+        StringWriter stringWriter = new StringWriter();
+        final PrintWriter printWriter = new PrintWriter(stringWriter);
+        final OutputBuffer outputBuffer = new OutputBuffer(30);
+        BufferedPrintable printable = new BufferedPrintable() {
+            @Override
+            public OutputBuffer getOutputBuffer() {
+                return outputBuffer;
+            }
+
+            @Override
+            public PrintWriter getPrintWriter() {
+                return printWriter;
+            }
+
+            @Override
+            public List<String> getCacheLines() {
+                return new ArrayList<>();
+            }
+
+            @Override
+            public boolean checkAllLineProcessors() {
+                return true;
+            }
+        };
+        AppendableTransformer appendableTransformer = new AppendableTransformer() {
+            @Override
+            public void transform(Printable printable, List<String> multiLine, LogBufferedReader logBufferedReader,
+                                  CombinerContext combinerContext, Appendable output) throws IOException {
+                output.append("appended ").append(multiLine.get(0));
+            }
+
+            @Override
+            public String transform(Printable printable, List<String> multiLine, LogBufferedReader logBufferedReader,
+                                    CombinerContext combinerContext) {
+                return "returned " + multiLine.get(0);
+            }
+        };
+        Transformer transformer = new Transformer() {
+            @Override
+            public String transform(Printable printable, List<String> multiLine, LogBufferedReader logBufferedReader,
+                                    CombinerContext combinerContext) {
+                return "returned " + multiLine.get(0);
+            }
+        };
+        EnricherContext enricherContext = new EnricherContext().init();
+        List<LineProcessor> lineProcessors = new ArrayList<>();
+        lineProcessors.add(new LineProcessor(new DeclarativeSearchCommand(), appendableTransformer, printable));
+        lineProcessors.add(new LineProcessor(new DeclarativeSearchCommand(), transformer, printable));
+        LineProcessorService.getInstance().addAll(lineProcessors, enricherContext);
+
+        TransformerService transformerService = TransformerService.getInstance();
+        transformerService.transformToReport(printable, Collections.singletonList("a"), null, null, enricherContext);
+        String separator = System.lineSeparator();
+        assertEquals("", stringWriter.toString());
+        assertEquals(("appended a" + separator + "returned a" + separator).length(), outputBuffer.length());
+
+        transformerService.transformToReport(printable, Collections.singletonList("b"), null, null, enricherContext);
+        assertEquals("appended a" + separator + "returned a" + separator + "appended b" + separator,
+            stringWriter.toString());
+        transformerService.flush(printable);
+        assertEquals(0, outputBuffer.length());
+        assertEquals("appended a" + separator + "returned a" + separator +
+            "appended b" + separator + "returned b" + separator, stringWriter.toString());
+    }
+
+    @Test
+    public void testStatistics() {
+        StringWriter stringWriter = new StringWriter();
+        final PrintWriter printWriter = new PrintWriter(stringWriter);
+        Printable printable = new Printable() {
+            @Override
+            public PrintWriter getPrintWriter() {
+                return printWriter;
+            }
+
+            @Override
+            public List<String> getCacheLines() {
+                return new ArrayList<>();
+            }
+
+            @Override
+            public boolean checkAllLineProcessors() {
+                return false;
+            }
+        };
+        // a transformer hit is counted only when a line is written
+        Transformer transformer = new Transformer() {
+            @Override
+            public String transform(Printable printable, List<String> multiLine, LogBufferedReader logBufferedReader,
+                                    CombinerContext combinerContext) {
+                return multiLine.get(0).endsWith("skipped") ? null : multiLine.get(0);
+            }
+        };
+        DeclarativeSearchCommand searchCommand = new DeclarativeSearchCommand();
+        searchCommand.getIncludedKeywords().add("match");
+        EnricherContext enricherContext = new EnricherContext().init();
+        EnricherStatistics enricherStatistics = new EnricherStatistics();
+        enricherContext.setEnricherStatistics(enricherStatistics);
+        List<LineProcessor> lineProcessors = new ArrayList<>();
+        lineProcessors.add(new LineProcessor(searchCommand, transformer, printable));
+        LineProcessorService.getInstance().addAll(lineProcessors, enricherContext);
+
+        TransformerService transformerService = TransformerService.getInstance();
+        transformerService.transformToReport(printable, Collections.singletonList("match 1"), null, null, enricherContext);
+        transformerService.transformToReport(printable, Collections.singletonList("other"), null, null, enricherContext);
+        transformerService.transformToReport(printable, Collections.singletonList("match 2"), null, null, enricherContext);
+        transformerService.transformToReport(printable, Collections.singletonList("match skipped"), null, null,
+            enricherContext);
+
+        StatisticsCounter searchCommandCounter = enricherStatistics.getSearchCommandCounter(searchCommand, printable);
+        assertEquals(4, searchCommandCounter.getInvocations());
+        assertEquals(3, searchCommandCounter.getHits());
+        StatisticsCounter transformerCounter = enricherStatistics.getTransformerCounter(transformer, printable);
+        assertEquals(3, transformerCounter.getInvocations());
+        assertEquals(2, transformerCounter.getHits());
+        assertEquals("match 1" + System.lineSeparator() + "match 2" + System.lineSeparator(),
+            stringWriter.toString());
+        assertSame(transformerCounter, enricherStatistics.getTransformerCounter(transformer, printable));
+        String report = enricherStatistics.createReport();
+        assertTrue(report.contains(DeclarativeSearchCommand.class.getName()));
+        assertTrue(report.contains(transformer.getClass().getName()));
+    }
+}
@@ -1,5 +1,7 @@
 package com.credibledoc.enricher.xml;
 
+import com.credibledoc.combiner.exception.CombinerRuntimeException;
+import com.credibledoc.combiner.file.FileService;
 import org.junit.Assert;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -13,7 +15,13 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 
 @RunWith(Parameterized.class)
@@ -43,17 +51,74 @@ public class XmlFormatterTest {
     
     @Test
     public void getPrettyString() throws IOException {
-        File expectedFile = new File(dir, "expected.xml");
-        assertNotNull(expectedFile);
-        File sourceFile = new File(dir, "source.xml");
-        assertNotNull(sourceFile);
-        
-        String expected = new String(Files.readAllBytes(expectedFile.toPath()), StandardCharsets.UTF_8);
-        String source = new String(Files.readAllBytes(sourceFile.toPath()), StandardCharsets.UTF_8);
+        String expected = readFile("expected.xml");
+        String source = readFile("source.xml");
 
         String formattedXml = XmlFormatter.getPrettyString(source);
-        formattedXml = formattedXml.replace(" xmlns=\"http://www.nrf-arts.org/IXRetail/namespace\"", "");
-        Assert.assertEquals(expected, formattedXml);
+        Assert.assertEquals(expected, removeNamespace(formattedXml));
+    }
+
+    /**
+     * The streaming {@link XmlFormatter#prettyPrint(String, Appendable, int)} method should format the same way
+     * as the {@link XmlFormatter#format(String, boolean)} method used by the {@link XmlFormatter#getPrettyString}
+     * method before.
+     */
+    @Test
+    public void prettyPrintSameAsFormat() throws IOException {
+        String source = readFile("source.xml");
+        String formattedByDom;
+        try {
+            String lineEnding = FileService.findLineEndingIfExists(source);
+            int headerEndIndex = source.contains("?xml") ? source.indexOf("<", source.indexOf(">")) : 0;
+            formattedByDom = source.substring(0, headerEndIndex) + XmlFormatter.format(source, false);
+            if (lineEnding != null) {
+                formattedByDom = formattedByDom.replaceAll(FileService.ANY_LINE_ENDING, lineEnding);
+            }
+        } catch (CombinerRuntimeException e) {
+            // the XML is invalid
+            formattedByDom = source;
+        }
+        Assert.assertEquals(removeNamespace(formattedByDom), removeNamespace(XmlFormatter.getPrettyString(source)));
+    }
+
+    @Test
+    public void prettyPrintMaxLength() throws IOException {
+        String source = readFile("source.xml");
+        StringBuilder stringBuilder = new StringBuilder();
+        XmlFormatter.prettyPrint(source, stringBuilder, source.length() - 1);
+        assertEquals(source, stringBuilder.toString());
+    }
+
+    @Test
+    public void getPrettyStringManyThreads() throws Exception {
+        String expected = readFile("expected.xml");
+        final String source = readFile("source.xml");
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<String>> futures = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                futures.add(executorService.submit(new Callable<String>() {
+                    @Override
+                    public String call() {
+                        return XmlFormatter.getPrettyString(source);
+                    }
+                }));
+            }
+            for (Future<String> future : futures) {
+                assertEquals(expected, removeNamespace(future.get()));
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    private String readFile(String fileName) throws IOException {
+        File file = new File(dir, fileName);
+        return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+    }
+
+    private static String removeNamespace(String xml) {
+        return xml.replace(" xmlns=\"http://www.nrf-arts.org/IXRetail/namespace\"", "");
     }
     
 }
@@ -12,26 +12,41 @@ import com.credibledoc.combiner.log.buffered.LogBufferedReader;
 import com.credibledoc.combiner.log.reader.ReaderService;
 import com.credibledoc.combiner.node.file.NodeFile;
 import com.credibledoc.combiner.node.file.NodeFileService;
+import com.credibledoc.combiner.node.log.NodeLogService;
 import com.credibledoc.combiner.state.FilesMergerState;
+import com.credibledoc.combiner.state.IncrementalState;
+import com.credibledoc.combiner.state.IncrementalStateService;
+import com.credibledoc.combiner.tactic.SingleLineRecordTactic;
 import com.credibledoc.combiner.tactic.Tactic;
 import com.credibledoc.combiner.tactic.TacticService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 /**
@@ -62,11 +77,14 @@ public class CombinerService {
      * Load configuration by calling the {@link ConfigService#loadConfig(String)} method.
      * <p>
      * If the configuration have no {@link Config#getTacticConfigs()} defined, all log files will be
-     * joined by calling the {@link #joinFiles(File, String)} method.
+     * joined by calling the {@link #joinFiles(File, Config)} method.
      * <p>
      * Else prepare a log files reader by calling the {@link #prepareReader(File, Config, CombinerContext)} method.
      * <p>
      * And finally combine files line by line by calling the {@link #combine(OutputStream, FilesMergerState, CombinerContext)} method.
+     * <p>
+     * If the {@link Config#getIncrementalStateFileName()} is defined, only new lines will be appended to the target
+     * file, see the {@link IncrementalStateService}.
      *
      * @param sourceFolder a folder with log files
      * @param configAbsolutePath this configuration file will be used for filling out a {@link Config} instance
@@ -77,14 +95,19 @@ public class CombinerService {
             Config config = new ConfigService().loadConfig(configAbsolutePath);
             if (config.getTacticConfigs().isEmpty()) {
                 logger.info("Configuration not found. Files will be joined by last modification time.");
-                joinFiles(sourceFolder, config.getTargetFileName());
+                joinFiles(sourceFolder, config);
                 return;
             }
             prepareReader(sourceFolder, config, combinerContext);
             File targetFile = prepareTargetFile(sourceFolder, config.getTargetFileName());
+            if (config.getIncrementalStateFileName() != null) {
+                combineIncrementally(sourceFolder, targetFile, config, combinerContext);
+                return;
+            }
             try (OutputStream outputStream = new BufferedOutputStream(new FileOutputStream(targetFile))) {
                 FilesMergerState filesMergerState = new FilesMergerState();
                 filesMergerState.setNodeFiles(combinerContext.getNodeFileRepository().getNodeFiles());
+                filesMergerState.setLineFilter(config.getLineFilter());
 
                 combine(outputStream, filesMergerState, combinerContext);
             }
@@ -95,6 +118,31 @@ public class CombinerService {
         }
     }
 
+    private void combineIncrementally(File sourceFolder, File targetFile, Config config,
+                                      CombinerContext combinerContext) throws IOException {
+        IncrementalStateService incrementalStateService = IncrementalStateService.getInstance();
+        File stateFile = new File(sourceFolder, config.getIncrementalStateFileName());
+        boolean append = targetFile.exists() && stateFile.exists();
+        IncrementalState incrementalState = append ? incrementalStateService.load(stateFile) : new IncrementalState();
+
+        FilesMergerState filesMergerState = new FilesMergerState();
+        filesMergerState.setNodeFiles(combinerContext.getNodeFileRepository().getNodeFiles());
+        filesMergerState.setLineFilter(config.getLineFilter());
+        incrementalStateService.prepareReaders(incrementalState, filesMergerState);
+        Date maxDate = incrementalStateService.findMaxDate(filesMergerState.getNodeFiles(),
+            config.getIncrementalWatermarkMillis());
+        if (maxDate != null) {
+            filesMergerState.setMaxDate(maxDate);
+            try (OutputStream outputStream = new BufferedOutputStream(new FileOutputStream(targetFile, append))) {
+                combine(outputStream, filesMergerState, combinerContext);
+            }
+        }
+        incrementalStateService.updateState(incrementalState, filesMergerState);
+        incrementalStateService.save(incrementalState, stateFile);
+        logger.info("New lines combined to '{}', records after '{}' are held back for the next run",
+            targetFile.getAbsolutePath(), maxDate);
+    }
+
     /**
      * Merge files with default {@link Config}.
      * @param outputStream target stream for merged lines
@@ -114,9 +162,11 @@ public class CombinerService {
         try {
             line = readerService.readLineFromReaders(filesMergerState);
             logBufferedReader = filesMergerState.getCurrentNodeFile().getLogBufferedReader();
-            int endIndex = Math.max(line.length(), 35);
-            String substring = line.substring(0, endIndex);
-            logger.trace("The first line is read from {}. Line: '{}...'", getClass().getSimpleName(), substring);
+            if (line != null) {
+                int endIndex = Math.min(line.length(), 35);
+                String substring = line.substring(0, endIndex);
+                logger.trace("The first line is read from {}. Line: '{}...'", getClass().getSimpleName(), substring);
+            }
             while (line != null) {
                 List<String> multiline = readerService.readMultiline(line, logBufferedReader, combinerContext);
 
@@ -148,7 +198,12 @@ public class CombinerService {
      * <p>
      * Add created {@link Tactic} instances to the {@link com.credibledoc.combiner.tactic.TacticService}.
      * <p>
+     * Collect log files from the folder except the target file. In the incremental mode empty files and
+     * the incremental state file are excluded too.
+     * <p>
      * Call the {@link TacticService#prepareReaders(List, CombinerContext)} method.
+     * <p>
+     * Apply time offsets of nodes, see the {@link NodeLogService#applyTimeOffsets(Config, CombinerContext)} method.
      *
      * @param folder the folder with log files
      * @param config contains configuration of {@link Config#getTacticConfigs()}
@@ -166,9 +221,69 @@ public class CombinerService {
         }
         FileWithSources source = new FileWithSources();
         source.getSources().add(folder);
-        List<FileWithSources> files = FileService.getInstance().collectFiles(source);
+        List<FileWithSources> files;
+        if (config.getIncrementalStateFileName() == null) {
+            files = FileService.getInstance().collectFiles(source);
+        } else {
+            files = collectFilesInPlace(source);
+        }
+        excludeOwnFiles(folder, config, files);
 
         tacticService.prepareReaders(files, combinerContext);
+        NodeLogService.getInstance().applyTimeOffsets(config, combinerContext);
+    }
+
+    /**
+     * Collect files of the incremental mode. The files are read in place, because their offsets are stored
+     * in the incremental state. Compressed files are decompressed to a temporary directory, a subdirectory with
+     * the node name is created for each node.
+     */
+    private List<FileWithSources> collectFilesInPlace(FileWithSources source) {
+        FileService fileService = FileService.getInstance();
+        List<FileWithSources> files = fileService.collectFiles(Collections.singletonList(source), false, null);
+        File tempDirectory = null;
+        List<FileWithSources> result = new ArrayList<>(files.size());
+        try {
+            for (FileWithSources fileWithSources : files) {
+                File file = fileWithSources.getFile();
+                if (!fileService.canBeDecompressed(file.getName())) {
+                    result.add(fileWithSources);
+                    continue;
+                }
+                if (tempDirectory == null) {
+                    tempDirectory = Files.createTempDirectory(ReaderService.COMBINER_CORE_MODULE_NAME).toFile();
+                    tempDirectory.deleteOnExit();
+                }
+                FileWithSources compressed = new FileWithSources();
+                compressed.getSources().addAll(fileWithSources.getSources());
+                File nodeDirectory = new File(tempDirectory, file.getParentFile().getName());
+                result.addAll(fileService.collectFiles(compressed, true, nodeDirectory));
+            }
+        } catch (IOException e) {
+            throw new CombinerRuntimeException("Cannot create a temporary directory.", e);
+        }
+        return result;
+    }
+
+    /**
+     * Remove the target file of a previous run. In the incremental mode remove the incremental state file
+     * and empty files, for example just rotated logs.
+     */
+    private void excludeOwnFiles(File folder, Config config, List<FileWithSources> files) {
+        File targetFile = new File(folder, config.getTargetFileName());
+        File stateFile = config.getIncrementalStateFileName() == null ? null :
+            new File(folder, config.getIncrementalStateFileName());
+        Iterator<FileWithSources> iterator = files.iterator();
+        while (iterator.hasNext()) {
+            FileWithSources fileWithSources = iterator.next();
+            File file = fileWithSources.getFile();
+            File original = fileWithSources.getSources().get(fileWithSources.getSources().size() - 1);
+            boolean isEmpty = stateFile != null && file.length() == 0;
+            if (original.equals(targetFile) || original.equals(stateFile) || isEmpty) {
+                logger.debug("File excluded from combining: '{}'", file.getAbsolutePath());
+                iterator.remove();
+            }
+        }
     }
 
     private void writeMultiline(Config config, OutputStream outputStream, NodeFileService nodeFileService,
@@ -192,38 +307,125 @@ public class CombinerService {
         }
     }
 
-    private void joinFiles(File folder, String targetFileName) throws IOException {
+    /**
+     * Join all files from the folder ordered by their last modification time. Each file is copied
+     * by the {@link FileChannel#transferTo(long, long, java.nio.channels.WritableByteChannel)} method,
+     * so the data are not copied through a buffer in the JVM.
+     * <p>
+     * Positions of the files in the target file are computed in advance, so if the {@link Config#getJoinThreads()}
+     * is greater than 1, the files are copied in parallel.
+     */
+    private void joinFiles(File folder, Config config) throws IOException {
         List<File> files = new ArrayList<>();
         collectFilesRecursively(folder, files);
+        File targetFile = prepareTargetFile(folder, config.getTargetFileName());
+        files.remove(targetFile);
+        // each file is touched once, the file can be modified during the joining
+        final Map<File, Long> lastModifiedMap = new HashMap<>();
+        Map<File, Long> lengthMap = new HashMap<>();
+        for (File file : files) {
+            lastModifiedMap.put(file, file.lastModified());
+            lengthMap.put(file, file.length());
+        }
         Collections.sort(files, new Comparator<File>() {
             @Override
             public int compare(File left, File right) {
-                if (left.lastModified() == right.lastModified()) {
-                    return 0;
-                }
-                return left.lastModified() > right.lastModified() ? 1 : -1;
+                return lastModifiedMap.get(left).compareTo(lastModifiedMap.get(right));
             }
         });
-        File targetFile = prepareTargetFile(folder, targetFileName);
-        byte[] buffer = new byte[1024];
-        try (OutputStream outputStream = new BufferedOutputStream(new FileOutputStream(targetFile))) {
-            for (File file : files) {
-                try (InputStream inputStream = new BufferedInputStream(new FileInputStream(file))) {
-                    int lengthRead;
-                    while ((lengthRead = inputStream.read(buffer)) > 0) {
-                        outputStream.write(buffer, 0, lengthRead);
-                    }
-                    if (file != files.get(files.size() - 1)) {
-                        outputStream.write(System.lineSeparator().getBytes());
-                        logger.info("File combined and line separator appended: '{}'", file.getAbsolutePath());
-                    } else {
-                        logger.info("File combined: '{}'", file.getAbsolutePath());
+        byte[] lineSeparator = System.lineSeparator().getBytes();
+        List<JoinedFile> joinedFiles = new ArrayList<>();
+        long position = 0;
+        for (int i = 0; i < files.size(); i++) {
+            File file = files.get(i);
+            boolean last = i == files.size() - 1;
+            joinedFiles.add(new JoinedFile(file, position, lengthMap.get(file), last ? null : lineSeparator));
+            position = position + lengthMap.get(file) + (last ? 0 : lineSeparator.length);
+        }
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(targetFile, "rw")) {
+            randomAccessFile.setLength(position);
+        }
+        int threads = Math.min(config.getJoinThreads(), files.size());
+        if (threads <= 1) {
+            for (JoinedFile joinedFile : joinedFiles) {
+                transferFile(joinedFile, targetFile);
+            }
+        } else {
+            transferFilesInParallel(joinedFiles, targetFile, threads);
+        }
+        logger.info("All files combined to '{}'", targetFile.getAbsolutePath());
+    }
+
+    private void transferFilesInParallel(List<JoinedFile> joinedFiles, final File targetFile, int threads) {
+        ExecutorService executorService = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Void>> futures = new ArrayList<>();
+            for (final JoinedFile joinedFile : joinedFiles) {
+                futures.add(executorService.submit(new Callable<Void>() {
+                    @Override
+                    public Void call() throws IOException {
+                        transferFile(joinedFile, targetFile);
+                        return null;
                     }
-                    outputStream.flush();
+                }));
+            }
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CombinerRuntimeException("Joining of files has been interrupted", e);
+        } catch (ExecutionException e) {
+            throw new CombinerRuntimeException("Cannot join files", e.getCause());
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    /**
+     * Copy the {@link JoinedFile#file} to its position in the target file. Every call opens its own target
+     * channel, so the method can be called from multiple threads.
+     */
+    private void transferFile(JoinedFile joinedFile, File targetFile) throws IOException {
+        try (FileChannel sourceChannel = new FileInputStream(joinedFile.file).getChannel();
+             FileChannel targetChannel = new RandomAccessFile(targetFile, "rw").getChannel()) {
+            targetChannel.position(joinedFile.position);
+            long transferred = 0;
+            while (transferred < joinedFile.length) {
+                long count = sourceChannel.transferTo(transferred, joinedFile.length - transferred, targetChannel);
+                if (count <= 0) {
+                    throw new CombinerRuntimeException("The file has been truncated during joining. File: '" +
+                        joinedFile.file.getAbsolutePath() + "'");
                 }
+                transferred = transferred + count;
+            }
+            if (joinedFile.lineSeparator != null) {
+                ByteBuffer byteBuffer = ByteBuffer.wrap(joinedFile.lineSeparator);
+                while (byteBuffer.hasRemaining()) {
+                    targetChannel.write(byteBuffer);
+                }
+                logger.info("File combined and line separator appended: '{}'", joinedFile.file.getAbsolutePath());
+            } else {
+                logger.info("File combined: '{}'", joinedFile.file.getAbsolutePath());
             }
         }
-        logger.info("All files combined to '{}'", targetFile.getAbsolutePath());
+    }
+
+    /**
+     * A source file of the {@link #joinFiles(File, Config)} method and its place in the target file.
+     */
+    private static class JoinedFile {
+        private final File file;
+        private final long position;
+        private final long length;
+        private final byte[] lineSeparator;
+
+        private JoinedFile(File file, long position, long length, byte[] lineSeparator) {
+            this.file = file;
+            this.position = position;
+            this.length = length;
+            this.lineSeparator = lineSeparator;
+        }
     }
 
     private void collectFilesRecursively(File folder, List<File> collectedFiles) {
@@ -258,12 +460,15 @@ public class CombinerService {
     }
 
     private Tactic createTactic(final TacticConfig tacticConfig) {
-        return new Tactic() {
+        return new SingleLineRecordTactic() {
                     private final SimpleDateFormat simpleDateFormat =
                         new SimpleDateFormat(tacticConfig.getSimpleDateFormat());
 
                     private final Pattern pattern = Pattern.compile(tacticConfig.getRegex());
 
+                    private final Pattern threadNamePattern = tacticConfig.getThreadNameRegex() == null ? null :
+                        Pattern.compile(tacticConfig.getThreadNameRegex());
+
                     @Override
                     public Date findDate(File file) {
                         Date date = DateService.getInstance()
@@ -297,7 +502,15 @@ public class CombinerService {
 
                     @Override
                     public String findThreadName(String line) {
-                        throw new CombinerRuntimeException(NOT_IMPLEMENTED);
+                        if (threadNamePattern == null) {
+                            throw new CombinerRuntimeException("The threadNameRegex is not defined in the " +
+                                "TacticConfig: " + tacticConfig);
+                        }
+                        Matcher matcher = threadNamePattern.matcher(line);
+                        if (!matcher.find()) {
+                            return null;
+                        }
+                        return matcher.groupCount() > 0 ? matcher.group(1) : matcher.group();
                     }
 
                     @Override
@@ -315,6 +528,11 @@ public class CombinerService {
                     public boolean identifyApplication(String line, LogBufferedReader logBufferedReader) {
                         return containsDate(line);
                     }
+
+                    @Override
+                    public boolean isSingleLineRecords() {
+                        return tacticConfig.isSingleLineRecords();
+                    }
         };
     }
 
@@ -3,8 +3,11 @@ package com.credibledoc.combiner;
 import com.credibledoc.combiner.config.Config;
 import com.credibledoc.combiner.config.ConfigService;
 import com.credibledoc.combiner.context.CombinerContext;
+import com.credibledoc.combiner.exception.CombinerRuntimeException;
+import com.credibledoc.combiner.filter.LineFilter;
 import com.credibledoc.combiner.log.buffered.LogBufferedReader;
 import com.credibledoc.combiner.log.reader.ReaderService;
+import com.credibledoc.combiner.node.log.NodeLog;
 import com.credibledoc.combiner.state.FilesMergerState;
 import org.junit.Rule;
 import org.junit.Test;
@@ -17,13 +20,19 @@ import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 public class CombinerServiceTest {
     private static final Logger logger = LoggerFactory.getLogger(CombinerServiceTest.class);
@@ -102,6 +111,344 @@ public class CombinerServiceTest {
         assertTrue(verifyFilesAreEqual(exemplarFile, targetFile));
     }
 
+    /**
+     * Estimate a clock skew of the node1 from lines with the same requestId.
+     */
+    @Test
+    public void testEstimateTimeOffsets() {
+        File configFile = new File("src/test/resources/time-offset-configuration/log-combiner.properties");
+        Config config = new ConfigService().loadConfig(configFile.getAbsolutePath());
+        File logDirectory = new File("src/test/resources/time-offset");
+        assertTrue(logDirectory.exists());
+
+        CombinerContext combinerContext = new CombinerContext().init();
+        CombinerService.getInstance().prepareReader(logDirectory, config, combinerContext);
+
+        for (NodeLog nodeLog : combinerContext.getNodeLogRepository().getNodeLogs()) {
+            long expected = "node1".equals(nodeLog.getName()) ? 1950 : 0;
+            assertEquals(expected, nodeLog.getTimeOffset());
+        }
+    }
+
+    /**
+     * Combine lines of nodes with a configured clock skew. Continuation lines of multi-line records
+     * follow their first lines.
+     */
+    @Test
+    public void testCombineWithTimeOffset() throws IOException {
+        List<String> expected = readLines("src/test/resources/multi-line-expected/combined.txt");
+        assertEquals(expected, combineMultiLine(loadMultiLineConfig(), null));
+        assertEquals(8, countMultiLineRecords(loadMultiLineConfig()));
+    }
+
+    /**
+     * Every line is a separate record if the singleLineRecords property is declared, so the continuation lines
+     * are not searched. The lines without a date stay after the previous line of their file.
+     */
+    @Test
+    public void testCombineSingleLineRecords() throws IOException {
+        Config config = loadMultiLineConfig();
+        config.getTacticConfigs().get(0).setSingleLineRecords(true);
+        List<String> expected = readLines("src/test/resources/multi-line-expected/combined.txt");
+        assertEquals(expected, combineMultiLine(config, null));
+        assertEquals(12, countMultiLineRecords(config));
+    }
+
+    /**
+     * Combine only records applicable to the {@link LineFilter}. Continuation lines of the rejected records
+     * are skipped, continuation lines of the applicable records are combined.
+     */
+    @Test
+    public void testCombineWithLineFilter() throws IOException {
+        LineFilter lineFilter = new LineFilter();
+        lineFilter.getLiterals().add("Request");
+        lineFilter.setPattern(Pattern.compile("requestId=r1"));
+
+        List<String> expected = readLines("src/test/resources/multi-line-expected/filtered.txt");
+        assertEquals(expected, combineMultiLine(loadMultiLineConfig(), lineFilter));
+    }
+
+    /**
+     * Combine records of the worker thread only. The thread names are found by the threadNameRegex property.
+     */
+    @Test
+    public void testCombineWithThreadNamesFilter() throws IOException {
+        File configFile = createConfig("filterThreadNames = worker", "threadNameRegex[0] = \\\\[([^\\\\]]+)\\\\]");
+        File logDirectory = copyMultiLineLogs();
+
+        CombinerService.getInstance().combine(logDirectory, configFile.getAbsolutePath(), new CombinerContext().init());
+
+        List<String> expected = new ArrayList<>();
+        for (String line : readLines("src/test/resources/multi-line-expected/combined.txt")) {
+            if (line.startsWith("node1 ")) {
+                expected.add(line);
+            }
+        }
+        assertEquals(6, expected.size());
+        assertEquals(expected, readLines(new File(logDirectory, "combined.txt").getPath()));
+    }
+
+    /**
+     * The filterThreadNames property cannot be used without the threadNameRegex property.
+     */
+    @Test
+    public void testThreadNamesFilterWithoutRegex() throws IOException {
+        File configFile = createConfig("filterThreadNames = worker");
+        try {
+            new ConfigService().loadConfig(configFile.getAbsolutePath());
+            fail("CombinerRuntimeException expected");
+        } catch (CombinerRuntimeException e) {
+            assertTrue(e.getCause().getMessage().contains("threadNameRegex[0]"));
+        }
+    }
+
+    /**
+     * @param properties added to the src/test/resources/time-offset-configuration properties
+     * @return A new configuration file in the {@link #temporaryFolder}.
+     */
+    private File createConfig(String... properties) throws IOException {
+        File configFile = temporaryFolder.newFile();
+        List<String> configLines = new ArrayList<>(
+            readLines("src/test/resources/time-offset-configuration/log-combiner.properties"));
+        configLines.add("nodeTimeOffset[node1] = 2000");
+        configLines.addAll(Arrays.asList(properties));
+        Files.write(configFile.toPath(), configLines, StandardCharsets.UTF_8);
+        return configFile;
+    }
+
+    /**
+     * @return A copy of the src/test/resources/multi-line folder in the {@link #temporaryFolder}.
+     */
+    private File copyMultiLineLogs() throws IOException {
+        File logDirectory = temporaryFolder.newFolder();
+        for (String node : Arrays.asList("node0", "node1")) {
+            File nodeDirectory = new File(logDirectory, node);
+            assertTrue(nodeDirectory.mkdir());
+            Files.copy(new File("src/test/resources/multi-line/" + node + "/app0.log").toPath(),
+                new File(nodeDirectory, "app0.log").toPath());
+        }
+        return logDirectory;
+    }
+
+    /**
+     * @return The configuration of the src/test/resources/multi-line logs, the node1 clock is behind
+     * the node0 clock.
+     */
+    private Config loadMultiLineConfig() {
+        File configFile = new File("src/test/resources/time-offset-configuration/log-combiner.properties");
+        Config config = new ConfigService().loadConfig(configFile.getAbsolutePath());
+        config.getNodeTimeOffsets().put("node1", 2000L);
+        return config;
+    }
+
+    /**
+     * Combine the src/test/resources/multi-line logs to a temporary file.
+     *
+     * @param config     see the {@link #loadMultiLineConfig()} method
+     * @param lineFilter can be 'null'
+     * @return Lines of the combined file.
+     */
+    private List<String> combineMultiLine(Config config, LineFilter lineFilter) throws IOException {
+        File logDirectory = new File("src/test/resources/multi-line");
+        CombinerContext combinerContext = new CombinerContext().init();
+        CombinerService combinerService = CombinerService.getInstance();
+        combinerService.prepareReader(logDirectory, config, combinerContext);
+
+        File targetFile = combinerService.prepareTargetFile(temporaryFolder.newFolder(), config.getTargetFileName());
+        try (OutputStream outputStream = new BufferedOutputStream(new FileOutputStream(targetFile))) {
+            FilesMergerState filesMergerState = new FilesMergerState();
+            filesMergerState.setNodeFiles(combinerContext.getNodeFileRepository().getNodeFiles());
+            filesMergerState.setLineFilter(lineFilter);
+
+            combinerService.combine(outputStream, filesMergerState, combinerContext);
+        }
+        return readLines(targetFile.getPath());
+    }
+
+    /**
+     * Read the src/test/resources/multi-line logs record by record.
+     *
+     * @return Number of records, a multi-line record is counted once.
+     */
+    private int countMultiLineRecords(Config config) {
+        CombinerContext combinerContext = new CombinerContext().init();
+        CombinerService.getInstance().prepareReader(new File("src/test/resources/multi-line"), config,
+            combinerContext);
+        FilesMergerState filesMergerState = new FilesMergerState();
+        filesMergerState.setNodeFiles(combinerContext.getNodeFileRepository().getNodeFiles());
+        ReaderService readerService = ReaderService.getInstance();
+        int records = 0;
+        String line = readerService.readLineFromReaders(filesMergerState);
+        while (line != null) {
+            LogBufferedReader logBufferedReader = filesMergerState.getCurrentNodeFile().getLogBufferedReader();
+            readerService.readMultiline(line, logBufferedReader, combinerContext);
+            records++;
+            line = readerService.readLineFromReaders(filesMergerState);
+        }
+        return records;
+    }
+
+    private List<String> readLines(String path) throws IOException {
+        return Files.readAllLines(new File(path).toPath(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Combine the same folder three times, the second time with appended lines,
+     * the third time with a rotated file. Only new lines are appended to the target file.
+     */
+    @Test
+    public void testCombineIncrementally() throws IOException {
+        File configFile = temporaryFolder.newFile("log-combiner.properties");
+        List<String> configLines = new ArrayList<>(
+            Files.readAllLines(new File("src/test/resources/time-offset-configuration/log-combiner.properties").toPath(),
+                StandardCharsets.UTF_8));
+        configLines.add("nodeTimeOffset[node1] = 2000");
+        configLines.add("incrementalStateFileName = combiner-state.properties");
+        configLines.add("incrementalWatermarkMillis = 500");
+        Files.write(configFile.toPath(), configLines, StandardCharsets.UTF_8);
+
+        File logDirectory = temporaryFolder.newFolder("incremental");
+        File node0 = new File(logDirectory, "node0");
+        File node1 = new File(logDirectory, "node1");
+        assertTrue(node0.mkdir() && node1.mkdir());
+        List<String> node0Lines = Files.readAllLines(new File("src/test/resources/time-offset/node0/app0.log").toPath(),
+            StandardCharsets.UTF_8);
+        List<String> node1Lines = Files.readAllLines(new File("src/test/resources/time-offset/node1/app0.log").toPath(),
+            StandardCharsets.UTF_8);
+        File node0Log = new File(node0, "app0.log");
+        File node1Log = new File(node1, "app0.log");
+        Files.write(node0Log.toPath(), node0Lines.subList(0, 2), StandardCharsets.UTF_8);
+        Files.write(node1Log.toPath(), node1Lines.subList(0, 2), StandardCharsets.UTF_8);
+
+        File targetFile = new File(logDirectory, "combined.txt");
+        List<String> expected = Files.readAllLines(
+            new File("src/test/resources/time-offset-expected/combined.txt").toPath(), StandardCharsets.UTF_8);
+
+        // all records are newer than the latest date minus the watermark
+        CombinerService.getInstance().combine(logDirectory, configFile.getAbsolutePath(), new CombinerContext().init());
+        assertEquals(0, Files.readAllLines(targetFile.toPath(), StandardCharsets.UTF_8).size());
+
+        Files.write(node0Log.toPath(), node0Lines.subList(2, 6), StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+        Files.write(node1Log.toPath(), node1Lines.subList(2, 6), StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+        CombinerService.getInstance().combine(logDirectory, configFile.getAbsolutePath(), new CombinerContext().init());
+        assertEquals(expected.subList(0, 8), Files.readAllLines(targetFile.toPath(), StandardCharsets.UTF_8));
+
+        File rotatedLog = new File(node1, "app0.log.1");
+        assertTrue(node1Log.renameTo(rotatedLog));
+        Files.write(node1Log.toPath(), Arrays.asList("22.04.2019 08:00:01.300 [worker] INFO Finished"),
+            StandardCharsets.UTF_8);
+        CombinerService.getInstance().combine(logDirectory, configFile.getAbsolutePath(), new CombinerContext().init());
+        assertEquals(expected, Files.readAllLines(targetFile.toPath(), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Join files without tactics ordered by their last modification time. The target file of the previous
+     * run is not joined.
+     */
+    /**
+     * The last line without a line ending is still being written. It is left for the next run
+     * and it is not split into two records.
+     */
+    @Test
+    public void testCombineIncrementallyUnterminatedLine() throws IOException {
+        File configFile = createIncrementalConfig(0);
+        File logDirectory = temporaryFolder.newFolder("unterminated");
+        File node0 = new File(logDirectory, "node0");
+        File node1 = new File(logDirectory, "node1");
+        assertTrue(node0.mkdir() && node1.mkdir());
+        List<String> node0Lines = Files.readAllLines(new File("src/test/resources/time-offset/node0/app0.log").toPath(),
+            StandardCharsets.UTF_8);
+        File node0Log = new File(node0, "app0.log");
+        Files.write(node0Log.toPath(), node0Lines.subList(0, 4), StandardCharsets.UTF_8);
+        String unterminatedLine = node0Lines.get(4);
+        int half = unterminatedLine.length() / 2;
+        Files.write(node0Log.toPath(), unterminatedLine.substring(0, half).getBytes(StandardCharsets.UTF_8),
+            StandardOpenOption.APPEND);
+        Files.copy(new File("src/test/resources/time-offset/node1/app0.log").toPath(),
+            new File(node1, "app0.log").toPath());
+
+        File targetFile = new File(logDirectory, "combined.txt");
+        List<String> expected = Files.readAllLines(
+            new File("src/test/resources/time-offset-expected/combined.txt").toPath(), StandardCharsets.UTF_8);
+
+        CombinerService.getInstance().combine(logDirectory, configFile.getAbsolutePath(), new CombinerContext().init());
+        List<String> firstRun = new ArrayList<>(expected.subList(0, 8));
+        firstRun.addAll(expected.subList(9, 11));
+        assertEquals(firstRun, Files.readAllLines(targetFile.toPath(), StandardCharsets.UTF_8));
+
+        String rest = unterminatedLine.substring(half) + System.lineSeparator() + node0Lines.get(5) +
+            System.lineSeparator();
+        Files.write(node0Log.toPath(), rest.getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+        CombinerService.getInstance().combine(logDirectory, configFile.getAbsolutePath(), new CombinerContext().init());
+        List<String> secondRun = new ArrayList<>(firstRun);
+        secondRun.add(expected.get(8));
+        secondRun.add(expected.get(11));
+        assertEquals(secondRun, Files.readAllLines(targetFile.toPath(), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Compressed files are decompressed in the incremental mode and they are not combined again in the next run.
+     */
+    @Test
+    public void testCombineIncrementallyCompressed() throws IOException {
+        File configFile = createIncrementalConfig(0);
+        File logDirectory = temporaryFolder.newFolder("compressed");
+        File node0 = new File(logDirectory, "node0");
+        File node1 = new File(logDirectory, "node1");
+        assertTrue(node0.mkdir() && node1.mkdir());
+        Files.copy(new File("src/test/resources/time-offset/node0/app0.log").toPath(),
+            new File(node0, "app0.log").toPath());
+        try (OutputStream outputStream = new GZIPOutputStream(new FileOutputStream(new File(node1, "app0.log.gz")))) {
+            Files.copy(new File("src/test/resources/time-offset/node1/app0.log").toPath(), outputStream);
+        }
+
+        File targetFile = new File(logDirectory, "combined.txt");
+        List<String> expected = Files.readAllLines(
+            new File("src/test/resources/time-offset-expected/combined.txt").toPath(), StandardCharsets.UTF_8);
+
+        CombinerService.getInstance().combine(logDirectory, configFile.getAbsolutePath(), new CombinerContext().init());
+        assertEquals(expected, Files.readAllLines(targetFile.toPath(), StandardCharsets.UTF_8));
+
+        CombinerService.getInstance().combine(logDirectory, configFile.getAbsolutePath(), new CombinerContext().init());
+        assertEquals(expected, Files.readAllLines(targetFile.toPath(), StandardCharsets.UTF_8));
+    }
+
+    private File createIncrementalConfig(long watermarkMillis) throws IOException {
+        File configFile = temporaryFolder.newFile("log-combiner-" + watermarkMillis + ".properties");
+        List<String> configLines = new ArrayList<>(
+            Files.readAllLines(new File("src/test/resources/time-offset-configuration/log-combiner.properties").toPath(),
+                StandardCharsets.UTF_8));
+        configLines.add("nodeTimeOffset[node1] = 2000");
+        configLines.add("incrementalStateFileName = combiner-state.properties");
+        configLines.add("incrementalWatermarkMillis = " + watermarkMillis);
+        Files.write(configFile.toPath(), configLines, StandardCharsets.UTF_8);
+        return configFile;
+    }
+
+    @Test
+    public void testJoinFiles() throws IOException {
+        File configFile = temporaryFolder.newFile("log-combiner.properties");
+        Files.write(configFile.toPath(), Arrays.asList("joinThreads = 2"), StandardCharsets.UTF_8);
+        File logDirectory = temporaryFolder.newFolder("join");
+        File first = new File(logDirectory, "b.log");
+        File second = new File(logDirectory, "a.log");
+        File third = new File(logDirectory, "c.log");
+        Files.write(first.toPath(), "first line 1\nfirst line 2".getBytes(StandardCharsets.UTF_8));
+        Files.write(second.toPath(), "second line".getBytes(StandardCharsets.UTF_8));
+        Files.write(third.toPath(), "third line\n".getBytes(StandardCharsets.UTF_8));
+        assertTrue(first.setLastModified(1000000L));
+        assertTrue(second.setLastModified(2000000L));
+        assertTrue(third.setLastModified(3000000L));
+        String expected = "first line 1\nfirst line 2" + System.lineSeparator() + "second line" +
+            System.lineSeparator() + "third line\n";
+
+        for (int run = 0; run < 2; run++) {
+            CombinerService.getInstance().combine(logDirectory, configFile.getAbsolutePath(), new CombinerContext().init());
+            File targetFile = new File(logDirectory, "combined.txt");
+            assertEquals(expected, new String(Files.readAllBytes(targetFile.toPath()), StandardCharsets.UTF_8));
+        }
+    }
+
     private boolean verifyFilesAreEqual(File leftFile, File rightFile) throws IOException {
         if (leftFile.isFile() && rightFile.isFile()) {
             byte[] leftBytes = Files.readAllBytes(leftFile.toPath());
@@ -57,6 +57,16 @@ public class Configuration {
             defaultValue = ConfigurationService.REPLACE_FILTER_ID)
     private String replaceFilterId;
 
+    /**
+     * This parameter is stored in the property with the
+     * {@link ConfigurationService#REPORT_STATE_DIRECTORY_KEY} configuration key.
+     * <p>
+     * Its default value is {@link ConfigurationService#REPORT_STATE_DIRECTORY}.
+     */
+    @ConfigurationProperty(key = ConfigurationService.REPORT_STATE_DIRECTORY_KEY,
+            defaultValue = ConfigurationService.REPORT_STATE_DIRECTORY)
+    private String reportStateDirectory;
+
     /**
      * @return The {@link #templatesResource} field value.
      */
@@ -127,4 +137,18 @@ public class Configuration {
     public void setReplaceFilterId(String replaceFilterId) {
         this.replaceFilterId = replaceFilterId;
     }
+
+    /**
+     * @return The {@link #reportStateDirectory} field value.
+     */
+    public String getReportStateDirectory() {
+        return reportStateDirectory;
+    }
+
+    /**
+     * @param reportStateDirectory see the {@link #reportStateDirectory} field description.
+     */
+    public void setReportStateDirectory(String reportStateDirectory) {
+        this.reportStateDirectory = reportStateDirectory;
+    }
 }
@@ -87,6 +87,21 @@ public class ConfigurationService {
      */
     static final String TARGET_DIRECTORY_KEY = "substitution.target.directory";
 
+    /**
+     * Configuration key. Default value is {@link #REPORT_STATE_DIRECTORY}.
+     * <p>
+     * Its value contains a relative or absolute path to a folder where the state of reports is stored
+     * after each run. When the value is not empty, reports are regenerated incrementally, only new lines
+     * of their source files are parsed.
+     */
+    public static final String REPORT_STATE_DIRECTORY_KEY = "substitution.report.state.directory";
+
+    /**
+     * Default value of the {@link #REPORT_STATE_DIRECTORY_KEY}, an empty value means the incremental
+     * reporting is disabled.
+     */
+    static final String REPORT_STATE_DIRECTORY = "";
+
     private static final String SUBSTITUTION_PROPERTIES_FILE_PATH = "substitution.properties.file.path";
 
     private static final String SUBSTITUTION_PROPERTIES_RESOURCE_NAME = "substitution.properties";
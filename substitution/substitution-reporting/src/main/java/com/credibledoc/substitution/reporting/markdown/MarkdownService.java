@@ -1,5 +1,6 @@
 package com.credibledoc.substitution.reporting.markdown;
 
+import com.credibledoc.enricher.printable.CacheLines;
 import com.credibledoc.plantuml.exception.PlantumlRuntimeException;
 import com.credibledoc.plantuml.svggenerator.SvgGeneratorService;
 import com.credibledoc.substitution.core.configuration.Configuration;
@@ -15,7 +16,10 @@ import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.io.FileOutputStream;
-import java.io.OutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.List;
 
 /**
  * This singleton helps to parse templates from the {@link Configuration#getTemplatesResource()} folder, extract
@@ -55,7 +59,8 @@ public class MarkdownService {
      *     <li>Create a new file from the template in the {@link Configuration#getTargetDirectory()} directory</li>
      *     <li>Create a new {@link #IMAGE_DIRECTORY_NAME} directory</li>
      *     <li>Get a {@link ReportDocument} form the {@link PlaceholderToReportDocumentService}</li>
-     *     <li>Join lines from the {@link ReportDocument#getCacheLines()} list</li>
+     *     <li>Join lines from the {@link ReportDocument#getCacheLines()} list, see the
+     *     {@link #joinCacheLines(List)} method</li>
      *     <li>And return result of the
      *     {@link #generateSvgFileAndTagForMarkdown(File, File, String, Placeholder, boolean)} method</li>
      * </ul>
@@ -80,7 +85,7 @@ public class MarkdownService {
         if (plantUml == null) {
             ReportDocument reportDocument = PlaceholderToReportDocumentService.getInstance()
                 .getReportDocument(placeholder);
-            plantUml = String.join(System.lineSeparator(), reportDocument.getCacheLines());
+            plantUml = joinCacheLines(reportDocument.getCacheLines());
         }
         String placeholderDescription = placeholder.getDescription();
 
@@ -99,6 +104,26 @@ public class MarkdownService {
             );
     }
 
+    /**
+     * Join the lines by the {@link System#lineSeparator()}. The {@link CacheLines} are streamed
+     * from their temporary file, so only the result is held in memory.
+     *
+     * @param cacheLines see the {@link ReportDocument#getCacheLines()} method
+     * @return The PlantUML source notation.
+     */
+    private String joinCacheLines(List<String> cacheLines) {
+        if (!(cacheLines instanceof CacheLines)) {
+            return String.join(System.lineSeparator(), cacheLines);
+        }
+        try {
+            StringBuilder stringBuilder = new StringBuilder();
+            ((CacheLines) cacheLines).appendTo(stringBuilder, System.lineSeparator());
+            return stringBuilder.toString();
+        } catch (IOException e) {
+            throw new SubstitutionRuntimeException(e);
+        }
+    }
+
     private String generateSvgFileAndTagForMarkdown(File mdFile,
                                                     File imageDirectory,
                                                     String plantUml,
@@ -114,8 +139,8 @@ public class MarkdownService {
             File svgFile = new File(imageDirectory,
                 mdFile.getName() + "_" + placeholder.getId() + SVG_FILE_EXTENSION);
 
-            try (OutputStream outputStream = new FileOutputStream(svgFile)) {
-                outputStream.write(svg.getBytes());
+            try (Writer writer = new OutputStreamWriter(new FileOutputStream(svgFile))) {
+                writer.write(svg);
             }
             logger.debug("File created: {}", svgFile.getAbsolutePath());
             
@@ -20,9 +20,12 @@ import com.credibledoc.substitution.reporting.reportdocument.creator.ReportDocum
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileOutputStream;
-import java.io.OutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -51,6 +54,9 @@ public class ReplacementService {
     /**
      * Load template from the {@link TemplateResource}, collect {@link Placeholder}s from the template, replace the
      * {@link Placeholder}s with generated content and write the template with generated content to a target file.
+     * <p>
+     * The target file is written section by section, see the
+     * {@link #writeContent(TemplateResource, List, SubstitutionContext, Writer)} method.
      *
      * @param templateResource source of a template, for example <i>/template/markdown/doc/diagrams.md</i>
      * @param substitutionContext the current state
@@ -67,11 +73,8 @@ public class ReplacementService {
                 return;
             }
 
-            String replacedContent =
-                replaceContent(templateResource, templatePlaceholders, substitutionContext);
-
-            try (OutputStream outputStream = new FileOutputStream(generatedFile)){
-                outputStream.write(replacedContent.getBytes());
+            try (Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(generatedFile)))) {
+                writeContent(templateResource, templatePlaceholders, substitutionContext, writer);
             }
             logger.trace("File generated. '{}'", generatedFile.getAbsolutePath());
         } catch (Exception exception) {
@@ -90,24 +93,40 @@ public class ReplacementService {
         return generatedFile;
     }
 
-    private String replaceContent(TemplateResource templateResource,
-                                  List<String> templatePlaceholders,
-                                  SubstitutionContext substitutionContext) {
-        String replacedContent =
+    /**
+     * Write the template to the writer. Parts of the template between placeholders are copied and every
+     * placeholder is replaced with its generated content, so the generated document is not joined in memory.
+     *
+     * @param templateResource     source of the template
+     * @param templatePlaceholders placeholders of the template in the order of their occurrence, see the
+     *                             {@link PlaceholderService#parsePlaceholders(TemplateResource, SubstitutionContext)}
+     *                             method
+     * @param substitutionContext  the current state
+     * @param writer               the target of the generated document
+     * @throws IOException in case of the writer failure
+     */
+    private void writeContent(TemplateResource templateResource,
+                              List<String> templatePlaceholders,
+                              SubstitutionContext substitutionContext,
+                              Writer writer) throws IOException {
+        String templateContent =
             TemplateService.getInstance().getTemplateContent(templateResource, StandardCharsets.UTF_8.name());
-        String lineEnding = FileService.findLineEnding(replacedContent);
+        String lineEnding = FileService.findLineEnding(templateContent);
+        int templateIndex = 0;
         int position = 1;
         for (String templatePlaceholder : templatePlaceholders) {
+            int placeholderIndex = templateContent.indexOf(templatePlaceholder, templateIndex);
+            writer.write(templateContent, templateIndex, placeholderIndex - templateIndex);
             Placeholder placeholder = PlaceholderService.getInstance()
                 .parseJsonFromPlaceholder(templatePlaceholder, templateResource, substitutionContext);
             placeholder.setId(Integer.toString(position++));
             String contentForReplacement = generateContent(placeholder, substitutionContext);
-            String normalizedContent = contentForReplacement.replaceAll(FileService.ANY_LINE_ENDING, lineEnding);
-            replacedContent = replacedContent.replace(templatePlaceholder, normalizedContent);
+            writer.write(contentForReplacement.replaceAll(FileService.ANY_LINE_ENDING, lineEnding));
+            templateIndex = placeholderIndex + templatePlaceholder.length();
             String json = PlaceholderService.getInstance().writePlaceholderToJson(placeholder);
             logger.trace("{}{}", CONTENT_REPLACED, json);
         }
-        return replacedContent;
+        writer.write(templateContent, templateIndex, templateContent.length() - templateIndex);
     }
 
     /**
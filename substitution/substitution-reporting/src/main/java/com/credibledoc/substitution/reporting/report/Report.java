@@ -1,8 +1,13 @@
 package com.credibledoc.substitution.reporting.report;
 
+import com.credibledoc.combiner.state.IncrementalState;
+import com.credibledoc.substitution.reporting.reportdocument.ReportDocument;
+
 import java.io.File;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Contains a global state of generated reports. It contains for example
@@ -31,11 +36,28 @@ public class Report {
      */
     private boolean creationOfSelfDocumentation;
 
+    /**
+     * If this field is not 'null', the source files are read from the positions stored in the state,
+     * and the state is updated after reading, see the
+     * {@link com.credibledoc.substitution.reporting.report.state.ReportStateService}.
+     */
+    private IncrementalState incrementalState;
+
+    /**
+     * Sizes of the {@link ReportDocument#getCacheLines()} before the footer methods of the
+     * {@link ReportDocument}s have been called, see the
+     * {@link com.credibledoc.substitution.reporting.visualizer.VisualizerService}. Only these lines are stored
+     * by the {@link com.credibledoc.substitution.reporting.report.state.ReportStateService}, so the footer
+     * is not repeated in the next run.
+     */
+    private Map<ReportDocument, Integer> cacheLinesSizesBeforeFooter;
+
     /**
      * Initializes all lists.
      */
     public Report() {
         transactionsFilter = new ArrayList<>();
+        cacheLinesSizesBeforeFooter = new HashMap<>();
     }
 
     @Override
@@ -45,6 +67,7 @@ public class Report {
             ", transactionsFilter=" + transactionsFilter +
             ", linesNumber=" + linesNumber +
             ", creationOfSelfDocumentation=" + creationOfSelfDocumentation +
+            ", incrementalState=" + incrementalState +
             '}';
     }
 
@@ -103,4 +126,25 @@ public class Report {
     public void setCreationOfSelfDocumentation(boolean creationOfSelfDocumentation) {
         this.creationOfSelfDocumentation = creationOfSelfDocumentation;
     }
+
+    /**
+     * @return The {@link #incrementalState} field value.
+     */
+    public IncrementalState getIncrementalState() {
+        return incrementalState;
+    }
+
+    /**
+     * @param incrementalState see the {@link #incrementalState} field
+     */
+    public void setIncrementalState(IncrementalState incrementalState) {
+        this.incrementalState = incrementalState;
+    }
+
+    /**
+     * @return The {@link #cacheLinesSizesBeforeFooter} field value.
+     */
+    public Map<ReportDocument, Integer> getCacheLinesSizesBeforeFooter() {
+        return cacheLinesSizesBeforeFooter;
+    }
 }
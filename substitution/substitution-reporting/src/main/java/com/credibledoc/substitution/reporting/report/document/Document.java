@@ -1,6 +1,9 @@
 package com.credibledoc.substitution.reporting.report.document;
 
 import com.credibledoc.combiner.node.file.NodeFile;
+import com.credibledoc.enricher.printable.BufferedPrintable;
+import com.credibledoc.enricher.printable.CacheLines;
+import com.credibledoc.enricher.printable.OutputBuffer;
 import com.credibledoc.enricher.printable.Printable;
 import com.credibledoc.substitution.reporting.report.Report;
 import com.credibledoc.substitution.reporting.reportdocument.ReportDocument;
@@ -8,7 +11,6 @@ import com.credibledoc.substitution.reporting.reportdocument.ReportDocumentType;
 
 import java.io.PrintWriter;
 import java.io.Writer;
-import java.util.ArrayList;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
@@ -19,13 +21,18 @@ import java.util.function.Consumer;
  *
  * @author Kyrylo Semenko
  */
-public class Document implements ReportDocument {
+public class Document implements ReportDocument, BufferedPrintable {
 
     /**
      * {@link Writer} of the report document
      */
     private PrintWriter printWriter;
 
+    /**
+     * Transformed lines waiting for writing to the {@link #printWriter}
+     */
+    private OutputBuffer outputBuffer;
+
     /**
      * One report may have more files, for example application.0.log.expanded, application.1.log.expanded and so on.
      */
@@ -37,7 +44,8 @@ public class Document implements ReportDocument {
     private Consumer<ReportDocument> footerMethod;
 
     /**
-     * Transformed lines prepared to print out, for example PlantUml lines
+     * Transformed lines prepared to print out, for example PlantUml lines. By default it is the {@link CacheLines}
+     * list, which moves the lines to a temporary file when they exceed its memory threshold.
      */
     private List<String> cacheLines;
 
@@ -65,7 +73,8 @@ public class Document implements ReportDocument {
 
     public Document() {
         fileNumber = 1;
-        cacheLines = new ArrayList<>();
+        outputBuffer = new OutputBuffer();
+        cacheLines = new CacheLines();
         nodeFiles = new LinkedHashSet<>();
     }
 
@@ -74,7 +83,7 @@ public class Document implements ReportDocument {
         return "Document{" +
             ", fileNumber=" + fileNumber +
             ", footerMethod=" + footerMethod +
-            ", cacheLines=" + cacheLines +
+            ", cacheLinesSize=" + cacheLines.size() +
             ", reportDocumentType=" + reportDocumentType +
             ", nodeFiles=" + nodeFiles +
             ", report=" + report +
@@ -94,6 +103,11 @@ public class Document implements ReportDocument {
         this.printWriter = printWriter;
     }
 
+    @Override
+    public OutputBuffer getOutputBuffer() {
+        return outputBuffer;
+    }
+
     /**
      * @return The {@link Document#footerMethod} field
      */
@@ -0,0 +1,375 @@
+package com.credibledoc.substitution.reporting.report.state;
+
+import com.credibledoc.combiner.node.file.NodeFile;
+import com.credibledoc.combiner.state.IncrementalState;
+import com.credibledoc.combiner.state.IncrementalStateService;
+import com.credibledoc.enricher.context.EnricherContext;
+import com.credibledoc.enricher.line.LineProcessor;
+import com.credibledoc.enricher.line.LineProcessorService;
+import com.credibledoc.enricher.transformer.StatefulTransformer;
+import com.credibledoc.enricher.transformer.Transformer;
+import com.credibledoc.substitution.core.configuration.Configuration;
+import com.credibledoc.substitution.core.context.SubstitutionContext;
+import com.credibledoc.substitution.core.exception.SubstitutionRuntimeException;
+import com.credibledoc.substitution.core.placeholder.Placeholder;
+import com.credibledoc.substitution.core.resource.ResourceService;
+import com.credibledoc.substitution.reporting.context.ReportingContext;
+import com.credibledoc.substitution.reporting.placeholder.PlaceholderToReportDocumentRepository;
+import com.credibledoc.substitution.reporting.report.Report;
+import com.credibledoc.substitution.reporting.reportdocument.ReportDocument;
+import com.credibledoc.substitution.reporting.reportdocument.ReportDocumentService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.zip.CRC32;
+
+/**
+ * This service stores and restores the state of {@link Report}s between runs, see the
+ * {@link Configuration#getReportStateDirectory()} property.
+ * <p>
+ * The state of a {@link Report} contains positions in its source files, see the {@link IncrementalState},
+ * and {@link ReportDocument#getCacheLines()} of all its {@link ReportDocument}s without lines of their footers,
+ * see the {@link Report#getCacheLinesSizesBeforeFooter()}. When the source files only grow, the next run parses
+ * only new lines and appends the transformed lines to the restored ones.
+ * <p>
+ * The state of {@link StatefulTransformer}s of the {@link ReportDocument}s is stored as well. Other
+ * {@link com.credibledoc.enricher.transformer.Transformer}s are expected to be stateless.
+ *
+ * @author Kyrylo Semenko
+ */
+public class ReportStateService {
+    private static final Logger logger = LoggerFactory.getLogger(ReportStateService.class);
+    private static final String STATE_FILE_NAME = "report.properties";
+    private static final String LINES_FILE_EXTENSION = ".lines";
+    private static final String TRANSFORMERS_FILE_EXTENSION = ".transformers";
+    private static final String TRANSFORMER_PREFIX = "transformer[";
+    private static final String CLASS_SUFFIX = "].class";
+    private static final String STATE_INFIX = "].state.";
+    private static final String NOT_ALLOWED_FILE_NAME_CHARACTERS = "[^A-Za-z0-9._-]";
+
+    /**
+     * Singleton.
+     */
+    private static final ReportStateService instance = new ReportStateService();
+
+    /**
+     * @return The {@link ReportStateService} singleton.
+     */
+    public static ReportStateService getInstance() {
+        return instance;
+    }
+
+    /**
+     * Restore the state of {@link Report}s from the {@link Configuration#getReportStateDirectory()}.
+     * It should be called after creation of {@link ReportDocument}s and before the
+     * {@link com.credibledoc.substitution.reporting.visualizer.VisualizerService#createReports} method.
+     * <p>
+     * A {@link Report} is restored only when all its source files are recognized by the
+     * {@link IncrementalStateService#findFileState(IncrementalState, File)} method and the cache lines
+     * of all its {@link ReportDocument}s are stored. The restored lines replace the current cache lines,
+     * for example a header added during creation of the {@link ReportDocument}. The {@link StatefulTransformer}s
+     * of the {@link ReportDocument}s receive their stored state. Else the {@link Report} will be created
+     * from the beginning.
+     * <p>
+     * Nothing happens if the {@link Configuration#getReportStateDirectory()} is empty.
+     *
+     * @param reportingContext    the current state
+     * @param substitutionContext the current state
+     * @param enricherContext     the current state with {@link LineProcessor}s of the {@link ReportDocument}s
+     */
+    public void load(ReportingContext reportingContext, SubstitutionContext substitutionContext,
+                     EnricherContext enricherContext) {
+        File stateDirectory = findStateDirectory(substitutionContext);
+        if (stateDirectory == null) {
+            return;
+        }
+        Map<ReportDocument, String> documentKeys = createDocumentKeys(substitutionContext);
+        IncrementalStateService incrementalStateService = IncrementalStateService.getInstance();
+        for (Report report : reportingContext.getReportRepository().getReports()) {
+            List<ReportDocument> reportDocuments =
+                ReportDocumentService.getInstance().getReportDocuments(report, reportingContext);
+            if (reportDocuments == null || reportDocuments.isEmpty()) {
+                continue;
+            }
+            File reportDirectory = getReportDirectory(stateDirectory, reportDocuments);
+            IncrementalState incrementalState =
+                incrementalStateService.load(new File(reportDirectory, STATE_FILE_NAME));
+            Map<ReportDocument, Properties> transformersStates =
+                readTransformersStates(reportDocuments, documentKeys, reportDirectory, enricherContext);
+            if (transformersStates != null &&
+                    isResumable(incrementalState, reportDocuments, documentKeys, reportDirectory)) {
+                for (ReportDocument reportDocument : reportDocuments) {
+                    File linesFile = new File(reportDirectory, documentKeys.get(reportDocument) + LINES_FILE_EXTENSION);
+                    reportDocument.getCacheLines().clear();
+                    readLines(linesFile, reportDocument.getCacheLines());
+                    restoreTransformers(reportDocument, transformersStates.get(reportDocument), enricherContext);
+                }
+                logger.info("Report will be continued from the state: '{}'", reportDirectory.getAbsolutePath());
+            } else {
+                incrementalState = new IncrementalState();
+                logger.info("Report will be created from the beginning, state: '{}'",
+                    reportDirectory.getAbsolutePath());
+            }
+            report.setIncrementalState(incrementalState);
+        }
+    }
+
+    /**
+     * Store the state of {@link Report}s with the {@link Report#getIncrementalState()} to the
+     * {@link Configuration#getReportStateDirectory()}. It should be called after the
+     * {@link com.credibledoc.substitution.reporting.visualizer.VisualizerService#createReports} method.
+     * <p>
+     * Lines added by footer methods are not stored, see the {@link Report#getCacheLinesSizesBeforeFooter()}.
+     *
+     * @param reportingContext    the current state
+     * @param substitutionContext the current state
+     * @param enricherContext     the current state with {@link LineProcessor}s of the {@link ReportDocument}s
+     */
+    public void save(ReportingContext reportingContext, SubstitutionContext substitutionContext,
+                     EnricherContext enricherContext) {
+        File stateDirectory = findStateDirectory(substitutionContext);
+        if (stateDirectory == null) {
+            return;
+        }
+        Map<ReportDocument, String> documentKeys = createDocumentKeys(substitutionContext);
+        for (Report report : reportingContext.getReportRepository().getReports()) {
+            List<ReportDocument> reportDocuments =
+                ReportDocumentService.getInstance().getReportDocuments(report, reportingContext);
+            if (report.getIncrementalState() == null || reportDocuments == null || reportDocuments.isEmpty()) {
+                continue;
+            }
+            File reportDirectory = getReportDirectory(stateDirectory, reportDocuments);
+            if (!reportDirectory.exists() && !reportDirectory.mkdirs()) {
+                throw new SubstitutionRuntimeException("Cannot create the directory: '" +
+                    reportDirectory.getAbsolutePath() + "'");
+            }
+            for (ReportDocument reportDocument : reportDocuments) {
+                String documentKey = documentKeys.get(reportDocument);
+                if (documentKey != null) {
+                    Integer sizeBeforeFooter = report.getCacheLinesSizesBeforeFooter().get(reportDocument);
+                    List<String> cacheLines = reportDocument.getCacheLines();
+                    int size = sizeBeforeFooter == null ? cacheLines.size() : sizeBeforeFooter;
+                    writeLines(new File(reportDirectory, documentKey + LINES_FILE_EXTENSION), cacheLines, size);
+                    writeTransformersState(new File(reportDirectory, documentKey + TRANSFORMERS_FILE_EXTENSION),
+                        reportDocument, enricherContext);
+                }
+            }
+            IncrementalStateService.getInstance()
+                .save(report.getIncrementalState(), new File(reportDirectory, STATE_FILE_NAME));
+            logger.debug("Report state saved: '{}'", reportDirectory.getAbsolutePath());
+        }
+    }
+
+    private File findStateDirectory(SubstitutionContext substitutionContext) {
+        String reportStateDirectory = substitutionContext.getConfiguration().getReportStateDirectory();
+        if (reportStateDirectory == null || reportStateDirectory.isEmpty()) {
+            return null;
+        }
+        return new File(reportStateDirectory);
+    }
+
+    /**
+     * A {@link ReportDocument} is identified by its {@link Placeholder}, so the key is stable between runs
+     * while the template is not changed.
+     */
+    private Map<ReportDocument, String> createDocumentKeys(SubstitutionContext substitutionContext) {
+        Map<ReportDocument, String> result = new HashMap<>();
+        ResourceService resourceService = ResourceService.getInstance();
+        Map<Placeholder, ReportDocument> map =
+            PlaceholderToReportDocumentRepository.getInstance().getPlaceholderToReportDocumentMap();
+        for (Map.Entry<Placeholder, ReportDocument> entry : map.entrySet()) {
+            Placeholder placeholder = entry.getKey();
+            String resourcePath = resourceService
+                .generatePlaceholderResourceRelativePath(placeholder.getResource(), substitutionContext);
+            String key = resourcePath + "_" + placeholder.getId() + "_" + placeholder.getClassName();
+            result.put(entry.getValue(), key.replaceAll(NOT_ALLOWED_FILE_NAME_CHARACTERS, "_"));
+        }
+        return result;
+    }
+
+    /**
+     * {@link ReportDocument}s of a {@link Report} share its source file, see the
+     * {@link com.credibledoc.substitution.reporting.reportdocument.creator.ReportDocumentCreatorService}.
+     */
+    private File getReportDirectory(File stateDirectory, List<ReportDocument> reportDocuments) {
+        for (ReportDocument reportDocument : reportDocuments) {
+            for (NodeFile nodeFile : reportDocument.getNodeFiles()) {
+                File file = nodeFile.getFileWithSources().getFile().getAbsoluteFile();
+                CRC32 crc32 = new CRC32();
+                crc32.update(file.getPath().getBytes(StandardCharsets.UTF_8));
+                return new File(stateDirectory, file.getName() + "_" + Long.toHexString(crc32.getValue()));
+            }
+        }
+        throw new SubstitutionRuntimeException("ReportDocuments have no source files: " + reportDocuments);
+    }
+
+    private boolean isResumable(IncrementalState incrementalState, List<ReportDocument> reportDocuments,
+                                Map<ReportDocument, String> documentKeys, File reportDirectory) {
+        if (incrementalState.getFileStates().isEmpty()) {
+            return false;
+        }
+        IncrementalStateService incrementalStateService = IncrementalStateService.getInstance();
+        for (ReportDocument reportDocument : reportDocuments) {
+            String documentKey = documentKeys.get(reportDocument);
+            if (documentKey == null || !new File(reportDirectory, documentKey + LINES_FILE_EXTENSION).exists()) {
+                return false;
+            }
+            for (NodeFile nodeFile : reportDocument.getNodeFiles()) {
+                File file = nodeFile.getFileWithSources().getFile();
+                if (incrementalStateService.findFileState(incrementalState, file) == null) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return The distinct {@link StatefulTransformer}s of the {@link LineProcessor}s of the {@link ReportDocument}
+     * in the order of the {@link LineProcessor}s.
+     */
+    private List<StatefulTransformer> findStatefulTransformers(ReportDocument reportDocument,
+                                                               EnricherContext enricherContext) {
+        List<StatefulTransformer> result = new ArrayList<>();
+        for (LineProcessor lineProcessor :
+                LineProcessorService.getInstance().getLineProcessors(reportDocument, enricherContext)) {
+            Transformer transformer = lineProcessor.getTransformer();
+            if (transformer instanceof StatefulTransformer && !result.contains(transformer)) {
+                result.add((StatefulTransformer) transformer);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * The state of every {@link StatefulTransformer} is stored with its index and class name, so it is
+     * restored to the same {@link StatefulTransformer} while the {@link LineProcessor}s are not changed.
+     */
+    private void writeTransformersState(File file, ReportDocument reportDocument, EnricherContext enricherContext) {
+        List<StatefulTransformer> statefulTransformers = findStatefulTransformers(reportDocument, enricherContext);
+        if (statefulTransformers.isEmpty()) {
+            return;
+        }
+        Properties properties = new Properties();
+        for (int index = 0; index < statefulTransformers.size(); index++) {
+            StatefulTransformer statefulTransformer = statefulTransformers.get(index);
+            properties.setProperty(TRANSFORMER_PREFIX + index + CLASS_SUFFIX, statefulTransformer.getClass().getName());
+            for (Map.Entry<String, String> entry : statefulTransformer.saveState(reportDocument).entrySet()) {
+                properties.setProperty(TRANSFORMER_PREFIX + index + STATE_INFIX + entry.getKey(), entry.getValue());
+            }
+        }
+        try (OutputStream outputStream = new BufferedOutputStream(new FileOutputStream(file))) {
+            properties.store(outputStream, "The state of transformers");
+        } catch (IOException e) {
+            throw new SubstitutionRuntimeException("Cannot write the file: '" + file.getAbsolutePath() + "'", e);
+        }
+    }
+
+    /**
+     * @return The stored states of {@link StatefulTransformer}s, an empty {@link Properties} for {@link ReportDocument}s
+     * without {@link StatefulTransformer}s, or 'null' if a state is not stored or it belongs to other transformers.
+     */
+    private Map<ReportDocument, Properties> readTransformersStates(List<ReportDocument> reportDocuments,
+                                                                   Map<ReportDocument, String> documentKeys,
+                                                                   File reportDirectory,
+                                                                   EnricherContext enricherContext) {
+        Map<ReportDocument, Properties> result = new HashMap<>();
+        for (ReportDocument reportDocument : reportDocuments) {
+            Properties properties = new Properties();
+            result.put(reportDocument, properties);
+            List<StatefulTransformer> statefulTransformers = findStatefulTransformers(reportDocument, enricherContext);
+            if (statefulTransformers.isEmpty()) {
+                continue;
+            }
+            String documentKey = documentKeys.get(reportDocument);
+            if (documentKey == null) {
+                return null;
+            }
+            File file = new File(reportDirectory, documentKey + TRANSFORMERS_FILE_EXTENSION);
+            if (!file.exists()) {
+                return null;
+            }
+            try (InputStream inputStream = new BufferedInputStream(new FileInputStream(file))) {
+                properties.load(inputStream);
+            } catch (IOException e) {
+                throw new SubstitutionRuntimeException("Cannot read the file: '" + file.getAbsolutePath() + "'", e);
+            }
+            for (int index = 0; index < statefulTransformers.size(); index++) {
+                String className = statefulTransformers.get(index).getClass().getName();
+                if (!className.equals(properties.getProperty(TRANSFORMER_PREFIX + index + CLASS_SUFFIX))) {
+                    return null;
+                }
+            }
+        }
+        return result;
+    }
+
+    private void restoreTransformers(ReportDocument reportDocument, Properties properties,
+                                     EnricherContext enricherContext) {
+        List<StatefulTransformer> statefulTransformers = findStatefulTransformers(reportDocument, enricherContext);
+        for (int index = 0; index < statefulTransformers.size(); index++) {
+            String statePrefix = TRANSFORMER_PREFIX + index + STATE_INFIX;
+            Map<String, String> state = new HashMap<>();
+            for (String name : properties.stringPropertyNames()) {
+                if (name.startsWith(statePrefix)) {
+                    state.put(name.substring(statePrefix.length()), properties.getProperty(name));
+                }
+            }
+            statefulTransformers.get(index).restoreState(reportDocument, state);
+        }
+    }
+
+    /**
+     * Write the first lines.
+     *
+     * @param file  the target file
+     * @param lines the source lines
+     * @param size  the number of the first lines to be written
+     */
+    private void writeLines(File file, List<String> lines, int size) {
+        try (DataOutputStream dataOutputStream =
+                 new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            dataOutputStream.writeInt(size);
+            Iterator<String> iterator = lines.iterator();
+            for (int i = 0; i < size; i++) {
+                String line = iterator.next();
+                byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+                dataOutputStream.writeInt(bytes.length);
+                dataOutputStream.write(bytes);
+            }
+        } catch (IOException e) {
+            throw new SubstitutionRuntimeException("Cannot write the file: '" + file.getAbsolutePath() + "'", e);
+        }
+    }
+
+    private void readLines(File file, List<String> lines) {
+        try (DataInputStream dataInputStream =
+                 new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            int size = dataInputStream.readInt();
+            for (int i = 0; i < size; i++) {
+                byte[] bytes = new byte[dataInputStream.readInt()];
+                dataInputStream.readFully(bytes);
+                lines.add(new String(bytes, StandardCharsets.UTF_8));
+            }
+        } catch (IOException e) {
+            throw new SubstitutionRuntimeException("Cannot read the file: '" + file.getAbsolutePath() + "'", e);
+        }
+    }
+}
@@ -38,6 +38,13 @@ public class ReportDocumentRepository {
      */
     private List<ReportDocument> reportDocumentsForAddition = new ArrayList<>();
 
+    /**
+     * {@link ReportDocument}s appended to the {@link #reportDocumentsForAddition} by the current thread.
+     * The value is 'null' if they are not collected. Workers of the {@link VisualizerService} collect them
+     * for finding out which record created a {@link ReportDocument}.
+     */
+    private final ThreadLocal<List<ReportDocument>> reportDocumentsAddedByCurrentThread = new ThreadLocal<>();
+
     /**
      * @return The {@link #reportDocuments} field value.
      */
@@ -65,4 +72,11 @@ public class ReportDocumentRepository {
     public void setReportDocumentsForAddition(List<ReportDocument> reportDocumentsForAddition) {
         this.reportDocumentsForAddition = reportDocumentsForAddition;
     }
+
+    /**
+     * @return The {@link #reportDocumentsAddedByCurrentThread} field value.
+     */
+    public ThreadLocal<List<ReportDocument>> getReportDocumentsAddedByCurrentThread() {
+        return reportDocumentsAddedByCurrentThread;
+    }
 }
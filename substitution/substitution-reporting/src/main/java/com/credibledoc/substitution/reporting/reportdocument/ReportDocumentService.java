@@ -6,6 +6,8 @@ import com.credibledoc.substitution.core.exception.SubstitutionRuntimeException;
 import com.credibledoc.substitution.reporting.context.ReportingContext;
 import com.credibledoc.substitution.reporting.report.Report;
 
+import java.io.Closeable;
+import java.io.IOException;
 import java.util.Collection;
 import java.util.ConcurrentModificationException;
 import java.util.List;
@@ -64,6 +66,11 @@ public class ReportDocumentService {
      * Validate and append the {@link ReportDocument} to the
      * {@link ReportDocumentRepository#getReportDocumentsForAddition()} list.
      *
+     * <p>
+     * If the current thread collects appended {@link ReportDocument}s, see the
+     * {@link ReportDocumentRepository#getReportDocumentsAddedByCurrentThread()} method,
+     * the {@link ReportDocument} is appended to its list too.
+     *
      * @param reportDocument will be appended if it contains the {@link ReportDocument#getReport()} field,
      *                       else an exception will be thrown.
      * @param reportingContext the current state
@@ -72,7 +79,16 @@ public class ReportDocumentService {
         if (reportDocument.getReport() == null) {
             throw new SubstitutionRuntimeException("Report is mandatory for ReportDocument: " + reportDocument);
         }
-        reportingContext.getReportDocumentRepository().getReportDocumentsForAddition().add(reportDocument);
+        List<ReportDocument> reportDocumentsForAddition =
+            reportingContext.getReportDocumentRepository().getReportDocumentsForAddition();
+        synchronized (reportDocumentsForAddition) {
+            reportDocumentsForAddition.add(reportDocument);
+        }
+        List<ReportDocument> addedByCurrentThread =
+            reportingContext.getReportDocumentRepository().getReportDocumentsAddedByCurrentThread().get();
+        if (addedByCurrentThread != null) {
+            addedByCurrentThread.add(reportDocument);
+        }
     }
 
     /**
@@ -86,8 +102,10 @@ public class ReportDocumentService {
         List<ReportDocument> reportDocuments = reportingContext.getReportDocumentRepository().getReportDocuments();
         List<ReportDocument> reportDocumentsForAddition =
             reportingContext.getReportDocumentRepository().getReportDocumentsForAddition();
-        reportDocuments.addAll(reportDocumentsForAddition);
-        reportDocumentsForAddition.clear();
+        synchronized (reportDocumentsForAddition) {
+            reportDocuments.addAll(reportDocumentsForAddition);
+            reportDocumentsForAddition.clear();
+        }
     }
 
     /**
@@ -115,4 +133,26 @@ public class ReportDocumentService {
         }
         return nodeFiles;
     }
+
+    /**
+     * Close the {@link ReportDocument#getCacheLines()} of all {@link ReportDocument}s, for example
+     * {@link com.credibledoc.enricher.printable.CacheLines} delete their temporary files.
+     * It should be called when the content of the {@link ReportDocument}s is not needed anymore,
+     * after the placeholders have been substituted.
+     *
+     * @param reportingContext the current state
+     */
+    public void closeCacheLines(ReportingContext reportingContext) {
+        for (ReportDocument reportDocument : reportingContext.getReportDocumentRepository().getReportDocuments()) {
+            List<String> cacheLines = reportDocument.getCacheLines();
+            if (cacheLines instanceof Closeable) {
+                try {
+                    ((Closeable) cacheLines).close();
+                } catch (IOException e) {
+                    throw new SubstitutionRuntimeException("Cannot close the cache lines of the ReportDocument: " +
+                        reportDocument, e);
+                }
+            }
+        }
+    }
 }
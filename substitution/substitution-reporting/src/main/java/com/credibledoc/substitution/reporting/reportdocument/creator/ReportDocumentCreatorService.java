@@ -29,6 +29,7 @@ import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 
 /**
  * Stateless service for working with {@link ReportDocumentCreator}s.
@@ -155,22 +156,73 @@ public class ReportDocumentCreatorService {
             if (!file.exists()) {
                 logger.info("File doesn't exist. Report will not be created. File: '{}'", file.getAbsolutePath());
             } else {
-                logger.trace("File will be parsed: {}", file.getAbsolutePath());
-                prepareReport(fileWithSources, reportDocument, combinerContext, reportingContext);
+                Report report = reportDocument.getReport() == null ? new Report() : reportDocument.getReport();
+                ReportDocument sameFileReportDocument = findReportDocument(file, report, reportingContext);
+                if (sameFileReportDocument != null) {
+                    logger.trace("File will be parsed once for all its documents: {}", file.getAbsolutePath());
+                    reportDocument.setReport(sameFileReportDocument.getReport());
+                    reportDocument.getNodeFiles().addAll(sameFileReportDocument.getNodeFiles());
+                } else {
+                    logger.trace("File will be parsed: {}", file.getAbsolutePath());
+                    prepareReport(fileWithSources, report, reportDocument, combinerContext, reportingContext);
+                }
             }
         }
         reportingContext.getReportDocumentRepository().getReportDocuments().add(reportDocument);
     }
 
     /**
-     * Create a new {@link Report}
+     * Find a {@link ReportDocument} with a {@link Report} created for the file. {@link ReportDocument}s
+     * of different {@link ReportDocumentCreator}s share the {@link Report} of the same source file,
+     * so the file is read only once, see the
+     * {@link com.credibledoc.substitution.reporting.visualizer.VisualizerService#createReports} method.
+     * The {@link Report} is shared only if it has the same settings, see the
+     * {@link #hasSameSettings(Report, Report)} method.
+     *
+     * @param file the source file from the {@link #SOURCE_FILE_RELATIVE_PATH_PLACEHOLDER_PARAMETER}
+     * @param report the {@link Report} with settings of the current placeholder
+     * @param reportingContext the current state
+     * @return 'null' if not found
+     */
+    private ReportDocument findReportDocument(File file, Report report, ReportingContext reportingContext) {
+        File absoluteFile = file.getAbsoluteFile();
+        for (ReportDocument reportDocument : reportingContext.getReportDocumentRepository().getReportDocuments()) {
+            if (reportDocument.getReport() == null || !hasSameSettings(reportDocument.getReport(), report)) {
+                continue;
+            }
+            for (NodeFile nodeFile : reportDocument.getNodeFiles()) {
+                if (absoluteFile.equals(nodeFile.getFileWithSources().getFile().getAbsoluteFile())) {
+                    return reportDocument;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return 'true' if both {@link Report}s have the same {@link Report#getDirectory()},
+     * {@link Report#getTransactionsFilter()}, {@link Report#getLinesNumber()},
+     * {@link Report#isCreationOfSelfDocumentation()} and {@link Report#getIncrementalState()} values.
+     */
+    private boolean hasSameSettings(Report report, Report other) {
+        return Objects.equals(report.getDirectory(), other.getDirectory()) &&
+            Objects.equals(report.getTransactionsFilter(), other.getTransactionsFilter()) &&
+            report.getLinesNumber() == other.getLinesNumber() &&
+            report.isCreationOfSelfDocumentation() == other.isCreationOfSelfDocumentation() &&
+            report.getIncrementalState() == other.getIncrementalState();
+    }
+
+    /**
+     * Add the {@link Report} to the {@link com.credibledoc.substitution.reporting.report.ReportRepository}
+     * and prepare the {@link NodeFile} of the source file.
      * @param fileWithSources a source file
+     * @param report the {@link Report} with settings of the current placeholder
      * @param reportDocument belonging to the {@link Report}
      * @param combinerContext the current state
      * @param reportingContext the current state
      */
-    private void prepareReport(FileWithSources fileWithSources, ReportDocument reportDocument, CombinerContext combinerContext, ReportingContext reportingContext) {
-        Report report = new Report();
+    private void prepareReport(FileWithSources fileWithSources, Report report, ReportDocument reportDocument,
+                               CombinerContext combinerContext, ReportingContext reportingContext) {
         reportingContext.getReportRepository().addReports(Collections.singletonList(report));
         reportDocument.setReport(report);
         FileService fileService = FileService.getInstance();
@@ -6,7 +6,11 @@ import com.credibledoc.combiner.log.reader.ReaderService;
 import com.credibledoc.combiner.node.file.NodeFile;
 import com.credibledoc.combiner.node.file.NodeFileTreeSet;
 import com.credibledoc.combiner.state.FilesMergerState;
+import com.credibledoc.combiner.state.IncrementalStateService;
 import com.credibledoc.enricher.context.EnricherContext;
+import com.credibledoc.enricher.line.LineProcessorService;
+import com.credibledoc.enricher.record.Record;
+import com.credibledoc.enricher.statistics.EnricherStatistics;
 import com.credibledoc.enricher.transformer.TransformerService;
 import com.credibledoc.substitution.core.exception.SubstitutionRuntimeException;
 import com.credibledoc.substitution.reporting.context.ReportingContext;
@@ -14,11 +18,23 @@ import com.credibledoc.substitution.reporting.report.Report;
 import com.credibledoc.substitution.reporting.reportdocument.ReportDocument;
 import com.credibledoc.substitution.reporting.reportdocument.ReportDocumentService;
 import com.credibledoc.substitution.reporting.reportdocument.ReportDocumentType;
+import com.credibledoc.substitution.reporting.visualizer.sampling.Sampling;
+import com.credibledoc.substitution.reporting.visualizer.sampling.SamplingService;
+import com.credibledoc.substitution.reporting.visualizer.sampling.SamplingState;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * Visualizer creates reports. The reports describes scenarios recorded in log files,
@@ -36,6 +52,12 @@ public class VisualizerService {
      */
     private static final String IGNORE_FAILURES = "credibledocIgnoreFailures";
 
+    /**
+     * How many {@link Record}s are passed to workers at once in the parallel mode,
+     * see the {@link #createReports(Collection, CombinerContext, ReportingContext, EnricherContext, int)} method.
+     */
+    private static final int BATCH_SIZE = 1000;
+
     /**
      * Singleton.
      */
@@ -59,16 +81,78 @@ public class VisualizerService {
      */
     public void createReports(Collection<Class<? extends ReportDocumentType>> reportDocumentTypes, CombinerContext combinerContext,
                               ReportingContext reportingContext, EnricherContext enricherContext) {
-        logger.info("Method createReports started, reportDocumentTypes: '{}'", reportDocumentTypes);
+        createReports(reportDocumentTypes, combinerContext, reportingContext, enricherContext, 1);
+    }
+
+    /**
+     * Read files(s), parse them and create reports.
+     * <p>
+     * If the threads number is greater than 1, the {@link ReportDocument}s of a {@link Report} are divided
+     * to groups and each group is processed by its own worker thread. The current thread reads
+     * {@link Record}s and passes them to the workers by batches. The next batch is read when the workers
+     * finished the previous one, so the workers can use the {@link LogBufferedReader} argument for finding
+     * of the source file or {@link com.credibledoc.combiner.tactic.Tactic}, but
+     * {@link com.credibledoc.enricher.transformer.Transformer}s should not read lines from it and should not
+     * use its {@link LogBufferedReader#getLineDate()} in the parallel mode.
+     * <p>
+     * {@link ReportDocument}s created during processing of a batch obtain the following records of the batch,
+     * so the reports are the same as in the sequential mode.
+     * <p>
+     * If the {@link EnricherContext#getEnricherStatistics()} is not 'null', its report is logged at the end.
+     *
+     * @param reportDocumentTypes defines which {@link ReportDocumentType}s
+     *                            can be transformed in a particular invocation
+     * @param combinerContext the current state
+     * @param reportingContext the current state
+     * @param enricherContext the current state
+     * @param threads how many worker threads will transform records, 1 means the current thread only
+     */
+    public void createReports(Collection<Class<? extends ReportDocumentType>> reportDocumentTypes, CombinerContext combinerContext,
+                              ReportingContext reportingContext, EnricherContext enricherContext, int threads) {
+        createReports(reportDocumentTypes, combinerContext, reportingContext, enricherContext, threads, null);
+    }
+
+    /**
+     * Read files(s), parse them and create reports from a part of records, see the {@link Sampling}
+     * and {@link SamplingService}. Other parameters are the same as in the
+     * {@link #createReports(Collection, CombinerContext, ReportingContext, EnricherContext, int)} method.
+     * <p>
+     * Skipped records are read and counted, but not transformed. Then {@link com.credibledoc.enricher.transformer.Transformer}s
+     * which read additional lines from their {@link LogBufferedReader} argument cannot be used with sampling.
+     *
+     * @param reportDocumentTypes defines which {@link ReportDocumentType}s
+     *                            can be transformed in a particular invocation
+     * @param combinerContext the current state
+     * @param reportingContext the current state
+     * @param enricherContext the current state
+     * @param threads how many worker threads will transform records, 1 means the current thread only
+     * @param sampling the sampling conditions, 'null' means all records will be transformed
+     */
+    public void createReports(Collection<Class<? extends ReportDocumentType>> reportDocumentTypes, CombinerContext combinerContext,
+                              ReportingContext reportingContext, EnricherContext enricherContext, int threads,
+                              Sampling sampling) {
+        logger.info("Method createReports started, reportDocumentTypes: '{}', threads: {}, sampling: {}",
+            reportDocumentTypes, threads, sampling);
         List<Report> reports = reportingContext.getReportRepository().getReports();
         for (Report report : reports) {
-            createReport(reportDocumentTypes, report, combinerContext, reportingContext, enricherContext);
+            SamplingState samplingState = sampling == null ? null : new SamplingState(sampling);
+            if (threads > 1) {
+                createReportInParallel(reportDocumentTypes, report, combinerContext, reportingContext,
+                    enricherContext, threads, samplingState);
+            } else {
+                createReport(reportDocumentTypes, report, combinerContext, reportingContext, enricherContext,
+                    samplingState);
+            }
+        }
+        EnricherStatistics enricherStatistics = enricherContext.getEnricherStatistics();
+        if (enricherStatistics != null) {
+            logger.info("Enricher statistics:{}{}", System.lineSeparator(), enricherStatistics.createReport());
         }
     }
 
     private void createReport(Collection<Class<? extends ReportDocumentType>> reportDocumentTypes,
                               Report report, CombinerContext combinerContext, ReportingContext reportingContext,
-                              EnricherContext enricherContext) {
+                              EnricherContext enricherContext, SamplingState samplingState) {
         logger.info("Method createReports started. Report: {}", report);
         ReportDocumentService reportDocumentService = ReportDocumentService.getInstance();
         List<ReportDocument> reportDocuments = reportDocumentService.getReportDocuments(report, reportingContext);
@@ -79,27 +163,42 @@ public class VisualizerService {
 
         FilesMergerState filesMergerState = new FilesMergerState();
         filesMergerState.setNodeFiles(nodeFiles);
+        continueFromIncrementalState(report, filesMergerState);
 
         LogBufferedReader currentReader = null;
         int currentLineNumber = 0;
         TransformerService transformerService = TransformerService.getInstance();
         try {
             line = readerService.readLineFromReaders(filesMergerState);
-            int endIndex = Math.max(line.length(), 35);
-            String substring = line.substring(0, endIndex);
-            logger.trace("The first line is read from {}. Line: '{}...'", getClass().getSimpleName(), substring);
+            logFirstLine(line);
             while (line != null) {
                 currentReader = filesMergerState.getCurrentNodeFile().getLogBufferedReader();
+                Date lineDate = currentReader.getLineDate();
                 List<String> multiLine = readerService.readMultiline(line, currentReader, combinerContext);
 
-                currentLineNumber = transformMultiLine(multiLine, reportDocumentTypes, report, reportDocuments,
-                    currentReader, currentLineNumber, transformerService, combinerContext, enricherContext);
+                if (isSampled(multiLine, lineDate, filesMergerState, samplingState)) {
+                    currentLineNumber = transformMultiLine(multiLine, reportDocumentTypes, report, reportDocuments,
+                        currentReader, currentLineNumber, transformerService, combinerContext, enricherContext);
+                } else {
+                    currentLineNumber = logProgress(report, currentLineNumber, multiLine.size());
+                }
 
                 reportDocumentService.mergeReportDocumentsForAddition(reportingContext);
                 reportDocuments = reportDocumentService.getReportDocuments(report, reportingContext);
 
                 line = readerService.readLineFromReaders(filesMergerState);
             }
+            Record skippedRecord = takeSkippedRecord(samplingState);
+            if (skippedRecord != null) {
+                transformMultiLine(skippedRecord.getMultiLine(), reportDocumentTypes, report, reportDocuments,
+                    skippedRecord.getNodeFile().getLogBufferedReader(), currentLineNumber, transformerService,
+                    combinerContext, enricherContext);
+                reportDocumentService.mergeReportDocumentsForAddition(reportingContext);
+                reportDocuments = reportDocumentService.getReportDocuments(report, reportingContext);
+            }
+            if (report.getIncrementalState() != null) {
+                IncrementalStateService.getInstance().updateState(report.getIncrementalState(), filesMergerState);
+            }
             logger.debug("{} lines processed (100%)", currentLineNumber);
         } catch (Exception e) {
             String fileName = "null";
@@ -112,10 +211,272 @@ public class VisualizerService {
                     "', line: '" + line + "'";
             throw new SubstitutionRuntimeException(message, e);
         } finally {
-            for (ReportDocument reportDocument : reportDocuments) {
-                if (reportDocument.getFooterMethod() != null) {
-                    reportDocument.getFooterMethod().accept(reportDocument);
+            finishReportDocuments(report, reportDocuments);
+        }
+    }
+
+    /**
+     * If the {@link Report#getIncrementalState()} exists, the readers will continue from positions
+     * stored in the state, see the {@link com.credibledoc.substitution.reporting.report.state.ReportStateService}.
+     */
+    private void continueFromIncrementalState(Report report, FilesMergerState filesMergerState) {
+        if (report.getIncrementalState() != null) {
+            IncrementalStateService.getInstance().prepareReaders(report.getIncrementalState(), filesMergerState);
+        }
+    }
+
+    /**
+     * @return 'true' if sampling is disabled or the record is sampled, see the {@link SamplingService}.
+     */
+    private boolean isSampled(List<String> multiLine, Date lineDate, FilesMergerState filesMergerState,
+                              SamplingState samplingState) {
+        if (samplingState == null) {
+            return true;
+        }
+        return SamplingService.getInstance().isSampled(createRecord(multiLine, lineDate, filesMergerState), samplingState);
+    }
+
+    private Record createRecord(List<String> multiLine, Date lineDate, FilesMergerState filesMergerState) {
+        Record record = new Record(multiLine, lineDate);
+        record.setNodeFile(filesMergerState.getCurrentNodeFile());
+        return record;
+    }
+
+    /**
+     * @return The last record if it has been skipped by sampling, else 'null'.
+     */
+    private Record takeSkippedRecord(SamplingState samplingState) {
+        if (samplingState == null) {
+            return null;
+        }
+        return SamplingService.getInstance().takeSkippedRecord(samplingState);
+    }
+
+    private void logFirstLine(String line) {
+        if (line != null) {
+            int endIndex = Math.min(line.length(), 35);
+            String substring = line.substring(0, endIndex);
+            logger.trace("The first line is read from {}. Line: '{}...'", getClass().getSimpleName(), substring);
+        }
+    }
+
+    private void createReportInParallel(Collection<Class<? extends ReportDocumentType>> reportDocumentTypes,
+                                        Report report, CombinerContext combinerContext,
+                                        ReportingContext reportingContext, EnricherContext enricherContext,
+                                        int threads, SamplingState samplingState) {
+        logger.info("Method createReportInParallel started. Report: {}", report);
+        ReportDocumentService reportDocumentService = ReportDocumentService.getInstance();
+        List<ReportDocument> reportDocuments = reportDocumentService.getReportDocuments(report, reportingContext);
+        NodeFileTreeSet<NodeFile> nodeFiles = (NodeFileTreeSet<NodeFile>) reportDocumentService.getNodeFiles(reportDocuments);
+        ReaderService readerService = ReaderService.getInstance();
+        readerService.prepareBufferedReaders(combinerContext, nodeFiles);
+        String line = null;
+
+        FilesMergerState filesMergerState = new FilesMergerState();
+        filesMergerState.setNodeFiles(nodeFiles);
+        continueFromIncrementalState(report, filesMergerState);
+
+        LogBufferedReader currentReader = null;
+        int currentLineNumber = 0;
+        ExecutorService executorService = Executors.newFixedThreadPool(threads);
+        try {
+            List<Record> batch = new ArrayList<>(BATCH_SIZE);
+            line = readerService.readLineFromReaders(filesMergerState);
+            logFirstLine(line);
+            while (line != null) {
+                currentReader = filesMergerState.getCurrentNodeFile().getLogBufferedReader();
+                Date lineDate = currentReader.getLineDate();
+                List<String> multiLine = readerService.readMultiline(line, currentReader, combinerContext);
+                Record record = createRecord(multiLine, lineDate, filesMergerState);
+                if (samplingState == null || SamplingService.getInstance().isSampled(record, samplingState)) {
+                    batch.add(record);
+                }
+                currentLineNumber = logProgress(report, currentLineNumber, multiLine.size());
+
+                if (batch.size() == BATCH_SIZE) {
+                    reportDocuments = transformBatch(batch, reportDocumentTypes, report, executorService, threads,
+                        combinerContext, reportingContext, enricherContext);
+                    batch = new ArrayList<>(BATCH_SIZE);
                 }
+                line = readerService.readLineFromReaders(filesMergerState);
+            }
+            Record skippedRecord = takeSkippedRecord(samplingState);
+            if (skippedRecord != null) {
+                batch.add(skippedRecord);
+            }
+            reportDocuments = transformBatch(batch, reportDocumentTypes, report, executorService, threads,
+                combinerContext, reportingContext, enricherContext);
+            if (report.getIncrementalState() != null) {
+                IncrementalStateService.getInstance().updateState(report.getIncrementalState(), filesMergerState);
+            }
+            logger.debug("{} lines processed (100%)", currentLineNumber);
+        } catch (Exception e) {
+            String fileName = "null";
+            if (currentReader != null) {
+                fileName = readerService.getFile(currentReader).getAbsolutePath();
+            }
+            String message =
+                "Reports creation failed. File: '" + fileName +
+                    "', ReportDirectory: '" + getReportDirectoryPath(report) +
+                    "', line: '" + line + "'";
+            throw new SubstitutionRuntimeException(message, e);
+        } finally {
+            executorService.shutdownNow();
+            finishReportDocuments(report, reportDocuments);
+        }
+    }
+
+    /**
+     * Flush the {@link ReportDocument}s and call their footer methods. The sizes of their
+     * {@link ReportDocument#getCacheLines()} before the footer are stored in the
+     * {@link Report#getCacheLinesSizesBeforeFooter()} map.
+     */
+    private void finishReportDocuments(Report report, List<ReportDocument> reportDocuments) {
+        TransformerService transformerService = TransformerService.getInstance();
+        for (ReportDocument reportDocument : reportDocuments) {
+            transformerService.flush(reportDocument);
+            report.getCacheLinesSizesBeforeFooter().put(reportDocument, reportDocument.getCacheLines().size());
+            if (reportDocument.getFooterMethod() != null) {
+                reportDocument.getFooterMethod().accept(reportDocument);
+            }
+        }
+    }
+
+    private int logProgress(Report report, int currentLineNumber, int multiLineSize) {
+        int result = currentLineNumber + multiLineSize;
+        if (report.getLinesNumber() > 0 && result % 100000 == 0) {
+            int perCent = (int) (result * 100f) / report.getLinesNumber();
+            logger.debug("{} lines processed ({}%)", result, perCent);
+        }
+        return result;
+    }
+
+    /**
+     * Transform the {@link Record}s of the batch by workers and wait for them. The current thread does not read
+     * the next batch in the meantime, so the {@link LogBufferedReader}s of the records are not changed while
+     * the workers use them.
+     * <p>
+     * A {@link ReportDocument} created by a worker obtains the following records of the batch in the next round,
+     * as in the sequential mode. Then all created {@link ReportDocument}s are merged, no worker is running.
+     *
+     * @return The current {@link ReportDocument}s of the report.
+     */
+    private List<ReportDocument> transformBatch(List<Record> batch,
+                                                Collection<Class<? extends ReportDocumentType>> reportDocumentTypes,
+                                                Report report, ExecutorService executorService, int threads,
+                                                CombinerContext combinerContext, ReportingContext reportingContext,
+                                                EnricherContext enricherContext)
+        throws InterruptedException, ExecutionException {
+        ReportDocumentService reportDocumentService = ReportDocumentService.getInstance();
+        // the dispatch table is compiled before the workers start, then they share it
+        LineProcessorService.getInstance().getLineProcessorDispatchTable(enricherContext);
+        Map<ReportDocument, Integer> firstIndexes = new LinkedHashMap<>();
+        for (ReportDocument reportDocument : reportDocumentService.getReportDocuments(report, reportingContext)) {
+            firstIndexes.put(reportDocument, 0);
+        }
+        while (!firstIndexes.isEmpty()) {
+            List<Future<Map<ReportDocument, Integer>>> futures = submitWorkers(batch, firstIndexes,
+                reportDocumentTypes, report, executorService, threads, combinerContext, reportingContext,
+                enricherContext);
+            firstIndexes = new LinkedHashMap<>();
+            for (Future<Map<ReportDocument, Integer>> future : futures) {
+                firstIndexes.putAll(future.get());
+            }
+        }
+        reportDocumentService.mergeReportDocumentsForAddition(reportingContext);
+        return reportDocumentService.getReportDocuments(report, reportingContext);
+    }
+
+    /**
+     * Divide the {@link ReportDocument}s to groups and submit a worker for each group.
+     * Each {@link ReportDocument} is processed by a single worker, so its state is not shared between threads.
+     *
+     * @param firstIndexes the {@link ReportDocument}s and indexes of their first records in the batch
+     */
+    private List<Future<Map<ReportDocument, Integer>>> submitWorkers(
+        final List<Record> batch, final Map<ReportDocument, Integer> firstIndexes,
+        Collection<Class<? extends ReportDocumentType>> reportDocumentTypes, final Report report,
+        ExecutorService executorService, int threads, final CombinerContext combinerContext,
+        final ReportingContext reportingContext, final EnricherContext enricherContext) {
+        List<List<ReportDocument>> groups = new ArrayList<>();
+        int index = 0;
+        for (ReportDocument reportDocument : firstIndexes.keySet()) {
+            if (reportDocumentTypes.contains(reportDocument.getReportDocumentType())) {
+                if (groups.size() < threads) {
+                    groups.add(new ArrayList<ReportDocument>());
+                }
+                groups.get(index % threads).add(reportDocument);
+                index++;
+            }
+        }
+        List<Future<Map<ReportDocument, Integer>>> futures = new ArrayList<>();
+        for (final List<ReportDocument> group : groups) {
+            futures.add(executorService.submit(new Callable<Map<ReportDocument, Integer>>() {
+                @Override
+                public Map<ReportDocument, Integer> call() {
+                    return transformGroup(batch, group, firstIndexes, report, combinerContext, reportingContext,
+                        enricherContext);
+                }
+            }));
+        }
+        return futures;
+    }
+
+    /**
+     * Transform the {@link Record}s of the batch to the {@link ReportDocument}s of the group.
+     * Each {@link ReportDocument} obtains the records from its first index.
+     *
+     * @return The {@link ReportDocument}s of the report created during the transformation
+     * and indexes of records following their creation.
+     */
+    private Map<ReportDocument, Integer> transformGroup(List<Record> batch, List<ReportDocument> group,
+                                                        Map<ReportDocument, Integer> firstIndexes, Report report,
+                                                        CombinerContext combinerContext,
+                                                        ReportingContext reportingContext,
+                                                        EnricherContext enricherContext) {
+        TransformerService transformerService = TransformerService.getInstance();
+        ThreadLocal<List<ReportDocument>> addedByCurrentThread =
+            reportingContext.getReportDocumentRepository().getReportDocumentsAddedByCurrentThread();
+        List<ReportDocument> added = new ArrayList<>();
+        Map<ReportDocument, Integer> result = new LinkedHashMap<>();
+        addedByCurrentThread.set(added);
+        try {
+            for (int i = 0; i < batch.size(); i++) {
+                Record record = batch.get(i);
+                for (ReportDocument reportDocument : group) {
+                    if (firstIndexes.get(reportDocument) <= i) {
+                        transformRecord(record, reportDocument, report, transformerService, combinerContext,
+                            enricherContext);
+                    }
+                }
+                for (ReportDocument reportDocument : added) {
+                    if (reportDocument.getReport() == report) {
+                        result.put(reportDocument, i + 1);
+                    }
+                }
+                added.clear();
+            }
+        } finally {
+            addedByCurrentThread.remove();
+        }
+        return result;
+    }
+
+    private void transformRecord(Record record, ReportDocument reportDocument, Report report,
+                                 TransformerService transformerService, CombinerContext combinerContext,
+                                 EnricherContext enricherContext) {
+        try {
+            transformerService.transformToReport(reportDocument, record.getMultiLine(),
+                record.getNodeFile().getLogBufferedReader(), combinerContext, enricherContext);
+        } catch (Exception e) {
+            String message =
+                "Reports creation failed." +
+                    " ReportDirectory: '" + getReportDirectoryPath(report) +
+                    "', line: '" + record.getMultiLine().get(0) + "'";
+            if ("true".equals(System.getProperty(IGNORE_FAILURES))) {
+                logger.error(message);
+            } else {
+                throw new SubstitutionRuntimeException(message, e);
             }
         }
     }
@@ -0,0 +1,86 @@
+package com.credibledoc.substitution.reporting.visualizer.sampling;
+
+import com.credibledoc.enricher.searchcommand.SearchCommand;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Data object. Contains conditions of a record sampling, see the {@link SamplingService}.
+ * <p>
+ * Records are grouped by a thread name, see the {@link com.credibledoc.combiner.tactic.Tactic#findThreadName(String)}
+ * method. A record is transformed if at least one enabled condition is satisfied. The first and the last records
+ * of a report are transformed always.
+ *
+ * @author Kyrylo Semenko
+ */
+public class Sampling {
+
+    /**
+     * Only every N-th record of a thread will be transformed. Values less than 2 disable the condition.
+     */
+    private int everyNth;
+
+    /**
+     * Only the first record of a thread in every time interval of this length in milliseconds
+     * will be transformed. Values less than 1 disable the condition.
+     */
+    private long timeBucketMillis;
+
+    /**
+     * Records applicable to any of these {@link SearchCommand}s are transformed always.
+     * The {@link SearchCommand#isApplicable} method is called with the 'null' printable argument.
+     */
+    private List<SearchCommand> mustKeepSearchCommands = new ArrayList<>();
+
+    @Override
+    public String toString() {
+        return "Sampling{" +
+            "everyNth=" + everyNth +
+            ", timeBucketMillis=" + timeBucketMillis +
+            ", mustKeepSearchCommands=" + mustKeepSearchCommands +
+            '}';
+    }
+
+    /**
+     * @return The {@link #everyNth} field value.
+     */
+    public int getEveryNth() {
+        return everyNth;
+    }
+
+    /**
+     * @param everyNth see the {@link #everyNth} field description.
+     */
+    public void setEveryNth(int everyNth) {
+        this.everyNth = everyNth;
+    }
+
+    /**
+     * @return The {@link #timeBucketMillis} field value.
+     */
+    public long getTimeBucketMillis() {
+        return timeBucketMillis;
+    }
+
+    /**
+     * @param timeBucketMillis see the {@link #timeBucketMillis} field description.
+     */
+    public void setTimeBucketMillis(long timeBucketMillis) {
+        this.timeBucketMillis = timeBucketMillis;
+    }
+
+    /**
+     * @return The {@link #mustKeepSearchCommands} field value.
+     */
+    public List<SearchCommand> getMustKeepSearchCommands() {
+        return mustKeepSearchCommands;
+    }
+
+    /**
+     * @param mustKeepSearchCommands see the {@link #mustKeepSearchCommands} field description.
+     */
+    public void setMustKeepSearchCommands(List<SearchCommand> mustKeepSearchCommands) {
+        this.mustKeepSearchCommands = mustKeepSearchCommands;
+    }
+}
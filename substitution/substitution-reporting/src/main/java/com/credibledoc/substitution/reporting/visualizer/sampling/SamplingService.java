@@ -0,0 +1,106 @@
+package com.credibledoc.substitution.reporting.visualizer.sampling;
+
+import com.credibledoc.combiner.node.file.NodeFile;
+import com.credibledoc.combiner.tactic.Tactic;
+import com.credibledoc.enricher.record.Record;
+import com.credibledoc.enricher.searchcommand.SearchCommand;
+
+/**
+ * Stateless service for working with {@link Sampling}s and {@link SamplingState}s.
+ * <p>
+ * A sampled report contains a part of records only, so it is created much faster from huge logs.
+ * The {@link Sampling#getMustKeepSearchCommands()} are checked first, then the {@link Sampling#getEveryNth()}
+ * and {@link Sampling#getTimeBucketMillis()} conditions.
+ *
+ * @author Kyrylo Semenko
+ */
+public class SamplingService {
+
+    private static final String THREAD_NAME_SEPARATOR = ":";
+
+    /**
+     * Singleton.
+     */
+    private static final SamplingService instance = new SamplingService();
+
+    /**
+     * @return The {@link SamplingService} singleton.
+     */
+    public static SamplingService getInstance() {
+        return instance;
+    }
+
+    /**
+     * Decide whether the record should be transformed. A skipped record is remembered in the
+     * {@link SamplingState#getSkippedRecord()}, see the {@link #takeSkippedRecord(SamplingState)} method.
+     *
+     * @param record        the next record of a report with the {@link Record#getNodeFile()} value
+     * @param samplingState the current state
+     * @return 'true' if the record should be transformed, 'false' if it should be skipped.
+     */
+    public boolean isSampled(Record record, SamplingState samplingState) {
+        boolean result = isSampledInternal(record, samplingState);
+        samplingState.setSkippedRecord(result ? null : record);
+        return result;
+    }
+
+    private boolean isSampledInternal(Record record, SamplingState samplingState) {
+        Sampling sampling = samplingState.getSampling();
+        String threadName = findThreadName(record);
+        long count = increment(samplingState, threadName);
+        if (samplingState.isFirstRecord()) {
+            samplingState.setFirstRecord(false);
+            updateBucket(record, samplingState, threadName);
+            return true;
+        }
+        for (SearchCommand searchCommand : sampling.getMustKeepSearchCommands()) {
+            if (searchCommand.isApplicable(null, record.getMultiLine(), record.getNodeFile().getLogBufferedReader())) {
+                return true;
+            }
+        }
+        if (sampling.getEveryNth() > 1 && count % sampling.getEveryNth() == 0) {
+            return true;
+        }
+        return sampling.getTimeBucketMillis() > 0 && updateBucket(record, samplingState, threadName);
+    }
+
+    private long increment(SamplingState samplingState, String threadName) {
+        Long count = samplingState.getRecordCounts().get(threadName);
+        long result = count == null ? 0 : count + 1;
+        samplingState.getRecordCounts().put(threadName, result);
+        return result;
+    }
+
+    /**
+     * @return 'true' if the record is the first one of its thread in the current time bucket.
+     */
+    private boolean updateBucket(Record record, SamplingState samplingState, String threadName) {
+        long timeBucketMillis = samplingState.getSampling().getTimeBucketMillis();
+        if (timeBucketMillis < 1 || record.getDate() == null) {
+            return false;
+        }
+        long bucket = record.getDate().getTime() / timeBucketMillis;
+        Long lastBucket = samplingState.getLastBuckets().put(threadName, bucket);
+        return lastBucket == null || lastBucket != bucket;
+    }
+
+    private String findThreadName(Record record) {
+        NodeFile nodeFile = record.getNodeFile();
+        Tactic tactic = nodeFile.getNodeLog().getTactic();
+        String threadName = tactic.findThreadName(record.getMultiLine().get(0));
+        return tactic.getShortName() + THREAD_NAME_SEPARATOR + threadName;
+    }
+
+    /**
+     * Should be called when all records are read. The last record of a report is not known in advance,
+     * so the last skipped record is returned and it should be transformed too.
+     *
+     * @param samplingState the current state
+     * @return The {@link SamplingState#getSkippedRecord()} or 'null' if the last record has been sampled.
+     */
+    public Record takeSkippedRecord(SamplingState samplingState) {
+        Record result = samplingState.getSkippedRecord();
+        samplingState.setSkippedRecord(null);
+        return result;
+    }
+}
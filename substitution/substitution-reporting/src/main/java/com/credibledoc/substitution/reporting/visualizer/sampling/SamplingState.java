@@ -0,0 +1,104 @@
+package com.credibledoc.substitution.reporting.visualizer.sampling;
+
+import com.credibledoc.enricher.record.Record;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * State of a {@link Sampling} during creation of a single report, see the {@link SamplingService}.
+ *
+ * @author Kyrylo Semenko
+ */
+public class SamplingState {
+
+    /**
+     * The conditions.
+     */
+    private final Sampling sampling;
+
+    /**
+     * Number of records read from a thread, where a key is a thread name.
+     */
+    private final Map<String, Long> recordCounts = new HashMap<>();
+
+    /**
+     * The last time bucket with a transformed record of a thread, where a key is a thread name.
+     */
+    private final Map<String, Long> lastBuckets = new HashMap<>();
+
+    /**
+     * Is 'true' until the first record is sampled.
+     */
+    private boolean firstRecord = true;
+
+    /**
+     * The last skipped record. It is transformed at the end of a report if it is the last one.
+     */
+    private Record skippedRecord;
+
+    /**
+     * @param sampling see the {@link #sampling} field description.
+     */
+    public SamplingState(Sampling sampling) {
+        this.sampling = sampling;
+    }
+
+    @Override
+    public String toString() {
+        return "SamplingState{" +
+            "sampling=" + sampling +
+            ", threads=" + recordCounts.size() +
+            ", firstRecord=" + firstRecord +
+            '}';
+    }
+
+    /**
+     * @return The {@link #sampling} field value.
+     */
+    public Sampling getSampling() {
+        return sampling;
+    }
+
+    /**
+     * @return The {@link #recordCounts} field value.
+     */
+    public Map<String, Long> getRecordCounts() {
+        return recordCounts;
+    }
+
+    /**
+     * @return The {@link #lastBuckets} field value.
+     */
+    public Map<String, Long> getLastBuckets() {
+        return lastBuckets;
+    }
+
+    /**
+     * @return The {@link #firstRecord} field value.
+     */
+    public boolean isFirstRecord() {
+        return firstRecord;
+    }
+
+    /**
+     * @param firstRecord see the {@link #firstRecord} field description.
+     */
+    public void setFirstRecord(boolean firstRecord) {
+        this.firstRecord = firstRecord;
+    }
+
+    /**
+     * @return The {@link #skippedRecord} field value.
+     */
+    public Record getSkippedRecord() {
+        return skippedRecord;
+    }
+
+    /**
+     * @param skippedRecord see the {@link #skippedRecord} field description.
+     */
+    public void setSkippedRecord(Record skippedRecord) {
+        this.skippedRecord = skippedRecord;
+    }
+}
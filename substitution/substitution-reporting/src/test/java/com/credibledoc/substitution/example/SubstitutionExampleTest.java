@@ -44,4 +44,19 @@ public class SubstitutionExampleTest {
         assertEquals("Hello, world!", content);
         logger.info("testSubstituteHelloWorld end");
     }
+
+    @Test
+    public void testSubstituteSections() throws IOException {
+        Configuration configuration = new Configuration();
+        String configFilePath = "src/test/resources/example-sections/config/substitution.properties";
+        ConfigurationService.getInstance().loadConfiguration(configuration, configFilePath);
+        SubstitutionContext substitutionContext = new SubstitutionContext();
+        substitutionContext.setConfiguration(configuration);
+
+        ReplacementService.getInstance().replace(substitutionContext);
+
+        File file = new File(configuration.getTargetDirectory(), "sections.txt");
+        String content = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+        assertEquals("Hello, world!\r\nLines:\r\nfirst\r\nsecond\r\nHello, world!\r\n", content);
+    }
 }
@@ -0,0 +1,203 @@
+package com.credibledoc.substitution.reporting.report.state;
+
+import com.credibledoc.combiner.context.CombinerContext;
+import com.credibledoc.combiner.log.buffered.LogBufferedReader;
+import com.credibledoc.enricher.context.EnricherContext;
+import com.credibledoc.enricher.line.LineProcessor;
+import com.credibledoc.enricher.line.LineProcessorService;
+import com.credibledoc.enricher.printable.Printable;
+import com.credibledoc.enricher.searchcommand.DeclarativeSearchCommand;
+import com.credibledoc.enricher.transformer.StatefulTransformer;
+import com.credibledoc.substitution.core.configuration.Configuration;
+import com.credibledoc.substitution.core.context.SubstitutionContext;
+import com.credibledoc.substitution.core.resource.TemplateResource;
+import com.credibledoc.substitution.reporting.context.ReportingContext;
+import com.credibledoc.substitution.reporting.placeholder.PlaceholderToReportDocumentRepository;
+import com.credibledoc.substitution.reporting.report.document.Document;
+import com.credibledoc.substitution.reporting.reportdocument.ReportDocument;
+import com.credibledoc.substitution.reporting.reportdocument.ReportDocumentService;
+import com.credibledoc.substitution.reporting.reportdocument.ReportDocumentType;
+import com.credibledoc.substitution.reporting.reportdocument.creator.ReportDocumentCreator;
+import com.credibledoc.substitution.reporting.reportdocument.creator.ReportDocumentCreatorService;
+import com.credibledoc.substitution.reporting.tactic.TestTactic;
+import com.credibledoc.substitution.reporting.visualizer.VisualizerService;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * A report continued from the stored state should be the same as the report created in a single run,
+ * see the {@link ReportStateService#save} and {@link ReportStateService#load} methods.
+ *
+ * @author Kyrylo Semenko
+ */
+public class ReportStateServiceTest {
+    private static final String PLACEHOLDER_BEGIN = "&&beginPlaceholder";
+    private static final String PLACEHOLDER_END = "&&endPlaceholder";
+    private static final String HEADER = "header";
+    private static final String FOOTER = "footer";
+    private static final int RECORDS_NUMBER = 100;
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testContinuedReportIsSameAsSingleRun() throws IOException {
+        File logFile = new File(temporaryFolder.newFolder("node"), "application.log");
+        File templatesDirectory = temporaryFolder.newFolder("templates");
+        File template = new File(templatesDirectory, "template.md");
+        Files.write(template.toPath(), (PLACEHOLDER_BEGIN + "{\"className\": \"" + TestCreator.class.getName() +
+            "\", \"parameters\": {\"sourceFileRelativePath\": \"" +
+            logFile.getAbsolutePath().replace('\\', '/') + "\"}}" + PLACEHOLDER_END + "\n")
+            .getBytes(StandardCharsets.UTF_8));
+
+        File continuedStateDirectory = temporaryFolder.newFolder("continued");
+        appendRecords(logFile, 0);
+        List<String> firstRun = createReport(templatesDirectory, template, continuedStateDirectory);
+        appendRecords(logFile, RECORDS_NUMBER);
+        List<String> continued = createReport(templatesDirectory, template, continuedStateDirectory);
+        List<String> single = createReport(templatesDirectory, template, temporaryFolder.newFolder("single"));
+
+        assertEquals(RECORDS_NUMBER + 2, firstRun.size());
+        assertEquals(2 * RECORDS_NUMBER + 2, single.size());
+        assertEquals(single, continued);
+        assertEquals(1, Collections.frequency(continued, HEADER));
+        assertEquals(1, Collections.frequency(continued, FOOTER));
+        assertEquals(HEADER, continued.get(0));
+        assertEquals(FOOTER, continued.get(continued.size() - 1));
+        assertTrue(continued.get(continued.size() - 2).startsWith(2 * RECORDS_NUMBER + " "));
+    }
+
+    private void appendRecords(File logFile, int from) throws IOException {
+        SimpleDateFormat simpleDateFormat = new SimpleDateFormat(TestTactic.DATE_PATTERN);
+        List<String> lines = new ArrayList<>();
+        for (int i = from; i < from + RECORDS_NUMBER; i++) {
+            lines.add(simpleDateFormat.format(new Date(1577836800000L + i)) + " [main] INFO record " + i);
+        }
+        Files.write(logFile.toPath(), lines, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+            StandardOpenOption.APPEND);
+    }
+
+    /**
+     * Run all steps in the same order as the generator does.
+     *
+     * @return A copy of the {@link ReportDocument#getCacheLines()} of the created {@link ReportDocument}.
+     */
+    private List<String> createReport(File templatesDirectory, File template, File stateDirectory) {
+        PlaceholderToReportDocumentRepository.getInstance().getPlaceholderToReportDocumentMap().clear();
+        CombinerContext combinerContext = new CombinerContext().init();
+        combinerContext.getTacticRepository().getTactics().add(new TestTactic());
+        ReportingContext reportingContext = new ReportingContext().init();
+        EnricherContext enricherContext = new EnricherContext().init();
+        SubstitutionContext substitutionContext = new SubstitutionContext().init();
+        Configuration configuration = new Configuration();
+        configuration.setPlaceholderBegin(PLACEHOLDER_BEGIN);
+        configuration.setPlaceholderEnd(PLACEHOLDER_END);
+        configuration.setTemplatesResource(templatesDirectory.getAbsolutePath());
+        configuration.setReportStateDirectory(stateDirectory.getAbsolutePath());
+        substitutionContext.setConfiguration(configuration);
+
+        ReportDocumentCreatorService reportDocumentCreatorService = ReportDocumentCreatorService.getInstance();
+        reportDocumentCreatorService.addReportDocumentCreators(
+            Collections.<ReportDocumentCreator>singletonList(new TestCreator()), reportingContext);
+        reportDocumentCreatorService.createReportDocuments(combinerContext, reportingContext, substitutionContext,
+            enricherContext, Collections.singletonList(new TemplateResource(template.toPath())));
+        ReportStateService reportStateService = ReportStateService.getInstance();
+        reportStateService.load(reportingContext, substitutionContext, enricherContext);
+        List<Class<? extends ReportDocumentType>> reportDocumentTypes = new ArrayList<>();
+        reportDocumentTypes.add(TestReportDocumentType.class);
+        VisualizerService.getInstance().createReports(reportDocumentTypes, combinerContext, reportingContext,
+            enricherContext);
+        reportStateService.save(reportingContext, substitutionContext, enricherContext);
+
+        List<ReportDocument> reportDocuments = reportingContext.getReportDocumentRepository().getReportDocuments();
+        assertEquals(1, reportDocuments.size());
+        List<String> result = new ArrayList<>(reportDocuments.get(0).getCacheLines());
+        ReportDocumentService.getInstance().closeCacheLines(reportingContext);
+        return result;
+    }
+
+    private static class TestReportDocumentType implements ReportDocumentType {
+        // empty
+    }
+
+    /**
+     * Creates {@link Document}s with a header and a footer in their cache lines.
+     */
+    public static class TestCreator implements ReportDocumentCreator {
+        @Override
+        public ReportDocument prepareReportDocument(EnricherContext enricherContext) {
+            Document document = new Document();
+            document.setReportDocumentType(getReportDocumentType());
+            document.getCacheLines().add(HEADER);
+            document.setFooterMethod(new Consumer<ReportDocument>() {
+                @Override
+                public void accept(ReportDocument reportDocument) {
+                    reportDocument.getCacheLines().add(FOOTER);
+                }
+            });
+            DeclarativeSearchCommand declarativeSearchCommand = new DeclarativeSearchCommand();
+            declarativeSearchCommand.getIncludedKeywords().add("INFO");
+            LineProcessorService.getInstance().addAll(Collections.singletonList(
+                new LineProcessor(declarativeSearchCommand, new CacheLinesTransformer(), document)), enricherContext);
+            return document;
+        }
+
+        @Override
+        public Class<? extends ReportDocumentType> getReportDocumentType() {
+            return TestReportDocumentType.class;
+        }
+    }
+
+    /**
+     * Adds the line with its number to the {@link Printable#getCacheLines()}. The number is the state
+     * of the transformer.
+     */
+    private static class CacheLinesTransformer implements StatefulTransformer {
+        private static final String COUNTER = "counter";
+        private final Map<Printable, Integer> counters = new HashMap<>();
+
+        @Override
+        public String transform(Printable printable, List<String> multiLine, LogBufferedReader logBufferedReader,
+                                CombinerContext combinerContext) {
+            Integer counter = counters.get(printable);
+            int number = counter == null ? 1 : counter + 1;
+            counters.put(printable, number);
+            printable.getCacheLines().add(number + " " + multiLine.get(0));
+            return null;
+        }
+
+        @Override
+        public Map<String, String> saveState(Printable printable) {
+            Map<String, String> state = new HashMap<>();
+            if (counters.containsKey(printable)) {
+                state.put(COUNTER, Integer.toString(counters.get(printable)));
+            }
+            return state;
+        }
+
+        @Override
+        public void restoreState(Printable printable, Map<String, String> state) {
+            if (state.containsKey(COUNTER)) {
+                counters.put(printable, Integer.valueOf(state.get(COUNTER)));
+            }
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.credibledoc.substitution.reporting.reportdocument.creator;
+
+import com.credibledoc.combiner.context.CombinerContext;
+import com.credibledoc.enricher.context.EnricherContext;
+import com.credibledoc.substitution.core.configuration.Configuration;
+import com.credibledoc.substitution.core.context.SubstitutionContext;
+import com.credibledoc.substitution.core.resource.TemplateResource;
+import com.credibledoc.substitution.reporting.context.ReportingContext;
+import com.credibledoc.substitution.reporting.report.Report;
+import com.credibledoc.substitution.reporting.report.document.Document;
+import com.credibledoc.substitution.reporting.reportdocument.ReportDocument;
+import com.credibledoc.substitution.reporting.reportdocument.ReportDocumentType;
+import com.credibledoc.substitution.reporting.tactic.TestTactic;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Placeholders with the same source file share a {@link Report} only if its settings are the same,
+ * see the {@link ReportDocumentCreatorService#createReportDocuments} method.
+ *
+ * @author Kyrylo Semenko
+ */
+public class ReportDocumentCreatorServiceTest {
+    private static final String TRANSACTION = "transaction-1";
+    private static final String PLACEHOLDER_BEGIN = "&&beginPlaceholder";
+    private static final String PLACEHOLDER_END = "&&endPlaceholder";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testSameFileDifferentSettings() throws IOException {
+        File logFile = temporaryFolder.newFile("application.log");
+        Files.write(logFile.toPath(), Collections.singletonList("2020-01-01 00:00:00.000 [main] INFO started"),
+            StandardCharsets.UTF_8);
+        String sourceFile = logFile.getAbsolutePath().replace('\\', '/');
+        File template = temporaryFolder.newFile("template.md");
+        String content = createPlaceholder(DefaultCreator.class, sourceFile) +
+            createPlaceholder(FilteredCreator.class, sourceFile) +
+            createPlaceholder(DefaultCreator.class, sourceFile);
+        Files.write(template.toPath(), content.getBytes(StandardCharsets.UTF_8));
+
+        CombinerContext combinerContext = new CombinerContext().init();
+        combinerContext.getTacticRepository().getTactics().add(new TestTactic());
+        ReportingContext reportingContext = new ReportingContext().init();
+        SubstitutionContext substitutionContext = new SubstitutionContext().init();
+        Configuration configuration = new Configuration();
+        configuration.setPlaceholderBegin(PLACEHOLDER_BEGIN);
+        configuration.setPlaceholderEnd(PLACEHOLDER_END);
+        substitutionContext.setConfiguration(configuration);
+        ReportDocumentCreatorService reportDocumentCreatorService = ReportDocumentCreatorService.getInstance();
+        reportDocumentCreatorService.addReportDocumentCreators(
+            Arrays.<ReportDocumentCreator>asList(new DefaultCreator(), new FilteredCreator()), reportingContext);
+
+        reportDocumentCreatorService.createReportDocuments(combinerContext, reportingContext, substitutionContext,
+            new EnricherContext().init(), Collections.singletonList(new TemplateResource(template.toPath())));
+
+        List<ReportDocument> reportDocuments = reportingContext.getReportDocumentRepository().getReportDocuments();
+        assertEquals(3, reportDocuments.size());
+        Report defaultReport = reportDocuments.get(0).getReport();
+        Report filteredReport = reportDocuments.get(1).getReport();
+        assertNotSame(defaultReport, filteredReport);
+        assertSame(defaultReport, reportDocuments.get(2).getReport());
+        assertTrue(defaultReport.getTransactionsFilter().isEmpty());
+        assertEquals(Collections.singletonList(TRANSACTION), filteredReport.getTransactionsFilter());
+        assertEquals(100, filteredReport.getLinesNumber());
+        assertTrue(filteredReport.isCreationOfSelfDocumentation());
+        assertEquals(2, reportingContext.getReportRepository().getReports().size());
+    }
+
+    private String createPlaceholder(Class<? extends ReportDocumentCreator> creatorClass, String sourceFile) {
+        return PLACEHOLDER_BEGIN + "{\"className\": \"" + creatorClass.getName() + "\", " +
+            "\"parameters\": {\"sourceFileRelativePath\": \"" + sourceFile + "\"}}" + PLACEHOLDER_END + "\n";
+    }
+
+    private static class TestReportDocumentType implements ReportDocumentType {
+        // empty
+    }
+
+    /**
+     * Creates {@link Document}s without a {@link Report}, they obtain a {@link Report} with default settings.
+     */
+    public static class DefaultCreator implements ReportDocumentCreator {
+        @Override
+        public ReportDocument prepareReportDocument(EnricherContext enricherContext) {
+            Document document = new Document();
+            document.setReportDocumentType(getReportDocumentType());
+            return document;
+        }
+
+        @Override
+        public Class<? extends ReportDocumentType> getReportDocumentType() {
+            return TestReportDocumentType.class;
+        }
+    }
+
+    /**
+     * Creates {@link Document}s with their own {@link Report} settings.
+     */
+    public static class FilteredCreator extends DefaultCreator {
+        @Override
+        public ReportDocument prepareReportDocument(EnricherContext enricherContext) {
+            ReportDocument reportDocument = super.prepareReportDocument(enricherContext);
+            Report report = new Report();
+            report.getTransactionsFilter().add(TRANSACTION);
+            report.setLinesNumber(100);
+            report.setCreationOfSelfDocumentation(true);
+            reportDocument.setReport(report);
+            return reportDocument;
+        }
+    }
+}
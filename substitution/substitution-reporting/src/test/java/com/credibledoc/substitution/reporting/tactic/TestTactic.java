@@ -0,0 +1,81 @@
+package com.credibledoc.substitution.reporting.tactic;
+
+import com.credibledoc.combiner.exception.CombinerRuntimeException;
+import com.credibledoc.combiner.log.buffered.LogBufferedReader;
+import com.credibledoc.combiner.node.file.NodeFile;
+import com.credibledoc.combiner.tactic.Tactic;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
+/**
+ * The {@link Tactic} of test logs with lines like
+ * <pre>2020-01-01 00:00:00.000 [main] INFO message</pre>
+ * Lines without the date are continuation lines of a multi-line record.
+ *
+ * @author Kyrylo Semenko
+ */
+public class TestTactic implements Tactic {
+    /**
+     * The date format at the beginning of lines.
+     */
+    public static final String DATE_PATTERN = "yyyy-MM-dd HH:mm:ss.SSS";
+
+    @Override
+    public Date findDate(File file) {
+        try (BufferedReader bufferedReader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            return findDate(bufferedReader.readLine());
+        } catch (IOException e) {
+            throw new CombinerRuntimeException(e);
+        }
+    }
+
+    @Override
+    public Date findDate(String line, NodeFile nodeFile) {
+        return findDate(line);
+    }
+
+    @Override
+    public boolean containsDate(String line) {
+        return findDate(line) != null;
+    }
+
+    @Override
+    public String parseDateStingFromLine(String line) {
+        return line == null || line.length() < DATE_PATTERN.length() ? null : line.substring(0, DATE_PATTERN.length());
+    }
+
+    @Override
+    public String findThreadName(String line) {
+        return line.substring(line.indexOf('[') + 1, line.indexOf(']'));
+    }
+
+    @Override
+    public Date findDate(String line) {
+        String dateString = parseDateStingFromLine(line);
+        if (dateString == null) {
+            return null;
+        }
+        try {
+            return new SimpleDateFormat(DATE_PATTERN).parse(dateString);
+        } catch (ParseException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public String getShortName() {
+        return "test";
+    }
+
+    @Override
+    public boolean identifyApplication(String line, LogBufferedReader logBufferedReader) {
+        return true;
+    }
+}
@@ -0,0 +1,232 @@
+package com.credibledoc.substitution.reporting.visualizer;
+
+import com.credibledoc.combiner.context.CombinerContext;
+import com.credibledoc.combiner.file.FileWithSources;
+import com.credibledoc.combiner.log.buffered.LogBufferedReader;
+import com.credibledoc.combiner.node.file.NodeFile;
+import com.credibledoc.combiner.node.file.NodeFileService;
+import com.credibledoc.combiner.node.log.NodeLog;
+import com.credibledoc.combiner.node.log.NodeLogService;
+import com.credibledoc.combiner.tactic.Tactic;
+import com.credibledoc.combiner.tactic.TacticService;
+import com.credibledoc.enricher.context.EnricherContext;
+import com.credibledoc.enricher.line.LineProcessor;
+import com.credibledoc.enricher.line.LineProcessorService;
+import com.credibledoc.enricher.printable.Printable;
+import com.credibledoc.enricher.searchcommand.DeclarativeSearchCommand;
+import com.credibledoc.enricher.transformer.Transformer;
+import com.credibledoc.substitution.reporting.context.ReportingContext;
+import com.credibledoc.substitution.reporting.report.Report;
+import com.credibledoc.substitution.reporting.report.document.Document;
+import com.credibledoc.substitution.reporting.reportdocument.ReportDocument;
+import com.credibledoc.substitution.reporting.reportdocument.ReportDocumentService;
+import com.credibledoc.substitution.reporting.reportdocument.ReportDocumentType;
+import com.credibledoc.substitution.reporting.tactic.TestTactic;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Reports created in the parallel mode should be the same as in the sequential mode,
+ * see the {@link VisualizerService#createReports} methods.
+ *
+ * @author Kyrylo Semenko
+ */
+public class VisualizerServiceTest {
+    private static final int RECORDS_NUMBER = 2500;
+    private static final String SESSION = "SESSION";
+
+    /**
+     * Records which create new {@link Document}s, some of them are in the middle of a batch.
+     */
+    private static final int[] SESSION_RECORDS = {300, 999, 1500, 2200};
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testParallelReportsAreSameAsSequential() throws IOException {
+        File logFile = createLogFile();
+
+        File sequentialDirectory = temporaryFolder.newFolder("sequential");
+        createReports(logFile, sequentialDirectory, 1);
+        File parallelDirectory = temporaryFolder.newFolder("parallel");
+        createReports(logFile, parallelDirectory, 3);
+
+        String[] fileNames = sequentialDirectory.list();
+        assertEquals(2 + SESSION_RECORDS.length, fileNames.length);
+        for (String fileName : fileNames) {
+            byte[] sequential = Files.readAllBytes(new File(sequentialDirectory, fileName).toPath());
+            byte[] parallel = Files.readAllBytes(new File(parallelDirectory, fileName).toPath());
+            assertTrue(fileName, sequential.length > 0);
+            assertArrayEquals(fileName, sequential, parallel);
+        }
+        List<String> lastSession = Files.readAllLines(new File(sequentialDirectory, "session-3.txt").toPath(),
+            StandardCharsets.UTF_8);
+        assertEquals("thread-1 record 2201", lastSession.get(0));
+        assertEquals("footer", lastSession.get(lastSession.size() - 1));
+    }
+
+    private File createLogFile() throws IOException {
+        File directory = temporaryFolder.newFolder("node");
+        File logFile = new File(directory, "application.log");
+        SimpleDateFormat simpleDateFormat = new SimpleDateFormat(TestTactic.DATE_PATTERN);
+        long start = 1577836800000L;
+        List<String> lines = new ArrayList<>();
+        int session = 0;
+        for (int i = 0; i < RECORDS_NUMBER; i++) {
+            String level = i % 7 == 0 ? "ERROR" : "INFO";
+            String message = session < SESSION_RECORDS.length && SESSION_RECORDS[session] == i
+                ? SESSION + " " + session++ : "record " + i;
+            lines.add(simpleDateFormat.format(new Date(start + i)) + " [thread-" + (i % 4) + "] " + level + " " +
+                message);
+            if (i % 10 == 0) {
+                lines.add("    detail of the record " + i);
+            }
+        }
+        Files.write(logFile.toPath(), lines, StandardCharsets.UTF_8);
+        return logFile;
+    }
+
+    private void createReports(File logFile, File directory, int threads) throws FileNotFoundException {
+        CombinerContext combinerContext = new CombinerContext().init();
+        ReportingContext reportingContext = new ReportingContext().init();
+        EnricherContext enricherContext = new EnricherContext().init();
+        Tactic tactic = new TestTactic();
+        combinerContext.getTacticRepository().getTactics().add(tactic);
+
+        Report report = new Report();
+        reportingContext.getReportRepository().addReports(Collections.singletonList(report));
+        FileWithSources fileWithSources = new FileWithSources();
+        fileWithSources.setFile(logFile);
+        fileWithSources.getSources().add(logFile);
+        NodeLogService nodeLogService = NodeLogService.getInstance();
+        NodeLog nodeLog = nodeLogService.createNodeLog(fileWithSources, combinerContext, tactic);
+        NodeFile nodeFile = NodeFileService.getInstance()
+            .createNodeFile(new Date(1577836800000L), fileWithSources, combinerContext, nodeLog);
+        nodeLogService.findNodeLogs(tactic, combinerContext).add(nodeLog);
+
+        List<LineProcessor> lineProcessors = new ArrayList<>();
+        Document all = createDocument(new File(directory, "all.txt"), report, nodeFile);
+        lineProcessors.add(new LineProcessor(createSearchCommand("INFO"), new ThreadTransformer(combinerContext), all));
+        Document errors = createDocument(new File(directory, "errors.txt"), report, nodeFile);
+        lineProcessors.add(new LineProcessor(createSearchCommand("ERROR"), new MultiLineTransformer(), errors));
+        ReportDocumentService.getInstance().addAll(Arrays.<ReportDocument>asList(all, errors),
+            reportingContext);
+
+        // documents for sessions are added to the report when their records are found
+        List<Document> sessions = new ArrayList<>();
+        for (int i = 0; i < SESSION_RECORDS.length; i++) {
+            Document session = createDocument(new File(directory, "session-" + i + ".txt"), report, nodeFile);
+            sessions.add(session);
+            lineProcessors.add(new LineProcessor(createSearchCommand("INFO"), new ThreadTransformer(combinerContext),
+                session));
+        }
+        lineProcessors.add(new LineProcessor(createSearchCommand(SESSION),
+            new SessionTransformer(sessions, reportingContext), errors));
+        LineProcessorService.getInstance().addAll(lineProcessors, enricherContext);
+
+        List<Class<? extends ReportDocumentType>> reportDocumentTypes = new ArrayList<>();
+        reportDocumentTypes.add(TestReportDocumentType.class);
+        VisualizerService.getInstance().createReports(reportDocumentTypes, combinerContext, reportingContext,
+            enricherContext, threads);
+        for (ReportDocument reportDocument : reportingContext.getReportDocumentRepository().getReportDocuments()) {
+            reportDocument.getPrintWriter().close();
+        }
+    }
+
+    private Document createDocument(File file, Report report, NodeFile nodeFile) throws FileNotFoundException {
+        Document document = new Document();
+        document.setReport(report);
+        document.setReportDocumentType(TestReportDocumentType.class);
+        document.getNodeFiles().add(nodeFile);
+        document.setPrintWriter(new PrintWriter(file));
+        document.setFooterMethod(new Consumer<ReportDocument>() {
+            @Override
+            public void accept(ReportDocument reportDocument) {
+                reportDocument.getPrintWriter().write("footer");
+            }
+        });
+        return document;
+    }
+
+    private DeclarativeSearchCommand createSearchCommand(String keyword) {
+        DeclarativeSearchCommand declarativeSearchCommand = new DeclarativeSearchCommand();
+        declarativeSearchCommand.getIncludedKeywords().add(keyword);
+        return declarativeSearchCommand;
+    }
+
+    private static class TestReportDocumentType implements ReportDocumentType {
+        // empty
+    }
+
+    /**
+     * Uses the {@link LogBufferedReader} for finding of the {@link Tactic}.
+     */
+    private static class ThreadTransformer implements Transformer {
+        private final CombinerContext combinerContext;
+
+        private ThreadTransformer(CombinerContext combinerContext) {
+            this.combinerContext = combinerContext;
+        }
+
+        @Override
+        public String transform(Printable printable, List<String> multiLine, LogBufferedReader logBufferedReader,
+                                CombinerContext combinerContext) {
+            String line = multiLine.get(0);
+            Tactic tactic = TacticService.getInstance().findTactic(logBufferedReader, this.combinerContext);
+            return tactic.findThreadName(line) + line.substring(line.lastIndexOf(' ', line.lastIndexOf(' ') - 1));
+        }
+    }
+
+    private static class MultiLineTransformer implements Transformer {
+        @Override
+        public String transform(Printable printable, List<String> multiLine, LogBufferedReader logBufferedReader,
+                                CombinerContext combinerContext) {
+            StringBuilder stringBuilder = new StringBuilder();
+            for (String line : multiLine) {
+                stringBuilder.append(line.trim()).append('|');
+            }
+            return stringBuilder.toString();
+        }
+    }
+
+    /**
+     * Adds the next session {@link Document} to the report.
+     */
+    private static class SessionTransformer implements Transformer {
+        private final List<Document> sessions;
+        private final ReportingContext reportingContext;
+        private int next;
+
+        private SessionTransformer(List<Document> sessions, ReportingContext reportingContext) {
+            this.sessions = sessions;
+            this.reportingContext = reportingContext;
+        }
+
+        @Override
+        public String transform(Printable printable, List<String> multiLine, LogBufferedReader logBufferedReader,
+                                CombinerContext combinerContext) {
+            ReportDocumentService.getInstance().addReportDocumentForAddition(sessions.get(next++), reportingContext);
+            return multiLine.get(0).substring(TestTactic.DATE_PATTERN.length() + 1);
+        }
+    }
+}
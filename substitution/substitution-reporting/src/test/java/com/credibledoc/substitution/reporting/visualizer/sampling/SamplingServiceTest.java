@@ -0,0 +1,123 @@
+package com.credibledoc.substitution.reporting.visualizer.sampling;
+
+import com.credibledoc.combiner.log.buffered.LogBufferedReader;
+import com.credibledoc.combiner.node.file.NodeFile;
+import com.credibledoc.combiner.node.log.NodeLog;
+import com.credibledoc.combiner.tactic.Tactic;
+import com.credibledoc.enricher.record.Record;
+import com.credibledoc.enricher.searchcommand.DeclarativeSearchCommand;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class SamplingServiceTest {
+
+    @Test
+    public void testEveryNth() {
+        Sampling sampling = new Sampling();
+        sampling.setEveryNth(10);
+        DeclarativeSearchCommand mustKeep = new DeclarativeSearchCommand();
+        mustKeep.getIncludedKeywords().add("ERROR");
+        sampling.getMustKeepSearchCommands().add(mustKeep);
+        SamplingState samplingState = new SamplingState(sampling);
+        SamplingService samplingService = SamplingService.getInstance();
+        NodeFile nodeFile = createNodeFile();
+
+        List<String> sampled = new ArrayList<>();
+        for (int i = 0; i < 95; i++) {
+            String line = "[main] " + (i == 33 ? "ERROR " : "INFO ") + i;
+            Record record = createRecord(line, new Date(i), nodeFile);
+            if (samplingService.isSampled(record, samplingState)) {
+                sampled.add(line);
+            }
+        }
+        assertEquals(11, sampled.size());
+        assertEquals("[main] INFO 0", sampled.get(0));
+        assertEquals("[main] INFO 10", sampled.get(1));
+        assertEquals("[main] ERROR 33", sampled.get(4));
+        assertEquals("[main] INFO 94",
+            samplingService.takeSkippedRecord(samplingState).getMultiLine().get(0));
+        assertNull(samplingService.takeSkippedRecord(samplingState));
+    }
+
+    @Test
+    public void testTimeBuckets() {
+        Sampling sampling = new Sampling();
+        sampling.setTimeBucketMillis(1000);
+        SamplingState samplingState = new SamplingState(sampling);
+        SamplingService samplingService = SamplingService.getInstance();
+        NodeFile nodeFile = createNodeFile();
+
+        int sampled = 0;
+        for (int i = 0; i < 5000; i += 100) {
+            for (String thread : new String[]{"[main]", "[worker]"}) {
+                if (samplingService.isSampled(createRecord(thread + " " + i, new Date(i), nodeFile), samplingState)) {
+                    sampled++;
+                }
+            }
+        }
+        // five buckets of two threads
+        assertEquals(10, sampled);
+    }
+
+    private Record createRecord(String line, Date date, NodeFile nodeFile) {
+        Record record = new Record(Collections.singletonList(line), date);
+        record.setNodeFile(nodeFile);
+        return record;
+    }
+
+    private NodeFile createNodeFile() {
+        NodeLog nodeLog = new NodeLog();
+        nodeLog.setTactic(new Tactic() {
+            @Override
+            public Date findDate(File file) {
+                return null;
+            }
+
+            @Override
+            public Date findDate(String line, NodeFile nodeFile) {
+                return null;
+            }
+
+            @Override
+            public boolean containsDate(String line) {
+                return false;
+            }
+
+            @Override
+            public String parseDateStingFromLine(String line) {
+                return null;
+            }
+
+            @Override
+            public String findThreadName(String line) {
+                return line.substring(1, line.indexOf(']'));
+            }
+
+            @Override
+            public Date findDate(String line) {
+                return null;
+            }
+
+            @Override
+            public String getShortName() {
+                return "test";
+            }
+
+            @Override
+            public boolean identifyApplication(String line, LogBufferedReader logBufferedReader) {
+                return false;
+            }
+        });
+        NodeFile nodeFile = new NodeFile();
+        nodeFile.setNodeLog(nodeLog);
+        return nodeFile;
+    }
+}